@@ -0,0 +1,191 @@
+package com.example.soundattract.bench;
+
+import static net.bytebuddy.matcher.ElementMatchers.isAbstract;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.example.soundattract.config.SoundAttractConfig;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.ExceptionMethod;
+import net.bytebuddy.implementation.FixedValue;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.network.syncher.EntityDataAccessor;
+import net.minecraft.network.syncher.SynchedEntityData;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.ClipContext;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.phys.BlockHitResult;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.fml.ModList;
+
+/**
+ * Headless harness for the benchmarks. Bootstraps vanilla registries, loads
+ * the common config with its defaults and installs an empty mod list so
+ * integration checks resolve to "not loaded" instead of failing outside FML.
+ *
+ * Levels and mobs are generated subclasses created without running their
+ * constructors. Only the handful of methods the hot paths touch are backed;
+ * anything else throws, so a benchmark that wanders into real world access
+ * fails loudly rather than measuring a stub.
+ */
+public final class BenchSupport {
+
+    private static final Objenesis OBJENESIS = new ObjenesisStd(true);
+    private static boolean initialised;
+    private static Class<? extends Level> levelType;
+    private static Class<? extends Mob> mobType;
+    private static Class<? extends Player> playerType;
+    private static final AtomicInteger NEXT_MOB_ID = new AtomicInteger(1);
+
+    private BenchSupport() {}
+
+    public static synchronized void init() {
+        if (initialised) {
+            return;
+        }
+        // Stub levels have no chunk source to snapshot sections from.
+        System.setProperty("soundattract.syncMuffling", "true");
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        ModList.of(List.of(), List.of());
+        CommentedConfig config = CommentedConfig.inMemory();
+        SoundAttractConfig.COMMON_SPEC.correct(config);
+        SoundAttractConfig.COMMON_SPEC.acceptConfig(config);
+        initialised = true;
+    }
+
+    /**
+     * Game time reported by every stub level. Benchmarks advance it to model
+     * server ticks.
+     */
+    public static final class Clock {
+        public static long gameTime;
+
+        private Clock() {}
+
+        public static long gameTime() {
+            return gameTime;
+        }
+    }
+
+    /**
+     * Stub world behaviour: every ray reaches its target, every block is air.
+     */
+    public static final class OpenWorld {
+        private static final BlockHitResult MISS = BlockHitResult.miss(Vec3.ZERO, Direction.UP, BlockPos.ZERO);
+
+        private OpenWorld() {}
+
+        public static BlockHitResult clip(ClipContext context) {
+            return MISS;
+        }
+    }
+
+    public static synchronized Level overworld() {
+        if (levelType == null) {
+            levelType = new ByteBuddy()
+                .subclass(Level.class, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                .method(isAbstract()).intercept(ExceptionMethod.throwing(UnsupportedOperationException.class))
+                .method(named("dimension").and(takesArguments(0))).intercept(FixedValue.value(Level.OVERWORLD))
+                .method(named("getGameTime").and(takesArguments(0))).intercept(MethodDelegation.to(Clock.class))
+                .method(named("clip").and(takesArguments(ClipContext.class))).intercept(MethodDelegation.to(OpenWorld.class))
+                .method(named("getBlockState").and(takesArguments(BlockPos.class))).intercept(FixedValue.value(Blocks.AIR.defaultBlockState()))
+                .make()
+                .load(Level.class.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        }
+        return OBJENESIS.newInstance(levelType);
+    }
+
+    /**
+     * A zombie-typed stub mob with its own entity id, so per-entity slots and
+     * profile matching see distinct, real mobs.
+     */
+    public static synchronized Mob mob(UUID uuid, Vec3 position, float yaw, float pitch, float eyeHeight) {
+        if (mobType == null) {
+            mobType = new ByteBuddy()
+                .subclass(Mob.class, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                .method(isAbstract()).intercept(ExceptionMethod.throwing(UnsupportedOperationException.class))
+                .make()
+                .load(Mob.class.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        }
+        Mob mob = OBJENESIS.newInstance(mobType);
+        setField(Entity.class, mob, "type", EntityType.ZOMBIE);
+        mob.setId(NEXT_MOB_ID.getAndIncrement());
+        mob.setUUID(uuid);
+        mob.setYRot(yaw);
+        mob.setXRot(pitch);
+        mob.setYHeadRot(yaw);
+        setField(Entity.class, mob, "position", position);
+        setField(Entity.class, mob, "eyeHeight", eyeHeight);
+        return mob;
+    }
+
+    /**
+     * A stub player that moved from {@code previous} to {@code position}
+     * this tick, with its sneaking and sprinting flags set in real synched
+     * data so the vanilla accessors read them.
+     */
+    public static synchronized Player player(Vec3 previous, Vec3 position, boolean sneaking, boolean sprinting, boolean onGround) {
+        if (playerType == null) {
+            playerType = new ByteBuddy()
+                .subclass(Player.class, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                .method(isAbstract()).intercept(ExceptionMethod.throwing(UnsupportedOperationException.class))
+                .make()
+                .load(Player.class.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        }
+        Player player = OBJENESIS.newInstance(playerType);
+        SynchedEntityData data = new SynchedEntityData(player);
+        data.define(sharedFlagsAccessor(), (byte) ((sneaking ? 1 << 1 : 0) | (sprinting ? 1 << 3 : 0)));
+        setField(Entity.class, player, "entityData", data);
+        setField(Entity.class, player, "position", position);
+        setField(Entity.class, player, "onGround", onGround);
+        player.xo = previous.x;
+        player.yo = previous.y;
+        player.zo = previous.z;
+        return player;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EntityDataAccessor<Byte> sharedFlagsAccessor() {
+        try {
+            Field field = Entity.class.getDeclaredField("DATA_SHARED_FLAGS_ID");
+            field.setAccessible(true);
+            return (EntityDataAccessor<Byte>) field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot read Entity.DATA_SHARED_FLAGS_ID", e);
+        }
+    }
+
+    private static void setField(Class<?> owner, Object target, String name, Object value) {
+        try {
+            Field field = owner.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.soundattract.event;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.soundattract.bench.BenchSupport;
+
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Pure angle test of {@link FovEvents#isWithinFieldOfView} over a rotating
+ * set of looker/target pairs, roughly half of them inside the default cone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FovBenchmark {
+
+    private static final int PAIRS = 256;
+    private static final double HORIZONTAL_FOV = 180.0;
+    private static final double VERTICAL_FOV = 120.0;
+
+    private Mob[] lookers;
+    private Mob[] targets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchSupport.init();
+        Random random = new Random(42L);
+        lookers = new Mob[PAIRS];
+        targets = new Mob[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            Vec3 at = new Vec3(random.nextDouble() * 64.0, 64.0, random.nextDouble() * 64.0);
+            Vec3 other = at.add((random.nextDouble() - 0.5) * 32.0, (random.nextDouble() - 0.5) * 8.0, (random.nextDouble() - 0.5) * 32.0);
+            lookers[i] = BenchSupport.mob(new UUID(random.nextLong(), random.nextLong()), at,
+                random.nextFloat() * 360.0F, (random.nextFloat() - 0.5F) * 60.0F, 1.74F);
+            targets[i] = BenchSupport.mob(new UUID(random.nextLong(), random.nextLong()), other, 0.0F, 0.0F, 1.62F);
+        }
+    }
+
+    @Benchmark
+    public boolean isWithinFieldOfView() {
+        int i = next;
+        next = (next + 1) & (PAIRS - 1);
+        return FovEvents.isWithinFieldOfView(lookers[i], targets[i], HORIZONTAL_FOV, VERTICAL_FOV);
+    }
+}
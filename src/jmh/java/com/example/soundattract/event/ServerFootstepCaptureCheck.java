@@ -0,0 +1,62 @@
+package com.example.soundattract.event;
+
+import com.example.soundattract.bench.BenchSupport;
+
+import net.minecraft.core.Holder;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.sounds.SoundEvents;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Checks that server-side capture gives player footsteps their movement
+ * range on the path they actually take: {@code Player.playSound} plays them
+ * at a position, so the range comes from the player {@code ServerLevelMixin}
+ * brackets the positioned sound with.
+ *
+ * ./gradlew footstepCapture
+ *
+ * Exits non-zero on the first mismatch.
+ */
+public final class ServerFootstepCaptureCheck {
+
+    private static final Vec3 ORIGIN = new Vec3(0.5, 64.0, 0.5);
+
+    private ServerFootstepCaptureCheck() {}
+
+    public static void main(String[] args) {
+        BenchSupport.init();
+        Holder<SoundEvent> step = Holder.direct(SoundEvents.STONE_STEP);
+        Holder<SoundEvent> door = Holder.direct(SoundEvents.WOODEN_DOOR_OPEN);
+
+        expect("sneaking step", 3, step, BenchSupport.player(ORIGIN, ORIGIN.add(0.05, 0.0, 0.0), true, false, true));
+        expect("slow sneaking step", 2, step, BenchSupport.player(ORIGIN, ORIGIN.add(0.02, 0.0, 0.0), true, false, true));
+        expect("sneaking in place", 0, step, BenchSupport.player(ORIGIN, ORIGIN, true, false, true));
+        expect("walking step", 8, step, BenchSupport.player(ORIGIN, ORIGIN.add(0.15, 0.0, 0.0), false, false, true));
+        expect("sprint-jumping step", 16, step, BenchSupport.player(ORIGIN, ORIGIN.add(0.3, 0.0, 0.0), false, true, false));
+        expect("player's other sound", -1, door, BenchSupport.player(ORIGIN, ORIGIN.add(0.05, 0.0, 0.0), true, false, true));
+        expect("world step", -1, step, null);
+
+        // Outside a bracketed sound nothing is attributed to the last player.
+        ServerSoundCaptureEvents.beginPositionedSound(BenchSupport.player(ORIGIN, ORIGIN.add(0.05, 0.0, 0.0), true, false, true));
+        ServerSoundCaptureEvents.endPositionedSound();
+        check("step after the sound ended", -1, ServerSoundCaptureEvents.positionedSoundRange(step));
+
+        System.out.println("footstep capture: all cases match");
+    }
+
+    private static void expect(String name, int range, Holder<SoundEvent> sound, Player player) {
+        ServerSoundCaptureEvents.beginPositionedSound(player);
+        try {
+            check(name, range, ServerSoundCaptureEvents.positionedSoundRange(sound));
+        } finally {
+            ServerSoundCaptureEvents.endPositionedSound();
+        }
+    }
+
+    private static void check(String name, int expected, int actual) {
+        if (expected != actual) {
+            throw new AssertionError(name + ": expected range " + expected + ", got " + actual);
+        }
+    }
+}
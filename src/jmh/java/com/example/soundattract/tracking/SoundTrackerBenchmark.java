@@ -0,0 +1,187 @@
+package com.example.soundattract.tracking;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.soundattract.bench.BenchSupport;
+import com.example.soundattract.config.SoundAttractConfig;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Tracker hot paths at a fixed population. Sounds are scattered over a
+ * 192x192 area around the origin, a few percent of them large-range; mobs
+ * scan from inside the same area, all 64 of them once per simulated tick.
+ * Initial lifetimes are staggered so {@link #tick} expires a steady trickle.
+ *
+ * Run with {@code -prof gc} to see per-op allocation for every benchmark;
+ * {@link #findNearestSoundAllocation} reports the scanning thread's own
+ * allocation as {@code bytesPerScan} without needing the profiler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SoundTrackerBenchmark {
+
+    private static final String DIMENSION = "minecraft:overworld";
+    private static final int SPREAD = 96;
+    private static final int MOBS = 64;
+    private static final int SOUND_IDS = 32;
+    private static final int LIFETIME = 200;
+    private static final int DRAIN_EVERY = 256;
+
+    @Param({"100", "1000", "10000"})
+    public int sounds;
+
+    @Param({"false", "true"})
+    public boolean muffling;
+
+    private final Random random = new Random(42L);
+    private String[] ids;
+    private Level level;
+    private Mob[] mobs;
+    private BlockPos[] mobPositions;
+    private Vec3[] mobEyes;
+    private int nextMob;
+    private int sinceDrain;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        BenchSupport.init();
+        SoundAttractConfig.COMMON.maxSoundsTracked.set(sounds);
+        SoundAttractConfig.COMMON.soundLifetimeTicks.set(LIFETIME);
+        SoundAttractConfig.COMMON.enableBlockMuffling.set(muffling);
+        SoundTracker.clear();
+        BenchSupport.Clock.gameTime = 0L;
+
+        ids = new String[SOUND_IDS];
+        for (int i = 0; i < SOUND_IDS; i++) {
+            ids[i] = "soundattract:bench/sound_" + i;
+        }
+
+        level = BenchSupport.overworld();
+        mobs = new Mob[MOBS];
+        mobPositions = new BlockPos[MOBS];
+        mobEyes = new Vec3[MOBS];
+        for (int i = 0; i < MOBS; i++) {
+            Vec3 feet = new Vec3(coordinate(SPREAD / 2), 64.0, coordinate(SPREAD / 2));
+            mobs[i] = BenchSupport.mob(new UUID(random.nextLong(), random.nextLong()), feet, random.nextFloat() * 360.0F, 0.0F, 1.74F);
+            mobPositions[i] = BlockPos.containing(feet);
+            mobEyes[i] = feet.add(0.0, 1.74, 0.0);
+        }
+
+        for (int i = 0; i < sounds; i++) {
+            addRandomSound(1 + random.nextInt(LIFETIME));
+        }
+        SoundTracker.drainPendingSounds();
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() {
+        SoundTracker.clear();
+    }
+
+    /**
+     * Producer side plus its amortised share of the per-tick drain. The
+     * tracker is at capacity, so ingestion also exercises eviction.
+     */
+    @Benchmark
+    public void addSound() {
+        addRandomSound(LIFETIME);
+        if (++sinceDrain == DRAIN_EVERY) {
+            sinceDrain = 0;
+            SoundTracker.drainPendingSounds();
+        }
+    }
+
+    /**
+     * One server tick at steady state: enough new sounds to replace what
+     * expires, then the tracker tick that ingests and expires them.
+     */
+    @Benchmark
+    public void tick() {
+        int arrivals = Math.max(1, sounds / LIFETIME);
+        for (int i = 0; i < arrivals; i++) {
+            addRandomSound(LIFETIME);
+        }
+        SoundTracker.tick();
+    }
+
+    @Benchmark
+    public SoundTracker.SoundRecord findNearestSound() {
+        return scanNextMob();
+    }
+
+    @Benchmark
+    public SoundTracker.SoundRecord findNearestSoundAllocation(AllocationCounter counter) {
+        long before = AllocationCounter.THREADS.getCurrentThreadAllocatedBytes();
+        SoundTracker.SoundRecord result = scanNextMob();
+        counter.allocatedBytes += AllocationCounter.THREADS.getCurrentThreadAllocatedBytes() - before;
+        counter.scans++;
+        return result;
+    }
+
+    private SoundTracker.SoundRecord scanNextMob() {
+        int i = nextMob;
+        if (++nextMob == MOBS) {
+            nextMob = 0;
+            BenchSupport.Clock.gameTime++;
+        }
+        return SoundTracker.findNearestSound(mobs[i], level, mobPositions[i], mobEyes[i]);
+    }
+
+    private void addRandomSound(int lifetime) {
+        BlockPos pos = BlockPos.containing(coordinate(SPREAD), 60 + random.nextInt(20), coordinate(SPREAD));
+        boolean large = random.nextInt(100) < 3;
+        double range = large ? 96.0 + random.nextInt(64) : 8.0 + random.nextInt(40);
+        double weight = 1.0 + random.nextInt(10);
+        SoundTracker.addSound(null, pos, DIMENSION, range, weight, lifetime, ids[random.nextInt(SOUND_IDS)]);
+    }
+
+    private double coordinate(int spread) {
+        return (random.nextDouble() * 2.0 - 1.0) * spread;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class AllocationCounter {
+        static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        public long scans;
+        public long allocatedBytes;
+
+        @Setup(org.openjdk.jmh.annotations.Level.Iteration)
+        public void reset() {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+            scans = 0;
+            allocatedBytes = 0;
+        }
+
+        public double bytesPerScan() {
+            return scans == 0 ? 0.0 : (double) allocatedBytes / scans;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.soundattract.worker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Checks {@link WorkerComputations#computeGroups} two ways: against golden
+ * fixtures whose leaders, edges and deserters were worked out by hand, and
+ * against {@link ReferenceGroupComputation} on seeded random inputs that hit
+ * the grid's edge cases (lattice-aligned positions, zero radius and spacing,
+ * tiny leader and group caps, dead mobs, health ties).
+ *
+ * ./gradlew groupEquivalence -PgroupEquivalenceArgs="5000"
+ *
+ * The optional argument is the number of random cases (default 3000). Exits
+ * non-zero on the first mismatch.
+ */
+public final class GroupEquivalenceCheck {
+
+    private static final ResourceLocation DIMENSION = new ResourceLocation("minecraft", "overworld");
+
+    private GroupEquivalenceCheck() {}
+
+    public static void main(String[] args) {
+        int cases = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+        goldenFixtures();
+        randomCases(cases);
+        System.out.println("computeGroups: golden fixtures and " + cases + " random cases match");
+    }
+
+    private static void goldenFixtures() {
+        // Two leaders 30 apart, one member per sector around the first, a
+        // nearer member that loses its sector to a farther one, and a mob
+        // out of everyone's reach.
+        {
+            Fixture f = new Fixture(new WorkerScheduler.ConfigSnapshot(10.0, 2, 8, 1.0, 4, 1));
+            UUID m1 = f.mob(0, 0, 20);
+            UUID m2 = f.mob(4, 3, 10);
+            UUID m3 = f.mob(-3, 4, 9);
+            UUID m4 = f.mob(-4, -4, 8);
+            UUID m5 = f.mob(30, 0, 15);
+            UUID m6 = f.mob(33, 1, 5);
+            f.dead(1, 1, 50);
+            UUID m8 = f.mob(100, 0, 1);
+            UUID m9 = f.mob(2, 1, 7);
+            f.leader(m1, m1).leader(m5, m5);
+            f.member(m2, m1).member(m3, m1).member(m4, m1).member(m9, m1).member(m6, m5);
+            f.edges(m1, m2, m3, m4).edges(m5, m6);
+            f.deserters(m8);
+            f.check("sectors and reach");
+        }
+        // A member equidistant from two leaders joins the earlier one, and
+        // full groups turn the last mob into a deserter.
+        {
+            Fixture f = new Fixture(new WorkerScheduler.ConfigSnapshot(10.0, 3, 2, 1.0, 1, 1));
+            UUID l1 = f.mob(0, 0, 30);
+            UUID l2 = f.mob(12, 0, 25);
+            UUID a = f.mob(6, 0, 10);
+            UUID b = f.mob(5, 1, 9);
+            UUID c = f.mob(6, -1, 8);
+            f.leader(l1, l1).leader(l2, l2);
+            f.member(a, l1).member(b, l2);
+            f.edges(l1, a).edges(l2, b);
+            f.deserters(c);
+            f.check("ties and full groups");
+        }
+        // Zero radius takes the linear path: only mobs standing exactly on
+        // a leader join it.
+        {
+            Fixture f = new Fixture(new WorkerScheduler.ConfigSnapshot(0.0, 2, 4, 1.0, 4, 1));
+            UUID p = f.mob(1, 1, 5);
+            UUID q = f.mob(1, 1, 3);
+            UUID r = f.mob(2, 2, 4);
+            f.leader(p, p).leader(r, r);
+            f.member(q, p);
+            f.edges(p, q).edges(r);
+            f.check("zero radius");
+        }
+        {
+            Fixture f = new Fixture(new WorkerScheduler.ConfigSnapshot(10.0, 2, 8, 1.0, 4, 1));
+            f.dead(0, 0, 10);
+            f.dead(3, 3, 10);
+            f.checkNull("all dead");
+        }
+    }
+
+    private static void randomCases(int cases) {
+        Random random = new Random(42L);
+        for (int c = 0; c < cases; c++) {
+            int count = 1 + random.nextInt(c % 10 == 0 ? 600 : 60);
+            double radius = switch (random.nextInt(6)) {
+                case 0 -> 0.0;
+                case 1 -> 1.0 + random.nextInt(4);
+                default -> 2.0 + random.nextDouble() * 30.0;
+            };
+            double spacing = switch (random.nextInt(4)) {
+                case 0 -> 0.0;
+                case 1 -> 1.0;
+                default -> 0.25 + random.nextDouble() * 2.0;
+            };
+            WorkerScheduler.ConfigSnapshot cfg = new WorkerScheduler.ConfigSnapshot(
+                radius,
+                random.nextInt(4) == 0 ? 1 + random.nextInt(2) : 1 + random.nextInt(count + 1),
+                random.nextInt(4) == 0 ? 1 + random.nextInt(2) : 1 + random.nextInt(32),
+                spacing,
+                1 + random.nextInt(8),
+                1 + random.nextInt(3));
+            boolean lattice = random.nextBoolean();
+            double extent = 8.0 + random.nextDouble() * 120.0;
+            List<WorkerScheduler.MobSnapshot> mobs = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                double x = (random.nextDouble() * 2.0 - 1.0) * extent;
+                double z = (random.nextDouble() * 2.0 - 1.0) * extent;
+                if (lattice) {
+                    // Land on cell boundaries and exact leader distances.
+                    double step = radius > 0.0 ? radius : 1.0;
+                    x = Math.rint(x / step) * step;
+                    z = Math.rint(z / step) * step;
+                }
+                mobs.add(new WorkerScheduler.MobSnapshot(
+                    new UUID(c, i), x, 64.0, z,
+                    1 + random.nextInt(random.nextBoolean() ? 4 : 40),
+                    random.nextInt(10) != 0));
+            }
+            WorkerScheduler.GroupComputeResult expected = ReferenceGroupComputation.computeGroups(mobs, cfg, Long.MAX_VALUE, DIMENSION);
+            WorkerScheduler.GroupComputeResult actual = WorkerComputations.computeGroups(mobs, cfg, Long.MAX_VALUE, DIMENSION);
+            if (expected == null ? actual != null : !expected.equals(actual)) {
+                throw new AssertionError("random case " + c + " (" + cfg + ", " + count + " mobs) differs:\n  expected " + expected + "\n  actual   " + actual);
+            }
+        }
+    }
+
+    private static final class Fixture {
+        private final WorkerScheduler.ConfigSnapshot cfg;
+        private final List<WorkerScheduler.MobSnapshot> mobs = new ArrayList<>();
+        private final Map<UUID, UUID> mobToLeader = new HashMap<>();
+        private final Map<UUID, Set<UUID>> edges = new HashMap<>();
+        private Set<UUID> deserters = Set.of();
+
+        Fixture(WorkerScheduler.ConfigSnapshot cfg) {
+            this.cfg = cfg;
+        }
+
+        UUID mob(double x, double z, double health) {
+            return add(x, z, health, true);
+        }
+
+        void dead(double x, double z, double health) {
+            add(x, z, health, false);
+        }
+
+        private UUID add(double x, double z, double health, boolean alive) {
+            UUID id = new UUID(0L, mobs.size() + 1);
+            mobs.add(new WorkerScheduler.MobSnapshot(id, x, 64.0, z, health, alive));
+            return id;
+        }
+
+        Fixture leader(UUID mob, UUID leader) {
+            mobToLeader.put(mob, leader);
+            return this;
+        }
+
+        Fixture member(UUID mob, UUID leader) {
+            return leader(mob, leader);
+        }
+
+        Fixture edges(UUID leader, UUID... edgeMobs) {
+            edges.put(leader, Set.of(edgeMobs));
+            return this;
+        }
+
+        void deserters(UUID... ids) {
+            deserters = Set.of(ids);
+        }
+
+        void check(String name) {
+            WorkerScheduler.GroupComputeResult golden = new WorkerScheduler.GroupComputeResult(DIMENSION, mobToLeader, edges, deserters);
+            compare(name, golden, WorkerComputations.computeGroups(mobs, cfg, Long.MAX_VALUE, DIMENSION));
+            compare(name + " (reference)", golden, ReferenceGroupComputation.computeGroups(mobs, cfg, Long.MAX_VALUE, DIMENSION));
+        }
+
+        void checkNull(String name) {
+            compare(name, null, WorkerComputations.computeGroups(mobs, cfg, Long.MAX_VALUE, DIMENSION));
+            compare(name + " (reference)", null, ReferenceGroupComputation.computeGroups(mobs, cfg, Long.MAX_VALUE, DIMENSION));
+        }
+
+        private static void compare(String name, WorkerScheduler.GroupComputeResult golden, WorkerScheduler.GroupComputeResult actual) {
+            if (golden == null ? actual != null : !golden.equals(actual)) {
+                throw new AssertionError("golden fixture '" + name + "' differs:\n  expected " + golden + "\n  actual   " + actual);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.soundattract.worker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Worker-side computations on synthetic snapshots. Deadlines are pushed out
+ * so every run does the full amount of work. Mobs are spread at a constant
+ * density, so larger populations cover a larger area rather than piling up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class WorkerComputationsBenchmark {
+
+    private static final ResourceLocation DIMENSION = new ResourceLocation("minecraft", "overworld");
+    private static final double AREA_PER_MOB = 64.0;
+    private static final int CANDIDATES_PER_MOB = 24;
+
+    @Param({"50", "500", "5000"})
+    public int mobs;
+
+    private List<WorkerScheduler.MobSnapshot> snapshots;
+    private WorkerScheduler.ConfigSnapshot config;
+    private List<WorkerScheduler.SoundScoreRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        double half = Math.sqrt(mobs * AREA_PER_MOB) / 2.0;
+
+        snapshots = new ArrayList<>(mobs);
+        for (int i = 0; i < mobs; i++) {
+            snapshots.add(new WorkerScheduler.MobSnapshot(
+                new UUID(random.nextLong(), random.nextLong()),
+                coordinate(random, half), 64.0, coordinate(random, half),
+                1.0 + random.nextInt(40),
+                true
+            ));
+        }
+        config = new WorkerScheduler.ConfigSnapshot(64.0, 16, 64, 1.0, 4, 1);
+
+        requests = new ArrayList<>(mobs);
+        for (WorkerScheduler.MobSnapshot mob : snapshots) {
+            List<WorkerScheduler.SoundCandidate> candidates = new ArrayList<>(CANDIDATES_PER_MOB);
+            for (int c = 0; c < CANDIDATES_PER_MOB; c++) {
+                candidates.add(new WorkerScheduler.SoundCandidate(
+                    "soundattract:bench/sound_" + c,
+                    mob.x() + coordinate(random, 32.0), 64.0, mob.z() + coordinate(random, 32.0),
+                    random.nextInt(1200),
+                    8.0 + random.nextInt(40),
+                    1.0 + random.nextInt(10),
+                    1.0
+                ));
+            }
+            requests.add(new WorkerScheduler.SoundScoreRequest(
+                mob.uuid(), mob.x(), mob.y(), mob.z(),
+                1200L, "soundattract:bench/sound_0",
+                candidates,
+                0.7, 1.0, 40
+            ));
+        }
+    }
+
+    @Benchmark
+    public WorkerScheduler.GroupComputeResult computeGroups() {
+        return WorkerComputations.computeGroups(snapshots, config, Long.MAX_VALUE, DIMENSION);
+    }
+
+    @Benchmark
+    public List<WorkerScheduler.SoundScoreResult> computeSoundScores() {
+        return WorkerComputations.computeSoundScores(requests, Long.MAX_VALUE);
+    }
+
+    private static double coordinate(Random random, double half) {
+        return (random.nextDouble() * 2.0 - 1.0) * half;
+    }
+}
@@ -14,7 +14,6 @@ import com.example.soundattract.config.SoundAttractConfig;
 import com.example.soundattract.enchantment.ModEnchantments;
 import com.example.soundattract.loot.ModLootModifiers;
 import com.example.soundattract.integration.voicechat.PlasmoVoiceBootstrap;
-import com.example.soundattract.integration.vanilla.VanillaIntegrationEvents;
 import com.example.soundattract.event.FovEvents;
 import com.example.soundattract.event.StealthDetectionEvents;
 import com.example.soundattract.event.client.SoundAttractClientEvents;
@@ -41,7 +40,6 @@ public class SoundAttractMod {
         MinecraftForge.EVENT_BUS.register(new FovEvents());
         MinecraftForge.EVENT_BUS.register(new StealthDetectionEvents());
         MinecraftForge.EVENT_BUS.register(new PlasmoVoiceBootstrap());
-        MinecraftForge.EVENT_BUS.register(new VanillaIntegrationEvents());
     }
 
     private void onCommonSetup(final FMLCommonSetupEvent event) {
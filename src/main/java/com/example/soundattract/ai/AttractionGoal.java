@@ -2,10 +2,12 @@ package com.example.soundattract.ai;
 
 import java.util.EnumSet;
 
-import com.example.soundattract.runtime.DynamicScanCooldownManager;
+import com.example.soundattract.runtime.ScanScheduler;
+import com.example.soundattract.runtime.TickBudgetGovernor;
 import com.example.soundattract.SoundAttractMod;
 import com.example.soundattract.event.SoundAttractionEvents;
 import com.example.soundattract.tracking.SoundTracker;
+import com.example.soundattract.config.BakedSettings;
 import com.example.soundattract.config.SoundAttractConfig;
 
 import net.minecraft.core.BlockPos;
@@ -22,7 +24,6 @@ public class AttractionGoal extends Goal {
     private double currentTargetWeight = -1.0;
     private BlockPos lastPos = null;
     private int stuckTicks = 0;
-    private int scanCooldownCounter = 0;
     private SoundTracker.SoundRecord cachedSound = null;
     private boolean isPursuingSound = false;
     private int pursuingSoundTicksRemaining = 0;
@@ -35,14 +36,10 @@ public class AttractionGoal extends Goal {
 
     public AttractionGoal(Mob mob, double moveSpeed) {
         this.mob = mob;
-        this.moveSpeed = SoundAttractConfig.COMMON.mobMoveSpeed.get();
+        this.moveSpeed = BakedSettings.get().mobMoveSpeed;
         this.setFlags(EnumSet.of(Goal.Flag.MOVE));
     }
 
-    private int scanCooldownTicks() {
-        return DynamicScanCooldownManager.currentScanCooldownTicks;
-    }
-
     private boolean isMobEligible() {
         java.util.Set<net.minecraft.world.entity.EntityType<?>> attractedTypes = SoundAttractionEvents.getCachedAttractedEntityTypes();
         boolean byType = attractedTypes.contains(this.mob.getType());
@@ -51,11 +48,11 @@ public class AttractionGoal extends Goal {
     }
 
     private double getArrivalDistance() {
-        return SoundAttractConfig.COMMON.arrivalDistance.get();
+        return BakedSettings.get().arrivalDistance;
     }
 
     private boolean shouldSuppressTargeting() {
-        return SoundAttractConfig.COMMON.enableStealthMechanics.get()
+        return BakedSettings.get().enableStealthMechanics
                 && com.example.soundattract.event.StealthDetectionEvents.shouldSuppressTargeting(this.mob);
     }
 
@@ -70,11 +67,18 @@ public class AttractionGoal extends Goal {
             return false;
         }
 
-        if (scanCooldownCounter > 0) {
-            scanCooldownCounter--;
+        if (!SoundTracker.mayHearSoundAt(this.mob.level(), this.mob.blockPosition())) {
+            return false;
+        }
+
+        if (!ScanScheduler.isDue(this.mob, ScanScheduler.Channel.ATTRACTION)) {
+            return false;
+        }
+        if (!TickBudgetGovernor.hasBudget(TickBudgetGovernor.Subsystem.GOAL_SCANS)) {
+            TickBudgetGovernor.markThrottled(TickBudgetGovernor.Subsystem.GOAL_SCANS);
             return false;
         }
-        scanCooldownCounter = scanCooldownTicks();
+        ScanScheduler.markScanned(this.mob, ScanScheduler.Channel.ATTRACTION);
 
         SoundTracker.SoundRecord newSound = findInterestingSoundRecord();
         if (newSound == null) {
@@ -134,7 +138,7 @@ public class AttractionGoal extends Goal {
             return true;
         }
 
-        double switchRatio = SoundAttractConfig.COMMON.soundSwitchRatio.get();
+        double switchRatio = BakedSettings.get().soundSwitchRatio;
         if (bestSoundNow.weight > this.currentTargetWeight * switchRatio) {
             if (SoundAttractConfig.COMMON.debugLogging.get()) {
                 SoundAttractMod.LOGGER.info("[AttractionGoal] Mob {} is switching from target {} (weight {}) to {} (weight {})", mob.getName().getString(), this.targetSoundPos, this.currentTargetWeight, bestSoundNow.pos, bestSoundNow.weight);
@@ -156,6 +160,7 @@ public class AttractionGoal extends Goal {
 
 
 
+        long began = TickBudgetGovernor.begin();
         this.soundResultCache = SoundTracker.findNearestSound(
             this.mob,
             this.mob.level(),
@@ -163,6 +168,7 @@ public class AttractionGoal extends Goal {
             this.mob.getEyePosition(),
             this.cachedSound != null ? this.cachedSound.soundId : null
         );
+        TickBudgetGovernor.end(TickBudgetGovernor.Subsystem.GOAL_SCANS, began);
         return this.soundResultCache;
     }
 
@@ -192,7 +198,7 @@ public class AttractionGoal extends Goal {
 
 
             if (bestPossibleSound != null && this.cachedSound != null && !areSoundsEffectivelySame(bestPossibleSound, this.cachedSound)) {
-                double switchRatio = SoundAttractConfig.COMMON.soundSwitchRatio.get();
+                double switchRatio = BakedSettings.get().soundSwitchRatio;
 
                 if (bestPossibleSound.weight > this.cachedSound.weight * switchRatio) {
 
@@ -217,7 +223,7 @@ public class AttractionGoal extends Goal {
             return;
         }
         SoundTracker.SoundRecord fresh = findInterestingSoundRecord();
-        double switchRatio = SoundAttractConfig.COMMON.soundSwitchRatio.get();
+        double switchRatio = BakedSettings.get().soundSwitchRatio;
         if (fresh != null) {
 
             if (this.targetSoundPos != null && fresh.pos.equals(this.targetSoundPos)) {
@@ -249,9 +255,6 @@ public class AttractionGoal extends Goal {
             return;
         }
 
-        if (scanCooldownCounter > 0) {
-            scanCooldownCounter--;
-        }
 
 
 
@@ -362,7 +365,8 @@ public class AttractionGoal extends Goal {
         boolean navDone = this.mob.getNavigation().isDone();
         boolean shouldRecalc = targetChanged || navDone || cooldownElapsed || this.mob.getNavigation().isStuck();
         if (shouldRecalc && this.targetSoundPos != null) {
-            this.mob.getNavigation().moveTo(
+            SharedPathCache.moveTo(
+                    this.mob,
                     targetSoundPos.getX(),
                     targetSoundPos.getY(),
                     targetSoundPos.getZ(),
@@ -413,21 +417,21 @@ public class AttractionGoal extends Goal {
         SoundTracker.SoundRecord currentTargetSound = this.cachedSound;
         if (currentTargetSound != null && bestSoundOverall != null
                 && !areSoundsEffectivelySame(currentTargetSound, bestSoundOverall)) {
-            double switchRatio = SoundAttractConfig.COMMON.soundSwitchRatio.get();
+            double switchRatio = BakedSettings.get().soundSwitchRatio;
             boolean canSwitch = bestSoundOverall.weight > currentTargetSound.weight * switchRatio
                     || (Math.abs(bestSoundOverall.weight - currentTargetSound.weight) < 0.001
                     && bestSoundOverall.pos.distSqr(mobPos)
                     < currentTargetSound.pos.distSqr(mobPos));
             if (!canSwitch) {
                 this.isPursuingSound = true;
-                this.pursuingSoundTicksRemaining = DynamicScanCooldownManager.currentScanCooldownTicks;
+                this.pursuingSoundTicksRemaining = ScanScheduler.intervalFor(this.mob, ScanScheduler.Channel.ATTRACTION);
                 return currentTargetSound;
             }
         }
 
         if (bestSoundOverall != null) {
             this.isPursuingSound = true;
-            this.pursuingSoundTicksRemaining = DynamicScanCooldownManager.currentScanCooldownTicks;
+            this.pursuingSoundTicksRemaining = ScanScheduler.intervalFor(this.mob, ScanScheduler.Channel.ATTRACTION);
         } else {
             this.isPursuingSound = false;
             this.pursuingSoundTicksRemaining = 0;
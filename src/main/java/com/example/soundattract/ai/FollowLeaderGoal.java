@@ -171,7 +171,7 @@ public class FollowLeaderGoal extends Goal {
                 Vec3 curPos = mob.position();
                 if (curPos.distanceToSqr(lastRandomDest) > 2.25) {
                     double sprintMult = com.example.soundattract.config.SoundAttractConfig.COMMON.groupSprintMultiplier.get();
-                    mob.getNavigation().moveTo(
+                    SharedPathCache.moveTo(mob,
                         lastRandomDest.x, lastRandomDest.y, lastRandomDest.z, moveSpeed * sprintMult
                     );
                 }
@@ -284,7 +284,7 @@ public class FollowLeaderGoal extends Goal {
         if (lastRandomDest != null) {
             Vec3 curPos = mob.position();
             if (curPos.distanceToSqr(lastRandomDest) > 2.25) {
-                mob.getNavigation().moveTo(
+                SharedPathCache.moveTo(mob,
                     lastRandomDest.x, lastRandomDest.y, lastRandomDest.z, moveSpeed
                 );
             }
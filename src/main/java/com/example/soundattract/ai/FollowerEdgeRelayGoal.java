@@ -2,7 +2,8 @@ package com.example.soundattract.ai;
 
 import java.util.EnumSet;
 
-import com.example.soundattract.runtime.DynamicScanCooldownManager;
+import com.example.soundattract.runtime.ScanScheduler;
+import com.example.soundattract.runtime.TickBudgetGovernor;
 import com.example.soundattract.SoundAttractMod;
 import com.example.soundattract.event.SoundAttractionEvents;
 import com.example.soundattract.tracking.SoundTracker;
@@ -20,7 +21,6 @@ public class FollowerEdgeRelayGoal extends Goal {
 
     private BlockPos targetSoundPos;
     private double currentTargetWeight = -1.0;
-    private int scanCooldownCounter = 0;
 
     private BlockPos lastPos = null;
     private int stuckTicks = 0;
@@ -56,10 +56,6 @@ public class FollowerEdgeRelayGoal extends Goal {
         this.setFlags(EnumSet.of(Goal.Flag.MOVE));
     }
 
-    private int scanCooldownTicks() {
-        return DynamicScanCooldownManager.currentScanCooldownTicks;
-    }
-
     private boolean isMobEligible() {
         java.util.Set<net.minecraft.world.entity.EntityType<?>> attractedTypes = SoundAttractionEvents.getCachedAttractedEntityTypes();
         boolean byType = attractedTypes.contains(this.mob.getType());
@@ -77,6 +73,7 @@ public class FollowerEdgeRelayGoal extends Goal {
             return this.soundResultCache;
         }
         this.cacheTick = currentTick;
+        long began = TickBudgetGovernor.begin();
         this.soundResultCache = SoundTracker.findNearestSound(
             this.mob,
             this.mob.level(),
@@ -84,6 +81,7 @@ public class FollowerEdgeRelayGoal extends Goal {
             this.mob.getEyePosition(),
             this.cachedSound != null ? this.cachedSound.soundId : null
         );
+        TickBudgetGovernor.end(TickBudgetGovernor.Subsystem.GOAL_SCANS, began);
         return this.soundResultCache;
     }
 
@@ -92,7 +90,7 @@ public class FollowerEdgeRelayGoal extends Goal {
     private void moveToThrottled(BlockPos dest, double speed, boolean force) {
         if (dest == null) return;
         if (force) {
-            this.mob.getNavigation().moveTo(dest.getX(), dest.getY(), dest.getZ(), speed);
+            SharedPathCache.moveTo(this.mob, dest.getX(), dest.getY(), dest.getZ(), speed);
             this.lastIssuedNavTarget = dest;
             this.repathCooldown = REPATH_COOLDOWN_TICKS;
             return;
@@ -107,7 +105,7 @@ public class FollowerEdgeRelayGoal extends Goal {
         double distSq = dest.distSqr(this.mob.blockPosition());
         double thresholdSq = 4.0;
         if (destChanged || navDoneOrStuck || distSq > thresholdSq) {
-            this.mob.getNavigation().moveTo(dest.getX(), dest.getY(), dest.getZ(), speed);
+            SharedPathCache.moveTo(this.mob, dest.getX(), dest.getY(), dest.getZ(), speed);
             this.lastIssuedNavTarget = dest;
             this.repathCooldown = REPATH_COOLDOWN_TICKS;
         }
@@ -133,11 +131,17 @@ public class FollowerEdgeRelayGoal extends Goal {
         if (!(MobGroupManager.isEdgeMob(mob) || isDeserter)) {
             return false;
         }
-        if (scanCooldownCounter > 0) {
-            scanCooldownCounter--;
+        if (!SoundTracker.mayHearSoundAt(this.mob.level(), this.mob.blockPosition())) {
+            return false;
+        }
+        if (!ScanScheduler.isDue(this.mob, ScanScheduler.Channel.EDGE_RELAY)) {
             return false;
         }
-        scanCooldownCounter = scanCooldownTicks();
+        if (!TickBudgetGovernor.hasBudget(TickBudgetGovernor.Subsystem.GOAL_SCANS)) {
+            TickBudgetGovernor.markThrottled(TickBudgetGovernor.Subsystem.GOAL_SCANS);
+            return false;
+        }
+        ScanScheduler.markScanned(this.mob, ScanScheduler.Channel.EDGE_RELAY);
 
         SoundTracker.SoundRecord newSound = getCachedNearestSound();
         if (newSound == null) {
@@ -311,9 +315,6 @@ public class FollowerEdgeRelayGoal extends Goal {
             return;
         }
 
-        if (scanCooldownCounter > 0) {
-            scanCooldownCounter--;
-        }
 
         boolean smartEdge = SoundAttractConfig.COMMON.edgeMobSmartBehavior.get();
         Mob leader = MobGroupManager.getLeader(mob);
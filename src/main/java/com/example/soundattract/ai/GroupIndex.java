@@ -0,0 +1,459 @@
+package com.example.soundattract.ai;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import com.example.soundattract.worker.WorkerScheduler.ConfigSnapshot;
+import com.example.soundattract.worker.WorkerScheduler.GroupComputeResult;
+import com.example.soundattract.worker.WorkerScheduler.MobSnapshot;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.world.entity.Mob;
+
+/**
+ * Leader, member, edge and deserter assignments for one dimension, indexed
+ * by entity id and kept up to date incrementally.
+ *
+ * {@link #sync} records which attracted mobs are present: mobs that joined
+ * or moved more than {@code -Dsoundattract.group.move_threshold} (default
+ * 4 blocks) since they were last placed are marked dirty, and mobs that
+ * died or left are dropped, dissolving their group if they led one.
+ * {@link #maintain} then re-places only the dirty mobs with the same rules
+ * as the full computation in {@code WorkerComputations.computeGroups}, and
+ * recomputes edges only for groups whose membership or layout changed.
+ * Deserters are retried only when a group gained room or a new leader
+ * appeared.
+ *
+ * A full computation still runs now and then to re-pick leaders by health;
+ * its result is applied through the UUIDs of the indexed members, so no
+ * entity lookup is needed.
+ */
+final class GroupIndex {
+
+    private static final int NONE = -1;
+    private static final double MOVE_THRESHOLD = Double.parseDouble(System.getProperty("soundattract.group.move_threshold", "4"));
+    private static final double MOVE_THRESHOLD_SQR = MOVE_THRESHOLD * MOVE_THRESHOLD;
+
+    private static final class Member {
+        final Mob mob;
+        final int id;
+        final UUID uuid;
+        double anchorX;
+        double anchorZ;
+        int leaderId = NONE;
+        boolean edge;
+        boolean deserter;
+        boolean dirty = true;
+        long seenAt;
+
+        Member(Mob mob) {
+            this.mob = mob;
+            this.id = mob.getId();
+            this.uuid = mob.getUUID();
+        }
+
+        void anchor() {
+            anchorX = mob.getX();
+            anchorZ = mob.getZ();
+        }
+
+        double distTo(Member other) {
+            return Math.hypot(mob.getX() - other.mob.getX(), mob.getZ() - other.mob.getZ());
+        }
+    }
+
+    private static final class Group {
+        final Member leader;
+        final IntOpenHashSet members = new IntOpenHashSet();
+        boolean edgesDirty = true;
+
+        Group(Member leader) {
+            this.leader = leader;
+        }
+
+        int size() {
+            return members.size() + 1;
+        }
+    }
+
+    private final Int2ObjectOpenHashMap<Member> members = new Int2ObjectOpenHashMap<>();
+    private final Map<UUID, Member> byUuid = new HashMap<>();
+    private final Int2ObjectOpenHashMap<Group> groups = new Int2ObjectOpenHashMap<>();
+    private boolean capacityChanged;
+
+    private long joined;
+    private long moved;
+    private long left;
+    private long replaced;
+
+    /**
+     * Brings membership in line with {@code present}, the attracted mobs
+     * currently loaded around players.
+     */
+    synchronized void sync(Collection<Mob> present, long now) {
+        for (Mob mob : present) {
+            Member m = members.get(mob.getId());
+            if (m == null || m.mob != mob) {
+                if (m != null) {
+                    detach(m);
+                    byUuid.remove(m.uuid);
+                }
+                m = new Member(mob);
+                members.put(m.id, m);
+                byUuid.put(m.uuid, m);
+                joined++;
+            } else if (!m.dirty) {
+                double dx = mob.getX() - m.anchorX;
+                double dz = mob.getZ() - m.anchorZ;
+                if (dx * dx + dz * dz > MOVE_THRESHOLD_SQR) {
+                    m.dirty = true;
+                    moved++;
+                }
+            }
+            m.seenAt = now;
+        }
+        List<Member> gone = new ArrayList<>();
+        for (Member m : members.values()) {
+            if (m.seenAt != now || m.mob.isRemoved() || !m.mob.isAlive()) {
+                gone.add(m);
+            }
+        }
+        for (Member m : gone) {
+            detach(m);
+            members.remove(m.id);
+            byUuid.remove(m.uuid);
+            left++;
+        }
+    }
+
+    /**
+     * Re-places dirty mobs and refreshes the edges of groups that changed.
+     */
+    synchronized void maintain(ConfigSnapshot cfg) {
+        double radius = cfg.leaderGroupRadius();
+        double spacing = radius * cfg.leaderSpacingMultiplier();
+
+        List<Group> movedLeaders = new ArrayList<>();
+        for (Group g : groups.values()) {
+            if (g.leader.dirty) movedLeaders.add(g);
+        }
+        for (Group g : movedLeaders) {
+            if (groups.get(g.leader.id) != g) continue;
+            Group rival = leaderWithin(g.leader, spacing, g);
+            if (rival != null) {
+                Group weaker = rival.leader.mob.getHealth() >= g.leader.mob.getHealth() ? g : rival;
+                dissolve(weaker);
+                if (weaker == g) continue;
+            }
+            IntIterator it = g.members.iterator();
+            while (it.hasNext()) {
+                Member m = members.get(it.nextInt());
+                if (m == null || m.distTo(g.leader) > radius) {
+                    it.remove();
+                    if (m != null) {
+                        m.leaderId = NONE;
+                        m.edge = false;
+                        m.dirty = true;
+                    }
+                    capacityChanged = true;
+                }
+            }
+            g.leader.anchor();
+            g.leader.dirty = false;
+            g.edgesDirty = true;
+        }
+
+        List<Member> dirty = new ArrayList<>();
+        for (Member m : members.values()) {
+            if (m.dirty) dirty.add(m);
+        }
+        place(dirty, cfg);
+
+        if (capacityChanged) {
+            List<Member> deserters = new ArrayList<>();
+            for (Member m : members.values()) {
+                if (m.leaderId == NONE) deserters.add(m);
+            }
+            place(deserters, cfg);
+            capacityChanged = false;
+        }
+
+        for (Group g : groups.values()) {
+            if (g.edgesDirty) {
+                recomputeEdges(g, cfg);
+            }
+        }
+    }
+
+    /**
+     * Replaces every assignment with a full computation's result. Mobs that
+     * joined after its snapshot are left dirty for the next
+     * {@link #maintain}.
+     */
+    synchronized void applyFull(GroupComputeResult result) {
+        groups.clear();
+        for (Member m : members.values()) {
+            m.leaderId = NONE;
+            m.edge = false;
+            m.deserter = false;
+        }
+        for (Map.Entry<UUID, UUID> e : result.mobUuidToLeaderUuid().entrySet()) {
+            if (!e.getKey().equals(e.getValue())) continue;
+            Member leader = byUuid.get(e.getKey());
+            if (leader == null || !leader.mob.isAlive()) continue;
+            leader.leaderId = leader.id;
+            groups.put(leader.id, new Group(leader));
+        }
+        for (Map.Entry<UUID, UUID> e : result.mobUuidToLeaderUuid().entrySet()) {
+            if (e.getKey().equals(e.getValue())) continue;
+            Member m = byUuid.get(e.getKey());
+            Member leader = byUuid.get(e.getValue());
+            Group g = leader == null ? null : groups.get(leader.id);
+            if (m == null || g == null) continue;
+            m.leaderId = leader.id;
+            g.members.add(m.id);
+        }
+        for (Map.Entry<UUID, Set<UUID>> e : result.edgeMobsByLeaderUuid().entrySet()) {
+            Member leader = byUuid.get(e.getKey());
+            Group g = leader == null ? null : groups.get(leader.id);
+            if (g == null) continue;
+            for (UUID uuid : e.getValue()) {
+                Member m = byUuid.get(uuid);
+                if (m != null && m.leaderId == leader.id) m.edge = true;
+            }
+            g.edgesDirty = false;
+        }
+        for (UUID uuid : result.deserterUuids()) {
+            Member m = byUuid.get(uuid);
+            if (m != null && m.leaderId == NONE) m.deserter = true;
+        }
+        for (Member m : members.values()) {
+            m.anchor();
+            m.dirty = m.leaderId == NONE && !m.deserter;
+        }
+        capacityChanged = false;
+        replaced++;
+    }
+
+    synchronized List<MobSnapshot> snapshot() {
+        List<MobSnapshot> out = new ArrayList<>(members.size());
+        for (Member m : members.values()) {
+            Mob mob = m.mob;
+            out.add(new MobSnapshot(m.uuid, mob.getX(), mob.getY(), mob.getZ(), mob.getHealth(), mob.isAlive()));
+        }
+        return out;
+    }
+
+    synchronized Mob leaderOf(Mob mob) {
+        Member m = memberOf(mob);
+        if (m == null || m.leaderId == NONE) return mob;
+        Group g = groups.get(m.leaderId);
+        return g == null ? mob : g.leader.mob;
+    }
+
+    synchronized boolean isEdge(Mob mob) {
+        Member m = memberOf(mob);
+        return m != null && m.edge && m.leaderId != m.id;
+    }
+
+    synchronized boolean isDeserter(Mob mob) {
+        Member m = memberOf(mob);
+        return m != null && m.deserter;
+    }
+
+    /**
+     * Detaches {@code mob} from its group and marks it a deserter until it is
+     * next re-placed.
+     */
+    synchronized void promoteToDeserter(Mob mob) {
+        Member m = memberOf(mob);
+        if (m == null) return;
+        detach(m);
+        m.deserter = true;
+    }
+
+    @Nullable
+    synchronized Mob nearestLeader(Mob mob) {
+        Mob best = null;
+        double bestDistSq = Double.MAX_VALUE;
+        for (Group g : groups.values()) {
+            Mob candidate = g.leader.mob;
+            if (candidate == mob || candidate.isRemoved() || !candidate.isAlive()) continue;
+            double d = mob.distanceToSqr(candidate);
+            if (d < bestDistSq) {
+                bestDistSq = d;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    synchronized int leaderCount() {
+        return groups.size();
+    }
+
+    synchronized int deserterCount() {
+        int n = 0;
+        for (Member m : members.values()) {
+            if (m.deserter) n++;
+        }
+        return n;
+    }
+
+    synchronized String stats() {
+        return "groups{members=" + members.size() + ", leaders=" + groups.size() + ", joined=" + joined
+            + ", moved=" + moved + ", left=" + left + ", fullRebuilds=" + replaced + "}";
+    }
+
+    @Nullable
+    private Member memberOf(Mob mob) {
+        Member m = members.get(mob.getId());
+        return m != null && m.mob == mob ? m : null;
+    }
+
+    /**
+     * Places each mob in health order: back into its previous group if that
+     * leader is still in range, else the nearest leader in range with room,
+     * else as a new leader if none is within the spacing, else as a deserter.
+     */
+    private void place(List<Member> toPlace, ConfigSnapshot cfg) {
+        if (toPlace.isEmpty()) return;
+        double radius = cfg.leaderGroupRadius();
+        double spacing = radius * cfg.leaderSpacingMultiplier();
+        toPlace.sort(Comparator.comparingDouble((Member m) -> m.mob.getHealth()).reversed());
+        for (Member m : toPlace) {
+            if (m.leaderId == m.id) continue;
+            int previous = m.leaderId;
+            detach(m);
+            m.deserter = false;
+            m.anchor();
+            m.dirty = false;
+
+            Group target = null;
+            Group prev = previous == NONE ? null : groups.get(previous);
+            if (prev != null && prev.size() < cfg.maxGroupSize() && m.distTo(prev.leader) <= radius) {
+                target = prev;
+            } else {
+                double bestDist = Double.MAX_VALUE;
+                for (Group g : groups.values()) {
+                    if (g.size() >= cfg.maxGroupSize()) continue;
+                    double d = m.distTo(g.leader);
+                    if (d <= radius && d < bestDist) {
+                        bestDist = d;
+                        target = g;
+                    }
+                }
+            }
+            if (target != null) {
+                m.leaderId = target.leader.id;
+                target.members.add(m.id);
+                target.edgesDirty = true;
+            } else if (groups.size() < cfg.maxLeaders() && leaderWithin(m, spacing, null) == null) {
+                m.leaderId = m.id;
+                groups.put(m.id, new Group(m));
+                capacityChanged = true;
+            } else {
+                m.deserter = true;
+            }
+        }
+    }
+
+    @Nullable
+    private Group leaderWithin(Member m, double spacing, @Nullable Group exclude) {
+        for (Group g : groups.values()) {
+            if (g == exclude || g.leader == m) continue;
+            if (m.distTo(g.leader) < spacing) return g;
+        }
+        return null;
+    }
+
+    /**
+     * Takes {@code m} out of whatever group it is in. A leader takes its
+     * whole group down with it.
+     */
+    private void detach(Member m) {
+        if (m.leaderId == NONE) return;
+        if (m.leaderId == m.id) {
+            Group g = groups.get(m.id);
+            if (g != null) dissolve(g);
+            return;
+        }
+        Group g = groups.get(m.leaderId);
+        if (g != null) {
+            g.members.remove(m.id);
+            g.edgesDirty = true;
+            capacityChanged = true;
+        }
+        m.leaderId = NONE;
+        m.edge = false;
+    }
+
+    private void dissolve(Group g) {
+        groups.remove(g.leader.id);
+        IntIterator it = g.members.iterator();
+        while (it.hasNext()) {
+            Member m = members.get(it.nextInt());
+            if (m == null) continue;
+            m.leaderId = NONE;
+            m.edge = false;
+            m.dirty = true;
+        }
+        g.leader.leaderId = NONE;
+        g.leader.dirty = true;
+        capacityChanged = true;
+    }
+
+    /**
+     * Marks the farthest members per angular sector around the leader as
+     * edge mobs.
+     */
+    private void recomputeEdges(Group g, ConfigSnapshot cfg) {
+        g.edgesDirty = false;
+        int sectors = cfg.numEdgeSectors();
+        int perSector = cfg.edgeMobsPerSector();
+        Member leader = g.leader;
+        Int2ObjectOpenHashMap<List<Member>> bySector = new Int2ObjectOpenHashMap<>();
+        Member farthest = null;
+        double farthestDist = -1;
+        IntIterator it = g.members.iterator();
+        while (it.hasNext()) {
+            Member m = members.get(it.nextInt());
+            if (m == null) continue;
+            m.edge = false;
+            double dist = m.distTo(leader);
+            if (dist > farthestDist) {
+                farthestDist = dist;
+                farthest = m;
+            }
+            double angle = Math.atan2(m.mob.getZ() - leader.mob.getZ(), m.mob.getX() - leader.mob.getX());
+            int sector = (int) Math.floor(((angle + Math.PI) / (2 * Math.PI)) * sectors) % sectors;
+            bySector.computeIfAbsent(sector, k -> new ArrayList<>()).add(m);
+        }
+        boolean anyEdge = false;
+        ObjectIterator<Int2ObjectMap.Entry<List<Member>>> sectorIt = bySector.int2ObjectEntrySet().fastIterator();
+        while (sectorIt.hasNext()) {
+            List<Member> inSector = sectorIt.next().getValue();
+            inSector.sort(Comparator.comparingDouble((Member m) -> m.distTo(leader)).reversed());
+            for (int i = 0; i < Math.min(perSector, inSector.size()); i++) {
+                inSector.get(i).edge = true;
+                anyEdge = true;
+            }
+        }
+        // Same as the full computation: a group with members always has an edge.
+        if (!anyEdge && farthest != null) {
+            farthest.edge = true;
+        }
+    }
+}
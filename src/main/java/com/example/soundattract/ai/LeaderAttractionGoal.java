@@ -214,7 +214,7 @@ public class LeaderAttractionGoal extends Goal {
             if (chosenDest != null) {
                 Vec3 cur = mob.position();
                 if (cur.distanceToSqr(chosenDest) > 1.5 * 1.5) {
-                    mob.getNavigation().moveTo(chosenDest.x, chosenDest.y, chosenDest.z, moveSpeed);
+                    SharedPathCache.moveTo(mob, chosenDest.x, chosenDest.y, chosenDest.z, moveSpeed);
                 }
                 if (mob.getNavigation().isDone()) {
                     hasPicked = false;
@@ -347,7 +347,7 @@ public class LeaderAttractionGoal extends Goal {
         if (chosenDest != null) {
             Vec3 cur = mob.position();
             if (cur.distanceToSqr(chosenDest) > 1.5 * 1.5) {
-                mob.getNavigation().moveTo(chosenDest.x, chosenDest.y, chosenDest.z, moveSpeed);
+                SharedPathCache.moveTo(mob, chosenDest.x, chosenDest.y, chosenDest.z, moveSpeed);
             }
             if (mob.getNavigation().isDone()) {
                 hasPicked = false;
@@ -2,57 +2,42 @@ package com.example.soundattract.ai;
 
 import com.example.soundattract.SoundAttractMod;
 import com.example.soundattract.config.SoundAttractConfig;
+import com.example.soundattract.tracking.TrackedMobRegistry;
 import com.example.soundattract.worker.WorkerScheduler.ConfigSnapshot;
 import com.example.soundattract.worker.WorkerScheduler.GroupComputeResult;
 import com.example.soundattract.worker.WorkerScheduler.MobSnapshot;
 import com.example.soundattract.worker.WorkSchedulerManager;
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
-import java.util.UUID;
 import java.util.WeakHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.ConcurrentHashMap;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Mob;
-import net.minecraft.world.phys.AABB;
 
 public class MobGroupManager {
 
   private static final Map<ResourceLocation, PerWorldData> worldData = new ConcurrentHashMap<>();
   private static final int RELAY_SOUND_TTL = 40;
   private static final int RELAY_SOUND_RATE_LIMIT = 20;
+  private static final int FULL_REBUILD_EVERY = Math.max(1, Integer.getInteger("soundattract.group.full_rebuild_every", 10));
 
   private static class PerWorldData {
 
-    final Map<UUID, Mob> uuidToLeader = Collections.synchronizedMap(
-      new HashMap<>()
-    );
-    final List<WeakReference<Mob>> leaders = Collections.synchronizedList(
-      new ArrayList<>()
-    );
+    final GroupIndex groups = new GroupIndex();
     final Map<Mob, List<SoundRelay>> mobToRelayedSounds = Collections.synchronizedMap(
       new WeakHashMap<>()
     );
     final Map<Mob, Long> mobLastRelayTime = Collections.synchronizedMap(
       new WeakHashMap<>()
     );
-    final Set<UUID> deserterUuids = Collections.synchronizedSet(
-      new HashSet<>()
-    );
-    final Map<Mob, Set<Mob>> lastEdgeMobMap = Collections.synchronizedMap(
-      new HashMap<>()
-    );
     long lastGroupUpdateTime = -1;
     long lastCleanupTime = -1;
+    int updatesUntilFullRebuild;
 
     volatile Future<?> inFlightGroupCompute;
   }
@@ -116,65 +101,22 @@ public class MobGroupManager {
     }
   }
 
-  private static boolean submitGroupComputeSnapshot(ServerLevel level) {
+  /**
+   * Sends the indexed mobs off for a full group computation.
+   *
+   * @return {@code true} if a computation was submitted
+   */
+  private static boolean submitGroupComputeSnapshot(ServerLevel level, PerWorldData data, ConfigSnapshot cfg) {
     try {
-      PerWorldData data = getData(level.dimension().location());
       Future<?> inFlight = data.inFlightGroupCompute;
       if (inFlight != null) {
-        try {
-          if (!inFlight.isDone()) {
-            return true;
-          }
-        } catch (Throwable ignored) {
+        if (!inFlight.isDone()) {
+          return false;
         }
         data.inFlightGroupCompute = null;
       }
-
-      Set<net.minecraft.world.entity.EntityType<?>> attractedEntityTypes = com.example.soundattract.event.SoundAttractionEvents.getCachedAttractedEntityTypes();
-      if (attractedEntityTypes == null || attractedEntityTypes.isEmpty()) return false;
-      int simDistChunks = level.getServer().getPlayerList().getViewDistance();
-      int simDistBlocks = simDistChunks * 16;
-      Set<Mob> mobsSet = new HashSet<>();
-      for (net.minecraft.server.level.ServerPlayer player : level.players()) {
-        AABB box = player.getBoundingBox().inflate(simDistBlocks);
-        List<Mob> nearbyMobs = level.getEntitiesOfClass(
-          Mob.class,
-          box,
-          m ->
-            m.isAlive() &&
-            !m.isRemoved() &&
-            (
-              attractedEntityTypes.contains(m.getType()) ||
-              com.example.soundattract.config.SoundAttractConfig.getMatchingProfile(
-                m
-              ) !=
-              null
-            )
-        );
-        mobsSet.addAll(nearbyMobs);
-      }
-      if (mobsSet.isEmpty()) return false;
-      List<MobSnapshot> snapshots = new ArrayList<>(mobsSet.size());
-      for (Mob m : mobsSet) {
-        snapshots.add(
-          new MobSnapshot(
-            m.getUUID(),
-            m.getX(),
-            m.getY(),
-            m.getZ(),
-            m.getHealth(),
-            m.isAlive()
-          )
-        );
-      }
-      ConfigSnapshot cfg = new ConfigSnapshot(
-        SoundAttractConfig.COMMON.leaderGroupRadius.get(),
-        SoundAttractConfig.COMMON.maxLeaders.get(),
-        SoundAttractConfig.COMMON.maxGroupSize.get(),
-        SoundAttractConfig.COMMON.leaderSpacingMultiplier.get(),
-        SoundAttractConfig.COMMON.numEdgeSectors.get(),
-        SoundAttractConfig.COMMON.edgeMobsPerSector.get()
-      );
+      List<MobSnapshot> snapshots = data.groups.snapshot();
+      if (snapshots.isEmpty()) return false;
       data.inFlightGroupCompute = WorkSchedulerManager.get().submitGroupCompute(snapshots, cfg, level.dimension().location());
       if (SoundAttractConfig.COMMON.debugLogging.get()) {
         SoundAttractMod.LOGGER.info(
@@ -196,81 +138,45 @@ public class MobGroupManager {
     }
   }
 
+  private static List<Mob> collectAttractedMobs(ServerLevel level) {
+    int simDistBlocks = level.getServer().getPlayerList().getViewDistance() * 16;
+    return TrackedMobRegistry.collectNearPlayers(level, simDistBlocks, TrackedMobRegistry.ATTRACTED);
+  }
+
+  private static ConfigSnapshot configSnapshot() {
+    return new ConfigSnapshot(
+      SoundAttractConfig.COMMON.leaderGroupRadius.get(),
+      SoundAttractConfig.COMMON.maxLeaders.get(),
+      SoundAttractConfig.COMMON.maxGroupSize.get(),
+      SoundAttractConfig.COMMON.leaderSpacingMultiplier.get(),
+      SoundAttractConfig.COMMON.numEdgeSectors.get(),
+      SoundAttractConfig.COMMON.edgeMobsPerSector.get()
+    );
+  }
+
   public static void applyGroupResult(
     ServerLevel level,
     GroupComputeResult result
   ) {
     if (result == null) return;
     PerWorldData data = getData(level.dimension().location());
-    Map<UUID, Mob> uuidToMob = new HashMap<>();
-    int simDistBlocks = level.getServer().getPlayerList().getViewDistance() * 16;
-    for (net.minecraft.server.level.ServerPlayer player : level.players()) {
-      AABB area = player.getBoundingBox().inflate(simDistBlocks);
-      for (Mob m : level.getEntitiesOfClass(Mob.class, area)) {
-        uuidToMob.put(m.getUUID(), m);
-      }
-    }
-    data.uuidToLeader.clear();
-    data.leaders.clear();
-    data.deserterUuids.clear();
-    data.lastEdgeMobMap.clear();
-    Set<UUID> leaderUuids = new HashSet<>();
-    for (Map.Entry<UUID, UUID> e : result.mobUuidToLeaderUuid().entrySet()) {
-      UUID mobId = e.getKey();
-      UUID leaderId = e.getValue();
-      Mob mob = uuidToMob.get(mobId);
-      Mob leader = uuidToMob.get(leaderId);
-      if (mob == null || leader == null) continue;
-      data.uuidToLeader.put(mob.getUUID(), leader);
-      if (leaderId.equals(mobId)) {
-        leaderUuids.add(leaderId);
-      }
-    }
-    for (UUID lid : leaderUuids) {
-      Mob leader = uuidToMob.get(lid);
-      if (leader != null) {
-        data.leaders.add(new WeakReference<>(leader));
-      }
-    }
-    for (Map.Entry<UUID, java.util.Set<UUID>> e : result.edgeMobsByLeaderUuid().entrySet()) {
-      UUID lid = e.getKey();
-      Mob leader = uuidToMob.get(lid);
-      if (leader == null) continue;
-      Set<Mob> edges = new HashSet<>();
-      for (UUID mid : e.getValue()) {
-        Mob mm = uuidToMob.get(mid);
-        if (mm != null) edges.add(mm);
-      }
-      data.lastEdgeMobMap.put(leader, edges);
-    }
-    data.deserterUuids.addAll(result.deserterUuids());
+    data.groups.applyFull(result);
     if (SoundAttractConfig.COMMON.debugLogging.get()) {
       SoundAttractMod.LOGGER.info(
         "[MobGroupManager] Applied group result for dimension {}: leaders={}, deserters={}",
         level.dimension().location(),
-        leaderUuids.size(),
-        data.deserterUuids.size()
+        data.groups.leaderCount(),
+        data.groups.deserterCount()
       );
     }
   }
 
   public static boolean isEdgeMob(Mob mob) {
-    PerWorldData data = getData(mob.level().dimension().location());
-    Mob leader = getLeader(mob);
-    if (leader == mob) {
-      return false;
-    }
-    Set<Mob> edgeSet = data.lastEdgeMobMap.get(leader);
-    return edgeSet != null && edgeSet.contains(mob);
+    return getData(mob.level().dimension().location()).groups.isEdge(mob);
   }
 
   private static void cleanupStaleEntries(ServerLevel level) {
     PerWorldData data = getData(level.dimension().location());
-    data.leaders.removeIf(ref -> {
-      Mob mob = ref.get();
-      return mob == null || mob.isRemoved();
-    });
-    data.uuidToLeader.values().removeIf(mob -> mob == null || mob.isRemoved());
     data.mobToRelayedSounds.keySet().removeIf(mob -> mob == null || mob.isRemoved());
     data.mobLastRelayTime.keySet().removeIf(mob -> mob == null || mob.isRemoved());
   }
@@ -300,117 +206,19 @@ public class MobGroupManager {
       cleanupStaleEntries(level);
       data.lastCleanupTime = time;
     }
-    if (submitGroupComputeSnapshot(level)) {
+    data.groups.sync(collectAttractedMobs(level), time);
+    ConfigSnapshot cfg = configSnapshot();
+    if (--data.updatesUntilFullRebuild <= 0 && submitGroupComputeSnapshot(level, data, cfg)) {
+      data.updatesUntilFullRebuild = FULL_REBUILD_EVERY;
       return;
     }
-    Set<net.minecraft.world.entity.EntityType<?>> attractedEntityTypes = com.example.soundattract.event.SoundAttractionEvents.getCachedAttractedEntityTypes();
-    int simDistChunks = level.getServer().getPlayerList().getViewDistance();
-    int simDistBlocks = simDistChunks * 16;
-    Set<Mob> mobsSet = new HashSet<>();
-    for (net.minecraft.server.level.ServerPlayer player : level.players()) {
-      net.minecraft.world.phys.AABB box = player.getBoundingBox().inflate(simDistBlocks);
-      List<Mob> nearbyMobs = level.getEntitiesOfClass(Mob.class, box);
-      mobsSet.addAll(nearbyMobs);
-    }
-    List<Mob> attractedMobs = new ArrayList<>();
-    for (Mob mob : mobsSet) {
-      boolean byType = attractedEntityTypes.contains(mob.getType());
-      boolean hasProfile = SoundAttractConfig.getMatchingProfile(mob) != null;
-      if (byType || hasProfile) {
-        attractedMobs.add(mob);
-      }
-    }
-    data.uuidToLeader.clear();
-    data.leaders.clear();
-    data.lastEdgeMobMap.clear();
-    data.deserterUuids.clear();
-    if (attractedMobs.isEmpty()) return;
-    for (Mob m : attractedMobs) {
-      if (SoundAttractConfig.getMatchingProfile(m) != null) {
-        data.leaders.add(new WeakReference<>(m));
-        data.uuidToLeader.put(m.getUUID(), m);
-      }
-    }
-    Collections.shuffle(attractedMobs, new java.util.Random(level.getGameTime()));
-    double groupRadius = SoundAttractConfig.COMMON.leaderGroupRadius.get();
-    int maxLeaders = SoundAttractConfig.COMMON.maxLeaders.get();
-    int maxGroupSize = SoundAttractConfig.COMMON.maxGroupSize.get();
-    double leaderSpacing = groupRadius * SoundAttractConfig.COMMON.leaderSpacingMultiplier.get();
-    Set<Mob> assigned = new HashSet<>();
-    List<Mob> leaderList = new ArrayList<>();
-    synchronized (data.leaders) {
-      data.leaders.removeIf(ref -> ref.get() == null || ref.get().isRemoved());
-      attractedMobs.sort(Comparator.comparingDouble(m -> -m.getHealth()));
-      for (Mob potentialLeader : attractedMobs) {
-        if (data.leaders.size() >= maxLeaders) break;
-        if (data.leaders.stream().anyMatch(ref -> ref.get() == potentialLeader)) continue;
-        boolean tooCloseToExistingLeader = false;
-        for (WeakReference<Mob> leaderRef : data.leaders) {
-          Mob existingLeader = leaderRef.get();
-          if (
-            existingLeader != null &&
-            potentialLeader.distanceToSqr(existingLeader) < leaderSpacing * leaderSpacing
-          ) {
-            tooCloseToExistingLeader = true;
-            break;
-          }
-        }
-        if (!tooCloseToExistingLeader) {
-          data.leaders.add(new WeakReference<>(potentialLeader));
-          data.uuidToLeader.put(potentialLeader.getUUID(), potentialLeader);
-          leaderList.add(potentialLeader);
-        }
-      }
-    }
-    Map<Mob, List<Mob>> leaderToGroup = new HashMap<>();
-    for (Mob leader : leaderList) {
-      List<Mob> group = new ArrayList<>();
-      group.add(leader);
-      for (Mob mob : attractedMobs) {
-        if (mob == leader || assigned.contains(mob)) continue;
-        if (mob.distanceTo(leader) <= groupRadius && group.size() < maxGroupSize) {
-          group.add(mob);
-          assigned.add(mob);
-        }
-      }
-      for (Mob mob : group) {
-        data.uuidToLeader.put(mob.getUUID(), leader);
-      }
-      leaderToGroup.put(leader, group);
-    }
-    for (Mob mob : attractedMobs) {
-      if (!assigned.contains(mob)) {
-        data.deserterUuids.add(mob.getUUID());
-      }
-    }
-    for (Mob leader : leaderList) {
-      List<Mob> group = leaderToGroup.get(leader);
-      if (group == null) continue;
-      int sectors = SoundAttractConfig.COMMON.numEdgeSectors.get();
-      Map<Integer, List<Mob>> sectorToFarthestList = new HashMap<>();
-      double leaderX = leader.getX(), leaderZ = leader.getZ();
-      for (Mob m : group) {
-        if (m == leader) continue;
-        double dx = m.getX() - leaderX, dz = m.getZ() - leaderZ;
-        double angle = Math.atan2(dz, dx);
-        int sector = (int) Math.floor(
-          ((angle + Math.PI) / (2 * Math.PI)) * sectors
-        ) % sectors;
-        sectorToFarthestList.computeIfAbsent(sector, k -> new ArrayList<>()).add(m);
-      }
-      Set<Mob> edgeMobs = new HashSet<>();
-      for (Map.Entry<Integer, List<Mob>> entry : sectorToFarthestList.entrySet()) {
-        List<Mob> mobsInSector = entry.getValue();
-        mobsInSector.sort(
-          (a, b) -> Double.compare(b.distanceTo(leader), a.distanceTo(leader))
-        );
-        int perSector = SoundAttractConfig.COMMON.edgeMobsPerSector.get();
-        int edgeCount = Math.min(perSector, mobsInSector.size());
-        for (int i = 0; i < edgeCount; i++) {
-          edgeMobs.add(mobsInSector.get(i));
-        }
-      }
-      data.lastEdgeMobMap.put(leader, edgeMobs);
+    data.groups.maintain(cfg);
+    if (SoundAttractConfig.COMMON.debugLogging.get() && (time % 1200 == 0)) {
+      SoundAttractMod.LOGGER.info(
+        "[MobGroupManager] {} in dimension {}",
+        data.groups.stats(),
+        level.dimension().location()
+      );
     }
   }
 
@@ -450,8 +258,7 @@ public class MobGroupManager {
   }
 
   public static Mob getLeader(Mob mob) {
-    PerWorldData data = getData(mob.level().dimension().location());
-    return data.uuidToLeader.getOrDefault(mob.getUUID(), mob);
+    return getData(mob.level().dimension().location()).groups.leaderOf(mob);
   }
 
   /**
@@ -459,31 +266,14 @@ public class MobGroupManager {
    * Useful for deserters whose leader mapping resolves to themselves.
    */
   public static Mob getNearestLeader(Mob mob) {
-    PerWorldData data = getData(mob.level().dimension().location());
-    Mob best = null;
-    double bestDistSq = Double.MAX_VALUE;
-    synchronized (data.leaders) {
-      data.leaders.removeIf(ref -> ref.get() == null || ref.get().isRemoved());
-      for (WeakReference<Mob> ref : data.leaders) {
-        Mob candidate = ref.get();
-        if (candidate == null || candidate == mob || candidate.isRemoved() || !candidate.isAlive()) continue;
-        double d = mob.distanceToSqr(candidate);
-        if (d < bestDistSq) {
-          bestDistSq = d;
-          best = candidate;
-        }
-      }
-    }
-    return best;
+    return getData(mob.level().dimension().location()).groups.nearestLeader(mob);
   }
 
   public static void promoteToDeserter(Mob mob) {
-    PerWorldData data = getData(mob.level().dimension().location());
-    data.deserterUuids.add(mob.getUUID());
+    getData(mob.level().dimension().location()).groups.promoteToDeserter(mob);
   }
 
   public static boolean isDeserter(Mob mob) {
-    PerWorldData data = getData(mob.level().dimension().location());
-    return data.deserterUuids.contains(mob.getUUID());
+    return getData(mob.level().dimension().location()).groups.isDeserter(mob);
   }
 }
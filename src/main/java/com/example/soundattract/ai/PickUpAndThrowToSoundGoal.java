@@ -47,6 +47,7 @@ public class PickUpAndThrowToSoundGoal extends Goal {
         if (this.mob.getRandom().nextDouble() >= chance) return false;
 
         // Need an active sound to throw towards
+        if (!SoundTracker.mayHearSoundAt(this.mob.level(), this.mob.blockPosition())) return false;
         this.targetSound = SoundTracker.findNearestSound(this.mob, this.mob.level(), this.mob.blockPosition(), this.mob.getEyePosition());
         if (this.targetSound == null) return false;
 
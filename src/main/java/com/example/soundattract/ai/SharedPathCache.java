@@ -0,0 +1,228 @@
+package com.example.soundattract.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.config.SoundAttractConfig;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.ai.navigation.PathNavigation;
+import net.minecraft.world.entity.monster.Zombie;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.pathfinder.BlockPathTypes;
+import net.minecraft.world.level.pathfinder.Node;
+import net.minecraft.world.level.pathfinder.NodeEvaluator;
+import net.minecraft.world.level.pathfinder.Path;
+
+/**
+ * Paths shared between mobs heading for the same block.
+ *
+ * When a loud sound fires, a whole group asks for a path to the same target
+ * from roughly the same place within a few ticks. The first mob to ask pays
+ * for the search; its path is kept under (dimension, entity type, navigation
+ * type, bounding box, door and swimming abilities, pathfinding malus, target
+ * block, start cell) for
+ * {@code -Dsoundattract.path.share_ttl} ticks (default 40), and every other
+ * mob of the same type and the same size and abilities starting in the same
+ * {@code -Dsoundattract.path.share_cell}-block cell (default 4) gets its own
+ * copy of it, joined at the node nearest to where it stands.
+ *
+ * Anything that does not fit falls back to vanilla pathing: an expired
+ * entry, a mob not standing next to any node of the shared path, or a mob
+ * whose navigation already follows a path to that target. When the cache is
+ * full, expired entries are evicted to make room for a new one. Disable with
+ * {@code -Dsoundattract.path.share=false}. Server thread only.
+ */
+final class SharedPathCache {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("soundattract.path.share", "true"));
+    private static final long TTL_TICKS = Long.getLong("soundattract.path.share_ttl", 40L);
+    private static final int CELL_SHIFT = Integer.numberOfTrailingZeros(
+        Integer.highestOneBit(Math.max(1, Integer.getInteger("soundattract.path.share_cell", 4))));
+    private static final int MAX_ENTRIES = Integer.getInteger("soundattract.path.share_max", 512);
+    private static final double JOIN_DISTANCE_SQ = 1.5 * 1.5;
+    private static final long PRUNE_INTERVAL = 200L;
+
+    private static final BlockPathTypes[] PATH_TYPES = BlockPathTypes.values();
+
+    // Baby zombies, slimes of different sizes and mobs whose malus a goal has
+    // changed share a type but not a path.
+    private record Key(ResourceKey<Level> dimension, EntityType<?> type, Class<?> navigation,
+                       float width, float height, int abilities, Malus malus, long target, long cell) {
+    }
+
+    private record Malus(float[] values) {
+        static Malus of(Mob mob) {
+            float[] values = new float[PATH_TYPES.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = mob.getPathfindingMalus(PATH_TYPES[i]);
+            }
+            return new Malus(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Malus other && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+
+    private static final class Entry {
+        final Node[] nodes;
+        final BlockPos target;
+        final boolean reached;
+        final long createdAt;
+
+        Entry(Path path, long createdAt) {
+            this.nodes = new Node[path.getNodeCount()];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = path.getNode(i);
+            }
+            this.target = path.getTarget();
+            this.reached = path.canReach();
+            this.createdAt = createdAt;
+        }
+
+        boolean isFresh(long now) {
+            return now >= createdAt && now - createdAt <= TTL_TICKS;
+        }
+    }
+
+    private static final Map<Key, Entry> ENTRIES = new HashMap<>();
+    private static long lastPrune = Long.MIN_VALUE;
+    private static long hits;
+    private static long misses;
+
+    private SharedPathCache() {
+    }
+
+    /**
+     * Drop-in for {@code mob.getNavigation().moveTo(x, y, z, speed)}.
+     */
+    static boolean moveTo(Mob mob, double x, double y, double z, double speed) {
+        PathNavigation navigation = mob.getNavigation();
+        BlockPos target = BlockPos.containing(x, y, z);
+        if (!ENABLED || mob.level().isClientSide()) {
+            return navigation.moveTo(x, y, z, speed);
+        }
+        Path current = navigation.getPath();
+        if (current != null && !current.isDone() && target.equals(current.getTarget())) {
+            // Vanilla keeps following its own path to the same target without a new search.
+            return navigation.moveTo(x, y, z, speed);
+        }
+
+        long now = mob.level().getGameTime();
+        prune(now);
+        BlockPos start = mob.blockPosition();
+        Key key = new Key(mob.level().dimension(), mob.getType(), navigation.getClass(),
+            mob.getBbWidth(), mob.getBbHeight(), abilities(mob, navigation), Malus.of(mob), target.asLong(),
+            BlockPos.asLong(start.getX() >> CELL_SHIFT, start.getY() >> CELL_SHIFT, start.getZ() >> CELL_SHIFT));
+
+        Entry entry = ENTRIES.get(key);
+        if (entry != null && entry.isFresh(now)) {
+            Path shared = join(entry, mob);
+            if (shared != null && navigation.moveTo(shared, speed)) {
+                hits++;
+                return true;
+            }
+        }
+
+        misses++;
+        Path path = navigation.createPath(target, 1);
+        if (path != null && path.getNodeCount() > 0) {
+            if (ENTRIES.size() >= MAX_ENTRIES && !ENTRIES.containsKey(key)) {
+                evictExpired(now);
+            }
+            if (ENTRIES.size() < MAX_ENTRIES || ENTRIES.containsKey(key)) {
+                ENTRIES.put(key, new Entry(path, now));
+            }
+        }
+        return navigation.moveTo(path, speed);
+    }
+
+    private static int abilities(Mob mob, PathNavigation navigation) {
+        NodeEvaluator evaluator = navigation.getNodeEvaluator();
+        int bits = 0;
+        if (evaluator.canPassDoors()) {
+            bits |= 1;
+        }
+        if (evaluator.canOpenDoors()) {
+            bits |= 2;
+        }
+        if (evaluator.canFloat()) {
+            bits |= 4;
+        }
+        if (mob instanceof Zombie zombie && zombie.canBreakDoors()) {
+            bits |= 8;
+        }
+        return bits;
+    }
+
+    /**
+     * A private copy of the shared path starting at the node nearest to
+     * {@code mob}, or null if the mob is not next to any node.
+     */
+    private static Path join(Entry entry, Mob mob) {
+        double mx = mob.getX();
+        double mz = mob.getZ();
+        int my = mob.getBlockY();
+        int best = -1;
+        double bestSq = JOIN_DISTANCE_SQ;
+        for (int i = 0; i < entry.nodes.length; i++) {
+            Node node = entry.nodes[i];
+            if (Math.abs(node.y - my) > 1) {
+                continue;
+            }
+            double dx = node.x + 0.5 - mx;
+            double dz = node.z + 0.5 - mz;
+            double d = dx * dx + dz * dz;
+            if (d <= bestSq) {
+                bestSq = d;
+                best = i;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        // Navigation trims and replaces nodes in place, so each mob needs its own list.
+        List<Node> nodes = new ArrayList<>(entry.nodes.length);
+        for (Node node : entry.nodes) {
+            nodes.add(node);
+        }
+        Path path = new Path(nodes, entry.target, entry.reached);
+        path.setNextNodeIndex(best);
+        return path;
+    }
+
+    private static void prune(long now) {
+        if (lastPrune != Long.MIN_VALUE && now >= lastPrune && now - lastPrune < PRUNE_INTERVAL) {
+            return;
+        }
+        lastPrune = now;
+        evictExpired(now);
+        if (SoundAttractConfig.COMMON.debugLogging.get() && (hits | misses) != 0L) {
+            SoundAttractMod.LOGGER.info("[SharedPathCache] entries={}, hits={}, misses={}", ENTRIES.size(), hits, misses);
+        }
+    }
+
+    private static void evictExpired(long now) {
+        Iterator<Entry> it = ENTRIES.values().iterator();
+        while (it.hasNext()) {
+            if (!it.next().isFresh(now)) {
+                it.remove();
+            }
+        }
+    }
+}
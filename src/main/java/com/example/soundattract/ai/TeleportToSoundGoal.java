@@ -60,6 +60,7 @@ public class TeleportToSoundGoal extends Goal {
         double chance = EnhancedAICompat.getTeleportToTargetChance(this.mob.level());
         if (this.mob.getRandom().nextDouble() >= chance) return false;
 
+        if (!SoundTracker.mayHearSoundAt(this.mob.level(), this.mob.blockPosition())) return false;
         this.targetSound = SoundTracker.findNearestSound(this.mob, this.mob.level(), this.mob.blockPosition(), this.mob.getEyePosition());
         if (this.targetSound == null) return false;
 
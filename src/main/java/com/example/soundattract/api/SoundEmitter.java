@@ -0,0 +1,159 @@
+package com.example.soundattract.api;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+import com.example.soundattract.config.BakedSettings;
+import com.example.soundattract.tracking.SoundTracker;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.registries.ForgeRegistries;
+
+/**
+ * Server-side entry point for reporting sounds that mobs can be attracted
+ * to, for this mod's integrations and for other mods.
+ *
+ * Resolve a {@link Key} once per kind of sound, ideally into a static field,
+ * and a {@link Dimension} per level. {@link #emit} then writes the sound
+ * straight into the tracker's ingest queue: no packet objects, no id strings
+ * and no registry lookups per call, and the sound whitelist is consulted once
+ * per key each time the config is reloaded rather than once per sound.
+ *
+ * Emitting is safe from any thread; sounds are picked up on the next server
+ * tick. Nothing here may be called on the client.
+ */
+public final class SoundEmitter {
+
+    private static final Map<ResourceKey<Level>, Dimension> DIMENSIONS = new ConcurrentHashMap<>();
+
+    /**
+     * A pre-resolved sound id, optionally carrying integration metadata
+     * (for example a player and an animation) after a {@code #}.
+     */
+    public static final class Key {
+        final String id;
+        final ResourceLocation baseId;
+        private volatile SoundEvent sound;
+        private volatile boolean soundResolved;
+        private volatile BakedSettings admittedFor;
+        private volatile boolean admitted;
+
+        private Key(ResourceLocation baseId, String id) {
+            this.baseId = baseId;
+            this.id = id;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        /**
+         * Whether the current sound whitelist lets this key through. The
+         * answer is cached until the baked settings are replaced.
+         */
+        public boolean isAdmitted() {
+            BakedSettings settings = BakedSettings.get();
+            if (settings != admittedFor) {
+                admitted = settings.soundIdWhitelist.isEmpty() || settings.soundIdWhitelist.contains(baseId);
+                admittedFor = settings;
+            }
+            return admitted;
+        }
+
+        @Nullable
+        SoundEvent sound() {
+            if (!soundResolved) {
+                sound = ForgeRegistries.SOUND_EVENTS.getValue(baseId);
+                soundResolved = true;
+            }
+            return sound;
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+
+    /**
+     * Handle for a server dimension, as the tracker keys it.
+     */
+    public static final class Dimension {
+        final String key;
+
+        private Dimension(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String toString() {
+            return key;
+        }
+    }
+
+    private SoundEmitter() {
+    }
+
+    public static Key key(ResourceLocation id) {
+        return new Key(id, id.toString());
+    }
+
+    /**
+     * A key for {@code baseId} tagged with {@code metadata}. The whitelist
+     * is checked against {@code baseId}; the metadata only keeps sounds from
+     * different sources apart.
+     */
+    public static Key key(ResourceLocation baseId, @Nullable String metadata) {
+        return new Key(baseId, SoundTracker.buildIntegrationSoundId(baseId, metadata));
+    }
+
+    public static Dimension dimension(Level level) {
+        Dimension dim = DIMENSIONS.get(level.dimension());
+        if (dim == null) {
+            dim = DIMENSIONS.computeIfAbsent(level.dimension(), k -> new Dimension(SoundTracker.dimensionKey(level)));
+        }
+        return dim;
+    }
+
+    /**
+     * Reports a sound at the packed block position {@code pos} (see
+     * {@link BlockPos#asLong}) with the configured sound lifetime.
+     *
+     * @return {@code false} if the whitelist rejected {@code key}, or if
+     *         {@code range} or {@code weight} is negative, NaN or infinite
+     */
+    public static boolean emit(Key key, long pos, Dimension dimension, double range, double weight) {
+        return emit(key, pos, dimension, range, weight, BakedSettings.get().soundLifetimeTicks);
+    }
+
+    public static boolean emit(Key key, long pos, Dimension dimension, double range, double weight, int lifetime) {
+        // The tracker trusts what it is handed; this is the last place a caller's values are checked.
+        if (!isValidAmount(range) || !isValidAmount(weight) || lifetime <= 0) {
+            return false;
+        }
+        if (!key.isAdmitted()) {
+            return false;
+        }
+        SoundTracker.ingest(dimension.key, key.sound(), key.id, pos, range, weight, lifetime);
+        return true;
+    }
+
+    /**
+     * Reports a sound at {@code source}'s block position in its dimension.
+     */
+    public static boolean emit(Key key, Entity source, double range, double weight) {
+        return emit(key, BlockPos.asLong(source.getBlockX(), source.getBlockY(), source.getBlockZ()),
+            dimension(source.level()), range, weight);
+    }
+
+    private static boolean isValidAmount(double value) {
+        return value >= 0.0 && value < Double.POSITIVE_INFINITY;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.soundattract.async;
 
 import com.example.soundattract.SoundAttractMod;
 import com.example.soundattract.config.SoundAttractConfig;
+import com.example.soundattract.runtime.TickBudgetGovernor;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -150,7 +151,7 @@ public final class AsyncManager {
     private static void drainBudgeted(MinecraftServer server) {
         if (server == null) return;
         if (MAIN_THREAD_QUEUE.isEmpty()) return;
-        final long budgetNs = TimeUnit.MICROSECONDS.toNanos(Long.getLong("soundattract.mainqueue.budget_us", 500L));
+        final long budgetNs = TickBudgetGovernor.remainingNanos(TickBudgetGovernor.Subsystem.MAIN_DRAIN);
         final int maxTasks = Math.max(1, Integer.getInteger("soundattract.mainqueue.max_tasks", 8));
 
         long start = System.nanoTime();
@@ -167,6 +168,10 @@ public final class AsyncManager {
                 break;
             }
         }
+        TickBudgetGovernor.end(TickBudgetGovernor.Subsystem.MAIN_DRAIN, start);
+        if (!MAIN_THREAD_QUEUE.isEmpty()) {
+            TickBudgetGovernor.markThrottled(TickBudgetGovernor.Subsystem.MAIN_DRAIN);
+        }
     }
 
     private static ThreadFactory newNamedDaemonFactory(String prefix) {
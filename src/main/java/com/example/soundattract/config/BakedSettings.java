@@ -0,0 +1,274 @@
+package com.example.soundattract.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.async.AsyncManager;
+import com.example.soundattract.data.BlockAcoustics;
+
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Immutable snapshot of the settings read on hot paths. Values are copied
+ * out of {@link SoundAttractConfig#COMMON} and the baked caches once per
+ * reload, so a reader that holds one snapshot sees a consistent set of
+ * values for the whole evaluation instead of a half-rebuilt cache.
+ *
+ * {@link SoundAttractConfig#bakeConfig()} asks for a rebuild; the snapshot is
+ * assembled on the async pool and published with a single volatile write.
+ * The baked caches it copies are captured on the requesting thread first,
+ * so a later reload cannot swap some of them under the copy.
+ * Until then readers keep the previous snapshot. If several reloads race,
+ * only the most recent request is published.
+ */
+public final class BakedSettings {
+
+    private static volatile BakedSettings current;
+    private static final AtomicLong REQUESTED = new AtomicLong();
+    private static long published;
+
+    public final int soundLifetimeTicks;
+    public final int maxSoundsTracked;
+    public final double soundSwitchRatio;
+    public final double soundNoveltyBonusWeight;
+    public final int soundNoveltyTimeTicks;
+    public final boolean serverSideSoundCapture;
+    public final boolean virtualMovementNoise;
+    public final int asyncResultTtlTicks;
+    public final int soundScoringSubmitCooldownTicks;
+    public final double arrivalDistance;
+    public final double mobMoveSpeed;
+
+    public final boolean enableBlockMuffling;
+    public final int maxMufflingBlocksToCheck;
+    public final boolean enableRaycastCache;
+    public final int raycastCacheTtlTicks;
+    public final int raycastCacheMaxEntries;
+    private final double[] mufflingFactors;
+
+    public final boolean enableDataDriven;
+    public final boolean datapackOverConfig;
+    public final boolean enableXrayTargeting;
+
+    public final boolean enableStealthMechanics;
+    public final int stealthCheckInterval;
+    public final double minStealthDetectionRange;
+    public final double maxStealthDetectionRange;
+    public final double standingDetectionRangePlayer;
+    public final double sneakingDetectionRangePlayer;
+    public final double crawlingDetectionRangePlayer;
+    public final int gunshotDetectionDurationTicks;
+    public final double invisibilityStealthFactor;
+    public final int neutralLightLevel;
+    public final double lightLevelSensitivity;
+    public final double minLightFactor;
+    public final double maxLightFactor;
+    public final boolean enableHeldItemPenalty;
+    public final double heldItemPenaltyFactor;
+    public final boolean enableEnchantmentPenalty;
+    public final double armorEnchantmentPenaltyFactor;
+    public final double heldItemEnchantmentPenaltyFactor;
+    public final boolean enableEnvironmentalCamouflage;
+    public final int environmentalCamouflageColorMatchThreshold;
+    public final double environmentalCamouflageMaxEffectiveness;
+    public final boolean enableEnvironmentalMismatchPenalty;
+    public final int environmentalMismatchThreshold;
+    public final double environmentalMismatchPenaltyFactor;
+    public final double rainStealthFactor;
+    public final double thunderStealthFactor;
+    public final double movementThreshold;
+    public final double movementStealthPenalty;
+    public final double stationaryStealthBonusFactor;
+    public final boolean enableCamouflage;
+    public final boolean requireFullSetForCamouflageBonus;
+    public final double fullArmorStealthBonus;
+    public final double bootsCamouflageEffectiveness;
+    public final double leggingsCamouflageEffectiveness;
+    public final double chestplateCamouflageEffectiveness;
+    public final double helmetCamouflageEffectiveness;
+
+    public final Set<String> camouflageArmorItems;
+    public final Set<ResourceLocation> soundIdWhitelist;
+    public final Map<ResourceLocation, SoundAttractConfig.SoundDefaultEntry> soundDefaults;
+    public final Set<ResourceLocation> customWoolBlocks;
+    public final Set<ResourceLocation> customSolidBlocks;
+    public final Set<ResourceLocation> customNonSolidBlocks;
+    public final Set<ResourceLocation> customThinBlocks;
+    public final Set<ResourceLocation> customLiquidBlocks;
+    public final Set<ResourceLocation> customAirBlocks;
+    public final Set<ResourceLocation> nonBlockingVisionAllow;
+    public final Map<ResourceLocation, Integer> customArmorColors;
+    public final List<MobProfile> mobProfiles;
+    public final MobProfileIndex mobProfileIndex;
+    public final List<PlayerProfile> playerProfiles;
+
+    private BakedSettings(SoundAttractConfig.Common c, Inputs in) {
+        soundLifetimeTicks = c.soundLifetimeTicks.get();
+        maxSoundsTracked = c.maxSoundsTracked.get();
+        soundSwitchRatio = c.soundSwitchRatio.get();
+        soundNoveltyBonusWeight = c.soundNoveltyBonusWeight.get();
+        soundNoveltyTimeTicks = c.soundNoveltyTimeTicks.get();
+        serverSideSoundCapture = c.serverSideSoundCapture.get();
+        virtualMovementNoise = c.virtualMovementNoise.get();
+        asyncResultTtlTicks = c.asyncResultTtlTicks.get();
+        soundScoringSubmitCooldownTicks = c.soundScoringSubmitCooldownTicks.get();
+        arrivalDistance = c.arrivalDistance.get();
+        mobMoveSpeed = c.mobMoveSpeed.get();
+
+        enableBlockMuffling = c.enableBlockMuffling.get();
+        maxMufflingBlocksToCheck = c.maxMufflingBlocksToCheck.get();
+        enableRaycastCache = c.enableRaycastCache.get();
+        raycastCacheTtlTicks = c.raycastCacheTtlTicks.get();
+        raycastCacheMaxEntries = c.raycastCacheMaxEntries.get();
+        mufflingFactors = new double[BlockAcoustics.MUFFLE_CLASSES];
+        mufflingFactors[BlockAcoustics.MUFFLE_NONE] = 1.0;
+        mufflingFactors[BlockAcoustics.MUFFLE_WOOL] = c.mufflingFactorWool.get();
+        mufflingFactors[BlockAcoustics.MUFFLE_LIQUID] = c.mufflingFactorLiquid.get();
+        mufflingFactors[BlockAcoustics.MUFFLE_THIN] = c.mufflingFactorThin.get();
+        mufflingFactors[BlockAcoustics.MUFFLE_SOLID] = c.mufflingFactorSolid.get();
+        mufflingFactors[BlockAcoustics.MUFFLE_NON_SOLID] = c.mufflingFactorNonSolid.get();
+
+        enableDataDriven = c.enableDataDriven.get();
+        datapackOverConfig = "datapack_over_config".equalsIgnoreCase(c.datapackPriority.get());
+        enableXrayTargeting = c.enableXrayTargeting.get();
+
+        enableStealthMechanics = c.enableStealthMechanics.get();
+        stealthCheckInterval = c.stealthCheckInterval.get();
+        minStealthDetectionRange = c.minStealthDetectionRange.get();
+        maxStealthDetectionRange = c.maxStealthDetectionRange.get();
+        standingDetectionRangePlayer = c.standingDetectionRangePlayer.get();
+        sneakingDetectionRangePlayer = c.sneakingDetectionRangePlayer.get();
+        crawlingDetectionRangePlayer = c.crawlingDetectionRangePlayer.get();
+        gunshotDetectionDurationTicks = c.gunshotDetectionDurationTicks.get();
+        invisibilityStealthFactor = c.invisibilityStealthFactor.get();
+        neutralLightLevel = c.neutralLightLevel.get();
+        lightLevelSensitivity = c.lightLevelSensitivity.get();
+        minLightFactor = c.minLightFactor.get();
+        maxLightFactor = c.maxLightFactor.get();
+        enableHeldItemPenalty = c.enableHeldItemPenalty.get();
+        heldItemPenaltyFactor = c.heldItemPenaltyFactor.get();
+        enableEnchantmentPenalty = c.enableEnchantmentPenalty.get();
+        armorEnchantmentPenaltyFactor = c.armorEnchantmentPenaltyFactor.get();
+        heldItemEnchantmentPenaltyFactor = c.heldItemEnchantmentPenaltyFactor.get();
+        enableEnvironmentalCamouflage = c.enableEnvironmentalCamouflage.get();
+        environmentalCamouflageColorMatchThreshold = c.environmentalCamouflageColorMatchThreshold.get();
+        environmentalCamouflageMaxEffectiveness = c.environmentalCamouflageMaxEffectiveness.get();
+        enableEnvironmentalMismatchPenalty = c.enableEnvironmentalMismatchPenalty.get();
+        environmentalMismatchThreshold = c.environmentalMismatchThreshold.get();
+        environmentalMismatchPenaltyFactor = c.environmentalMismatchPenaltyFactor.get();
+        rainStealthFactor = c.rainStealthFactor.get();
+        thunderStealthFactor = c.thunderStealthFactor.get();
+        movementThreshold = c.movementThreshold.get();
+        movementStealthPenalty = c.movementStealthPenalty.get();
+        stationaryStealthBonusFactor = c.stationaryStealthBonusFactor.get();
+        enableCamouflage = c.enableCamouflage.get();
+        requireFullSetForCamouflageBonus = c.requireFullSetForCamouflageBonus.get();
+        fullArmorStealthBonus = c.fullArmorStealthBonus.get();
+        bootsCamouflageEffectiveness = c.bootsCamouflageEffectiveness.get();
+        leggingsCamouflageEffectiveness = c.leggingsCamouflageEffectiveness.get();
+        chestplateCamouflageEffectiveness = c.chestplateCamouflageEffectiveness.get();
+        helmetCamouflageEffectiveness = c.helmetCamouflageEffectiveness.get();
+
+        camouflageArmorItems = Set.copyOf(c.camouflageArmorItems.get());
+        soundIdWhitelist = Set.copyOf(in.soundIdWhitelist());
+        soundDefaults = Map.copyOf(in.soundDefaults());
+        customWoolBlocks = Set.copyOf(in.customWoolBlocks());
+        customSolidBlocks = Set.copyOf(in.customSolidBlocks());
+        customNonSolidBlocks = Set.copyOf(in.customNonSolidBlocks());
+        customThinBlocks = Set.copyOf(in.customThinBlocks());
+        customLiquidBlocks = Set.copyOf(in.customLiquidBlocks());
+        customAirBlocks = Set.copyOf(in.customAirBlocks());
+        nonBlockingVisionAllow = Set.copyOf(in.nonBlockingVisionAllow());
+        customArmorColors = Map.copyOf(in.customArmorColors());
+        mobProfiles = in.mobProfiles() == null ? List.of() : List.copyOf(in.mobProfiles());
+        mobProfileIndex = new MobProfileIndex(mobProfiles);
+        playerProfiles = in.playerProfiles() == null ? List.of() : List.copyOf(in.playerProfiles());
+    }
+
+    /**
+     * The baked caches a snapshot is built from. Each cache is replaced
+     * wholesale on reload, so taking every reference at once, on the thread
+     * that just baked them, pins one consistent set for the copy on the pool.
+     */
+    private record Inputs(Set<ResourceLocation> soundIdWhitelist,
+                          Map<ResourceLocation, SoundAttractConfig.SoundDefaultEntry> soundDefaults,
+                          Set<ResourceLocation> customWoolBlocks,
+                          Set<ResourceLocation> customSolidBlocks,
+                          Set<ResourceLocation> customNonSolidBlocks,
+                          Set<ResourceLocation> customThinBlocks,
+                          Set<ResourceLocation> customLiquidBlocks,
+                          Set<ResourceLocation> customAirBlocks,
+                          Set<ResourceLocation> nonBlockingVisionAllow,
+                          Map<ResourceLocation, Integer> customArmorColors,
+                          List<MobProfile> mobProfiles,
+                          List<PlayerProfile> playerProfiles) {
+
+        static Inputs capture() {
+            return new Inputs(
+                    SoundAttractConfig.SOUND_ID_WHITELIST_CACHE,
+                    SoundAttractConfig.SOUND_DEFAULT_ENTRIES_CACHE,
+                    SoundAttractConfig.CUSTOM_WOOL_BLOCKS_CACHE,
+                    SoundAttractConfig.CUSTOM_SOLID_BLOCKS_CACHE,
+                    SoundAttractConfig.CUSTOM_NON_SOLID_BLOCKS_CACHE,
+                    SoundAttractConfig.CUSTOM_THIN_BLOCKS_CACHE,
+                    SoundAttractConfig.CUSTOM_LIQUID_BLOCKS_CACHE,
+                    SoundAttractConfig.CUSTOM_AIR_BLOCKS_CACHE,
+                    SoundAttractConfig.NON_BLOCKING_VISION_ALLOW_CACHE,
+                    SoundAttractConfig.customArmorColors,
+                    SoundAttractConfig.SPECIAL_MOB_PROFILES_CACHE,
+                    SoundAttractConfig.SPECIAL_PLAYER_PROFILES_CACHE);
+        }
+    }
+
+    /**
+     * The current snapshot. Bakes synchronously on first use if no rebuild
+     * has been published yet.
+     */
+    public static BakedSettings get() {
+        BakedSettings settings = current;
+        if (settings != null) {
+            return settings;
+        }
+        synchronized (BakedSettings.class) {
+            if (current == null) {
+                current = new BakedSettings(SoundAttractConfig.COMMON, Inputs.capture());
+                BlockAcoustics.invalidate();
+            }
+            return current;
+        }
+    }
+
+    public static void rebuild() {
+        long generation = REQUESTED.incrementAndGet();
+        Inputs inputs = Inputs.capture();
+        AsyncManager.submit("soundattract_bake_settings", () -> new BakedSettings(SoundAttractConfig.COMMON, inputs),
+                AsyncManager.Priority.HIGH, true)
+            .whenComplete((settings, error) -> {
+                if (error != null) {
+                    SoundAttractMod.LOGGER.error("[BakedSettings] Rebuild failed; keeping previous settings", error);
+                    return;
+                }
+                publish(generation, settings);
+            });
+    }
+
+    private static synchronized void publish(long generation, BakedSettings settings) {
+        if (generation < published) {
+            return;
+        }
+        published = generation;
+        current = settings;
+        BlockAcoustics.invalidate();
+        if (SoundAttractConfig.COMMON.debugLogging.get()) {
+            SoundAttractMod.LOGGER.info("[BakedSettings] Published settings #{} ({} whitelisted sounds, {} mob profiles)",
+                    generation, settings.soundIdWhitelist.size(), settings.mobProfiles.size());
+        }
+    }
+
+    public double mufflingFactor(byte muffleClass) {
+        return muffleClass >= 0 && muffleClass < mufflingFactors.length ? mufflingFactors[muffleClass] : 1.0;
+    }
+}
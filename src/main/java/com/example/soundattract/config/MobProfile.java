@@ -3,6 +3,7 @@ package com.example.soundattract.config;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.TagParser;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.Mob;
 import com.example.soundattract.SoundAttractMod;
 import net.minecraftforge.registries.ForgeRegistries;
@@ -21,6 +22,8 @@ public class MobProfile {
     private final ResourceLocation mobId;
     @Nullable
     private final CompoundTag nbtMatcher;
+    @Nullable
+    private final NbtMatcher compiledMatcher;
     private final List<SoundOverride> soundOverrides;
     private final Map<PlayerStance, Double> detectionOverrides;
     private final boolean isValid;
@@ -50,6 +53,7 @@ public class MobProfile {
             }
         }
         this.nbtMatcher = parsedNbt;
+        this.compiledMatcher = NbtMatcher.compile(parsedNbt);
         this.soundOverrides = Collections.unmodifiableList(Objects.requireNonNull(soundOverrides, "soundOverrides cannot be null"));
         this.detectionOverrides = Collections.unmodifiableMap(Objects.requireNonNull(detectionOverrides, "detectionOverrides cannot be null"));
     }
@@ -90,54 +94,41 @@ public class MobProfile {
                 .findFirst();
     }
 
-    public boolean matches(Mob mob) {
-        if (!this.isValid) {
-            return false;
+    @Nullable
+    public SoundOverride findSoundOverride(@Nullable ResourceLocation soundId) {
+        if (soundId == null) {
+            return null;
         }
-
-        if (this.mobId == null) {
-            if (this.nbtMatcher != null && !this.nbtMatcher.isEmpty()) {
-                CompoundTag mobNbt = mob.saveWithoutId(new CompoundTag());
-                return checkNbt(mobNbt, this.nbtMatcher);
+        for (int i = 0, n = soundOverrides.size(); i < n; i++) {
+            SoundOverride override = soundOverrides.get(i);
+            if (override.getSoundId().equals(soundId)) {
+                return override;
             }
-            return true;
         }
+        return null;
+    }
 
-        ResourceLocation actualMobId = ForgeRegistries.ENTITY_TYPES.getKey(mob.getType());
-        if (!this.mobId.equals(actualMobId)) {
+    public boolean matches(Mob mob) {
+        return appliesTo(mob.getType()) && matchesNbt(mob);
+    }
+
+    /**
+     * Whether this profile can match mobs of {@code type} at all, ignoring
+     * the NBT matcher.
+     */
+    public boolean appliesTo(EntityType<?> type) {
+        if (!this.isValid) {
             return false;
         }
+        return this.mobId == null || this.mobId.equals(ForgeRegistries.ENTITY_TYPES.getKey(type));
+    }
 
-        if (this.nbtMatcher != null && !this.nbtMatcher.isEmpty()) {
-            CompoundTag mobNbt = mob.saveWithoutId(new CompoundTag());
-            if (!checkNbt(mobNbt, this.nbtMatcher)) {
-                return false;
-            }
-        }
-        
-        return true;
+    boolean matchesNbt(Mob mob) {
+        return this.compiledMatcher == null || this.compiledMatcher.test(mob);
     }
 
-    private boolean checkNbt(CompoundTag mobNbt, CompoundTag matcherNbt) {
-        for (String key : matcherNbt.getAllKeys()) {
-            if (!mobNbt.contains(key, matcherNbt.getTagType(key))) {
-                return false;
-            }
-            if (matcherNbt.getTagType(key) == net.minecraft.nbt.Tag.TAG_COMPOUND) {
-                if (!checkNbt(mobNbt.getCompound(key), matcherNbt.getCompound(key))) {
-                    return false;
-                }
-            } else if (matcherNbt.getTagType(key) == net.minecraft.nbt.Tag.TAG_LIST) {
-                if (!mobNbt.getList(key, matcherNbt.getList(key, 0).getElementType()).equals(matcherNbt.getList(key, 0))) {
-                    SoundAttractMod.LOGGER.trace("NBT list matching for key '{}' is currently basic. Profile: {}", key, profileName);
-                }
-            } else {
-                if (!mobNbt.get(key).equals(matcherNbt.get(key))) {
-                    return false;
-                }
-            }
-        }
-        return true;
+    boolean hasNbtMatcher() {
+        return this.compiledMatcher != null;
     }
 
     @Override
@@ -0,0 +1,125 @@
+package com.example.soundattract.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.MapMaker;
+
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+
+/**
+ * Mob profiles indexed by {@link EntityType}, with each mob's match
+ * memoised. One index belongs to one {@link BakedSettings} snapshot, so a
+ * profile reload starts from an empty index and memo.
+ *
+ * The candidates for a type are the profiles that can apply to it, in
+ * declaration order, so the first candidate that matches is the same
+ * profile a linear scan would return. A type whose candidates have no NBT
+ * matcher is answered from the type alone. Otherwise the result is
+ * memoised per mob and rechecked after
+ * {@code -Dsoundattract.profile.nbt_recheck_ticks} (default 100), since
+ * names, tags and persistent data can change while the mob is loaded.
+ */
+public final class MobProfileIndex {
+
+    private static final long NBT_RECHECK_TICKS = Long.getLong("soundattract.profile.nbt_recheck_ticks", 100L);
+    private static final MobProfile[] NONE = new MobProfile[0];
+
+    private final List<MobProfile> profiles;
+    private final double maxOverrideRange;
+    private final Map<EntityType<?>, Candidates> byType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Mob, Memo> memo = new MapMaker().weakKeys().makeMap();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private record Candidates(MobProfile[] profiles, boolean nbt) {
+    }
+
+    private record Memo(@Nullable MobProfile profile, long checkedAt) {
+    }
+
+    MobProfileIndex(List<MobProfile> profiles) {
+        this.profiles = profiles;
+        double max = 0.0;
+        for (MobProfile profile : profiles) {
+            for (SoundOverride override : profile.getSoundOverrides()) {
+                max = Math.max(max, override.getRange());
+            }
+        }
+        this.maxOverrideRange = max;
+    }
+
+    @Nullable
+    public MobProfile match(Mob mob) {
+        if (profiles.isEmpty()) {
+            return null;
+        }
+        Candidates candidates = byType.computeIfAbsent(mob.getType(), this::candidatesFor);
+        if (candidates.profiles().length == 0) {
+            return null;
+        }
+        if (!candidates.nbt()) {
+            return candidates.profiles()[0];
+        }
+
+        long now = mob.level().getGameTime();
+        Memo cached = memo.get(mob);
+        if (cached != null && now - cached.checkedAt() >= 0 && now - cached.checkedAt() < NBT_RECHECK_TICKS) {
+            hits.increment();
+            return cached.profile();
+        }
+        misses.increment();
+        MobProfile found = null;
+        for (MobProfile profile : candidates.profiles()) {
+            if (profile.matchesNbt(mob)) {
+                found = profile;
+                break;
+            }
+        }
+        memo.put(mob, new Memo(found, now));
+        return found;
+    }
+
+    /**
+     * The widest range any profile's sound override gives a sound.
+     */
+    public double maxOverrideRange() {
+        return maxOverrideRange;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long serialisations() {
+        return NbtMatcher.serialisations();
+    }
+
+    private Candidates candidatesFor(EntityType<?> type) {
+        List<MobProfile> applicable = new ArrayList<>();
+        boolean nbt = false;
+        for (MobProfile profile : profiles) {
+            if (!profile.appliesTo(type)) {
+                continue;
+            }
+            applicable.add(profile);
+            if (!profile.hasNbtMatcher()) {
+                // Later candidates can never be reached once an NBT-free profile applies.
+                break;
+            }
+            nbt = true;
+        }
+        return new Candidates(applicable.isEmpty() ? NONE : applicable.toArray(NONE), nbt);
+    }
+}
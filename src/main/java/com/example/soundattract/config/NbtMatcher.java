@@ -0,0 +1,182 @@
+package com.example.soundattract.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.mixin.EntityAccessor;
+
+import net.minecraft.nbt.ByteTag;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.entity.Mob;
+
+/**
+ * A profile's NBT matcher compiled into per-key probes. Keys whose saved
+ * form is known are answered straight from the entity's accessors; anything
+ * else falls back to comparing against {@code saveWithoutId}, serialised at
+ * most once per test and only when such a key is reached.
+ *
+ * Probes follow {@link #check(CompoundTag, CompoundTag)} exactly: a key
+ * must be present with the matcher's tag type, compounds match
+ * recursively, lists only need to be present, and everything else must be
+ * equal. A known key given with an unexpected tag type is left to the
+ * fallback so it fails the same way the full comparison would.
+ */
+final class NbtMatcher {
+
+    private static final LongAdder SERIALISATIONS = new LongAdder();
+
+    private interface Probe {
+        boolean test(Mob mob, Serialised full);
+    }
+
+    private final Probe[] probes;
+    private final boolean needsSerialisation;
+
+    private NbtMatcher(Probe[] probes, boolean needsSerialisation) {
+        this.probes = probes;
+        this.needsSerialisation = needsSerialisation;
+    }
+
+    @Nullable
+    static NbtMatcher compile(@Nullable CompoundTag matcher) {
+        if (matcher == null || matcher.isEmpty()) {
+            return null;
+        }
+        List<Probe> probes = new ArrayList<>();
+        boolean fallback = false;
+        for (String key : matcher.getAllKeys()) {
+            Tag expected = matcher.get(key);
+            Probe probe = accessorProbe(key, expected);
+            if (probe == null) {
+                fallback = true;
+                probe = (mob, full) -> checkKey(full.get(mob), matcher, key);
+            }
+            probes.add(probe);
+        }
+        return new NbtMatcher(probes.toArray(new Probe[0]), fallback);
+    }
+
+    boolean test(Mob mob) {
+        Serialised full = new Serialised();
+        for (Probe probe : probes) {
+            if (!probe.test(mob, full)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} if some key can only be answered by serialising the entity
+     */
+    boolean needsSerialisation() {
+        return needsSerialisation;
+    }
+
+    static long serialisations() {
+        return SERIALISATIONS.sum();
+    }
+
+    @Nullable
+    private static Probe accessorProbe(String key, Tag expected) {
+        byte type = expected.getId();
+        switch (key) {
+            case "CustomName":
+                if (type != Tag.TAG_STRING) return null;
+                String name = expected.getAsString();
+                return (mob, full) -> {
+                    Component custom = mob.getCustomName();
+                    return custom != null && name.equals(Component.Serializer.toJson(custom));
+                };
+            case "Tags":
+                if (type != Tag.TAG_LIST) return null;
+                return (mob, full) -> !mob.getTags().isEmpty();
+            case "ForgeData":
+                if (type != Tag.TAG_COMPOUND) return null;
+                CompoundTag data = (CompoundTag) expected;
+                // Only saved once something has created it; reading must not create it.
+                return (mob, full) -> {
+                    CompoundTag persisted = ((EntityAccessor) mob).soundattract$getPersistentData();
+                    return persisted != null && check(persisted, data);
+                };
+            case "NoAI":
+                return flagProbe(expected, true, Mob::isNoAi);
+            case "Silent":
+                return flagProbe(expected, true, Mob::isSilent);
+            case "PersistenceRequired":
+                return flagProbe(expected, false, Mob::isPersistenceRequired);
+            case "LeftHanded":
+                return flagProbe(expected, false, Mob::isLeftHanded);
+            case "Invulnerable":
+                return flagProbe(expected, false, Mob::isInvulnerable);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Boolean fields are saved as bytes. {@code onlyWhenSet} fields are
+     * written only while true, so a matcher asking for {@code 0b} can never
+     * match them.
+     */
+    @Nullable
+    private static Probe flagProbe(Tag expected, boolean onlyWhenSet, Predicate<Mob> flag) {
+        if (!(expected instanceof ByteTag byteTag)) {
+            return null;
+        }
+        byte want = byteTag.getAsByte();
+        if (want != 0 && want != 1) {
+            return (mob, full) -> false;
+        }
+        if (onlyWhenSet) {
+            return want == 1 ? (mob, full) -> flag.test(mob) : (mob, full) -> false;
+        }
+        boolean wantSet = want == 1;
+        return (mob, full) -> flag.test(mob) == wantSet;
+    }
+
+    static boolean check(CompoundTag actual, CompoundTag matcher) {
+        for (String key : matcher.getAllKeys()) {
+            if (!checkKey(actual, matcher, key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean checkKey(CompoundTag actual, CompoundTag matcher, String key) {
+        byte type = matcher.getTagType(key);
+        if (!actual.contains(key, type)) {
+            return false;
+        }
+        if (type == Tag.TAG_COMPOUND) {
+            return check(actual.getCompound(key), matcher.getCompound(key));
+        }
+        if (type == Tag.TAG_LIST) {
+            if (!actual.getList(key, matcher.getList(key, 0).getElementType()).equals(matcher.getList(key, 0))) {
+                SoundAttractMod.LOGGER.trace("NBT list matching for key '{}' is currently basic.", key);
+            }
+            return true;
+        }
+        return actual.get(key).equals(matcher.get(key));
+    }
+
+    private static final class Serialised {
+        private CompoundTag tag;
+
+        CompoundTag get(Mob mob) {
+            if (tag == null) {
+                SERIALISATIONS.increment();
+                tag = mob.saveWithoutId(new CompoundTag());
+            }
+            return tag;
+        }
+    }
+}
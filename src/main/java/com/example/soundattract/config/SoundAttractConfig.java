@@ -39,17 +39,26 @@ public class SoundAttractConfig {
         COMMON_SPEC = specPair.getRight();
     }
 
-    public static Set<ResourceLocation> SOUND_ID_WHITELIST_CACHE = ConcurrentHashMap.newKeySet();
-    public static Map<ResourceLocation, SoundDefaultEntry> SOUND_DEFAULT_ENTRIES_CACHE = new ConcurrentHashMap<>();
-    public static final Set<ResourceLocation> DP_SOUND_WHITELIST_CACHE = ConcurrentHashMap.newKeySet();
-    public static final Map<ResourceLocation, SoundDefaultEntry> DP_SOUND_DEFAULTS_CACHE = new ConcurrentHashMap<>();
-    public static Set<ResourceLocation> CUSTOM_LIQUID_BLOCKS_CACHE = ConcurrentHashMap.newKeySet();
-    public static Set<ResourceLocation> CUSTOM_WOOL_BLOCKS_CACHE = ConcurrentHashMap.newKeySet();
-    public static Set<ResourceLocation> CUSTOM_SOLID_BLOCKS_CACHE = ConcurrentHashMap.newKeySet();
-    public static Set<ResourceLocation> CUSTOM_NON_SOLID_BLOCKS_CACHE = ConcurrentHashMap.newKeySet();
-    public static Set<ResourceLocation> CUSTOM_THIN_BLOCKS_CACHE = ConcurrentHashMap.newKeySet();
-    public static Set<ResourceLocation> CUSTOM_AIR_BLOCKS_CACHE = ConcurrentHashMap.newKeySet();
-    public static Set<ResourceLocation> NON_BLOCKING_VISION_ALLOW_CACHE = ConcurrentHashMap.newKeySet();
+    public static volatile Set<ResourceLocation> SOUND_ID_WHITELIST_CACHE = Set.of();
+    public static volatile Map<ResourceLocation, SoundDefaultEntry> SOUND_DEFAULT_ENTRIES_CACHE = Map.of();
+    /** Sound whitelist and defaults from data packs, replaced together in one write on reload. */
+    public record DataPackSounds(Set<ResourceLocation> whitelist, Map<ResourceLocation, SoundDefaultEntry> defaults) {
+        public static final DataPackSounds EMPTY = new DataPackSounds(Set.of(), Map.of());
+
+        public DataPackSounds {
+            whitelist = Set.copyOf(whitelist);
+            defaults = Map.copyOf(defaults);
+        }
+    }
+
+    public static volatile DataPackSounds DP_SOUNDS = DataPackSounds.EMPTY;
+    public static volatile Set<ResourceLocation> CUSTOM_LIQUID_BLOCKS_CACHE = Set.of();
+    public static volatile Set<ResourceLocation> CUSTOM_WOOL_BLOCKS_CACHE = Set.of();
+    public static volatile Set<ResourceLocation> CUSTOM_SOLID_BLOCKS_CACHE = Set.of();
+    public static volatile Set<ResourceLocation> CUSTOM_NON_SOLID_BLOCKS_CACHE = Set.of();
+    public static volatile Set<ResourceLocation> CUSTOM_THIN_BLOCKS_CACHE = Set.of();
+    public static volatile Set<ResourceLocation> CUSTOM_AIR_BLOCKS_CACHE = Set.of();
+    public static volatile Set<ResourceLocation> NON_BLOCKING_VISION_ALLOW_CACHE = Set.of();
     public static double TACZ_RELOAD_RANGE_CACHE = 10.0;
     public static double TACZ_RELOAD_WEIGHT_CACHE = 1.0;
     public static double TACZ_SHOOT_RANGE_CACHE = 140.0;
@@ -80,16 +89,17 @@ public class SoundAttractConfig {
     public static List<com.example.soundattract.config.PlayerProfile> SPECIAL_PLAYER_PROFILES_CACHE = Collections.emptyList();
     public static List<com.example.soundattract.config.MobProfile> DP_MOB_PROFILES_CACHE = Collections.emptyList();
     public static List<com.example.soundattract.config.PlayerProfile> DP_PLAYER_PROFILES_CACHE = Collections.emptyList();
-    public static final Map<ResourceLocation, Integer> customArmorColors = new ConcurrentHashMap<>();
+    public static volatile Map<ResourceLocation, Integer> customArmorColors = Map.of();
     public static final Map<ResourceLocation, Integer> DP_CUSTOM_ARMOR_COLORS = new ConcurrentHashMap<>();
-    public static final Set<String> ATTRACTED_ENTITY_TYPES_CACHE = ConcurrentHashMap.newKeySet();
+    public static volatile Set<String> ATTRACTED_ENTITY_TYPES_CACHE = Set.of();
 
     public static void parseAndCacheCustomArmorColors() {
-        customArmorColors.clear();
+        Map<ResourceLocation, Integer> colors = new HashMap<>();
         if (COMMON == null || COMMON.customArmorColors == null) {
             if (COMMON != null && COMMON.debugLogging != null && COMMON.debugLogging.get()) {
                 SoundAttractMod.LOGGER.info("SoundAttractConfig: COMMON or customArmorColors is null, skipping custom armor color parsing.");
             }
+            customArmorColors = Map.of();
             return;
         }
 
@@ -98,6 +108,7 @@ public class SoundAttractConfig {
             if (COMMON != null && COMMON.debugLogging != null && COMMON.debugLogging.get()) {
                 SoundAttractMod.LOGGER.info("SoundAttractConfig: No custom armor colors defined in config.");
             }
+            customArmorColors = Map.of();
             return;
         }
 
@@ -124,7 +135,7 @@ public class SoundAttractConfig {
                         continue;
                     }
                     int color = Integer.parseInt(colorHex.substring(1), 16);
-                    customArmorColors.put(loc, color);
+                    colors.put(loc, color);
                     if (COMMON != null && COMMON.debugLogging != null && COMMON.debugLogging.get()) {
                         SoundAttractMod.LOGGER.info("SoundAttractConfig: Added custom armor color: {} -> #{}", itemId, Integer.toHexString(color).toUpperCase());
                     }
@@ -144,34 +155,37 @@ public class SoundAttractConfig {
 
         if (enableDataDriven && !DP_CUSTOM_ARMOR_COLORS.isEmpty()) {
             if (datapackOverConfig) {
-                customArmorColors.clear();
-                customArmorColors.putAll(DP_CUSTOM_ARMOR_COLORS);
+                colors.clear();
+                colors.putAll(DP_CUSTOM_ARMOR_COLORS);
             } else {
                 for (Map.Entry<ResourceLocation, Integer> e : DP_CUSTOM_ARMOR_COLORS.entrySet()) {
-                    customArmorColors.putIfAbsent(e.getKey(), e.getValue());
+                    colors.putIfAbsent(e.getKey(), e.getValue());
                 }
             }
         }
 
+        customArmorColors = Map.copyOf(colors);
         if (COMMON != null && COMMON.debugLogging != null && COMMON.debugLogging.get()) {
-            SoundAttractMod.LOGGER.info("SoundAttractConfig: Loaded {} entries into customArmorColors (after datapack merge).", customArmorColors.size());
+            SoundAttractMod.LOGGER.info("SoundAttractConfig: Loaded {} entries into customArmorColors (after datapack merge).", colors.size());
         }
     }
 
     public static void parseAndCacheNonBlockingVisionAllowList() {
-        NON_BLOCKING_VISION_ALLOW_CACHE.clear();
         if (COMMON == null || COMMON.nonBlockingVisionAllowList == null) {
             if (COMMON != null && COMMON.debugLogging != null && COMMON.debugLogging.get()) {
                 SoundAttractMod.LOGGER.info("SoundAttractConfig: COMMON or nonBlockingVisionAllowList is null, skipping parsing.");
             }
+            NON_BLOCKING_VISION_ALLOW_CACHE = Set.of();
             return;
         }
 
         List<? extends String> cfg = COMMON.nonBlockingVisionAllowList.get();
         if (cfg == null || cfg.isEmpty()) {
+            NON_BLOCKING_VISION_ALLOW_CACHE = Set.of();
             return;
         }
 
+        Set<ResourceLocation> allow = new HashSet<>();
         for (String entry : cfg) {
             if (entry == null || entry.trim().isEmpty()) {
                 continue;
@@ -179,7 +193,7 @@ public class SoundAttractConfig {
             try {
                 ResourceLocation loc = ResourceLocation.tryParse(entry.trim());
                 if (loc != null) {
-                    NON_BLOCKING_VISION_ALLOW_CACHE.add(loc);
+                    allow.add(loc);
                 } else {
                     SoundAttractMod.LOGGER.warn("SoundAttractConfig: Invalid ResourceLocation in nonBlockingVisionAllowList: {}", entry);
                 }
@@ -188,14 +202,26 @@ public class SoundAttractConfig {
             }
         }
 
+        NON_BLOCKING_VISION_ALLOW_CACHE = Set.copyOf(allow);
         if (COMMON != null && COMMON.debugLogging != null && COMMON.debugLogging.get()) {
-            SoundAttractMod.LOGGER.info("SoundAttractConfig: Loaded {} entries into NON_BLOCKING_VISION_ALLOW_CACHE.", NON_BLOCKING_VISION_ALLOW_CACHE.size());
+            SoundAttractMod.LOGGER.info("SoundAttractConfig: Loaded {} entries into NON_BLOCKING_VISION_ALLOW_CACHE.", allow.size());
         }
     }
 
+    private static Set<ResourceLocation> parseBlockIds(ForgeConfigSpec.ConfigValue<List<? extends String>> value) {
+        if (value == null) {
+            return Set.of();
+        }
+        Set<ResourceLocation> ids = new HashSet<>();
+        value.get().forEach(id -> ids.add(ResourceLocation.parse(id)));
+        return Set.copyOf(ids);
+    }
+
     public static class Common {
 
         public final ForgeConfigSpec.BooleanValue debugLogging;
+        public final ForgeConfigSpec.BooleanValue serverSideSoundCapture;
+        public final ForgeConfigSpec.BooleanValue virtualMovementNoise;
         public final ForgeConfigSpec.BooleanValue enableDataDriven;
         public final ForgeConfigSpec.ConfigValue<String> datapackPriority;
         public final ForgeConfigSpec.BooleanValue edgeMobSmartBehavior;
@@ -349,6 +375,7 @@ public class SoundAttractConfig {
         public final ForgeConfigSpec.IntValue voiceChatWhisperRange;
         public final ForgeConfigSpec.IntValue voiceChatNormalRange;
         public final ForgeConfigSpec.DoubleValue voiceChatWeight;
+        public final ForgeConfigSpec.IntValue voiceChatAggregationWindowMs;
         public final ForgeConfigSpec.ConfigValue<List<? extends String>> voiceChatDbThresholdMap;
 
         public final ForgeConfigSpec.DoubleValue defaultHorizontalFov;
@@ -423,6 +450,15 @@ public class SoundAttractConfig {
             soundNoveltyTimeTicks = builder.comment("How long (in ticks) a sound is considered 'new' for the novelty bonus to apply.",
                     "20 ticks = 1 second.")
                     .defineInRange("soundNoveltyTimeTicks", 100, 1, 200);
+            serverSideSoundCapture = builder.comment(
+                            "Capture world sounds on the server where they are played instead of relying on client reports.",
+                            "Each sound is then recorded once however many players hear it, and clients only report sounds the server never plays.",
+                            "Sounds other mods play only on the client in the block, mob or player categories are not picked up in this mode.")
+                    .define("serverSideSoundCapture", false);
+            virtualMovementNoise = builder.comment(
+                            "Emit virtual movement noise (walking, sprinting, jumping, sneaking, crawling) for every player from the server.",
+                            "This comes on top of the footstep sounds players already make, so most setups should leave it off.")
+                    .define("virtualMovementNoise", false);
 
             builder.pop();
 
@@ -2381,6 +2417,11 @@ public class SoundAttractConfig {
             voiceChatWeight = builder.comment(
                     "Weight assigned to the generated SVC sound event.")
                     .defineInRange("voiceChatWeight", 9.0, 0.0, 10.0);
+            voiceChatAggregationWindowMs = builder.comment(
+                    "Window (ms) over which SVC audio frames are aggregated before a voice sound is sent to the server.",
+                    "A louder range bucket is sent immediately; otherwise at most one sound per window is sent, using the loudest level heard.",
+                    "0 sends one sound per audio frame (legacy behavior).")
+                    .defineInRange("voiceChatAggregationWindowMs", 250, 0, 5000);
             voiceChatDbThresholdMap = builder.comment(
                     "Mapping from normalized dB thresholds to range multipliers for SVC.",
                     "Normalized dB is in [0..127], where 0 = silence and 127 = max peak (0 dBFS).",
@@ -2576,21 +2617,22 @@ public class SoundAttractConfig {
             return;
         }
 
-        SOUND_ID_WHITELIST_CACHE.clear();
+        Set<ResourceLocation> whitelist = new HashSet<>();
         COMMON.soundIdWhitelist.get().forEach(idStr -> {
             ResourceLocation loc = ResourceLocation.tryParse(idStr);
             if (loc != null) {
-                SOUND_ID_WHITELIST_CACHE.add(loc);
+                whitelist.add(loc);
             } else {
                 SoundAttractMod.LOGGER.warn("Invalid ResourceLocation in soundIdWhitelist: {}", idStr);
             }
         });
-        ATTRACTED_ENTITY_TYPES_CACHE.clear();
+        Set<String> attractedTypes = new HashSet<>();
         if (COMMON.attractedEntities != null) {
-            COMMON.attractedEntities.get().forEach(id -> ATTRACTED_ENTITY_TYPES_CACHE.add(id.toString()));
+            COMMON.attractedEntities.get().forEach(id -> attractedTypes.add(id.toString()));
         }
+        ATTRACTED_ENTITY_TYPES_CACHE = Set.copyOf(attractedTypes);
 
-        SOUND_DEFAULT_ENTRIES_CACHE.clear();
+        Map<ResourceLocation, SoundDefaultEntry> soundDefaults = new HashMap<>();
         if (COMMON.rawSoundDefaults != null) {
             COMMON.rawSoundDefaults.get().forEach(entry -> {
                 String[] parts = entry.split(";");
@@ -2600,7 +2642,7 @@ public class SoundAttractConfig {
                         double range = Double.parseDouble(parts[1]);
                         double weight = Double.parseDouble(parts[2]);
                         if (soundId != null) {
-                            SOUND_DEFAULT_ENTRIES_CACHE.put(soundId, new SoundDefaultEntry(range, weight));
+                            soundDefaults.put(soundId, new SoundDefaultEntry(range, weight));
                         }
                     } catch (NumberFormatException e) {
                         SoundAttractMod.LOGGER.warn("Could not parse range/weight for sound default entry: {}", entry, e);
@@ -2613,53 +2655,32 @@ public class SoundAttractConfig {
         String priority = COMMON.datapackPriority.get();
         boolean datapackOverConfig = "datapack_over_config".equalsIgnoreCase(priority);
 
-        if (enableDataDriven && !DP_SOUND_WHITELIST_CACHE.isEmpty()) {
+        DataPackSounds dataPackSounds = DP_SOUNDS;
+        if (enableDataDriven && !dataPackSounds.whitelist().isEmpty()) {
             if (datapackOverConfig) {
-                SOUND_ID_WHITELIST_CACHE.clear();
-                SOUND_ID_WHITELIST_CACHE.addAll(DP_SOUND_WHITELIST_CACHE);
-            } else {
-                for (ResourceLocation loc : DP_SOUND_WHITELIST_CACHE) {
-                    SOUND_ID_WHITELIST_CACHE.add(loc);
-                }
+                whitelist.clear();
             }
+            whitelist.addAll(dataPackSounds.whitelist());
         }
 
-        if (enableDataDriven && !DP_SOUND_DEFAULTS_CACHE.isEmpty()) {
+        if (enableDataDriven && !dataPackSounds.defaults().isEmpty()) {
             if (datapackOverConfig) {
-                for (Map.Entry<ResourceLocation, SoundDefaultEntry> e : DP_SOUND_DEFAULTS_CACHE.entrySet()) {
-                    SOUND_DEFAULT_ENTRIES_CACHE.put(e.getKey(), e.getValue());
-                }
+                soundDefaults.putAll(dataPackSounds.defaults());
             } else {
-                for (Map.Entry<ResourceLocation, SoundDefaultEntry> e : DP_SOUND_DEFAULTS_CACHE.entrySet()) {
-                    SOUND_DEFAULT_ENTRIES_CACHE.putIfAbsent(e.getKey(), e.getValue());
+                for (Map.Entry<ResourceLocation, SoundDefaultEntry> e : dataPackSounds.defaults().entrySet()) {
+                    soundDefaults.putIfAbsent(e.getKey(), e.getValue());
                 }
             }
         }
+        SOUND_ID_WHITELIST_CACHE = Set.copyOf(whitelist);
+        SOUND_DEFAULT_ENTRIES_CACHE = Map.copyOf(soundDefaults);
 
-        CUSTOM_LIQUID_BLOCKS_CACHE.clear();
-        if (COMMON.customLiquidBlocks != null) {
-            COMMON.customLiquidBlocks.get().forEach(id -> CUSTOM_LIQUID_BLOCKS_CACHE.add(ResourceLocation.parse(id)));
-        }
-        CUSTOM_WOOL_BLOCKS_CACHE.clear();
-        if (COMMON.customWoolBlocks != null) {
-            COMMON.customWoolBlocks.get().forEach(id -> CUSTOM_WOOL_BLOCKS_CACHE.add(ResourceLocation.parse(id)));
-        }
-        CUSTOM_SOLID_BLOCKS_CACHE.clear();
-        if (COMMON.customSolidBlocks != null) {
-            COMMON.customSolidBlocks.get().forEach(id -> CUSTOM_SOLID_BLOCKS_CACHE.add(ResourceLocation.parse(id)));
-        }
-        CUSTOM_NON_SOLID_BLOCKS_CACHE.clear();
-        if (COMMON.customNonSolidBlocks != null) {
-            COMMON.customNonSolidBlocks.get().forEach(id -> CUSTOM_NON_SOLID_BLOCKS_CACHE.add(ResourceLocation.parse(id)));
-        }
-        CUSTOM_THIN_BLOCKS_CACHE.clear();
-        if (COMMON.customThinBlocks != null) {
-            COMMON.customThinBlocks.get().forEach(id -> CUSTOM_THIN_BLOCKS_CACHE.add(ResourceLocation.parse(id)));
-        }
-        CUSTOM_AIR_BLOCKS_CACHE.clear();
-        if (COMMON.customAirBlocks != null) {
-            COMMON.customAirBlocks.get().forEach(id -> CUSTOM_AIR_BLOCKS_CACHE.add(ResourceLocation.parse(id)));
-        }
+        CUSTOM_LIQUID_BLOCKS_CACHE = parseBlockIds(COMMON.customLiquidBlocks);
+        CUSTOM_WOOL_BLOCKS_CACHE = parseBlockIds(COMMON.customWoolBlocks);
+        CUSTOM_SOLID_BLOCKS_CACHE = parseBlockIds(COMMON.customSolidBlocks);
+        CUSTOM_NON_SOLID_BLOCKS_CACHE = parseBlockIds(COMMON.customNonSolidBlocks);
+        CUSTOM_THIN_BLOCKS_CACHE = parseBlockIds(COMMON.customThinBlocks);
+        CUSTOM_AIR_BLOCKS_CACHE = parseBlockIds(COMMON.customAirBlocks);
 
         parseAndCacheNonBlockingVisionAllowList();
 
@@ -3006,45 +3027,19 @@ public class SoundAttractConfig {
                     SOUND_ID_WHITELIST_CACHE.size()
             );
         }
+        BakedSettings.rebuild();
     }
 
     public static MobProfile getMatchingProfile(Mob mob) {
-        if (SPECIAL_MOB_PROFILES_CACHE == null || SPECIAL_MOB_PROFILES_CACHE.isEmpty()) {
-            return null;
-        }
-
         if (mob == null) {
             return null;
         }
-
-        if (QuantifiedCacheCompat.isUsable()) {
-            String key = new StringBuilder(96)
-                .append(mob.getUUID().toString()).append('|')
-                .append(SPECIAL_MOB_PROFILES_CACHE.size())
-                .toString();
-            return QuantifiedCacheCompat.getCached(
-                "soundattract_mob_profile_match",
-                key,
-                () -> getMatchingProfileUncached(mob),
-                1L,
-                8192L
-            );
-        }
-
-        return getMatchingProfileUncached(mob);
-    }
-
-    private static MobProfile getMatchingProfileUncached(Mob mob) {
-        for (MobProfile profile : SPECIAL_MOB_PROFILES_CACHE) {
-            if (profile.matches(mob)) {
-                return profile;
-            }
-        }
-        return null;
+        return BakedSettings.get().mobProfileIndex.match(mob);
     }
 
     public static PlayerProfile getMatchingPlayerProfile(Player player) {
-        if (SPECIAL_PLAYER_PROFILES_CACHE == null || SPECIAL_PLAYER_PROFILES_CACHE.isEmpty()) {
+        List<PlayerProfile> profiles = BakedSettings.get().playerProfiles;
+        if (profiles.isEmpty()) {
             return null;
         }
 
@@ -3055,22 +3050,22 @@ public class SoundAttractConfig {
         if (QuantifiedCacheCompat.isUsable()) {
             String key = new StringBuilder(96)
                 .append(player.getUUID().toString()).append('|')
-                .append(SPECIAL_PLAYER_PROFILES_CACHE.size())
+                .append(profiles.size())
                 .toString();
             return QuantifiedCacheCompat.getCached(
                 "soundattract_player_profile_match",
                 key,
-                () -> getMatchingPlayerProfileUncached(player),
+                () -> getMatchingPlayerProfileUncached(profiles, player),
                 1L,
                 8192L
             );
         }
 
-        return getMatchingPlayerProfileUncached(player);
+        return getMatchingPlayerProfileUncached(profiles, player);
     }
 
-    private static PlayerProfile getMatchingPlayerProfileUncached(Player player) {
-        for (PlayerProfile profile : SPECIAL_PLAYER_PROFILES_CACHE) {
+    private static PlayerProfile getMatchingPlayerProfileUncached(List<PlayerProfile> profiles, Player player) {
+        for (PlayerProfile profile : profiles) {
             if (profile.matches(player)) {
                 return profile;
             }
@@ -0,0 +1,395 @@
+package com.example.soundattract.data;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.config.BakedSettings;
+import com.example.soundattract.config.SoundAttractConfig;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.DoorBlock;
+import net.minecraft.world.level.block.FenceBlock;
+import net.minecraft.world.level.block.IceBlock;
+import net.minecraft.world.level.block.IronBarsBlock;
+import net.minecraft.world.level.block.TrapDoorBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.shapes.CollisionContext;
+import net.minecraft.world.phys.shapes.VoxelShape;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.registries.ForgeRegistries;
+
+/**
+ * Per-{@link BlockState} acoustic class and vision transparency, baked into
+ * a byte table indexed by block state id the first time it is needed after a
+ * config or tag reload. Every classification after that is one array read.
+ *
+ * States with a dynamic shape depend on where they are placed, so they are
+ * flagged in the table and still classified against the live world.
+ *
+ * Each invalidation starts a new generation. A bake is published only if no
+ * invalidation happened while it ran, so a reload racing a bake cannot leave
+ * a table built from the old settings in place.
+ */
+@Mod.EventBusSubscriber(modid = SoundAttractMod.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class BlockAcoustics {
+
+    public static final byte MUFFLE_NONE = 0;
+    public static final byte MUFFLE_WOOL = 1;
+    public static final byte MUFFLE_LIQUID = 2;
+    public static final byte MUFFLE_THIN = 3;
+    public static final byte MUFFLE_SOLID = 4;
+    public static final byte MUFFLE_NON_SOLID = 5;
+    public static final int MUFFLE_CLASSES = 6;
+
+    private static final int CLASS_MASK = 0x07;
+    private static final int VISION_TRANSPARENT = 0x08;
+    private static final int DYNAMIC = 0x10;
+
+    private record Table(int generation, byte[] entries) {
+    }
+
+    private static final AtomicReference<Table> TABLE = new AtomicReference<>(new Table(0, null));
+
+    private BlockAcoustics() {
+    }
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Drops the baked table; the next lookup rebakes it.
+     */
+    public static void invalidate() {
+        TABLE.updateAndGet(t -> new Table(t.generation() + 1, null));
+    }
+
+    public static byte muffleClass(BlockState state, BlockGetter level, BlockPos pos) {
+        int entry = entry(state);
+        if (entry < 0 || (entry & DYNAMIC) != 0) {
+            return computeMuffleClass(state, level, pos);
+        }
+        return (byte) (entry & CLASS_MASK);
+    }
+
+    public static boolean isVisionTransparent(BlockState state, BlockGetter level, BlockPos pos) {
+        if (state == null || level == null || pos == null) {
+            return false;
+        }
+        int entry = entry(state);
+        if (entry < 0 || (entry & DYNAMIC) != 0) {
+            return computeVisionTransparent(state, level, pos);
+        }
+        return (entry & VISION_TRANSPARENT) != 0;
+    }
+
+    private static int entry(BlockState state) {
+        byte[] baked = TABLE.get().entries();
+        if (baked == null) {
+            baked = bake();
+        }
+        int id = Block.getId(state);
+        return id >= 0 && id < baked.length ? baked[id] : -1;
+    }
+
+    private static synchronized byte[] bake() {
+        Table current = TABLE.get();
+        if (current.entries() != null) {
+            return current.entries();
+        }
+        long start = System.nanoTime();
+        byte[] baked = new byte[Block.BLOCK_STATE_REGISTRY.size()];
+        int dynamic = 0;
+        for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+            int id = Block.getId(state);
+            if (id < 0 || id >= baked.length) {
+                continue;
+            }
+            if (state.hasDynamicShape()) {
+                baked[id] = DYNAMIC;
+                dynamic++;
+                continue;
+            }
+            int entry = computeMuffleClass(state, EmptyBlockGetter.INSTANCE, BlockPos.ZERO);
+            if (computeVisionTransparent(state, EmptyBlockGetter.INSTANCE, BlockPos.ZERO)) {
+                entry |= VISION_TRANSPARENT;
+            }
+            baked[id] = (byte) entry;
+        }
+        // Invalidated mid-bake: answer this lookup, but leave the table empty for a fresh bake.
+        boolean published = TABLE.compareAndSet(current, new Table(current.generation(), baked));
+        if (SoundAttractConfig.COMMON.debugLogging.get()) {
+            SoundAttractMod.LOGGER.info("[BlockAcoustics] Baked {} block states ({} dynamic) in {} us, generation {}{}",
+                    baked.length, dynamic, (System.nanoTime() - start) / 1000L, current.generation(),
+                    published ? "" : " (discarded, invalidated during bake)");
+        }
+        return baked;
+    }
+
+    private static byte computeMuffleClass(BlockState state, BlockGetter level, BlockPos pos) {
+        Block block = state.getBlock();
+        if (isCustomWool(state, block, level, pos)) return MUFFLE_WOOL;
+        if (isCustomLiquid(state, block, level, pos)) return MUFFLE_LIQUID;
+        if (isCustomThin(state, block, level, pos)) return MUFFLE_THIN;
+        if (isCustomSolid(state, block, level, pos)) return MUFFLE_SOLID;
+        if (isCustomNonSolid(state, block, level, pos)) return MUFFLE_NON_SOLID;
+        return MUFFLE_NONE;
+    }
+
+    private static boolean isCustomWool(BlockState state, Block block, BlockGetter level, BlockPos pos) {
+        ResourceLocation id = ForgeRegistries.BLOCKS.getKey(block);
+        boolean inConfig = id != null && BakedSettings.get().customWoolBlocks.contains(id);
+
+        boolean enableDataDriven = BakedSettings.get().enableDataDriven;
+        boolean inTag = false;
+        if (enableDataDriven) {
+            try {
+                inTag = state.is(DataDrivenTags.MUFFLING_WOOL);
+            } catch (Exception ignored) {}
+        }
+
+        if (!enableDataDriven) {
+            if (inConfig) return true;
+        } else {
+            boolean datapackOverConfig = BakedSettings.get().datapackOverConfig;
+            if (datapackOverConfig) {
+                if (inTag) return true;
+                if (inConfig) return true;
+            } else {
+                if (inConfig) return true;
+                if (inTag) return true;
+            }
+        }
+
+        try {
+            return state.is(BlockTags.WOOL);
+        } catch (Exception e) {
+            SoundAttractMod.LOGGER.warn("Exception checking BlockTags.WOOL for block {} at {}. Defaulting to false.", ForgeRegistries.BLOCKS.getKey(block), pos, e);
+            return false;
+        }
+    }
+
+    private static boolean isCustomSolid(BlockState state, Block block, BlockGetter level, BlockPos pos) {
+        ResourceLocation id = ForgeRegistries.BLOCKS.getKey(block);
+        boolean inConfig = id != null && BakedSettings.get().customSolidBlocks.contains(id);
+
+        boolean enableDataDriven = BakedSettings.get().enableDataDriven;
+        boolean inTag = false;
+        if (enableDataDriven) {
+            try {
+                inTag = state.is(DataDrivenTags.MUFFLING_SOLID);
+            } catch (Exception ignored) {}
+        }
+
+        if (!enableDataDriven) {
+            if (inConfig) return true;
+        } else {
+            boolean datapackOverConfig = BakedSettings.get().datapackOverConfig;
+            if (datapackOverConfig) {
+                if (inTag) return true;
+                if (inConfig) return true;
+            } else {
+                if (inConfig) return true;
+                if (inTag) return true;
+            }
+        }
+
+        try {
+            return state.isSolidRender(level, pos);
+        } catch (NullPointerException npe) {
+            SoundAttractMod.LOGGER.warn("NPE in state.isSolidRender() for block {} at {}. Defaulting to solid.", ForgeRegistries.BLOCKS.getKey(block), pos, npe);
+            return true;
+        } catch (Exception e) {
+            SoundAttractMod.LOGGER.error("Error in state.isSolidRender() for block {} at {}. Defaulting to solid.", ForgeRegistries.BLOCKS.getKey(block), pos, e);
+            return true;
+        }
+    }
+
+    private static boolean isCustomNonSolid(BlockState state, Block block, BlockGetter level, BlockPos pos) {
+        ResourceLocation id = ForgeRegistries.BLOCKS.getKey(block);
+        boolean inConfig = id != null && BakedSettings.get().customNonSolidBlocks.contains(id);
+
+        boolean enableDataDriven = BakedSettings.get().enableDataDriven;
+        boolean inTag = false;
+        if (enableDataDriven) {
+            try {
+                inTag = state.is(DataDrivenTags.MUFFLING_NON_SOLID);
+            } catch (Exception ignored) {}
+        }
+
+        if (!enableDataDriven) {
+            if (inConfig) return true;
+        } else {
+            boolean datapackOverConfig = BakedSettings.get().datapackOverConfig;
+            if (datapackOverConfig) {
+                if (inTag) return true;
+                if (inConfig) return true;
+            } else {
+                if (inConfig) return true;
+                if (inTag) return true;
+            }
+        }
+
+        boolean isNormallySolid;
+        try {
+            isNormallySolid = state.isSolidRender(level, pos);
+        } catch (NullPointerException npe) {
+            SoundAttractMod.LOGGER.warn("NPE in state.isSolidRender() for block {} at {}. Defaulting to solid (meaning not 'non-solid').", ForgeRegistries.BLOCKS.getKey(block), pos, npe);
+            isNormallySolid = true;
+        } catch (Exception e) {
+            SoundAttractMod.LOGGER.error("Error in state.isSolidRender() for block {} at {}. Defaulting to solid.", ForgeRegistries.BLOCKS.getKey(block), pos, e);
+            isNormallySolid = true;
+        }
+        return !isNormallySolid;
+    }
+
+    private static boolean isCustomThin(BlockState state, Block block, BlockGetter level, BlockPos pos) {
+        ResourceLocation id = ForgeRegistries.BLOCKS.getKey(block);
+        boolean inConfig = id != null && BakedSettings.get().customThinBlocks.contains(id);
+
+        boolean enableDataDriven = BakedSettings.get().enableDataDriven;
+        boolean inTag = false;
+        if (enableDataDriven) {
+            try {
+                inTag = state.is(DataDrivenTags.MUFFLING_THIN);
+            } catch (Exception ignored) {}
+        }
+
+        if (!enableDataDriven) {
+            if (inConfig) return true;
+        } else {
+            boolean datapackOverConfig = BakedSettings.get().datapackOverConfig;
+            if (datapackOverConfig) {
+                if (inTag) return true;
+                if (inConfig) return true;
+            } else {
+                if (inConfig) return true;
+                if (inTag) return true;
+            }
+        }
+
+        if (id == null) {
+            return false;
+        }
+        String path = id.getPath();
+        return path.contains("pane") || path.contains("iron_bars") || path.contains("painting") || path.contains("fence")
+                || path.contains("trapdoor") || path.contains("door") || path.contains("ladder") || path.contains("scaffolding")
+                || path.contains("rail");
+    }
+
+    private static boolean isCustomLiquid(BlockState state, Block block, BlockGetter level, BlockPos pos) {
+        ResourceLocation id = ForgeRegistries.BLOCKS.getKey(block);
+        boolean inConfig = id != null && BakedSettings.get().customLiquidBlocks.contains(id);
+
+        boolean enableDataDriven = BakedSettings.get().enableDataDriven;
+        boolean inTag = false;
+        if (enableDataDriven) {
+            try {
+                inTag = state.is(DataDrivenTags.MUFFLING_LIQUID);
+            } catch (Exception ignored) {}
+        }
+
+        if (!enableDataDriven) {
+            return inConfig;
+        }
+
+        boolean datapackOverConfig = BakedSettings.get().datapackOverConfig;
+        if (datapackOverConfig) {
+            return inTag || inConfig;
+        } else {
+            return inConfig || inTag;
+        }
+    }
+
+    private static boolean computeVisionTransparent(BlockState state, BlockGetter level, BlockPos pos) {
+        if (state == null || level == null || pos == null) {
+            return false;
+        }
+
+        if (state.isAir()) return true;
+
+        if (state.getBlock() instanceof DoorBlock) {
+            try {
+                Boolean open = state.getValue(DoorBlock.OPEN);
+                if (open != null && open) return true;
+            } catch (Throwable ignored) {}
+        }
+        if (state.getBlock() instanceof TrapDoorBlock) {
+            try {
+                Boolean open = state.getValue(TrapDoorBlock.OPEN);
+                if (open != null && open) return true;
+            } catch (Throwable ignored) {}
+        }
+
+        try {
+            if (state.is(BlockTags.WALLS) || state.getBlock() instanceof IronBarsBlock) {
+                return false;
+            }
+        } catch (Throwable ignored) {}
+
+        try {
+            ResourceLocation id = ForgeRegistries.BLOCKS.getKey(state.getBlock());
+            boolean inConfig = false;
+            if (id != null) {
+                inConfig = BakedSettings.get().nonBlockingVisionAllow.contains(id);
+            }
+
+            boolean enableDataDriven = BakedSettings.get().enableDataDriven;
+            boolean inTag = false;
+            if (enableDataDriven) {
+                try {
+                    inTag = state.is(DataDrivenTags.NON_BLOCKING_VISION);
+                } catch (Throwable ignoredInner) {}
+            }
+
+            if (!enableDataDriven) {
+                if (inConfig) return true;
+            } else {
+                boolean datapackOverConfig = BakedSettings.get().datapackOverConfig;
+                if (datapackOverConfig) {
+                    if (inTag) return true;
+                    if (inConfig) return true;
+                } else {
+                    if (inConfig) return true;
+                    if (inTag) return true;
+                }
+            }
+        } catch (Throwable ignored) {}
+
+        try {
+            ResourceLocation id = ForgeRegistries.BLOCKS.getKey(state.getBlock());
+            String path = id != null ? id.getPath() : "";
+            if (path.contains("glass") && !path.contains("tinted")) {
+                return true;
+            }
+        } catch (Throwable ignored) {}
+
+        if (state.getBlock() instanceof IceBlock || state.is(Blocks.PACKED_ICE) || state.is(Blocks.BLUE_ICE)) {
+            return true;
+        }
+
+        if (state.getBlock() instanceof FenceBlock || state.is(BlockTags.FENCES)) {
+            return true;
+        }
+
+        try {
+            VoxelShape shape = state.getCollisionShape(level, pos, CollisionContext.empty());
+            if (shape.isEmpty()) return true;
+        } catch (Throwable ignored) {}
+
+        try {
+            if (!state.isViewBlocking(level, pos)) return true;
+        } catch (Throwable ignored) {}
+
+        return false;
+    }
+}
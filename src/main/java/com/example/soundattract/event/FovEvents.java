@@ -1,44 +1,36 @@
 package com.example.soundattract.event;
 
 import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.config.BakedSettings;
 import com.example.soundattract.config.SoundAttractConfig;
-import com.example.soundattract.data.DataDrivenTags;
+import com.example.soundattract.data.BlockAcoustics;
 import com.example.soundattract.integration.enhancedai.EnhancedAICompat;
 import com.example.soundattract.quantified.QuantifiedCacheCompat;
+import com.example.soundattract.util.TickCache;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.sounds.SoundEvents;
-import net.minecraft.tags.BlockTags;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.ClipContext;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.Blocks;
-import net.minecraft.world.level.block.DoorBlock;
-import net.minecraft.world.level.block.FenceBlock;
-import net.minecraft.world.level.block.IceBlock;
-import net.minecraft.world.level.block.IronBarsBlock;
-import net.minecraft.world.level.block.TrapDoorBlock;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.Vec3;
-import net.minecraft.world.phys.shapes.CollisionContext;
-import net.minecraft.world.phys.shapes.VoxelShape;
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.living.LivingEvent;
 import net.minecraftforge.event.entity.living.LivingHurtEvent;
 import net.minecraftforge.eventbus.api.Event;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
-import net.minecraftforge.registries.ForgeRegistries;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -64,20 +56,8 @@ public class FovEvents {
     private static Map<ResourceLocation, FovData> CONFIG_FOV_CACHE = null;
     private static Set<ResourceLocation> USER_EXCLUSION_CACHE = null;
 
-    private record LosCacheKey(String dim, int sx, int sy, int sz, int ex, int ey, int ez) {
-    }
-
-    private record LosCacheEntry(boolean result, long gameTime) {
-    }
-
-    private record LosPairKey(String dim, int lookerId, int targetId) {
-    }
-
-    private record LosPairEntry(boolean result, long gameTime) {
-    }
-
-    private static final ConcurrentHashMap<LosCacheKey, LosCacheEntry> LOS_CACHE = new ConcurrentHashMap<>();
-    private static final ConcurrentHashMap<LosPairKey, LosPairEntry> LOS_PAIR_CACHE = new ConcurrentHashMap<>();
+    private static final TickCache<Boolean> LOS_CACHE = new TickCache<>("los");
+    private static final TickCache<Boolean> LOS_PAIR_CACHE = new TickCache<>("losPair");
 
     private static void buildCaches() {
         double defaultH = SoundAttractConfig.COMMON.defaultHorizontalFov.get();
@@ -125,6 +105,14 @@ public class FovEvents {
         LOGGER.info("[FOV Config] Loaded {} custom FOV overrides.", CONFIG_FOV_CACHE.size());
     }
 
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.getServer().getTickCount() % 1200 == 0
+                && SoundAttractConfig.COMMON.debugLogging.get()) {
+            LOGGER.info("[FOV] {} {}", LOS_CACHE, LOS_PAIR_CACHE);
+        }
+    }
+
     @SubscribeEvent
     public static void onLivingVisibility(LivingEvent.LivingVisibilityEvent event) {
         if (event.getVisibilityModifier() <= 0) {
@@ -138,7 +126,7 @@ public class FovEvents {
             return;
         }
 
-        if (SoundAttractConfig.COMMON.enableXrayTargeting.get()
+        if (BakedSettings.get().enableXrayTargeting
                 && target instanceof Player player
                 && EnhancedAICompat.isEnhancedAiLoaded()) {
             double xrayRange = EnhancedAICompat.getXrayAttributeValue(looker);
@@ -209,19 +197,18 @@ public class FovEvents {
         boolean useCache = false;
         int maxEntries = 0;
         try {
-            useCache = SoundAttractConfig.COMMON.enableRaycastCache.get();
-            maxEntries = SoundAttractConfig.COMMON.raycastCacheMaxEntries.get();
+            useCache = BakedSettings.get().enableRaycastCache;
+            maxEntries = BakedSettings.get().raycastCacheMaxEntries;
         } catch (Throwable ignored) {
         }
 
         final int maxEntriesFinal = maxEntries;
         final long now = level.getGameTime();
-        final String dim = level.dimension().location().toString();
+        final long pairKey = TickCache.key(level.dimension().location().hashCode(), looker.getId(), target.getId());
         if (useCache) {
-            LosPairKey pairKey = new LosPairKey(dim, looker.getId(), target.getId());
-            LosPairEntry existing = LOS_PAIR_CACHE.get(pairKey);
-            if (existing != null && (now - existing.gameTime()) <= 1L) {
-                return existing.result();
+            Boolean existing = LOS_PAIR_CACHE.get(pairKey, now, 1L);
+            if (existing != null) {
+                return existing;
             }
         }
 
@@ -234,26 +221,8 @@ public class FovEvents {
                 || raycastIgnoringNonBlockingCached(level, start, center, looker)
                 || raycastIgnoringNonBlockingCached(level, start, feet, looker);
 
-        if (useCache) {
-            LosPairKey pairKey = new LosPairKey(dim, looker.getId(), target.getId());
-            LOS_PAIR_CACHE.put(pairKey, new LosPairEntry(result, now));
-            if (maxEntriesFinal > 0 && LOS_PAIR_CACHE.size() > maxEntriesFinal) {
-                java.util.Iterator<java.util.Map.Entry<LosPairKey, LosPairEntry>> it = LOS_PAIR_CACHE.entrySet().iterator();
-                while (it.hasNext()) {
-                    java.util.Map.Entry<LosPairKey, LosPairEntry> e = it.next();
-                    if ((now - e.getValue().gameTime()) > 1L) {
-                        it.remove();
-                    }
-                }
-                if (LOS_PAIR_CACHE.size() > maxEntriesFinal) {
-                    int toRemove = LOS_PAIR_CACHE.size() - maxEntriesFinal;
-                    java.util.Iterator<java.util.Map.Entry<LosPairKey, LosPairEntry>> it2 = LOS_PAIR_CACHE.entrySet().iterator();
-                    for (int i = 0; i < toRemove && it2.hasNext(); i++) {
-                        it2.next();
-                        it2.remove();
-                    }
-                }
-            }
+        if (useCache && maxEntriesFinal > 0) {
+            LOS_PAIR_CACHE.put(pairKey, result, now, 1L, maxEntriesFinal);
         }
 
         return result;
@@ -264,10 +233,10 @@ public class FovEvents {
         long ttlTicks = 2L;
         int maxEntries = 0;
         try {
-            useCache = SoundAttractConfig.COMMON.enableRaycastCache.get();
-            long cfgTtl = SoundAttractConfig.COMMON.raycastCacheTtlTicks.get();
+            useCache = BakedSettings.get().enableRaycastCache;
+            long cfgTtl = BakedSettings.get().raycastCacheTtlTicks;
             ttlTicks = Math.max(1L, Math.min(ttlTicks, cfgTtl));
-            maxEntries = SoundAttractConfig.COMMON.raycastCacheMaxEntries.get();
+            maxEntries = BakedSettings.get().raycastCacheMaxEntries;
         } catch (Throwable ignored) {
         }
 
@@ -278,8 +247,8 @@ public class FovEvents {
             return raycastIgnoringNonBlockingUncached(level, start, end, looker);
         }
 
-        String dim = level.dimension().location().toString();
         if (QuantifiedCacheCompat.isUsable()) {
+            String dim = level.dimension().location().toString();
             String key = new StringBuilder(96)
                     .append(dim).append('|')
                     .append(q(start.x)).append(',').append(q(start.y)).append(',').append(q(start.z)).append('|')
@@ -297,30 +266,19 @@ public class FovEvents {
         }
 
         long now = level.getGameTime();
-        LosCacheKey cacheKey = new LosCacheKey(dim, q(start.x), q(start.y), q(start.z), q(end.x), q(end.y), q(end.z));
-        LosCacheEntry existing = LOS_CACHE.get(cacheKey);
-        if (existing != null && (now - existing.gameTime()) <= ttlTicksFinal) {
-            return existing.result();
+        long cacheKey = TickCache.key(
+                TickCache.key(
+                        TickCache.key(level.dimension().location().hashCode(), q(start.x), q(start.y)),
+                        q(start.z), q(end.x)),
+                q(end.y), q(end.z));
+        Boolean existing = LOS_CACHE.get(cacheKey, now, ttlTicksFinal);
+        if (existing != null) {
+            return existing;
         }
 
         boolean computed = raycastIgnoringNonBlockingUncached(level, start, end, looker);
-        LOS_CACHE.put(cacheKey, new LosCacheEntry(computed, now));
-        if (maxEntriesFinal > 0 && LOS_CACHE.size() > maxEntriesFinal) {
-            java.util.Iterator<java.util.Map.Entry<LosCacheKey, LosCacheEntry>> it = LOS_CACHE.entrySet().iterator();
-            while (it.hasNext()) {
-                java.util.Map.Entry<LosCacheKey, LosCacheEntry> e = it.next();
-                if ((now - e.getValue().gameTime()) > ttlTicksFinal) {
-                    it.remove();
-                }
-            }
-            if (LOS_CACHE.size() > maxEntriesFinal) {
-                int toRemove = LOS_CACHE.size() - maxEntriesFinal;
-                java.util.Iterator<java.util.Map.Entry<LosCacheKey, LosCacheEntry>> it2 = LOS_CACHE.entrySet().iterator();
-                for (int i = 0; i < toRemove && it2.hasNext(); i++) {
-                    it2.next();
-                    it2.remove();
-                }
-            }
+        if (maxEntriesFinal > 0) {
+            LOS_CACHE.put(cacheKey, computed, now, ttlTicksFinal, maxEntriesFinal);
         }
         return computed;
     }
@@ -352,7 +310,7 @@ public class FovEvents {
 
             BlockPos pos = hit.getBlockPos();
             BlockState state = level.getBlockState(pos);
-            if (isNonBlockingVision(state, level, pos)) {
+            if (BlockAcoustics.isVisionTransparent(state, level, pos)) {
                 Vec3 step = dir.scale(0.6);
                 currStart = hit.getLocation().add(step);
                 continue;
@@ -363,99 +321,7 @@ public class FovEvents {
         return false;
     }
 
-    private static boolean isNonBlockingVision(BlockState state, Level level, BlockPos pos) {
-        if (state == null || level == null || pos == null) {
-            return false;
-        }
-
-        if (state.isAir()) return true;
-
-        if (state.getBlock() instanceof DoorBlock) {
-            try {
-                Boolean open = state.getValue(DoorBlock.OPEN);
-                if (open != null && open) return true;
-            } catch (Throwable ignored) {}
-        }
-        if (state.getBlock() instanceof TrapDoorBlock) {
-            try {
-                Boolean open = state.getValue(TrapDoorBlock.OPEN);
-                if (open != null && open) return true;
-            } catch (Throwable ignored) {}
-        }
-
-        try {
-            if (state.is(BlockTags.WALLS) || state.getBlock() instanceof IronBarsBlock) {
-                return false;
-            }
-        } catch (Throwable ignored) {}
-
-        try {
-            ResourceLocation id = ForgeRegistries.BLOCKS.getKey(state.getBlock());
-            boolean inConfig = false;
-            if (id != null) {
-                if (SoundAttractConfig.NON_BLOCKING_VISION_ALLOW_CACHE.isEmpty()) {
-                    List<? extends String> list = SoundAttractConfig.COMMON != null
-                            ? SoundAttractConfig.COMMON.nonBlockingVisionAllowList.get()
-                            : java.util.Collections.emptyList();
-                    if (list != null && !list.isEmpty()) {
-                        SoundAttractConfig.parseAndCacheNonBlockingVisionAllowList();
-                    }
-                }
-                inConfig = SoundAttractConfig.NON_BLOCKING_VISION_ALLOW_CACHE.contains(id);
-            }
-
-            boolean enableDataDriven = SoundAttractConfig.COMMON != null && SoundAttractConfig.COMMON.enableDataDriven.get();
-            boolean inTag = false;
-            if (enableDataDriven) {
-                try {
-                    inTag = state.is(DataDrivenTags.NON_BLOCKING_VISION);
-                } catch (Throwable ignoredInner) {}
-            }
-
-            if (!enableDataDriven) {
-                if (inConfig) return true;
-            } else {
-                String priority = SoundAttractConfig.COMMON.datapackPriority.get();
-                boolean datapackOverConfig = "datapack_over_config".equalsIgnoreCase(priority);
-                if (datapackOverConfig) {
-                    if (inTag) return true;
-                    if (inConfig) return true;
-                } else {
-                    if (inConfig) return true;
-                    if (inTag) return true;
-                }
-            }
-        } catch (Throwable ignored) {}
-
-        try {
-            ResourceLocation id = ForgeRegistries.BLOCKS.getKey(state.getBlock());
-            String path = id != null ? id.getPath() : "";
-            if (path.contains("glass") && !path.contains("tinted")) {
-                return true;
-            }
-        } catch (Throwable ignored) {}
-
-        if (state.getBlock() instanceof IceBlock || state.is(Blocks.PACKED_ICE) || state.is(Blocks.BLUE_ICE)) {
-            return true;
-        }
-
-        if (state.getBlock() instanceof FenceBlock || state.is(BlockTags.FENCES)) {
-            return true;
-        }
-
-        try {
-            VoxelShape shape = state.getCollisionShape(level, pos, CollisionContext.empty());
-            if (shape.isEmpty()) return true;
-        } catch (Throwable ignored) {}
-
-        try {
-            if (!state.isViewBlocking(level, pos)) return true;
-        } catch (Throwable ignored) {}
-
-        return false;
-    }
-
-    private static boolean isWithinFieldOfView(Mob looker, Entity target, double horizontalFovDegrees, double verticalFovDegrees) {
+    static boolean isWithinFieldOfView(Mob looker, Entity target, double horizontalFovDegrees, double verticalFovDegrees) {
         Vec3 lookVector = looker.getLookAngle();
         Vec3 toTargetVector = target.position()
                 .add(0, target.getEyeHeight() / 2.0, 0)
@@ -0,0 +1,232 @@
+package com.example.soundattract.event;
+
+import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.config.BakedSettings;
+import com.example.soundattract.network.CaptureModeMessage;
+import com.example.soundattract.network.SoundAttractNetwork;
+import com.example.soundattract.network.SoundMessage;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.sounds.SoundEvents;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.gameevent.GameEvent;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.event.PlayLevelSoundEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.VanillaGameEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.network.PacketDistributor;
+
+import javax.annotation.Nullable;
+
+/**
+ * Server-side sound capture, enabled by {@code serverSideSoundCapture}.
+ *
+ * Sounds the server broadcasts are taken from {@link PlayLevelSoundEvent} as
+ * they are played, so each one is recorded once instead of once per client
+ * that hears it. Block breaks and explosions have their sound played by the
+ * clients from a level event, so they are taken from the matching vanilla
+ * game events instead, and the other sounds clients play from a level event
+ * (dispensers, anvils, zombies at doors, the composter and so on) from
+ * {@link #onLevelEvent}. Player footsteps get the same movement-based range
+ * the client used to assign. A player's own sounds are played at a position,
+ * and the event does not say whose they are, so {@code ServerLevelMixin}
+ * brackets each positioned sound with the player it was played for.
+ *
+ * Clients are told the mode on login and whenever it changes, and while it is
+ * on they stop reporting the categories captured here.
+ */
+@Mod.EventBusSubscriber(modid = SoundAttractMod.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class ServerSoundCaptureEvents {
+
+    private static boolean broadcastMode;
+    private static final ThreadLocal<Player> POSITIONED_SOUND_PLAYER = new ThreadLocal<>();
+
+    private ServerSoundCaptureEvents() {
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onPlaySoundAtPosition(PlayLevelSoundEvent.AtPosition event) {
+        if (event.isCanceled()) return;
+        Holder<SoundEvent> sound = event.getSound();
+        int range = positionedSoundRange(sound);
+        if (range == 0) return;
+        Vec3 pos = event.getPosition();
+        capture(event.getLevel(), sound, BlockPos.containing(pos.x, pos.y, pos.z), range, 1.0);
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onPlaySoundAtEntity(PlayLevelSoundEvent.AtEntity event) {
+        if (event.isCanceled()) return;
+        Entity entity = event.getEntity();
+        Holder<SoundEvent> sound = event.getSound();
+        int range = soundRange(entity instanceof Player player ? player : null, sound);
+        if (range == 0) return;
+        capture(event.getLevel(), sound, entity.blockPosition(), range, 1.0);
+    }
+
+    /**
+     * Called from {@code ServerLevel.playSeededSound} around the positioned
+     * sound event, with the player the sound was played for (null for
+     * world sounds).
+     */
+    public static void beginPositionedSound(@Nullable Player player) {
+        POSITIONED_SOUND_PLAYER.set(player);
+    }
+
+    public static void endPositionedSound() {
+        POSITIONED_SOUND_PLAYER.remove();
+    }
+
+    static int positionedSoundRange(@Nullable Holder<SoundEvent> sound) {
+        return soundRange(POSITIONED_SOUND_PLAYER.get(), sound);
+    }
+
+    /**
+     * Range to record {@code sound} with: the movement-based footstep range
+     * for a player's steps, where 0 means the step is not heard, and -1 (the
+     * sound's configured range) for everything else.
+     */
+    static int soundRange(@Nullable Player player, @Nullable Holder<SoundEvent> sound) {
+        if (player == null || sound == null || !sound.value().getLocation().getPath().contains("step")) {
+            return -1;
+        }
+        return footstepRange(player);
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onGameEvent(VanillaGameEvent event) {
+        if (event.isCanceled()) return;
+        GameEvent gameEvent = event.getVanillaEvent();
+        SoundEvent sound;
+        if (gameEvent == GameEvent.BLOCK_DESTROY) {
+            BlockState state = event.getContext().affectedState();
+            if (state == null || state.isAir()) return;
+            sound = state.getSoundType().getBreakSound();
+        } else if (gameEvent == GameEvent.EXPLODE) {
+            sound = SoundEvents.GENERIC_EXPLODE;
+        } else {
+            return;
+        }
+        Vec3 pos = event.getEventPosition();
+        capture(event.getLevel(), Holder.direct(sound), BlockPos.containing(pos.x, pos.y, pos.z), -1, 1.0);
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player && SoundAttractNetwork.INSTANCE != null) {
+            SoundAttractNetwork.INSTANCE.send(PacketDistributor.PLAYER.with(() -> player),
+                new CaptureModeMessage(BakedSettings.get().serverSideSoundCapture));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        boolean mode = BakedSettings.get().serverSideSoundCapture;
+        if (mode != broadcastMode && SoundAttractNetwork.INSTANCE != null) {
+            broadcastMode = mode;
+            SoundAttractNetwork.INSTANCE.send(PacketDistributor.ALL.noArg(), new CaptureModeMessage(mode));
+        }
+    }
+
+    /**
+     * Called from {@code ServerLevel.levelEvent} for every level event the
+     * server sends. Mirrors the sounds the client plays for these events.
+     */
+    public static void onLevelEvent(ServerLevel level, int type, BlockPos pos, int data) {
+        if (!BakedSettings.get().serverSideSoundCapture) return;
+        SoundEvent sound = levelEventSound(type, data);
+        if (sound != null) {
+            capture(level, Holder.direct(sound), pos, -1, 1.0);
+        }
+    }
+
+    @Nullable
+    private static SoundEvent levelEventSound(int type, int data) {
+        return switch (type) {
+            case 1000 -> SoundEvents.DISPENSER_DISPENSE;
+            case 1001 -> SoundEvents.DISPENSER_FAIL;
+            case 1002 -> SoundEvents.DISPENSER_LAUNCH;
+            case 1003 -> SoundEvents.ENDER_EYE_LAUNCH;
+            case 1004 -> SoundEvents.FIREWORK_ROCKET_SHOOT;
+            case 1009 -> data == 0 ? SoundEvents.FIRE_EXTINGUISH : SoundEvents.GENERIC_EXTINGUISH_FIRE;
+            case 1015 -> SoundEvents.GHAST_WARN;
+            case 1016 -> SoundEvents.GHAST_SHOOT;
+            case 1017 -> SoundEvents.ENDER_DRAGON_SHOOT;
+            case 1018 -> SoundEvents.BLAZE_SHOOT;
+            case 1019 -> SoundEvents.ZOMBIE_ATTACK_WOODEN_DOOR;
+            case 1020 -> SoundEvents.ZOMBIE_ATTACK_IRON_DOOR;
+            case 1021 -> SoundEvents.ZOMBIE_BREAK_WOODEN_DOOR;
+            case 1022 -> SoundEvents.WITHER_BREAK_BLOCK;
+            case 1024 -> SoundEvents.WITHER_SHOOT;
+            case 1025 -> SoundEvents.BAT_TAKEOFF;
+            case 1026 -> SoundEvents.ZOMBIE_INFECT;
+            case 1027 -> SoundEvents.ZOMBIE_VILLAGER_CONVERTED;
+            case 1029 -> SoundEvents.ANVIL_DESTROY;
+            case 1030 -> SoundEvents.ANVIL_USE;
+            case 1031 -> SoundEvents.ANVIL_LAND;
+            case 1033 -> SoundEvents.CHORUS_FLOWER_GROW;
+            case 1034 -> SoundEvents.CHORUS_FLOWER_DEATH;
+            case 1035 -> SoundEvents.BREWING_STAND_BREW;
+            case 1039 -> SoundEvents.PHANTOM_BITE;
+            case 1040 -> SoundEvents.ZOMBIE_CONVERTED_TO_DROWNED;
+            case 1041 -> SoundEvents.HUSK_CONVERTED_TO_ZOMBIE;
+            case 1042 -> SoundEvents.GRINDSTONE_USE;
+            case 1043 -> SoundEvents.BOOK_PAGE_TURN;
+            case 1044 -> SoundEvents.SMITHING_TABLE_USE;
+            case 1045 -> SoundEvents.POINTED_DRIPSTONE_LAND;
+            case 1048 -> SoundEvents.SKELETON_CONVERTED_TO_STRAY;
+            case 1500 -> data > 0 ? SoundEvents.COMPOSTER_FILL_SUCCESS : SoundEvents.COMPOSTER_FILL;
+            case 1501 -> SoundEvents.LAVA_EXTINGUISH;
+            case 1502 -> SoundEvents.REDSTONE_TORCH_BURNOUT;
+            case 1503 -> SoundEvents.END_PORTAL_FRAME_FILL;
+            case 2002, 2007 -> SoundEvents.SPLASH_POTION_BREAK;
+            default -> null;
+        };
+    }
+
+    private static void capture(Level level, Holder<SoundEvent> sound, BlockPos pos, int range, double weight) {
+        if (sound == null || !(level instanceof ServerLevel serverLevel)) return;
+        BakedSettings settings = BakedSettings.get();
+        if (!settings.serverSideSoundCapture) return;
+        SoundEvent se = sound.value();
+        ResourceLocation soundId = se.getLocation();
+        if (soundId.equals(SoundMessage.VOICE_CHAT_SOUND_ID)) return;
+        if (!settings.soundIdWhitelist.isEmpty() && !settings.soundIdWhitelist.contains(soundId)) return;
+        SoundMessage.trackSound(soundId, se, pos, serverLevel.dimension().location().toString(),
+            range, weight, null, null, settings.soundLifetimeTicks);
+    }
+
+    /**
+     * The client's footstep ranges, from the movement since the last tick:
+     * 2 crawling, 3 sneaking, 8 walking, 12 sprinting and 16 sprint-jumping,
+     * or 0 if the player is not really moving.
+     */
+    private static int footstepRange(Player player) {
+        double dx = player.getX() - player.xo;
+        double dz = player.getZ() - player.zo;
+        double horizontalSpeedSq = dx * dx + dz * dz;
+        boolean onGround = player.onGround();
+        if (player.isShiftKeyDown()) {
+            if (horizontalSpeedSq > 0.001 * 0.001 && horizontalSpeedSq <= 0.03 * 0.03) return 2;
+            if (horizontalSpeedSq > 0.03 * 0.03 && horizontalSpeedSq <= 0.066 * 0.066 * 1.1) return 3;
+            return 0;
+        }
+        if (player.isSprinting() && !onGround) return 16;
+        if (player.isSprinting() && horizontalSpeedSq > 0.216 * 0.216) return 12;
+        if (onGround && horizontalSpeedSq > 0.001 * 0.001 && horizontalSpeedSq <= 0.216 * 0.216) return 8;
+        return 0;
+    }
+}
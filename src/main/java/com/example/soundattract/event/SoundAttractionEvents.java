@@ -22,17 +22,17 @@ import com.example.soundattract.data.DataDrivenTags;
 import com.example.soundattract.worker.WorkerScheduler.GroupComputeResult;
 import com.example.soundattract.worker.WorkSchedulerManager;
 import com.example.soundattract.integration.smartbrainlib.SmartBrainLibCompat;
+import com.example.soundattract.runtime.TickBudgetGovernor;
 import com.example.soundattract.tracking.SoundTracker;
+import com.example.soundattract.tracking.TrackedMobRegistry;
 
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.tags.TagKey;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.goal.Goal;
-import net.minecraft.world.phys.AABB;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.EntityJoinLevelEvent; 
 import net.minecraftforge.eventbus.api.SubscribeEvent;
@@ -215,6 +215,9 @@ public class SoundAttractionEvents {
     public static void onServerTick(TickEvent.ServerTickEvent event) {
         if (event.phase == TickEvent.Phase.START) {
             serverTickCounter++;
+            long began = TickBudgetGovernor.begin();
+            SoundTracker.drainPendingSounds();
+            TickBudgetGovernor.end(TickBudgetGovernor.Subsystem.TRACKING, began);
             if (!initialDelayHasPassed) {
                 int delay = SoundAttractConfig.COMMON.initialGroupComputationDelay.get();
                 if (serverTickCounter >= delay) {
@@ -240,25 +243,8 @@ public class SoundAttractionEvents {
             mobCountUpdateInterval = Math.max(20, mobCountUpdateInterval);
 
             if (currentTime - lastMobCountUpdateTime_ServerTick >= mobCountUpdateInterval || lastMobCountUpdateTime_ServerTick == -1) {
-                int currentMobCount = 0;
-                Set<Mob> countedMobsInTick = new HashSet<>();
-                Set<EntityType<?>> attractedEntityTypes = getCachedAttractedEntityTypes();
-
-                if (!attractedEntityTypes.isEmpty()) {
-                    for (ServerPlayer player : serverLevel.players()) {
-                        int simDistanceBlocks = player.server.getPlayerList().getViewDistance() * 16;
-                        AABB playerSimArea = player.getBoundingBox().inflate(simDistanceBlocks);
-                        List<Mob> mobsNearPlayer = serverLevel.getEntitiesOfClass(Mob.class, playerSimArea);
-
-                        for (Mob mob : mobsNearPlayer) {
-                            if (mob.isAlive() && !mob.isRemoved() && attractedEntityTypes.contains(mob.getType())) {
-                                if (countedMobsInTick.add(mob)) {
-                                    currentMobCount++;
-                                }
-                            }
-                        }
-                    }
-                }
+                int simDistanceBlocks = serverLevel.getServer().getPlayerList().getViewDistance() * 16;
+                int currentMobCount = TrackedMobRegistry.countNearPlayers(serverLevel, simDistanceBlocks, TrackedMobRegistry.ATTRACTED_TYPE);
                 cachedAttractedMobCount_ServerTick = currentMobCount;
                 lastMobCountUpdateTime_ServerTick = currentTime;
                 if (SoundAttractConfig.COMMON.debugLogging.get()) {
@@ -268,7 +254,9 @@ public class SoundAttractionEvents {
             mobCountForCooldownManager = cachedAttractedMobCount_ServerTick;
 
             com.example.soundattract.runtime.DynamicScanCooldownManager.update(currentTime, mobCountForCooldownManager);
+            long began = TickBudgetGovernor.begin();
             SoundTracker.tick();
+            TickBudgetGovernor.end(TickBudgetGovernor.Subsystem.TRACKING, began);
             BlockBreakerManager.processPendingActions();
             try {
                                 List<GroupComputeResult> results = WorkSchedulerManager.get().drainGroupResults();
@@ -316,7 +304,13 @@ public class SoundAttractionEvents {
         if (event.phase == TickEvent.Phase.END && !event.level.isClientSide()) {
             if (event.level instanceof ServerLevel serverLevel) {
                 if (initialDelayHasPassed) {
-                    com.example.soundattract.ai.MobGroupManager.updateGroups(serverLevel);
+                    if (TickBudgetGovernor.hasBudget(TickBudgetGovernor.Subsystem.GROUPING)) {
+                        long began = TickBudgetGovernor.begin();
+                        com.example.soundattract.ai.MobGroupManager.updateGroups(serverLevel);
+                        TickBudgetGovernor.end(TickBudgetGovernor.Subsystem.GROUPING, began);
+                    } else {
+                        TickBudgetGovernor.markThrottled(TickBudgetGovernor.Subsystem.GROUPING);
+                    }
 
                     com.example.soundattract.ai.RaidManager.tick(serverLevel);
                 }
@@ -2,10 +2,13 @@ package com.example.soundattract.event;
 
 import com.example.soundattract.SoundAttractMod;
 import com.example.soundattract.config.PlayerStance;
+import com.example.soundattract.config.BakedSettings;
 import com.example.soundattract.config.SoundAttractConfig;
 import com.example.soundattract.util.CamoUtil;
 import com.example.soundattract.enchantment.ModEnchantments;
 import com.example.soundattract.ai.MobGroupManager;
+import com.example.soundattract.runtime.TickBudgetGovernor;
+import com.example.soundattract.tracking.TrackedMobRegistry;
 import net.minecraft.world.item.enchantment.EnchantmentHelper;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -15,10 +18,12 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.tags.TagKey;
+import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.EntityType;
 import com.example.soundattract.integration.enhancedai.EnhancedAICompat;
@@ -32,12 +37,10 @@ import net.minecraft.world.item.ArmorItem;
 import net.minecraft.world.item.ArmorMaterials;
 import net.minecraft.world.item.BlockItem;
 import net.minecraft.world.item.DyeableLeatherItem;
-import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LightLayer;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.phys.AABB;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.living.LivingChangeTargetEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
@@ -45,6 +48,7 @@ import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.registries.ForgeRegistries;
 import net.minecraft.world.item.enchantment.Enchantment;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.phys.AABB;
 
 @Mod.EventBusSubscriber(modid = SoundAttractMod.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
 public class StealthDetectionEvents {
@@ -56,6 +60,16 @@ public class StealthDetectionEvents {
     private static final Map<UUID, GunshotInfo> playerGunshotInfo = new ConcurrentHashMap<>();
 
     private static final Map<UUID, Double> XRAY_RANGE_CACHE = new ConcurrentHashMap<>();
+    private static final Map<UUID, PlayerVisibilityProfile> visibilityProfiles = new ConcurrentHashMap<>();
+
+    private static final LongAdder STEALTH_EVALUATED = new LongAdder();
+    private static final LongAdder STEALTH_SKIPPED = new LongAdder();
+    private static final LongAdder STEALTH_EVAL_NANOS = new LongAdder();
+    private static List<Mob> stealthQueue = List.of();
+    private static int stealthCursor;
+    /** How far the current queue was rotated, so a cut-off pass can resume at an absolute offset. */
+    private static int stealthRotation;
+    private static int lastStealthPassSize;
 
     private static final Set<UUID> suppressedEdgeDetections = ConcurrentHashMap.newKeySet();
 
@@ -88,7 +102,7 @@ public class StealthDetectionEvents {
     }
 
     private static int getStealthCheckInterval() {
-        return SoundAttractConfig.COMMON.stealthCheckInterval.get();
+        return BakedSettings.get().stealthCheckInterval;
     }
     private static boolean hasConcealmentEnchant(ItemStack stack) {
         if (stack.isEmpty() || !stack.isEnchanted() || ModEnchantments.CONCEAL == null) { 
@@ -113,14 +127,14 @@ public class StealthDetectionEvents {
     }
 
     public static double getRealisticStealthDetectionRange(Mob target, Mob looker, Level level) {
-        if (!SoundAttractConfig.COMMON.enableStealthMechanics.get()) {
-            return SoundAttractConfig.COMMON.maxStealthDetectionRange.get();
+        if (!BakedSettings.get().enableStealthMechanics) {
+            return BakedSettings.get().maxStealthDetectionRange;
         }
 
-        double baseRange = SoundAttractConfig.COMMON.standingDetectionRangePlayer.get();
+        double baseRange = BakedSettings.get().standingDetectionRangePlayer;
 
         if (target.hasEffect(net.minecraft.world.effect.MobEffects.INVISIBILITY)) {
-            double invisFactor = SoundAttractConfig.COMMON.invisibilityStealthFactor.get();
+            double invisFactor = BakedSettings.get().invisibilityStealthFactor;
             baseRange *= invisFactor;
         }
 
@@ -141,48 +155,48 @@ public class StealthDetectionEvents {
                 effectiveLight = Math.max(effectiveLight, level.getBrightness(net.minecraft.world.level.LightLayer.SKY, eyes));
             }
         }
-        double neutral = SoundAttractConfig.COMMON.neutralLightLevel.get();
-        double sensitivity = SoundAttractConfig.COMMON.lightLevelSensitivity.get();
+        double neutral = BakedSettings.get().neutralLightLevel;
+        double sensitivity = BakedSettings.get().lightLevelSensitivity;
         double lightEffect = (effectiveLight - neutral) * (sensitivity / 15.0);
         double lightFactor = 1.0 + lightEffect;
-        lightFactor = Math.max(SoundAttractConfig.COMMON.minLightFactor.get(), lightFactor);
-        lightFactor = Math.min(SoundAttractConfig.COMMON.maxLightFactor.get(), lightFactor);
+        lightFactor = Math.max(BakedSettings.get().minLightFactor, lightFactor);
+        lightFactor = Math.min(BakedSettings.get().maxLightFactor, lightFactor);
         baseRange *= lightFactor;
 
         if (level.isRainingAt(feet)) {
-            baseRange *= SoundAttractConfig.COMMON.rainStealthFactor.get();
+            baseRange *= BakedSettings.get().rainStealthFactor;
         }
         if (level.isThundering()) {
-            baseRange *= SoundAttractConfig.COMMON.thunderStealthFactor.get();
+            baseRange *= BakedSettings.get().thunderStealthFactor;
         }
 
-        if (SoundAttractConfig.COMMON.enableHeldItemPenalty.get()) {
+        if (BakedSettings.get().enableHeldItemPenalty) {
             int held = (target.getMainHandItem().isEmpty() ? 0 : 1) + (target.getOffhandItem().isEmpty() ? 0 : 1);
             if (held > 0) {
-                double penaltyPerItem = SoundAttractConfig.COMMON.heldItemPenaltyFactor.get();
+                double penaltyPerItem = BakedSettings.get().heldItemPenaltyFactor;
                 for (int i = 0; i < held; i++) baseRange *= penaltyPerItem;
             }
         }
 
-        if (SoundAttractConfig.COMMON.enableEnchantmentPenalty.get()) {
+        if (BakedSettings.get().enableEnchantmentPenalty) {
             int enchantedArmor = 0;
             for (net.minecraft.world.item.ItemStack armor : target.getArmorSlots()) {
                 if (!armor.isEmpty() && armor.isEnchanted() && !hasConcealmentEnchant(armor)) enchantedArmor++;
             }
             if (enchantedArmor > 0) {
-                double armorPenaltyFactor = SoundAttractConfig.COMMON.armorEnchantmentPenaltyFactor.get();
+                double armorPenaltyFactor = BakedSettings.get().armorEnchantmentPenaltyFactor;
                 for (int i = 0; i < enchantedArmor; i++) baseRange *= armorPenaltyFactor;
             }
             int enchantedHeld = 0;
             if (!target.getMainHandItem().isEmpty() && target.getMainHandItem().isEnchanted() && !hasConcealmentEnchant(target.getMainHandItem())) enchantedHeld++;
             if (!target.getOffhandItem().isEmpty() && target.getOffhandItem().isEnchanted() && !hasConcealmentEnchant(target.getOffhandItem())) enchantedHeld++;
             if (enchantedHeld > 0) {
-                double heldItemEnchantPenalty = SoundAttractConfig.COMMON.heldItemEnchantmentPenaltyFactor.get();
+                double heldItemEnchantPenalty = BakedSettings.get().heldItemEnchantmentPenaltyFactor;
                 for (int i = 0; i < enchantedHeld; i++) baseRange *= heldItemEnchantPenalty;
             }
         }
 
-        if (SoundAttractConfig.COMMON.enableEnvironmentalCamouflage.get()) {
+        if (BakedSettings.get().enableEnvironmentalCamouflage) {
             java.util.Optional<Integer> armorColorOpt = getEffectiveArmorColorEntity(target);
             java.util.Optional<Integer> envColorOpt = getAverageEnvironmentalColorEntity(target, level);
             if (armorColorOpt.isPresent() && envColorOpt.isPresent()) {
@@ -195,30 +209,30 @@ public class StealthDetectionEvents {
                 int gEnv = (envColor >> 8) & 0xFF;
                 int bEnv = envColor & 0xFF;
                 int diff = Math.abs(rArmor - rEnv) + Math.abs(gArmor - gEnv) + Math.abs(bArmor - bEnv);
-                int matchBonusThreshold = SoundAttractConfig.COMMON.environmentalCamouflageColorMatchThreshold.get();
+                int matchBonusThreshold = BakedSettings.get().environmentalCamouflageColorMatchThreshold;
                 if (diff <= matchBonusThreshold) {
-                    double maxBonusEffect = SoundAttractConfig.COMMON.environmentalCamouflageMaxEffectiveness.get();
+                    double maxBonusEffect = BakedSettings.get().environmentalCamouflageMaxEffectiveness;
                     double effectivenessRatio = (matchBonusThreshold > 0) ? 1.0 - ((double) diff / matchBonusThreshold) : ((diff == 0) ? 1.0 : 0.0);
                     double actualBonus = maxBonusEffect * effectivenessRatio;
                     baseRange *= (1.0 - actualBonus);
-                } else if (SoundAttractConfig.COMMON.enableEnvironmentalMismatchPenalty.get()) {
-                    int mismatchThreshold = SoundAttractConfig.COMMON.environmentalMismatchThreshold.get();
+                } else if (BakedSettings.get().enableEnvironmentalMismatchPenalty) {
+                    int mismatchThreshold = BakedSettings.get().environmentalMismatchThreshold;
                     if (diff > mismatchThreshold) {
-                        double penaltyFactor = SoundAttractConfig.COMMON.environmentalMismatchPenaltyFactor.get();
+                        double penaltyFactor = BakedSettings.get().environmentalMismatchPenaltyFactor;
                         baseRange *= penaltyFactor;
                     }
                 }
             }
         }
 
-        double moveThreshold = SoundAttractConfig.COMMON.movementThreshold.get();
+        double moveThreshold = BakedSettings.get().movementThreshold;
         if (isMobMoving(target, moveThreshold)) {
-            baseRange *= SoundAttractConfig.COMMON.movementStealthPenalty.get();
+            baseRange *= BakedSettings.get().movementStealthPenalty;
         } else {
-            baseRange *= SoundAttractConfig.COMMON.stationaryStealthBonusFactor.get();
+            baseRange *= BakedSettings.get().stationaryStealthBonusFactor;
         }
 
-        if (SoundAttractConfig.COMMON.enableCamouflage.get()) {
+        if (BakedSettings.get().enableCamouflage) {
             java.util.List<String> camouflageItems = new java.util.ArrayList<>(SoundAttractConfig.COMMON.camouflageArmorItems.get());
             if (!camouflageItems.isEmpty()) {
                 double effectToApply = 0.0;
@@ -233,9 +247,9 @@ public class StealthDetectionEvents {
                     }
                 }
                 boolean fullSet = (totalActualArmorPieces == 4 && wornListedCamouflagePieces == totalActualArmorPieces && totalActualArmorPieces > 0);
-                if (SoundAttractConfig.COMMON.requireFullSetForCamouflageBonus.get()) {
+                if (BakedSettings.get().requireFullSetForCamouflageBonus) {
                     if (fullSet) {
-                        effectToApply = SoundAttractConfig.COMMON.fullArmorStealthBonus.get();
+                        effectToApply = BakedSettings.get().fullArmorStealthBonus;
                     } else {
                         double totalEffectiveness = 0.0;
                         for (int i = 0; i < armorItemsList.size(); i++) {
@@ -243,18 +257,18 @@ public class StealthDetectionEvents {
                             if (stack.isEmpty()) continue;
                             if (CamoUtil.isCamouflageArmorItem(stack.getItem())) {
                                 switch (i) {
-                                    case 0: totalEffectiveness += SoundAttractConfig.COMMON.bootsCamouflageEffectiveness.get(); break;
-                                    case 1: totalEffectiveness += SoundAttractConfig.COMMON.leggingsCamouflageEffectiveness.get(); break;
-                                    case 2: totalEffectiveness += SoundAttractConfig.COMMON.chestplateCamouflageEffectiveness.get(); break;
-                                    case 3: totalEffectiveness += SoundAttractConfig.COMMON.helmetCamouflageEffectiveness.get(); break;
+                                    case 0: totalEffectiveness += BakedSettings.get().bootsCamouflageEffectiveness; break;
+                                    case 1: totalEffectiveness += BakedSettings.get().leggingsCamouflageEffectiveness; break;
+                                    case 2: totalEffectiveness += BakedSettings.get().chestplateCamouflageEffectiveness; break;
+                                    case 3: totalEffectiveness += BakedSettings.get().helmetCamouflageEffectiveness; break;
                                 }
                             }
                         }
                         effectToApply = totalEffectiveness;
                     }
                 } else {
-                    if (fullSet && SoundAttractConfig.COMMON.fullArmorStealthBonus.get() > 0) {
-                        effectToApply = SoundAttractConfig.COMMON.fullArmorStealthBonus.get();
+                    if (fullSet && BakedSettings.get().fullArmorStealthBonus > 0) {
+                        effectToApply = BakedSettings.get().fullArmorStealthBonus;
                     } else {
                         double totalEffectiveness = 0.0;
                         for (int i = 0; i < armorItemsList.size(); i++) {
@@ -262,10 +276,10 @@ public class StealthDetectionEvents {
                             if (stack.isEmpty()) continue;
                             if (CamoUtil.isCamouflageArmorItem(stack.getItem())) {
                                 switch (i) {
-                                    case 0: totalEffectiveness += SoundAttractConfig.COMMON.bootsCamouflageEffectiveness.get(); break;
-                                    case 1: totalEffectiveness += SoundAttractConfig.COMMON.leggingsCamouflageEffectiveness.get(); break;
-                                    case 2: totalEffectiveness += SoundAttractConfig.COMMON.chestplateCamouflageEffectiveness.get(); break;
-                                    case 3: totalEffectiveness += SoundAttractConfig.COMMON.helmetCamouflageEffectiveness.get(); break;
+                                    case 0: totalEffectiveness += BakedSettings.get().bootsCamouflageEffectiveness; break;
+                                    case 1: totalEffectiveness += BakedSettings.get().leggingsCamouflageEffectiveness; break;
+                                    case 2: totalEffectiveness += BakedSettings.get().chestplateCamouflageEffectiveness; break;
+                                    case 3: totalEffectiveness += BakedSettings.get().helmetCamouflageEffectiveness; break;
                                 }
                             }
                         }
@@ -279,7 +293,7 @@ public class StealthDetectionEvents {
             }
         }
 
-        double finalCalculatedRange = Math.max(SoundAttractConfig.COMMON.minStealthDetectionRange.get(), Math.min(baseRange, SoundAttractConfig.COMMON.maxStealthDetectionRange.get()));
+        double finalCalculatedRange = Math.max(BakedSettings.get().minStealthDetectionRange, Math.min(baseRange, BakedSettings.get().maxStealthDetectionRange));
         if (SoundAttractConfig.COMMON.debugLogging.get()) {
             SoundAttractMod.LOGGER.info("[GRSDR_MobTarget_End] Looker: {}, Target: {}, Final Range: {}",
                     looker.getName().getString(), target.getName().getString(), String.format("%.2f", finalCalculatedRange));
@@ -303,7 +317,7 @@ public class StealthDetectionEvents {
 
     private static double getEffectiveXrayRange(Mob mob) {
         if (mob == null) return 0d;
-        if (!SoundAttractConfig.COMMON.enableXrayTargeting.get()) return 0d;
+        if (!BakedSettings.get().enableXrayTargeting) return 0d;
 
         if (EnhancedAICompat.isEnhancedAiLoaded()) {
             double v = EnhancedAICompat.getXrayAttributeValue(mob);
@@ -371,7 +385,7 @@ public class StealthDetectionEvents {
             if (!colorAdded) {
                 net.minecraft.resources.ResourceLocation itemIdRL = net.minecraftforge.registries.ForgeRegistries.ITEMS.getKey(item);
                 if (itemIdRL != null) {
-                    Integer mapped = SoundAttractConfig.customArmorColors.get(itemIdRL);
+                    Integer mapped = BakedSettings.get().customArmorColors.get(itemIdRL);
                     if (mapped != null) {
                         colors.add(mapped);
                     }
@@ -459,11 +473,12 @@ public class StealthDetectionEvents {
         }
         long currentTime = player.level().getGameTime();
         playerGunshotInfo.put(player.getUUID(), new GunshotInfo(currentTime, detectionRange));
+        visibilityProfiles.remove(player.getUUID());
         if (SoundAttractConfig.COMMON.debugLogging.get()) {
             SoundAttractMod.LOGGER.info("[Gunshot] Recorded gunshot for {} with range {}. Effective until tick {}.",
                 player.getName().getString(),
                 String.format("%.2f", detectionRange),
-                currentTime + SoundAttractConfig.COMMON.gunshotDetectionDurationTicks.get()
+                currentTime + BakedSettings.get().gunshotDetectionDurationTicks
             );
         }
     }
@@ -474,7 +489,7 @@ public class StealthDetectionEvents {
         }
 
         long currentTime = player.level().getGameTime();
-        long duration = SoundAttractConfig.COMMON.gunshotDetectionDurationTicks.get();
+        long duration = BakedSettings.get().gunshotDetectionDurationTicks;
 
         if ((currentTime - info.timestamp) < duration) {
             return Optional.of(info.detectionRange);
@@ -490,7 +505,7 @@ public class StealthDetectionEvents {
             return;
         }
 
-        if (!SoundAttractConfig.COMMON.enableStealthMechanics.get()) {
+        if (!BakedSettings.get().enableStealthMechanics) {
             return;
         }
 
@@ -599,7 +614,7 @@ public class StealthDetectionEvents {
             return true;
         }
 
-        if (!SoundAttractConfig.COMMON.enableStealthMechanics.get()) {
+        if (!BakedSettings.get().enableStealthMechanics) {
             return true;
         }
 
@@ -672,7 +687,7 @@ public class StealthDetectionEvents {
     }
 
     public static boolean shouldSuppressTargeting(Mob mob) {
-        if (!SoundAttractConfig.COMMON.enableStealthMechanics.get()) {
+        if (!BakedSettings.get().enableStealthMechanics) {
             return false;
         }
         LivingEntity target = getAttackTargetCompat(mob);
@@ -694,90 +709,194 @@ public class StealthDetectionEvents {
         if (event.phase != TickEvent.Phase.END) {
             return;
         }
-        if (!SoundAttractConfig.COMMON.enableStealthMechanics.get()) {
+        if (!BakedSettings.get().enableStealthMechanics) {
             return;
         }
 
         long gameTime = event.getServer().overworld().getGameTime();
         int stealthCheckInterval = getStealthCheckInterval();
 
-        if (gameTime % stealthCheckInterval != 0 || gameTime == lastStealthCheckTick) {
-            return;
+        // Bucketing is not charged to STEALTH, so it cannot use up the budget the evaluations need.
+        if (gameTime % stealthCheckInterval == 0 && gameTime != lastStealthCheckTick) {
+            lastStealthCheckTick = gameTime;
+            startStealthPass(event.getServer(), gameTime, stealthCheckInterval);
+        }
+        drainStealthPass(stealthCheckInterval);
+
+        if (SoundAttractConfig.COMMON.debugLogging.get() && gameTime % 1200L == 0L) {
+            SoundAttractMod.LOGGER.info("[TickCheck] Stealth pass: evaluated={}, skipped={}, lastPassSize={}, evalTime={}ms",
+                    stealthEvaluated(), stealthSkipped(), lastStealthPassSize, STEALTH_EVAL_NANOS.sum() / 1_000_000L);
         }
-        lastStealthCheckTick = gameTime;
+    }
+
+    public static long stealthEvaluated() {
+        return STEALTH_EVALUATED.sum();
+    }
 
-        for (ServerLevel level : event.getServer().getAllLevels()) {
+    public static long stealthSkipped() {
+        return STEALTH_SKIPPED.sum();
+    }
 
-            int scanningRadius = Math.max(32, (int) Math.ceil(SoundAttractConfig.COMMON.maxStealthDetectionRange.get()) + 16);
-            Set<Mob> mobsToCheck = new HashSet<>();
-            Set<UUID> seenPlayerIds = new HashSet<>();
-            Set<UUID> seenMobIds = new HashSet<>();
+    /**
+     * Collects every mob that is targeting a player, one walk over each
+     * dimension's {@link TrackedMobRegistry}, bucketed by target so a player's visibility profile is built
+     * once and then reused by the whole bucket. As before, a mob is checked
+     * when it is within the scan radius of any player in its dimension; mobs
+     * whose target is farther away or in another dimension go in a trailing
+     * bucket so their grace period still runs out.
+     *
+     * Mobs the previous pass did not reach are counted as skipped and the
+     * new pass resumes at the same absolute offset, so a budget that is too
+     * small rotates through the mobs instead of starving the tail.
+     */
+    private static void startStealthPass(net.minecraft.server.MinecraftServer server, long gameTime, int stealthCheckInterval) {
+        int leftover = stealthQueue.size() - stealthCursor;
+        int resumeAt = 0;
+        if (leftover > 0) {
+            STEALTH_SKIPPED.add(leftover);
+            resumeAt = (stealthRotation + stealthCursor) % stealthQueue.size();
+        }
+
+        double scanningRadius = Math.max(32, (int) Math.ceil(BakedSettings.get().maxStealthDetectionRange) + 16);
+        Set<UUID> seenPlayerIds = new HashSet<>();
+        Set<UUID> seenMobIds = new HashSet<>();
+        List<Mob> queue = new ArrayList<>();
+        for (ServerLevel level : server.getAllLevels()) {
+            if (level.players().isEmpty()) {
+                continue;
+            }
+            Map<Player, List<Mob>> byTarget = new java.util.LinkedHashMap<>();
+            List<AABB> scanAreas = new ArrayList<>();
             for (net.minecraft.server.level.ServerPlayer serverPlayer : level.players()) {
                 seenPlayerIds.add(serverPlayer.getUUID());
-                AABB scanArea = serverPlayer.getBoundingBox().inflate(scanningRadius);
-                mobsToCheck.addAll(level.getEntitiesOfClass(Mob.class, scanArea, entity -> entity.isAlive() && isTargetingPlayerCompat(entity)));
+                byTarget.put(serverPlayer, new ArrayList<>());
+                scanAreas.add(serverPlayer.getBoundingBox().inflate(scanningRadius));
             }
-            for (Mob mob : mobsToCheck) {
-                seenMobIds.add(mob.getUUID());
-                LivingEntity rawTarget = getAttackTargetCompat(mob);
-                UUID mobId = mob.getUUID();
-                if (!(rawTarget instanceof Player playerTarget)) {
-                    mobOutOfRangeTicks.remove(mobId);
-                    continue;
+            List<Mob> elsewhere = new ArrayList<>();
+            TrackedMobRegistry.forEach(level, 0, mob -> {
+                if (!(getAttackTargetCompat(mob) instanceof Player target)) {
+                    return;
+                }
+                AABB box = mob.getBoundingBox();
+                boolean nearPlayer = false;
+                for (AABB area : scanAreas) {
+                    if (area.intersects(box)) {
+                        nearPlayer = true;
+                        break;
+                    }
                 }
-                if (playerTarget.isCreative() || playerTarget.isSpectator()) {
-                    mobOutOfRangeTicks.remove(mobId);
-                    continue;
+                if (!nearPlayer) {
+                    return;
                 }
+                List<Mob> bucket = byTarget.get(target);
+                (bucket != null && mob.distanceToSqr(target) <= scanningRadius * scanningRadius ? bucket : elsewhere).add(mob);
+                seenMobIds.add(mob.getUUID());
+            });
+            for (List<Mob> bucket : byTarget.values()) {
+                queue.addAll(bucket);
+            }
+            queue.addAll(elsewhere);
+        }
 
-                boolean canCurrentlyDetect = canMobDetectPlayer(mob, playerTarget);
+        stealthRotation = queue.isEmpty() ? 0 : resumeAt % queue.size();
+        if (stealthRotation > 0) {
+            java.util.Collections.rotate(queue, -stealthRotation);
+        }
+        stealthQueue = queue;
+        stealthCursor = 0;
+        lastStealthPassSize = queue.size();
 
-                if (canCurrentlyDetect) {
-                    if (mobOutOfRangeTicks.remove(mobId) != null) {
-                        if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                            SoundAttractMod.LOGGER.info(
-                                    "[TickCheck] Mob {} regained direct detection of {}. Grace period reset.",
-                                    mob.getName().getString(), playerTarget.getName().getString()
-                            );
-                        }
-                    }
-                } else {
-                    int ticks = mobOutOfRangeTicks.getOrDefault(mobId, 0) + stealthCheckInterval;
-                    if (ticks >= SoundAttractConfig.COMMON.stealthGracePeriodTicks.get()) {
-                        if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                            SoundAttractMod.LOGGER.info(
-                                    "[TickCheck] Mob {} lost target {} due to stealth grace period timeout.",
-                                    mob.getName().getString(), playerTarget.getName().getString()
-                            );
-                        }
-                        if (mob.getBrain().hasMemoryValue(MemoryModuleType.ANGRY_AT)) {
-                            mob.getBrain().eraseMemory(MemoryModuleType.ANGRY_AT);
-                        }
-                        try {
-                            mob.getBrain().eraseMemory(MemoryModuleType.ATTACK_TARGET);
-                        } catch (Throwable ignored) {
-                        }
-                        mob.setTarget(null);
-                        mobOutOfRangeTicks.remove(mobId);
-                    } else {
-                        mobOutOfRangeTicks.put(mobId, ticks);
-                        if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                            SoundAttractMod.LOGGER.info(
-                                    "[TickCheck] Mob {} cannot detect {}. In grace period ({}/{}).",
-                                    mob.getName().getString(), playerTarget.getName().getString(),
-                                    ticks, SoundAttractConfig.COMMON.stealthGracePeriodTicks.get()
-                            );
-                        }
-                    }
+        if (gameTime % Math.max(stealthCheckInterval * 5L, 20L) == 0) {
+            mobOutOfRangeTicks.keySet().removeIf(id -> !seenMobIds.contains(id));
+            XRAY_RANGE_CACHE.keySet().removeIf(id -> !seenMobIds.contains(id));
+            lastMobPositions.keySet().removeIf(id -> !seenMobIds.contains(id));
+            suppressedEdgeDetections.removeIf(id -> !seenMobIds.contains(id));
+            lastPlayerPositions.keySet().removeIf(id -> !seenPlayerIds.contains(id));
+            playerGunshotInfo.keySet().removeIf(id -> !seenPlayerIds.contains(id));
+            visibilityProfiles.keySet().removeIf(id -> !seenPlayerIds.contains(id));
+        }
+    }
+
+    private static void drainStealthPass(int stealthCheckInterval) {
+        if (stealthCursor >= stealthQueue.size()) {
+            return;
+        }
+        // At least one mob is evaluated even with no budget left, so the pass always advances.
+        long budgetNanos = TickBudgetGovernor.remainingNanos(TickBudgetGovernor.Subsystem.STEALTH);
+        long start = System.nanoTime();
+        int evaluated = 0;
+        while (stealthCursor < stealthQueue.size()) {
+            Mob mob = stealthQueue.get(stealthCursor++);
+            if (mob.isAlive() && !mob.isRemoved()) {
+                evaluateTargetingMob(mob, stealthCheckInterval);
+            }
+            evaluated++;
+            if (System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+        STEALTH_EVALUATED.add(evaluated);
+        STEALTH_EVAL_NANOS.add(System.nanoTime() - start);
+        TickBudgetGovernor.end(TickBudgetGovernor.Subsystem.STEALTH, start);
+        if (stealthCursor >= stealthQueue.size()) {
+            stealthQueue = List.of();
+            stealthCursor = 0;
+            stealthRotation = 0;
+        } else {
+            TickBudgetGovernor.markThrottled(TickBudgetGovernor.Subsystem.STEALTH);
+        }
+    }
+
+    private static void evaluateTargetingMob(Mob mob, int stealthCheckInterval) {
+        LivingEntity rawTarget = getAttackTargetCompat(mob);
+        UUID mobId = mob.getUUID();
+        if (!(rawTarget instanceof Player playerTarget)) {
+            mobOutOfRangeTicks.remove(mobId);
+            return;
+        }
+        if (playerTarget.isCreative() || playerTarget.isSpectator()) {
+            mobOutOfRangeTicks.remove(mobId);
+            return;
+        }
+
+        boolean canCurrentlyDetect = canMobDetectPlayer(mob, playerTarget);
+
+        if (canCurrentlyDetect) {
+            if (mobOutOfRangeTicks.remove(mobId) != null) {
+                if (SoundAttractConfig.COMMON.debugLogging.get()) {
+                    SoundAttractMod.LOGGER.info(
+                            "[TickCheck] Mob {} regained direct detection of {}. Grace period reset.",
+                            mob.getName().getString(), playerTarget.getName().getString()
+                    );
                 }
             }
-            if (gameTime % Math.max(stealthCheckInterval * 5L, 20L) == 0) {
-                mobOutOfRangeTicks.keySet().removeIf(id -> !seenMobIds.contains(id));
-                XRAY_RANGE_CACHE.keySet().removeIf(id -> !seenMobIds.contains(id));
-                lastMobPositions.keySet().removeIf(id -> !seenMobIds.contains(id));
-                suppressedEdgeDetections.removeIf(id -> !seenMobIds.contains(id));
-                lastPlayerPositions.keySet().removeIf(id -> !seenPlayerIds.contains(id));
-                playerGunshotInfo.keySet().removeIf(id -> !seenPlayerIds.contains(id));
+        } else {
+            int ticks = mobOutOfRangeTicks.getOrDefault(mobId, 0) + stealthCheckInterval;
+            if (ticks >= SoundAttractConfig.COMMON.stealthGracePeriodTicks.get()) {
+                if (SoundAttractConfig.COMMON.debugLogging.get()) {
+                    SoundAttractMod.LOGGER.info(
+                            "[TickCheck] Mob {} lost target {} due to stealth grace period timeout.",
+                            mob.getName().getString(), playerTarget.getName().getString()
+                    );
+                }
+                if (mob.getBrain().hasMemoryValue(MemoryModuleType.ANGRY_AT)) {
+                    mob.getBrain().eraseMemory(MemoryModuleType.ANGRY_AT);
+                }
+                try {
+                    mob.getBrain().eraseMemory(MemoryModuleType.ATTACK_TARGET);
+                } catch (Throwable ignored) {
+                }
+                mob.setTarget(null);
+                mobOutOfRangeTicks.remove(mobId);
+            } else {
+                mobOutOfRangeTicks.put(mobId, ticks);
+                if (SoundAttractConfig.COMMON.debugLogging.get()) {
+                    SoundAttractMod.LOGGER.info(
+                            "[TickCheck] Mob {} cannot detect {}. In grace period ({}/{}).",
+                            mob.getName().getString(), playerTarget.getName().getString(),
+                            ticks, SoundAttractConfig.COMMON.stealthGracePeriodTicks.get()
+                    );
+                }
             }
         }
     }
@@ -837,10 +956,62 @@ public class StealthDetectionEvents {
         return PlayerStance.STANDING;
     }
 
+    /**
+     * Everything about a player's visibility that does not depend on the mob
+     * looking at them, sampled once per player per stealth check interval.
+     * The only mob-specific input left is the mob profile's stance override,
+     * which replaces the base range unless a gunshot flash is active.
+     */
+    public record PlayerVisibilityProfile(PlayerStance stance, double baseRange, boolean gunshot, double multiplier,
+                                          ResourceKey<Level> dimension, long gameTime) {
+
+        public double rangeFor(Mob mob) {
+            double range = baseRange;
+            if (!gunshot) {
+                com.example.soundattract.config.MobProfile mobProfile = SoundAttractConfig.getMatchingProfile(mob);
+                Optional<Double> override = (mobProfile != null) ? mobProfile.getDetectionOverride(stance) : Optional.empty();
+                if (override.isPresent()) {
+                    range = override.get();
+                    if (SoundAttractConfig.COMMON.debugLogging.get()) {
+                        SoundAttractMod.LOGGER.info(
+                                "[GRSDR_Update] Mob {} using profile '{}' detection range for stance {}: {}",
+                                mob.getName().getString(), mobProfile.getProfileName(), stance, range
+                        );
+                    }
+                }
+            }
+            return Math.max(BakedSettings.get().minStealthDetectionRange,
+                    Math.min(range * multiplier, BakedSettings.get().maxStealthDetectionRange));
+        }
+    }
+
+    public static PlayerVisibilityProfile getVisibilityProfile(Player player, Level level) {
+        long gameTime = level.getGameTime();
+        PlayerVisibilityProfile profile = visibilityProfiles.get(player.getUUID());
+        if (profile != null && profile.dimension() == level.dimension()
+                && gameTime >= profile.gameTime() && gameTime - profile.gameTime() < getStealthCheckInterval()) {
+            return profile;
+        }
+        profile = computeVisibilityProfile(player, level, gameTime);
+        visibilityProfiles.put(player.getUUID(), profile);
+        return profile;
+    }
+
     public static double getRealisticStealthDetectionRange(Player player, Mob mob, Level level) {
-        if (!SoundAttractConfig.COMMON.enableStealthMechanics.get()) {
-            return SoundAttractConfig.COMMON.maxStealthDetectionRange.get();
+        if (!BakedSettings.get().enableStealthMechanics) {
+            return BakedSettings.get().maxStealthDetectionRange;
         }
+        double finalCalculatedRange = getVisibilityProfile(player, level).rangeFor(mob);
+        if (SoundAttractConfig.COMMON.debugLogging.get()) {
+            SoundAttractMod.LOGGER.info(
+                    "[GRSDR_End] Mob: {}, Player: {}, Final Calculated Range: {}",
+                    mob.getName().getString(), player.getName().getString(), String.format("%.2f", finalCalculatedRange)
+            );
+        }
+        return finalCalculatedRange;
+    }
+
+    private static PlayerVisibilityProfile computeVisibilityProfile(Player player, Level level, long gameTime) {
         double baseRange;
         Optional<Double> gunshotRangeOpt = getActiveGunshotRange(player);
         PlayerStance currentStance = determinePlayerStance(player);
@@ -852,14 +1023,14 @@ public class StealthDetectionEvents {
                 player.getName().getString(), String.format("%.2f", baseRange)
                 );
             }
-            double standingRange = SoundAttractConfig.COMMON.standingDetectionRangePlayer.get();
+            double standingRange = BakedSettings.get().standingDetectionRangePlayer;
             double currentPoseBaseRange;
             switch (currentStance) {
                 case CRAWLING:
-                    currentPoseBaseRange = SoundAttractConfig.COMMON.crawlingDetectionRangePlayer.get();
+                    currentPoseBaseRange = BakedSettings.get().crawlingDetectionRangePlayer;
                     break;
                 case SNEAKING:
-                    currentPoseBaseRange = SoundAttractConfig.COMMON.sneakingDetectionRangePlayer.get();
+                    currentPoseBaseRange = BakedSettings.get().sneakingDetectionRangePlayer;
                     break;
                 default:
                     currentPoseBaseRange = standingRange;
@@ -874,63 +1045,46 @@ public class StealthDetectionEvents {
                 );
             }
         } else {
-            com.example.soundattract.config.MobProfile mobProfile = SoundAttractConfig.getMatchingProfile(mob);
-            Optional<Double> override = (mobProfile != null) ? mobProfile.getDetectionOverride(currentStance) : Optional.empty();
-            if (override.isPresent()) {
-                baseRange = override.get();
+            com.example.soundattract.config.PlayerProfile playerProfile = SoundAttractConfig.getMatchingPlayerProfile(player);
+            Optional<Double> playerOverride = (playerProfile != null) ? playerProfile.getDetectionOverride(currentStance) : Optional.empty();
+            if (playerOverride.isPresent()) {
+                baseRange = playerOverride.get();
                 if (SoundAttractConfig.COMMON.debugLogging.get()) {
                     SoundAttractMod.LOGGER.info(
-                    "[GRSDR_Update] Mob {} using profile '{}' detection range for stance {}: {}",
-                    mob.getName().getString(), mobProfile.getProfileName(), currentStance, baseRange
+                            "[GRSDR_Update] Player {} matched player profile '{}' for stance {}: {}",
+                            player.getName().getString(), playerProfile.getProfileName(), currentStance, baseRange
                     );
                 }
             } else {
-                com.example.soundattract.config.PlayerProfile playerProfile = SoundAttractConfig.getMatchingPlayerProfile(player);
-                Optional<Double> playerOverride = (playerProfile != null) ? playerProfile.getDetectionOverride(currentStance) : Optional.empty();
-                if (playerOverride.isPresent()) {
-                    baseRange = playerOverride.get();
-                    if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                        SoundAttractMod.LOGGER.info(
-                                "[GRSDR_Update] Player {} matched player profile '{}' for stance {}: {}",
-                                player.getName().getString(), playerProfile.getProfileName(), currentStance, baseRange
-                        );
-                    }
-                } else {
-                    switch (currentStance) {
-                        case CRAWLING:
-                            baseRange = SoundAttractConfig.COMMON.crawlingDetectionRangePlayer.get();
-                            break;
-                        case SNEAKING:
-                            baseRange = SoundAttractConfig.COMMON.sneakingDetectionRangePlayer.get();
-                            break;
-                        case STANDING:
-                        default:
-                            baseRange = SoundAttractConfig.COMMON.standingDetectionRangePlayer.get();
-                            break;
-                    }
-                    if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                        if (mobProfile != null) {
-                            SoundAttractMod.LOGGER.info(
-                                    "[GRSDR_Update] Mob {} profile '{}' has no override for stance {}. No matching player profile override. Using default: {}",
-                                    mob.getName().getString(), mobProfile.getProfileName(), currentStance, baseRange
-                            );
-                        } else {
-                            SoundAttractMod.LOGGER.info(
-                                    "[GRSDR_Update] No mob profile override and no player profile override for Mob {}. Using default for stance {}: {}",
-                                    mob.getName().getString(), currentStance, baseRange
-                            );
-                        }
-                    }
+                switch (currentStance) {
+                    case CRAWLING:
+                        baseRange = BakedSettings.get().crawlingDetectionRangePlayer;
+                        break;
+                    case SNEAKING:
+                        baseRange = BakedSettings.get().sneakingDetectionRangePlayer;
+                        break;
+                    case STANDING:
+                    default:
+                        baseRange = BakedSettings.get().standingDetectionRangePlayer;
+                        break;
+                }
+                if (SoundAttractConfig.COMMON.debugLogging.get()) {
+                    SoundAttractMod.LOGGER.info(
+                            "[GRSDR_Update] No player profile override for Player {}. Using default for stance {}: {}",
+                            player.getName().getString(), currentStance, baseRange
+                    );
                 }
             }
         }
+
+        double multiplier = 1.0;
         if (player.hasEffect(net.minecraft.world.effect.MobEffects.INVISIBILITY)) {
-            double invisFactor = SoundAttractConfig.COMMON.invisibilityStealthFactor.get();
-            baseRange *= invisFactor;
+            double invisFactor = BakedSettings.get().invisibilityStealthFactor;
+            multiplier *= invisFactor;
             if (SoundAttractConfig.COMMON.debugLogging.get()) {
                 SoundAttractMod.LOGGER.info(
-                        "[GRSDR_Update] Player {} is invisible, reducing baseRange to {}",
-                        player.getName().getString(), String.format("%.2f", baseRange)
+                        "[GRSDR_Update] Player {} is invisible, multiplier now {}",
+                        player.getName().getString(), String.format("%.2f", multiplier)
                 );
             }
         }
@@ -966,33 +1120,33 @@ public class StealthDetectionEvents {
             }
         }
 
-        double neutral = SoundAttractConfig.COMMON.neutralLightLevel.get();
-        double sensitivity = SoundAttractConfig.COMMON.lightLevelSensitivity.get();
+        double neutral = BakedSettings.get().neutralLightLevel;
+        double sensitivity = BakedSettings.get().lightLevelSensitivity;
         double lightEffect = (effectiveLight - neutral) * (sensitivity / 15.0);
         double lightFactor = 1.0 + lightEffect;
-        lightFactor = Math.max(SoundAttractConfig.COMMON.minLightFactor.get(), lightFactor);
-        lightFactor = Math.min(SoundAttractConfig.COMMON.maxLightFactor.get(), lightFactor);
-        baseRange *= lightFactor;
+        lightFactor = Math.max(BakedSettings.get().minLightFactor, lightFactor);
+        lightFactor = Math.min(BakedSettings.get().maxLightFactor, lightFactor);
+        multiplier *= lightFactor;
         if (SoundAttractConfig.COMMON.debugLogging.get()) {
-            SoundAttractMod.LOGGER.info("[GRSDR_Update] Light - EffectiveLight: {}, LightFactor (clamped): {}, baseRange: {}",
-                    effectiveLight, String.format("%.2f", lightFactor), String.format("%.2f", baseRange));
+            SoundAttractMod.LOGGER.info("[GRSDR_Update] Light - EffectiveLight: {}, LightFactor (clamped): {}, multiplier: {}",
+                    effectiveLight, String.format("%.2f", lightFactor), String.format("%.2f", multiplier));
         }
-        if (SoundAttractConfig.COMMON.enableHeldItemPenalty.get()) {
+        if (BakedSettings.get().enableHeldItemPenalty) {
             int heldItemCount = 0;
             if (!player.getMainHandItem().isEmpty()) heldItemCount++;
             if (!player.getOffhandItem().isEmpty()) heldItemCount++;
             if (heldItemCount > 0) {
-                double penaltyPerItem = SoundAttractConfig.COMMON.heldItemPenaltyFactor.get();
+                double penaltyPerItem = BakedSettings.get().heldItemPenaltyFactor;
                 for (int i = 0; i < heldItemCount; i++) {
-                    baseRange *= penaltyPerItem;
+                    multiplier *= penaltyPerItem;
                 }
                 if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                    SoundAttractMod.LOGGER.info("[GRSDR_Update] Held Item Penalty: {} items, factor {:.2f} (applied {} times) -> {:.2f}",
-                            heldItemCount, penaltyPerItem, heldItemCount, baseRange);
+                    SoundAttractMod.LOGGER.info("[GRSDR_Update] Held Item Penalty: {} items, factor {} -> multiplier {}",
+                            heldItemCount, String.format("%.2f", penaltyPerItem), String.format("%.2f", multiplier));
                 }
             }
         }
-        if (SoundAttractConfig.COMMON.enableEnchantmentPenalty.get()) {
+        if (BakedSettings.get().enableEnchantmentPenalty) {
             int visiblyEnchantedArmorPieces = 0;
             for (ItemStack armorStack : player.getArmorSlots()) {
                 if (!armorStack.isEmpty() && armorStack.isEnchanted() && !hasConcealmentEnchant(armorStack)) {
@@ -1000,13 +1154,13 @@ public class StealthDetectionEvents {
                 }
             }
             if (visiblyEnchantedArmorPieces > 0) {
-                double armorPenaltyFactor = SoundAttractConfig.COMMON.armorEnchantmentPenaltyFactor.get();
+                double armorPenaltyFactor = BakedSettings.get().armorEnchantmentPenaltyFactor;
                 for (int i = 0; i < visiblyEnchantedArmorPieces; i++) {
-                    baseRange *= armorPenaltyFactor;
+                    multiplier *= armorPenaltyFactor;
                 }
                 if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                    SoundAttractMod.LOGGER.info("[GRSDR_Update] Armor Enchant Penalty: {} pieces, factor {:.2f} (applied {} times) -> {:.2f}",
-                            visiblyEnchantedArmorPieces, armorPenaltyFactor, visiblyEnchantedArmorPieces, baseRange);
+                    SoundAttractMod.LOGGER.info("[GRSDR_Update] Armor Enchant Penalty: {} pieces, factor {} -> multiplier {}",
+                            visiblyEnchantedArmorPieces, String.format("%.2f", armorPenaltyFactor), String.format("%.2f", multiplier));
                 }
             }
             int visiblyEnchantedHeldItems = 0;
@@ -1017,21 +1171,20 @@ public class StealthDetectionEvents {
                 visiblyEnchantedHeldItems++;
             }
             if (visiblyEnchantedHeldItems > 0) {
-                double heldItemEnchantPenalty = SoundAttractConfig.COMMON.heldItemEnchantmentPenaltyFactor.get();
+                double heldItemEnchantPenalty = BakedSettings.get().heldItemEnchantmentPenaltyFactor;
                 for (int i = 0; i < visiblyEnchantedHeldItems; i++) {
-                    baseRange *= heldItemEnchantPenalty;
+                    multiplier *= heldItemEnchantPenalty;
                 }
                 if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                    SoundAttractMod.LOGGER.info("[GRSDR_Update] Held Item Enchant Penalty: {} items, factor {:.2f} (applied {} times) -> {:.2f}",
-                            visiblyEnchantedHeldItems, heldItemEnchantPenalty, visiblyEnchantedHeldItems, baseRange);
+                    SoundAttractMod.LOGGER.info("[GRSDR_Update] Held Item Enchant Penalty: {} items, factor {} -> multiplier {}",
+                            visiblyEnchantedHeldItems, String.format("%.2f", heldItemEnchantPenalty), String.format("%.2f", multiplier));
                 }
             }
         }
-        List<String> camouflageItems = new ArrayList<>(SoundAttractConfig.COMMON.camouflageArmorItems.get());
 
-        if (SoundAttractConfig.COMMON.enableEnvironmentalCamouflage.get()) {
+        if (BakedSettings.get().enableEnvironmentalCamouflage) {
             Optional<Integer> armorColorOpt = getEffectiveArmorColor(player);
-            Optional<Integer> envColorOpt = getAverageEnvironmentalColor(player, level);
+            Optional<Integer> envColorOpt = armorColorOpt.isPresent() ? getAverageEnvironmentalColor(player, level) : Optional.empty();
 
             if (armorColorOpt.isPresent() && envColorOpt.isPresent()) {
                 int armorColor = armorColorOpt.get();
@@ -1046,10 +1199,10 @@ public class StealthDetectionEvents {
                 int bEnv = envColor & 0xFF;
 
                 int diff = Math.abs(rArmor - rEnv) + Math.abs(gArmor - gEnv) + Math.abs(bArmor - bEnv);
-                int matchBonusThreshold = SoundAttractConfig.COMMON.environmentalCamouflageColorMatchThreshold.get();
+                int matchBonusThreshold = BakedSettings.get().environmentalCamouflageColorMatchThreshold;
 
                 if (diff <= matchBonusThreshold) {
-                    double maxBonusEffect = SoundAttractConfig.COMMON.environmentalCamouflageMaxEffectiveness.get();
+                    double maxBonusEffect = BakedSettings.get().environmentalCamouflageMaxEffectiveness;
                     double effectivenessRatio;
                     if (matchBonusThreshold > 0) {
                         effectivenessRatio = 1.0 - ((double) diff / matchBonusThreshold);
@@ -1058,26 +1211,26 @@ public class StealthDetectionEvents {
                     }
 
                     double actualBonusEffectiveness = maxBonusEffect * effectivenessRatio;
-                    baseRange *= (1.0 - actualBonusEffectiveness);
+                    multiplier *= (1.0 - actualBonusEffectiveness);
 
                     if (SoundAttractConfig.COMMON.debugLogging.get()) {
                         SoundAttractMod.LOGGER.info(
-                                "[EnvCamo] Player {} BONUS: armor=0x{}, env=0x{}, diff={}, matchThold={}, ratio={}, effect={}, newRange={}",
+                                "[EnvCamo] Player {} BONUS: armor=0x{}, env=0x{}, diff={}, matchThold={}, ratio={}, effect={}, multiplier={}",
                                 player.getName().getString(), String.format("%06X", armorColor), String.format("%06X", envColor),
                                 diff, matchBonusThreshold, String.format("%.2f", effectivenessRatio),
-                                String.format("%.2f", actualBonusEffectiveness), String.format("%.2f", baseRange)
+                                String.format("%.2f", actualBonusEffectiveness), String.format("%.2f", multiplier)
                         );
                     }
-                } else if (SoundAttractConfig.COMMON.enableEnvironmentalMismatchPenalty.get()) {
-                    int mismatchPenaltyThreshold = SoundAttractConfig.COMMON.environmentalMismatchThreshold.get();
+                } else if (BakedSettings.get().enableEnvironmentalMismatchPenalty) {
+                    int mismatchPenaltyThreshold = BakedSettings.get().environmentalMismatchThreshold;
                     if (diff > mismatchPenaltyThreshold) {
-                        double penaltyFactor = SoundAttractConfig.COMMON.environmentalMismatchPenaltyFactor.get();
-                        baseRange *= penaltyFactor;
+                        double penaltyFactor = BakedSettings.get().environmentalMismatchPenaltyFactor;
+                        multiplier *= penaltyFactor;
                         if (SoundAttractConfig.COMMON.debugLogging.get()) {
                             SoundAttractMod.LOGGER.info(
-                                    "[EnvCamo] Player {} PENALTY: armor=0x{}, env=0x{}, diff={}, mismatchThold={}, penaltyFactor={}, newRange={}",
+                                    "[EnvCamo] Player {} PENALTY: armor=0x{}, env=0x{}, diff={}, mismatchThold={}, penaltyFactor={}, multiplier={}",
                                     player.getName().getString(), String.format("%06X", armorColor), String.format("%06X", envColor),
-                                    diff, mismatchPenaltyThreshold, String.format("%.2f", penaltyFactor), String.format("%.2f", baseRange)
+                                    diff, mismatchPenaltyThreshold, String.format("%.2f", penaltyFactor), String.format("%.2f", multiplier)
                             );
                         }
                     } else {
@@ -1097,164 +1250,88 @@ public class StealthDetectionEvents {
         }
 
         if (level.isRainingAt(player.blockPosition())) {
-            baseRange *= SoundAttractConfig.COMMON.rainStealthFactor.get();
+            multiplier *= BakedSettings.get().rainStealthFactor;
              if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                SoundAttractMod.LOGGER.info("[GRSDR_Update] Raining. Factor applied. baseRange: {}", String.format("%.2f", baseRange));
+                SoundAttractMod.LOGGER.info("[GRSDR_Update] Raining. Factor applied. multiplier: {}", String.format("%.2f", multiplier));
             }
         }
         if (level.isThundering()) {
-            baseRange *= SoundAttractConfig.COMMON.thunderStealthFactor.get();
+            multiplier *= BakedSettings.get().thunderStealthFactor;
              if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                SoundAttractMod.LOGGER.info("[GRSDR_Update] Thundering. Factor applied. baseRange: {}", String.format("%.2f", baseRange));
+                SoundAttractMod.LOGGER.info("[GRSDR_Update] Thundering. Factor applied. multiplier: {}", String.format("%.2f", multiplier));
             }
         }
 
         if (currentStance != PlayerStance.SNEAKING && currentStance != PlayerStance.CRAWLING) {
-            if (isPlayerMoving(player, SoundAttractConfig.COMMON.movementThreshold.get())) {
-                baseRange *= SoundAttractConfig.COMMON.movementStealthPenalty.get();
+            if (isPlayerMoving(player, BakedSettings.get().movementThreshold)) {
+                multiplier *= BakedSettings.get().movementStealthPenalty;
                 if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                    SoundAttractMod.LOGGER.info("[GRSDR_Update] Player moving (not sneak/crawl). Penalty applied. baseRange: {}", String.format("%.2f", baseRange));
+                    SoundAttractMod.LOGGER.info("[GRSDR_Update] Player moving (not sneak/crawl). Penalty applied. multiplier: {}", String.format("%.2f", multiplier));
                 }
             } else {
-                baseRange *= SoundAttractConfig.COMMON.stationaryStealthBonusFactor.get();
+                multiplier *= BakedSettings.get().stationaryStealthBonusFactor;
                 if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                    SoundAttractMod.LOGGER.info("[GRSDR_Update] Player stationary (not sneak/crawl). Bonus applied. baseRange: {}", String.format("%.2f", baseRange));
+                    SoundAttractMod.LOGGER.info("[GRSDR_Update] Player stationary (not sneak/crawl). Bonus applied. multiplier: {}", String.format("%.2f", multiplier));
                 }
             }
-        } else {
-             if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                SoundAttractMod.LOGGER.info("[GRSDR_Update] Player sneaking/crawling. Movement penalty/bonus not applied here (handled by stance base range). baseRange: {}", String.format("%.2f", baseRange));
-            }
         }
 
-        if (SoundAttractConfig.COMMON.enableCamouflage.get()) {
-            if (!camouflageItems.isEmpty()) {
-                double effectToApply = 0.0;
+        if (BakedSettings.get().enableCamouflage) {
+            List<? extends String> configured = SoundAttractConfig.COMMON.camouflageArmorItems.get();
+            if (!configured.isEmpty()) {
+                Set<String> camouflageItems = new HashSet<>(configured);
                 int totalActualArmorPieces = 0;
-                long wornListedCamouflagePieces = 0;
+                int wornListedCamouflagePieces = 0;
+                double summedEffectiveness = 0.0;
+                int slot = 0;
                 for (ItemStack armorStack : player.getArmorSlots()) {
                     if (!armorStack.isEmpty()) {
                         totalActualArmorPieces++;
                         ResourceLocation itemId = ForgeRegistries.ITEMS.getKey(armorStack.getItem());
                         if (itemId != null && camouflageItems.contains(itemId.toString())) {
                             wornListedCamouflagePieces++;
+                            switch (slot) {
+                                case 0: summedEffectiveness += BakedSettings.get().bootsCamouflageEffectiveness; break;
+                                case 1: summedEffectiveness += BakedSettings.get().leggingsCamouflageEffectiveness; break;
+                                case 2: summedEffectiveness += BakedSettings.get().chestplateCamouflageEffectiveness; break;
+                                case 3: summedEffectiveness += BakedSettings.get().helmetCamouflageEffectiveness; break;
+                            }
                         }
                     }
+                    slot++;
                 }
-                boolean isActuallyWearingFullSetOfListedItems = (totalActualArmorPieces == 4 && wornListedCamouflagePieces == totalActualArmorPieces && totalActualArmorPieces > 0);
+                boolean isActuallyWearingFullSetOfListedItems = (totalActualArmorPieces == 4 && wornListedCamouflagePieces == totalActualArmorPieces);
 
-                if (SoundAttractConfig.COMMON.requireFullSetForCamouflageBonus.get()) {
-                    if (isActuallyWearingFullSetOfListedItems) {
-                        effectToApply = SoundAttractConfig.COMMON.fullArmorStealthBonus.get();
-                        if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                            SoundAttractMod.LOGGER.info(
-                                    "[GRSDR_Update ItemCamo] Player {} wearing full set of listed items (requireFullSet=true). Applying fullArmorStealthBonus: {}",
-                                    player.getName().getString(), effectToApply
-                            );
-                        }
-                    } else {
-                        double totalEffectiveness = 0.0;
-                        List<ItemStack> armorItemsList = new ArrayList<>();
-                        player.getArmorSlots().forEach(armorItemsList::add);
-                        for (int i = 0; i < armorItemsList.size(); i++) {
-                            ItemStack stack = armorItemsList.get(i);
-                            if (stack.isEmpty()) continue;
-                            Item item = stack.getItem();
-                            ResourceLocation itemId = ForgeRegistries.ITEMS.getKey(item);
-                            if (itemId != null && camouflageItems.contains(itemId.toString())) {
-                                switch (i) {
-                                    case 0: totalEffectiveness += SoundAttractConfig.COMMON.bootsCamouflageEffectiveness.get(); break;
-                                    case 1: totalEffectiveness += SoundAttractConfig.COMMON.leggingsCamouflageEffectiveness.get(); break;
-                                    case 2: totalEffectiveness += SoundAttractConfig.COMMON.chestplateCamouflageEffectiveness.get(); break;
-                                    case 3: totalEffectiveness += SoundAttractConfig.COMMON.helmetCamouflageEffectiveness.get(); break;
-                                }
-                            }
-                        }
-                        effectToApply = totalEffectiveness;
-                        if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                             SoundAttractMod.LOGGER.info(
-                                    "[GRSDR_Update ItemCamo] Player {} wearing partial listed camo (requireFullSet=true). Applying summed per-piece effectiveness: {}",
-                                    player.getName().getString(), effectToApply
-                            );
-                        }
-                    }
+                double effectToApply;
+                if (isActuallyWearingFullSetOfListedItems
+                        && (BakedSettings.get().requireFullSetForCamouflageBonus || BakedSettings.get().fullArmorStealthBonus > 0)) {
+                    effectToApply = BakedSettings.get().fullArmorStealthBonus;
                 } else {
-                    if (isActuallyWearingFullSetOfListedItems && SoundAttractConfig.COMMON.fullArmorStealthBonus.get() > 0) {
-                        effectToApply = SoundAttractConfig.COMMON.fullArmorStealthBonus.get();
-                        if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                            SoundAttractMod.LOGGER.info(
-                                    "[GRSDR_Update ItemCamo] Player {} wearing full set of listed items (requireFullSet=false, using full bonus). Applying fullArmorStealthBonus: {}",
-                                    player.getName().getString(), effectToApply
-                            );
-                        }
-                    } else {
-                        double totalEffectiveness = 0.0;
-                        List<ItemStack> armorItemsList = new ArrayList<>();
-                        player.getArmorSlots().forEach(armorItemsList::add);
-                        for (int i = 0; i < armorItemsList.size(); i++) {
-                            ItemStack stack = armorItemsList.get(i);
-                            if (stack.isEmpty()) continue;
-                            Item item = stack.getItem();
-                            ResourceLocation itemId = ForgeRegistries.ITEMS.getKey(item);
-                            if (itemId != null && camouflageItems.contains(itemId.toString())) {
-                                switch (i) {
-                                    case 0: totalEffectiveness += SoundAttractConfig.COMMON.bootsCamouflageEffectiveness.get(); break;
-                                    case 1: totalEffectiveness += SoundAttractConfig.COMMON.leggingsCamouflageEffectiveness.get(); break;
-                                    case 2: totalEffectiveness += SoundAttractConfig.COMMON.chestplateCamouflageEffectiveness.get(); break;
-                                    case 3: totalEffectiveness += SoundAttractConfig.COMMON.helmetCamouflageEffectiveness.get(); break;
-                                }
-                            }
-                        }
-                        effectToApply = totalEffectiveness;
-                        if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                            SoundAttractMod.LOGGER.info(
-                                    "[GRSDR_Update ItemCamo] Player {} (requireFullSet=false). Applying summed per-piece effectiveness: {}",
-                                    player.getName().getString(), effectToApply
-                            );
-                        }
-                    }
+                    effectToApply = summedEffectiveness;
+                }
+                if (SoundAttractConfig.COMMON.debugLogging.get()) {
+                    SoundAttractMod.LOGGER.info(
+                            "[GRSDR_Update ItemCamo] Player {} fullSet={}, requireFullSet={}. Item camouflage effect: {}",
+                            player.getName().getString(), isActuallyWearingFullSetOfListedItems,
+                            BakedSettings.get().requireFullSetForCamouflageBonus, effectToApply
+                    );
                 }
 
                 if (effectToApply > 0.0) {
                     double itemCamoMultiplier = 1.0 - Math.min(effectToApply, 0.99);
-                    baseRange *= itemCamoMultiplier;
+                    multiplier *= itemCamoMultiplier;
                     if (SoundAttractConfig.COMMON.debugLogging.get()) {
                         SoundAttractMod.LOGGER.info(
-                                "[GRSDR_Update ItemCamo] Player {} range after general item camouflage: {}. Applied multiplier: {} (Effect: {})",
-                                player.getName().getString(), String.format("%.2f", baseRange),
+                                "[GRSDR_Update ItemCamo] Player {} multiplier after general item camouflage: {}. Applied multiplier: {} (Effect: {})",
+                                player.getName().getString(), String.format("%.2f", multiplier),
                                 String.format("%.2f", itemCamoMultiplier), String.format("%.2f", effectToApply)
                         );
                     }
                 }
-
-                double finalCalculatedRange = Math.max(SoundAttractConfig.COMMON.minStealthDetectionRange.get(), Math.min(baseRange, SoundAttractConfig.COMMON.maxStealthDetectionRange.get()));
-                if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                    SoundAttractMod.LOGGER.info(
-                            "[GRSDR_End] Mob: {}, Player: {}, Final Calculated Range (camo items processed): {}",
-                            mob.getName().getString(), player.getName().getString(), String.format("%.2f", finalCalculatedRange)
-                    );
-                }
-                return finalCalculatedRange;
-            } else {
-                double finalCalculatedRange = Math.max(SoundAttractConfig.COMMON.minStealthDetectionRange.get(), Math.min(baseRange, SoundAttractConfig.COMMON.maxStealthDetectionRange.get()));
-                if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                    SoundAttractMod.LOGGER.info(
-                            "[GRSDR_End] Mob: {}, Player: {}, Item Camo enabled but no items configured. Final Range: {}",
-                            mob.getName().getString(), player.getName().getString(), String.format("%.2f", finalCalculatedRange)
-                    );
-                }
-                return finalCalculatedRange;
             }
-        } else {
-            double finalCalculatedRange = Math.max(SoundAttractConfig.COMMON.minStealthDetectionRange.get(), Math.min(baseRange, SoundAttractConfig.COMMON.maxStealthDetectionRange.get()));
-            if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                SoundAttractMod.LOGGER.info(
-                        "[GRSDR_End] Mob: {}, Player: {}, Item Camo system disabled. Final Range: {}",
-                        mob.getName().getString(), player.getName().getString(), String.format("%.2f", finalCalculatedRange)
-                );
-            }
-            return finalCalculatedRange;
         }
+
+        return new PlayerVisibilityProfile(currentStance, baseRange, gunshotRangeOpt.isPresent(), multiplier, level.dimension(), gameTime);
     }
 
 
@@ -1284,7 +1361,7 @@ public class StealthDetectionEvents {
             if (!colorAdded) {
                 ResourceLocation itemIdRL = ForgeRegistries.ITEMS.getKey(item);
                 if (itemIdRL != null) {
-                    Integer mappedColorValue = SoundAttractConfig.customArmorColors.get(itemIdRL);
+                    Integer mappedColorValue = BakedSettings.get().customArmorColors.get(itemIdRL);
                     if (mappedColorValue != null) {
                         colors.add(mappedColorValue);
                         if (SoundAttractConfig.COMMON.debugLogging.get()) {
@@ -0,0 +1,91 @@
+package com.example.soundattract.event.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import com.example.soundattract.network.SoundAttractNetwork;
+import com.example.soundattract.network.SoundBatchMessage;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+/**
+ * Collects the sounds the client hears during a tick and ships them as one
+ * {@link SoundBatchMessage}. Repeats of the same sound on the same block
+ * within a tick collapse into a single entry that keeps the loudest range
+ * and weight.
+ */
+@OnlyIn(Dist.CLIENT)
+public final class ClientSoundBatcher {
+
+    private record Key(SoundEvent sound, long pos) {
+    }
+
+    /** Index of each pending key's entry in {@link #ORDER}. */
+    private static final Object2IntOpenHashMap<Key> PENDING = new Object2IntOpenHashMap<>();
+    private static final List<SoundBatchMessage.Entry> ORDER = new ArrayList<>();
+
+    static {
+        PENDING.defaultReturnValue(-1);
+    }
+    private static ResourceLocation pendingDimension;
+
+    private ClientSoundBatcher() {
+    }
+
+    public static synchronized void queue(ResourceLocation dimension, SoundEvent sound, BlockPos pos, int range, double weight) {
+        if (dimension == null || sound == null || pos == null) {
+            return;
+        }
+        if (pendingDimension != null && !pendingDimension.equals(dimension)) {
+            flush();
+        }
+        pendingDimension = dimension;
+
+        BlockPos blockPos = pos.immutable();
+        Key key = new Key(sound, blockPos.asLong());
+        // Unregistered modded sounds are sent by location instead of registry id.
+        SoundBatchMessage.Entry entry = new SoundBatchMessage.Entry(sound.getLocation(), sound, blockPos, range, (float) weight);
+        int index = PENDING.getInt(key);
+        if (index < 0) {
+            PENDING.put(key, ORDER.size());
+            ORDER.add(entry);
+        } else if (louder(entry, ORDER.get(index))) {
+            ORDER.set(index, entry);
+        }
+
+        if (ORDER.size() >= SoundBatchMessage.MAX_ENTRIES) {
+            flush();
+        }
+    }
+
+    public static synchronized void flush() {
+        if (ORDER.isEmpty()) {
+            return;
+        }
+        SoundBatchMessage msg = new SoundBatchMessage(pendingDimension, new ArrayList<>(ORDER));
+        PENDING.clear();
+        ORDER.clear();
+        if (SoundAttractNetwork.INSTANCE != null) {
+            SoundAttractNetwork.INSTANCE.sendToServer(msg);
+        }
+    }
+
+    public static synchronized void clear() {
+        PENDING.clear();
+        ORDER.clear();
+        pendingDimension = null;
+    }
+
+    private static boolean louder(SoundBatchMessage.Entry candidate, SoundBatchMessage.Entry current) {
+        if (candidate.range() != current.range()) {
+            return candidate.range() > current.range();
+        }
+        return candidate.weight() > current.weight();
+    }
+}
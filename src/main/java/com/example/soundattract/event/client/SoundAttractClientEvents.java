@@ -6,19 +6,21 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
 import net.minecraft.resources.ResourceLocation;
-import java.util.Optional;
-import java.util.UUID;
 
 import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
 
 import com.example.soundattract.SoundAttractMod;
-import com.example.soundattract.network.SoundAttractNetwork;
+import com.example.soundattract.network.CaptureModeMessage;
 import com.example.soundattract.network.SoundMessage;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
 import net.minecraftforge.client.event.sound.PlaySoundEvent;
+import net.minecraftforge.event.TickEvent;
 import net.minecraft.client.resources.sounds.AbstractSoundInstance;
 import net.minecraft.sounds.SoundEvent;
+import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.registries.ForgeRegistries;
 
@@ -44,6 +46,9 @@ public class SoundAttractClientEvents {
             if (soundRL == null || soundRL.equals(SoundMessage.VOICE_CHAT_SOUND_ID)) {
                 return;
             }
+            if (CaptureModeMessage.serverCaptureActive() && isCapturedByServer(soundInstance.getSource())) {
+                return;
+            }
 
             SoundEvent se = ForgeRegistries.SOUND_EVENTS.getValue(soundRL);
             if (se == null) {
@@ -54,13 +59,11 @@ public class SoundAttractClientEvents {
             double y = soundInstance.getY();
             double z = soundInstance.getZ();
             ResourceLocation dim = clientWorld.dimension().location();
-            Optional<UUID> sourcePlayerUUID = Optional.empty();
             int calculatedRange = -1;
             double calculatedWeight = 1.0;
 
             if (se != null && se.getLocation().getPath().contains("step") && clientPlayer.position().distanceToSqr(x, y, z) < 1.5 * 1.5) {
 
-                sourcePlayerUUID = Optional.of(clientPlayer.getUUID());
                 Vec3 motion = clientPlayer.getDeltaMovement();
                 double horizontalSpeedSq = motion.x * motion.x + motion.z * motion.z;
                 boolean isOnGround = clientPlayer.onGround();
@@ -112,11 +115,33 @@ public class SoundAttractClientEvents {
                 }
             }
 
-            SoundMessage msg = new SoundMessage(soundRL, x, y, z, dim, sourcePlayerUUID, calculatedRange, calculatedWeight);
-            SoundAttractNetwork.INSTANCE.sendToServer(msg);
+            ClientSoundBatcher.queue(dim, se, BlockPos.containing(x, y, z), calculatedRange, calculatedWeight);
         }
     }
 
+    /**
+     * Categories the server records itself in capture mode: everything it
+     * broadcasts, plus block breaks and explosions, which it takes from game
+     * events.
+     */
+    private static boolean isCapturedByServer(SoundSource source) {
+        return source == SoundSource.BLOCKS || source == SoundSource.HOSTILE
+                || source == SoundSource.NEUTRAL || source == SoundSource.PLAYERS;
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            ClientSoundBatcher.flush();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        ClientSoundBatcher.clear();
+        CaptureModeMessage.reset();
+    }
+
     public static void registerVoiceChatIntegration() {
     }
 
@@ -1,7 +1,7 @@
 package com.example.soundattract.integration.pointblank;
 
 import com.example.soundattract.SoundAttractMod;
-import com.example.soundattract.network.SoundMessage;
+import com.example.soundattract.api.SoundEmitter;
 import com.example.soundattract.event.StealthDetectionEvents;
 import com.example.soundattract.config.SoundAttractConfig;
 import com.vicmatskiv.pointblank.attachment.Attachment;
@@ -11,11 +11,11 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.registries.ForgeRegistries;
-import java.util.Optional;
 
 public class PointBlankIntegration {
 
     public static final ResourceLocation PB_GUN_SOUND_ID = ResourceLocation.fromNamespaceAndPath("pointblank", "gun_action");
+    private static final SoundEmitter.Key PB_GUN_SOUND = SoundEmitter.key(PB_GUN_SOUND_ID);
 
     public static void onGunShoot(ServerPlayer player, ItemStack gunStack) {
         double flashRange = SoundAttractConfig.COMMON.gunshotBaseDetectionRange.get();
@@ -34,38 +34,14 @@ public class PointBlankIntegration {
 
         double[] rangeAndWeight = calculateShootRangeWeight(gunStack);
 
-        SoundMessage msg = new SoundMessage(
-                PB_GUN_SOUND_ID,
-                player.getX(), player.getY(), player.getZ(),
-                player.level().dimension().location(),
-                Optional.of(player.getUUID()),
-                (int) rangeAndWeight[0],
-                rangeAndWeight[1],
-                null,
-                null,
-                "shoot"
-        );
-
-        SoundMessage.handle(msg, () -> null);
+        SoundEmitter.emit(PB_GUN_SOUND, player, rangeAndWeight[0], rangeAndWeight[1]);
     }
 
     public static void onGunReload(ServerPlayer player, ItemStack gunStack) {
 
         double[] rangeAndWeight = calculateReloadRangeWeight(gunStack);
 
-        SoundMessage msg = new SoundMessage(
-                PB_GUN_SOUND_ID,
-                player.getX(), player.getY(), player.getZ(),
-                player.level().dimension().location(),
-                Optional.of(player.getUUID()),
-                (int) rangeAndWeight[0],
-                rangeAndWeight[1],
-                null,
-                null,
-                "reload"
-        );
-
-        SoundMessage.handle(msg, () -> null);
+        SoundEmitter.emit(PB_GUN_SOUND, player, rangeAndWeight[0], rangeAndWeight[1]);
     }
 
     private static double[] calculateShootRangeWeight(ItemStack gunStack) {
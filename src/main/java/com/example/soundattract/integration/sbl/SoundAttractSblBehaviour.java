@@ -47,6 +47,9 @@ public class SoundAttractSblBehaviour<E extends PathfinderMob> extends ExtendedB
         if (BrainUtils.getMemory(entity, MemoryModuleType.ATTACK_TARGET) != null) {
             return false;
         }
+        if (!SoundTracker.mayHearSoundAt(level, entity.blockPosition())) {
+            return false;
+        }
 
         SoundTracker.SoundRecord best = SoundTracker.findNearestSound(entity, entity.level(), entity.blockPosition(), entity.getEyePosition(), null);
         if (best == null || best.pos == null) {
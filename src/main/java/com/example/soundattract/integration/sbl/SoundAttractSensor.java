@@ -1,6 +1,7 @@
 package com.example.soundattract.integration.sbl;
 
-import com.example.soundattract.runtime.DynamicScanCooldownManager;
+import com.example.soundattract.runtime.ScanScheduler;
+import com.example.soundattract.runtime.TickBudgetGovernor;
 import com.example.soundattract.tracking.SoundTracker;
 import com.example.soundattract.event.StealthDetectionEvents;
 import com.example.soundattract.config.SoundAttractConfig;
@@ -49,7 +50,7 @@ public class SoundAttractSensor<E extends PathfinderMob> extends ExtendedSensor<
 
     @Override
     protected void doTick(ServerLevel level, E entity) {
-        if (!DynamicScanCooldownManager.shouldScanThisTick(entity.getId(), level.getGameTime())) {
+        if (!ScanScheduler.isDue(entity, ScanScheduler.Channel.BRAIN)) {
             return;
         }
 
@@ -63,7 +64,20 @@ public class SoundAttractSensor<E extends PathfinderMob> extends ExtendedSensor<
             return;
         }
 
+        if (!SoundTracker.mayHearSoundAt(level, entity.blockPosition())) {
+            BrainUtils.clearMemory(entity, SOUND_ATTRACT_TARGET);
+            return;
+        }
+
+        if (!TickBudgetGovernor.hasBudget(TickBudgetGovernor.Subsystem.GOAL_SCANS)) {
+            TickBudgetGovernor.markThrottled(TickBudgetGovernor.Subsystem.GOAL_SCANS);
+            return;
+        }
+        ScanScheduler.markScanned(entity, ScanScheduler.Channel.BRAIN);
+
+        long began = TickBudgetGovernor.begin();
         SoundTracker.SoundRecord best = SoundTracker.findNearestSound(entity, level, entity.blockPosition(), entity.getEyePosition(), null);
+        TickBudgetGovernor.end(TickBudgetGovernor.Subsystem.GOAL_SCANS, began);
         if (best == null || best.pos == null) {
             BrainUtils.clearMemory(entity, SOUND_ATTRACT_TARGET);
             return;
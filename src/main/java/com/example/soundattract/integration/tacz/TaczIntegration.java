@@ -1,7 +1,7 @@
 package com.example.soundattract.integration.tacz;
 
 import com.example.soundattract.SoundAttractMod;
-import com.example.soundattract.network.SoundMessage;
+import com.example.soundattract.api.SoundEmitter;
 import com.example.soundattract.event.StealthDetectionEvents;
 import com.example.soundattract.config.SoundAttractConfig;
 import com.tacz.guns.api.event.common.GunReloadEvent;
@@ -15,10 +15,10 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.LogicalSide;
 import org.apache.commons.lang3.tuple.Pair;
-import java.util.Optional;
 
 public class TaczIntegration {
     private static final ResourceLocation TACZ_SOUND_ID = ResourceLocation.fromNamespaceAndPath("tacz", "gun");
+    private static final SoundEmitter.Key TACZ_SOUND = SoundEmitter.key(TACZ_SOUND_ID);
 
     @SubscribeEvent
     public static void onGunShoot(GunShootEvent event) {
@@ -57,21 +57,7 @@ public class TaczIntegration {
         double range = rangeAndWeight[0];
         double weight = rangeAndWeight[1];
 
-        String soundType = "shoot";
-
-        SoundMessage msg = new SoundMessage(
-                TACZ_SOUND_ID,
-                player.getX(), player.getY(), player.getZ(),
-                player.level().dimension().location(),
-                Optional.of(player.getUUID()),
-                (int) range,
-                weight,
-                null,
-                soundType,
-                null
-        );
-
-        SoundMessage.handle(msg, () -> null);
+        SoundEmitter.emit(TACZ_SOUND, player, range, weight);
     }
 
     @SubscribeEvent
@@ -89,21 +75,7 @@ public class TaczIntegration {
         double range = rangeAndWeight[0];
         double weight = rangeAndWeight[1];
 
-        String soundType = "reload";
-
-        SoundMessage msg = new SoundMessage(
-                TACZ_SOUND_ID,
-                player.getX(), player.getY(), player.getZ(),
-                player.level().dimension().location(),
-                Optional.of(player.getUUID()),
-                (int) range,
-                weight,
-                null,
-                soundType,
-                null
-        );
-
-        SoundMessage.handle(msg, () -> null);
+        SoundEmitter.emit(TACZ_SOUND, player, range, weight);
     }
 
     private static double[] calculateShootRangeWeight(ItemStack gunStack) {
@@ -1,111 +1,166 @@
 package com.example.soundattract.integration.vanilla;
 
-import com.example.soundattract.network.SoundMessage;
-import java.util.Optional;
+import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.api.SoundEmitter;
+import com.example.soundattract.config.BakedSettings;
+import com.example.soundattract.config.SoundAttractConfig;
+import com.example.soundattract.runtime.DynamicScanCooldownManager;
+import java.util.Map;
+import java.util.WeakHashMap;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.entity.Pose;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
 
+/**
+ * Virtual movement noise for players: sprinting, walking, jumping, sneaking
+ * and crawling. Off unless {@code virtualMovementNoise} is enabled, since it
+ * adds to the footstep sounds players already report.
+ *
+ * One pass over the player list at the end of each server tick updates every
+ * player's movement state. Stance is read every tick so short edges like a
+ * jump are not missed between emissions, and the loudest movement seen since
+ * a player's last emission is kept. Once per scan cooldown each player emits
+ * that movement as a single noise record, instead of one sound per movement
+ * kind.
+ */
+@Mod.EventBusSubscriber(modid = SoundAttractMod.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
 public class VanillaIntegrationEvents {
-    private static boolean wasOnGround = true;
-    private static int tickCounter = 0;
+    private static final ResourceLocation VIRTUAL_SOUND_ID = ResourceLocation.fromNamespaceAndPath(SoundAttractMod.MOD_ID, "virtual");
+    /** Horizontal movement per tick, squared, above which a player counts as walking. */
+    private static final double WALK_SPEED_SQ = 0.1 * 0.1;
+    private static final double JUMP_RISE = 0.1;
+
+    private static final Map<ServerPlayer, NoiseState> STATES = new WeakHashMap<>();
     private static boolean didLogInit = false;
 
-    @SubscribeEvent
-    public static void onPlayerTick(TickEvent.PlayerTickEvent event) {
-        if (event.phase != TickEvent.Phase.END || event.player.level().isClientSide) return;
+    private enum Movement {
+        CRAWL("VanillaCrawl", 2, 0.1),
+        SNEAK("VanillaSneak", 3, 0.2),
+        WALK("VanillaWalk", 6, 0.6),
+        JUMP("VanillaJump", 7, 0.7),
+        SPRINT("VanillaSprint", 10, 1.2);
 
-        if (!didLogInit && com.example.soundattract.config.SoundAttractConfig.COMMON.debugLogging.get()) {
-            didLogInit = true;
-            com.example.soundattract.SoundAttractMod.LOGGER.info("[VanillaIntegration] PlayerTick handler active on server");
+        final String animatorClass;
+        final int range;
+        final double weight;
+
+        Movement(String animatorClass, int range, double weight) {
+            this.animatorClass = animatorClass;
+            this.range = range;
+            this.weight = weight;
         }
 
-        tickCounter++;
-        int cooldown = Math.max(1, com.example.soundattract.runtime.DynamicScanCooldownManager.currentScanCooldownTicks);
-        if (tickCounter % cooldown != 0) return;
-        Player player = event.player;
-        ResourceLocation dim = player.level().dimension().location();
-        double x = player.getX();
-        double y = player.getY();
-        double z = player.getZ();
-        Optional<java.util.UUID> uuid = Optional.of(player.getUUID());
+        /** Declared quietest first, so the later constant is the louder one. */
+        Movement louder(Movement other) {
+            return other == null || ordinal() > other.ordinal() ? this : other;
+        }
+    }
 
-        if (player.isSprinting()) {
-            if (player instanceof ServerPlayer) {
-                sendVanillaSound("VanillaSprint", "minecraft:entity.player.sprint", x, y, z, dim, uuid, 10, 1.2, 1.0, 1.0);
+    private static final class NoiseState {
+        final SoundEmitter.Key[] keys = new SoundEmitter.Key[Movement.values().length];
+        double lastX, lastY, lastZ;
+        boolean wasOnGround = true;
+        boolean positioned;
+        Movement stance;
+        Movement pending;
+        long lastEmitTick = Long.MIN_VALUE;
+
+        SoundEmitter.Key key(ServerPlayer player, Movement movement) {
+            SoundEmitter.Key key = keys[movement.ordinal()];
+            if (key == null) {
+                key = SoundEmitter.key(VIRTUAL_SOUND_ID, player.getUUID() + "/" + movement.animatorClass);
+                keys[movement.ordinal()] = key;
             }
+            return key;
         }
-        if (!player.isSprinting() && !player.isCrouching() && player.getDeltaMovement().horizontalDistanceSqr() > 0.01 && player.onGround() && !player.getPose().name().equalsIgnoreCase("SWIMMING")) {
-            if (player instanceof ServerPlayer) {
-                sendVanillaSound("VanillaWalk", "minecraft:entity.player.walk", x, y, z, dim, uuid, 6, 0.6, 0.8, 1.0);
-            }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        if (!BakedSettings.get().virtualMovementNoise) {
+            if (!STATES.isEmpty()) STATES.clear();
+            return;
         }
+        MinecraftServer server = event.getServer();
+        if (server == null) return;
 
-        boolean isJumping = player.fallDistance == 0 && player.getDeltaMovement().y > 0.1 && !wasOnGround;
-        if (isJumping) {
-            if (player instanceof ServerPlayer) {
-                sendVanillaSound("VanillaJump", "minecraft:entity.player.jump", x, y, z, dim, uuid, 7, 0.7, 0.8, 1.0);
-            }
+        if (!didLogInit && SoundAttractConfig.COMMON.debugLogging.get()) {
+            didLogInit = true;
+            SoundAttractMod.LOGGER.info("[VanillaIntegration] Movement noise pass active on server");
         }
-        wasOnGround = player.onGround();
 
-        if (player.isCrouching()) {
-            if (player instanceof ServerPlayer) {
-                sendVanillaSound("VanillaSneak", "minecraft:entity.player.sneak", x, y, z, dim, uuid, 3, 0.2, 0.4, 1.0);
+        long now = server.getTickCount();
+        int interval = Math.max(1, DynamicScanCooldownManager.currentScanCooldownTicks);
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            if (player.isSpectator() || !player.isAlive()) {
+                continue;
             }
-        }
-        boolean isCrawling = player.getPose() == net.minecraft.world.entity.Pose.SWIMMING && !player.isInWater();
-        if (isCrawling) {
-            if (player instanceof ServerPlayer) {
-                sendVanillaSound("VanillaCrawl", "minecraft:block.wool.step", x, y, z, dim, uuid, 2, 0.1, 0.2, 1.0);
+            NoiseState state = STATES.computeIfAbsent(player, p -> new NoiseState());
+            update(player, state);
+            if (state.pending != null && now - state.lastEmitTick >= interval) {
+                emit(player, state, state.pending);
+                state.pending = null;
+                state.lastEmitTick = now;
             }
         }
     }
 
-    private static void sendVanillaSound(String animatorClass, String soundId, double x, double y, double z, ResourceLocation dim, Optional<java.util.UUID> uuid, int range, double weight, double volume, double pitch) {
-        SoundMessage msg = new SoundMessage(
-            ResourceLocation.parse(soundId),
-            x, y, z,
-            dim,
-            uuid,
-            range,
-            weight,
-            animatorClass
-        );
-        boolean isServer = true;
-        try {
-            Class.forName("net.minecraft.server.level.ServerPlayer");
-        } catch (Throwable t) {
-            isServer = false;
+    /**
+     * Reads this tick's stance from the player's movement since the last
+     * pass and folds it into the pending noise.
+     */
+    private static void update(ServerPlayer player, NoiseState state) {
+        double dx = player.getX() - state.lastX;
+        double dy = player.getY() - state.lastY;
+        double dz = player.getZ() - state.lastZ;
+        boolean hadPosition = state.positioned;
+        state.lastX = player.getX();
+        state.lastY = player.getY();
+        state.lastZ = player.getZ();
+        state.positioned = true;
+        if (!hadPosition) {
+            dx = dy = dz = 0.0;
         }
-        if (isServer) {
-            net.minecraft.resources.ResourceLocation baseId = net.minecraft.resources.ResourceLocation.fromNamespaceAndPath(com.example.soundattract.SoundAttractMod.MOD_ID, "virtual");
-            if (!com.example.soundattract.config.SoundAttractConfig.SOUND_ID_WHITELIST_CACHE.isEmpty()
-                && (baseId == null || !com.example.soundattract.config.SoundAttractConfig.SOUND_ID_WHITELIST_CACHE.contains(baseId))) {
-                if (com.example.soundattract.config.SoundAttractConfig.COMMON.debugLogging.get()) {
-                    com.example.soundattract.SoundAttractMod.LOGGER.info(
-                        "[VanillaIntegration] Skipping virtual sound because {} is not in whitelist (whitelistSize={})",
-                        baseId,
-                        com.example.soundattract.config.SoundAttractConfig.SOUND_ID_WHITELIST_CACHE.size()
-                    );
-                }
-                return;
-            }
-            net.minecraft.core.BlockPos pos = net.minecraft.core.BlockPos.containing(x, y, z);
-            String dimString = dim.toString();
-            int lifetime = com.example.soundattract.config.SoundAttractConfig.COMMON.soundLifetimeTicks.get();
-            String meta = (uuid != null && uuid.isPresent() ? uuid.get().toString() : "unknown")
-                + "/" + (animatorClass != null && !animatorClass.isEmpty() ? animatorClass : "unknown");
-            String soundIdToUse = com.example.soundattract.tracking.SoundTracker.buildIntegrationSoundId(baseId, meta);
-            if (com.example.soundattract.config.SoundAttractConfig.COMMON.debugLogging.get()) {
-                com.example.soundattract.SoundAttractMod.LOGGER.info("[VanillaIntegration] addSound: soundId={} | range={} | weight={} | pos=({}, {}, {}) | dim={}", soundIdToUse, range, weight, x, y, z, dim);
+        boolean onGround = player.onGround();
+        boolean crawling = player.getPose() == Pose.SWIMMING && !player.isInWater();
+
+        Movement stance = null;
+        if (player.isSprinting()) {
+            stance = Movement.SPRINT;
+        } else if (player.isCrouching()) {
+            stance = Movement.SNEAK;
+        } else if (crawling) {
+            stance = Movement.CRAWL;
+        } else if (onGround && player.getPose() != Pose.SWIMMING && dx * dx + dz * dz > WALK_SPEED_SQ) {
+            stance = Movement.WALK;
+        }
+        state.stance = stance;
+        if (stance != null) {
+            state.pending = stance.louder(state.pending);
+        }
+        if (state.wasOnGround && !onGround && dy > JUMP_RISE && player.fallDistance == 0) {
+            state.pending = Movement.JUMP.louder(state.pending);
+        }
+        state.wasOnGround = onGround;
+    }
+
+    private static void emit(ServerPlayer player, NoiseState state, Movement movement) {
+        SoundEmitter.Key key = state.key(player, movement);
+        if (!SoundEmitter.emit(key, player, movement.range, movement.weight)) {
+            if (SoundAttractConfig.COMMON.debugLogging.get()) {
+                SoundAttractMod.LOGGER.info(
+                    "[VanillaIntegration] Skipping virtual sound because {} is not in whitelist", VIRTUAL_SOUND_ID);
             }
-            com.example.soundattract.tracking.SoundTracker.addSound(null, pos, dimString, range, weight, lifetime, soundIdToUse);
             return;
-        } else {
-            com.example.soundattract.network.SoundAttractNetwork.INSTANCE.sendToServer(msg);
+        }
+        if (SoundAttractConfig.COMMON.debugLogging.get()) {
+            SoundAttractMod.LOGGER.info("[VanillaIntegration] addSound: soundId={} | range={} | weight={} | pos={} | dim={}",
+                key, movement.range, movement.weight, player.blockPosition(), player.level().dimension().location());
         }
     }
 }
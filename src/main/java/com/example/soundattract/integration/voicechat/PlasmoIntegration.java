@@ -1,7 +1,6 @@
 package com.example.soundattract.integration.voicechat;
 
 import com.example.soundattract.SoundAttractMod;
-import com.example.soundattract.network.SoundMessage;
 import com.example.soundattract.config.SoundAttractConfig;
 import net.minecraft.server.level.ServerPlayer;
 import su.plo.voice.api.addon.AddonInitializer;
@@ -12,7 +11,12 @@ import su.plo.voice.api.server.PlasmoVoiceServer;
 import su.plo.voice.api.server.event.audio.source.PlayerSpeakEvent;
 import su.plo.voice.api.server.event.audio.source.ServerSourceAudioPacketEvent;
 
-import java.util.Optional;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Addon(id = "soundattract", name = "Attract to Sound", version = "PlasmoVoice", authors = {"Paldiu", "Sylsatra"})
 public class PlasmoIntegration implements AddonInitializer {
@@ -39,6 +43,11 @@ public class PlasmoIntegration implements AddonInitializer {
     }
 
     public static final class VoiceListener {
+        private static final String[] PLAYER_ACCESSORS = {"getPlayer", "getMinecraftPlayer", "getHandle", "getInstance"};
+        private static final MethodHandle NO_ACCESSOR = MethodHandles.constant(Object.class, null);
+        /** Per wrapper class, the accessor that unwraps it to a ServerPlayer, or NO_ACCESSOR. */
+        private static final Map<Class<?>, MethodHandle> ACCESSORS = new ConcurrentHashMap<>();
+
         @EventSubscribe
         public void voiceActive(PlayerSpeakEvent event) {
             if (!SoundAttractConfig.COMMON.enableVoiceChatIntegration.get()) {
@@ -50,18 +59,7 @@ public class PlasmoIntegration implements AddonInitializer {
                 return;
             }
 
-            int range = SoundAttractConfig.COMMON.voiceChatNormalRange.get();
-
-            SoundMessage msg = new SoundMessage(
-                    SoundMessage.VOICE_CHAT_SOUND_ID,
-                    mcPlayer.getX(), mcPlayer.getY(), mcPlayer.getZ(),
-                    mcPlayer.serverLevel().dimension().location(),
-                    Optional.of(mcPlayer.getUUID()),
-                    range,
-                    SoundAttractConfig.COMMON.voiceChatWeight.get()
-            );
-
-            mcPlayer.getServer().execute(() -> SoundMessage.handle(msg, null));
+            PlasmoVoiceAggregator.offer(mcPlayer, SoundAttractConfig.COMMON.voiceChatNormalRange.get());
         }
 
         @EventSubscribe
@@ -81,57 +79,58 @@ public class PlasmoIntegration implements AddonInitializer {
                 if (voicePlayer == null) {
                     return;
                 }
-                Object playerObj = voicePlayer.getInstance();
-                if (playerObj == null) {
-                    return;
-                }
-
-                ServerPlayer mcPlayer = null;
-                if (playerObj instanceof ServerPlayer sp) {
-                    mcPlayer = sp;
-                } else {
-                    String[] candidateMethods = new String[]{"getPlayer", "getMinecraftPlayer", "getHandle", "getInstance"};
-                    for (String methodName : candidateMethods) {
-                        try {
-                            var m = playerObj.getClass().getMethod(methodName);
-                            Object inner = m.invoke(playerObj);
-                            if (inner instanceof ServerPlayer sp2) {
-                                mcPlayer = sp2;
-                                break;
-                            }
-                        } catch (Throwable ignored) {
-                        }
-                    }
-                }
-
+                ServerPlayer mcPlayer = unwrap(voicePlayer.getInstance());
                 if (mcPlayer == null) {
                     return;
                 }
 
                 int range = (distance > 0) ? distance : SoundAttractConfig.COMMON.voiceChatNormalRange.get();
+                PlasmoVoiceAggregator.offer(mcPlayer, range);
+            } catch (Throwable t) {
+                SoundAttractMod.LOGGER.error("[PlasmoIntegration] Exception in onServerSourceAudio", t);
+            }
+        }
 
-                SoundMessage msg = new SoundMessage(
-                        SoundMessage.VOICE_CHAT_SOUND_ID,
-                        mcPlayer.getX(), mcPlayer.getY(), mcPlayer.getZ(),
-                        mcPlayer.serverLevel().dimension().location(),
-                        Optional.of(mcPlayer.getUUID()),
-                        range,
-                        SoundAttractConfig.COMMON.voiceChatWeight.get()
-                );
-
-                if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                    SoundAttractMod.LOGGER.info("[PlasmoIntegration] VOICE_CHAT forwarded via Plasmo: player={} range={} dim={}",
-                            mcPlayer.getGameProfile().getName(), range, mcPlayer.serverLevel().dimension().location());
+        private static ServerPlayer unwrap(Object playerObj) throws Throwable {
+            if (playerObj == null) {
+                return null;
+            }
+            if (playerObj instanceof ServerPlayer sp) {
+                return sp;
+            }
+            MethodHandle accessor = ACCESSORS.get(playerObj.getClass());
+            if (accessor == null) {
+                accessor = findAccessor(playerObj);
+                if (accessor == null) {
+                    return null;
                 }
+                ACCESSORS.put(playerObj.getClass(), accessor);
+            }
+            if (accessor == NO_ACCESSOR) {
+                return null;
+            }
+            return accessor.invoke(playerObj) instanceof ServerPlayer sp ? sp : null;
+        }
 
-                var server = mcPlayer.getServer();
-                if (server == null) {
-                    return;
+        /**
+         * Tries each candidate accessor on {@code playerObj} and returns the
+         * first that yields a ServerPlayer, {@link #NO_ACCESSOR} if the class
+         * has none of them, or null if some exist but none yielded a player
+         * this time, so the class is probed again later.
+         */
+        private static MethodHandle findAccessor(Object playerObj) {
+            boolean anyPresent = false;
+            for (String methodName : PLAYER_ACCESSORS) {
+                try {
+                    Method m = playerObj.getClass().getMethod(methodName);
+                    anyPresent = true;
+                    if (m.invoke(playerObj) instanceof ServerPlayer) {
+                        return MethodHandles.publicLookup().unreflect(m).asType(MethodType.methodType(Object.class, Object.class));
+                    }
+                } catch (Throwable ignored) {
                 }
-                server.execute(() -> SoundMessage.handle(msg, null));
-            } catch (Throwable t) {
-                SoundAttractMod.LOGGER.error("[PlasmoIntegration] Exception in onServerSourceAudio", t);
             }
+            return anyPresent ? null : NO_ACCESSOR;
         }
     }
 }
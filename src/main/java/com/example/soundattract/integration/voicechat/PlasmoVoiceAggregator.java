@@ -0,0 +1,89 @@
+package com.example.soundattract.integration.voicechat;
+
+import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.api.SoundEmitter;
+import com.example.soundattract.config.SoundAttractConfig;
+import com.example.soundattract.network.SoundMessage;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.minecraft.server.level.ServerPlayer;
+
+/**
+ * Per-speaker voice levels collected on the Plasmo Voice threads and handed
+ * to the tracker once per server tick. An audio packet only raises its
+ * speaker's pending range in place, so a busy voice server costs at most one
+ * emission per speaker per tick instead of one per packet, and nothing is
+ * queued on the server executor.
+ */
+final class PlasmoVoiceAggregator {
+
+    private static final SoundEmitter.Key VOICE_CHAT = SoundEmitter.key(SoundMessage.VOICE_CHAT_SOUND_ID);
+    private static final Map<UUID, Speaker> SPEAKERS = new ConcurrentHashMap<>();
+
+    private static final class Speaker {
+        volatile ServerPlayer player;
+        final AtomicInteger pendingRange = new AtomicInteger();
+
+        Speaker(ServerPlayer player) {
+            this.player = player;
+        }
+    }
+
+    private PlasmoVoiceAggregator() {
+    }
+
+    /**
+     * Records that {@code player} was heard at {@code range}. Safe to call
+     * from any thread.
+     */
+    static void offer(ServerPlayer player, int range) {
+        if (range <= 0) {
+            return;
+        }
+        Speaker speaker = SPEAKERS.get(player.getUUID());
+        if (speaker == null) {
+            speaker = SPEAKERS.computeIfAbsent(player.getUUID(), k -> new Speaker(player));
+        }
+        if (speaker.player != player) {
+            speaker.player = player;
+        }
+        speaker.pendingRange.accumulateAndGet(range, Math::max);
+    }
+
+    /**
+     * Emits the loudest range heard from each speaker since the last flush.
+     * Server thread only.
+     */
+    static void flush() {
+        if (SPEAKERS.isEmpty()) {
+            return;
+        }
+        double weight = SoundAttractConfig.COMMON.voiceChatWeight.get();
+        boolean debug = SoundAttractConfig.COMMON.debugLogging.get();
+        Iterator<Speaker> it = SPEAKERS.values().iterator();
+        while (it.hasNext()) {
+            Speaker speaker = it.next();
+            ServerPlayer player = speaker.player;
+            if (player.isRemoved()) {
+                it.remove();
+                continue;
+            }
+            int range = speaker.pendingRange.getAndSet(0);
+            if (range <= 0) {
+                continue;
+            }
+            SoundEmitter.emit(VOICE_CHAT, player, range, weight);
+            if (debug) {
+                SoundAttractMod.LOGGER.info("[PlasmoIntegration] VOICE_CHAT emitted: player={} range={} dim={}",
+                        player.getGameProfile().getName(), range, player.serverLevel().dimension().location());
+            }
+        }
+    }
+
+    static void clear() {
+        SPEAKERS.clear();
+    }
+}
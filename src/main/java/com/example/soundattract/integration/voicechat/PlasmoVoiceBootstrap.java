@@ -3,7 +3,9 @@ package com.example.soundattract.integration.voicechat;
 import com.example.soundattract.SoundAttractMod;
 import com.example.soundattract.config.SoundAttractConfig;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
 import net.minecraftforge.fml.ModList;
 import su.plo.voice.api.server.PlasmoVoiceServer;
 
@@ -31,4 +33,17 @@ public final class PlasmoVoiceBootstrap {
             SoundAttractMod.LOGGER.error("[PlasmoVoiceBootstrap] Failed to load Plasmo Voice addon", t);
         }
     }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) {
+            return;
+        }
+        PlasmoVoiceAggregator.flush();
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        PlasmoVoiceAggregator.clear();
+    }
 }
@@ -17,6 +17,8 @@ import net.minecraftforge.api.distmarker.OnlyIn;
 
 @OnlyIn(Dist.CLIENT)
 public class VoiceChatIntegrationClient {
+    private static final VoiceEnvelope ENVELOPE = new VoiceEnvelope();
+
     public static void handleClientSound(ClientSoundEvent event) {
         Player clientPlayer = Minecraft.getInstance().player;
         Level clientWorld = Minecraft.getInstance().level;
@@ -31,49 +33,27 @@ public class VoiceChatIntegrationClient {
         }
 
 
-        double db = computePeakDb(rawAudio);
-
+        long now = System.currentTimeMillis();
+        double[] levels = new double[2];
+        VoiceEnvelope.measure(rawAudio, levels);
 
-        double normDb = db - (-127.0);
 
-
-        double factor = 0.0;
-        List<VoiceChatThresholds.Threshold> pairs = VoiceChatThresholds.getThresholds(SoundAttractConfig.COMMON.voiceChatDbThresholdMap.get());
-        if (!pairs.isEmpty()) {
-            for (VoiceChatThresholds.Threshold p : pairs) {
-                if (normDb >= p.threshold) {
-                    factor = p.multiplier;
-                    break;
-                }
-            }
-        } else {
-
-            if (normDb >= 50.0) {
-                factor = 1.0;
-            } else if (normDb >= 30.0) {
-                factor = 0.7;
-            } else if (normDb >= 10.0) {
-                factor = 0.3;
-            } else {
-                factor = 0.0;
-            }
+        double db;
+        int effectiveRange;
+        synchronized (ENVELOPE) {
+            db = ENVELOPE.follow(levels[0], now);
+            int frameRange = rangeFor(db, event.isWhispering());
+            effectiveRange = ENVELOPE.offer(frameRange, now, SoundAttractConfig.COMMON.voiceChatAggregationWindowMs.get());
         }
-
-
-        boolean isWhispering = event.isWhispering();
-        int baseRange = isWhispering
-                ? SoundAttractConfig.COMMON.voiceChatWhisperRange.get()
-                : SoundAttractConfig.COMMON.voiceChatNormalRange.get();
-
-        int effectiveRange = (int) Math.round(baseRange * factor);
         if (effectiveRange <= 0) {
             return;
         }
+        double normDb = db - VoiceEnvelope.SILENCE_DB;
 
         if (SoundAttractConfig.COMMON.debugLogging.get()) {
             SoundAttractMod.LOGGER.info(
-                "[SVC Client] dbFS={} normDb={} factor={} whispering={} baseRange={} effectiveRange={}",
-                db, normDb, factor, isWhispering, baseRange, effectiveRange
+                "[SVC Client] peakDbFS={} rmsDbFS={} envelopeDbFS={} normDb={} whispering={} effectiveRange={}",
+                levels[0], levels[1], db, normDb, event.isWhispering(), effectiveRange
             );
         }
 
@@ -97,18 +77,37 @@ public class VoiceChatIntegrationClient {
     }
 
 
-    private static double computePeakDb(short[] samples) {
-        int highest = 0;
-        for (short s : samples) {
-            int a = s == Short.MIN_VALUE ? 32768 : Math.abs(s);
-            if (a > highest) highest = a;
+    private static int rangeFor(double db, boolean isWhispering) {
+        double normDb = db - VoiceEnvelope.SILENCE_DB;
+
+
+        double factor = 0.0;
+        List<VoiceChatThresholds.Threshold> pairs = VoiceChatThresholds.getThresholds(SoundAttractConfig.COMMON.voiceChatDbThresholdMap.get());
+        if (!pairs.isEmpty()) {
+            for (VoiceChatThresholds.Threshold p : pairs) {
+                if (normDb >= p.threshold) {
+                    factor = p.multiplier;
+                    break;
+                }
+            }
+        } else {
+
+            if (normDb >= 50.0) {
+                factor = 1.0;
+            } else if (normDb >= 30.0) {
+                factor = 0.7;
+            } else if (normDb >= 10.0) {
+                factor = 0.3;
+            } else {
+                factor = 0.0;
+            }
         }
-        if (highest == 0) return -127.0;
-        double norm = highest / 32768.0;
-        double db = 20.0 * Math.log10(norm);
-        if (!Double.isFinite(db)) return -127.0;
-        if (db > 0.0) db = 0.0;
-        if (db < -127.0) db = -127.0;
-        return db;
+
+
+        int baseRange = isWhispering
+                ? SoundAttractConfig.COMMON.voiceChatWhisperRange.get()
+                : SoundAttractConfig.COMMON.voiceChatNormalRange.get();
+
+        return Math.max(0, (int) Math.round(baseRange * factor));
     }
 }
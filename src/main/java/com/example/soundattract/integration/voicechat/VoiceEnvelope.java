@@ -0,0 +1,91 @@
+package com.example.soundattract.integration.voicechat;
+
+/**
+ * Level follower for the local player's voice. Frames drive a peak envelope
+ * with instant attack and linear (in dB) release, and the ranges derived from
+ * it are rate limited: a louder range than the one last sent goes out at
+ * once, anything else is held and the loudest range of each window is sent
+ * when the window closes.
+ *
+ * Not thread safe; the client handler synchronizes on the instance.
+ */
+final class VoiceEnvelope {
+
+    static final double SILENCE_DB = -127.0;
+    private static final double RELEASE_DB_PER_MS = 0.04;
+
+    private double envelopeDb = SILENCE_DB;
+    private long lastFrameMs = -1L;
+    private long windowStartMs = -1L;
+    private int windowPeakRange;
+    private int lastSentRange;
+
+    /**
+     * @return the envelope level in dBFS after folding in this frame
+     */
+    double follow(double frameDb, long nowMs) {
+        if (lastFrameMs < 0L) {
+            envelopeDb = frameDb;
+        } else {
+            double released = envelopeDb - RELEASE_DB_PER_MS * Math.max(0L, nowMs - lastFrameMs);
+            envelopeDb = Math.max(frameDb, Math.max(SILENCE_DB, released));
+        }
+        lastFrameMs = nowMs;
+        return envelopeDb;
+    }
+
+    /**
+     * @return the range to send now, or 0 if nothing should be sent for this frame
+     */
+    int offer(int range, long nowMs, int windowMs) {
+        if (windowMs <= 0) {
+            return range;
+        }
+        if (windowStartMs < 0L) {
+            windowStartMs = nowMs;
+        }
+        windowPeakRange = Math.max(windowPeakRange, range);
+        if (range > lastSentRange) {
+            return send(range, nowMs);
+        }
+        if (nowMs - windowStartMs >= windowMs) {
+            return send(windowPeakRange, nowMs);
+        }
+        return 0;
+    }
+
+    private int send(int range, long nowMs) {
+        lastSentRange = range;
+        windowStartMs = nowMs;
+        windowPeakRange = 0;
+        return range;
+    }
+
+    /**
+     * Peak and RMS of a frame in dBFS, written to {@code out[0]} and
+     * {@code out[1]}. One branch-free pass over the samples so C2 can unroll
+     * and vectorise the max and sum reductions.
+     */
+    static void measure(short[] samples, double[] out) {
+        int peak = 0;
+        long sumSquares = 0L;
+        for (int i = 0; i < samples.length; i++) {
+            int s = samples[i];
+            peak = Math.max(peak, Math.abs(s));
+            sumSquares += s * s;
+        }
+        out[0] = toDb(peak / 32768.0);
+        out[1] = samples.length == 0 ? SILENCE_DB : toDb(Math.sqrt((double) sumSquares / samples.length) / 32768.0);
+    }
+
+    private static double toDb(double norm) {
+        if (norm <= 0.0) {
+            return SILENCE_DB;
+        }
+        double db = 20.0 * Math.log10(norm);
+        if (!Double.isFinite(db)) return SILENCE_DB;
+        if (db > 0.0) db = 0.0;
+        if (db < SILENCE_DB) db = SILENCE_DB;
+        return db;
+    }
+}
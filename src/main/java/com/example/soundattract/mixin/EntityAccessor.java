@@ -0,0 +1,15 @@
+package com.example.soundattract.mixin;
+
+import javax.annotation.Nullable;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.entity.Entity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(Entity.class)
+public interface EntityAccessor {
+    /** Forge's persistent data as stored, without creating it the way {@code getPersistentData()} does. */
+    @Nullable
+    @Accessor(value = "persistentData", remap = false)
+    CompoundTag soundattract$getPersistentData();
+}
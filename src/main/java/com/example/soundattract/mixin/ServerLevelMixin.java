@@ -0,0 +1,35 @@
+package com.example.soundattract.mixin;
+
+import com.example.soundattract.event.ServerSoundCaptureEvents;
+import javax.annotation.Nullable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.world.entity.player.Player;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerLevel.class)
+public abstract class ServerLevelMixin {
+
+    @Inject(method = "levelEvent", at = @At("HEAD"))
+    private void soundattract$levelEvent(@Nullable Player player, int type, BlockPos pos, int data, CallbackInfo ci) {
+        ServerSoundCaptureEvents.onLevelEvent((ServerLevel) (Object) this, type, pos, data);
+    }
+
+    @Inject(method = "playSeededSound(Lnet/minecraft/world/entity/player/Player;DDDLnet/minecraft/core/Holder;Lnet/minecraft/sounds/SoundSource;FFJ)V", at = @At("HEAD"))
+    private void soundattract$beginPositionedSound(@Nullable Player player, double x, double y, double z, Holder<SoundEvent> sound,
+                                                   SoundSource source, float volume, float pitch, long seed, CallbackInfo ci) {
+        ServerSoundCaptureEvents.beginPositionedSound(player);
+    }
+
+    @Inject(method = "playSeededSound(Lnet/minecraft/world/entity/player/Player;DDDLnet/minecraft/core/Holder;Lnet/minecraft/sounds/SoundSource;FFJ)V", at = @At("RETURN"))
+    private void soundattract$endPositionedSound(@Nullable Player player, double x, double y, double z, Holder<SoundEvent> sound,
+                                                 SoundSource source, float volume, float pitch, long seed, CallbackInfo ci) {
+        ServerSoundCaptureEvents.endPositionedSound();
+    }
+}
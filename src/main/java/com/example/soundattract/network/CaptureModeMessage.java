@@ -0,0 +1,48 @@
+package com.example.soundattract.network;
+
+import java.util.function.Supplier;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+
+/**
+ * Tells a client whether the server captures world sounds itself. While it
+ * does, the client stops reporting the sound categories the server already
+ * sees and only sends sounds that are played on the client alone.
+ */
+public class CaptureModeMessage {
+
+    private static volatile boolean serverCapture;
+
+    private final boolean enabled;
+
+    public CaptureModeMessage(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static void encode(CaptureModeMessage msg, FriendlyByteBuf buf) {
+        buf.writeBoolean(msg.enabled);
+    }
+
+    public static CaptureModeMessage decode(FriendlyByteBuf buf) {
+        return new CaptureModeMessage(buf.readBoolean());
+    }
+
+    public static void handle(CaptureModeMessage msg, Supplier<NetworkEvent.Context> ctx) {
+        NetworkEvent.Context context = ctx.get();
+        context.enqueueWork(() -> serverCapture = msg.enabled);
+        context.setPacketHandled(true);
+    }
+
+    /**
+     * Whether the server this client is connected to captures world sounds.
+     * Client side only; false until the server says otherwise.
+     */
+    public static boolean serverCaptureActive() {
+        return serverCapture;
+    }
+
+    public static void reset() {
+        serverCapture = false;
+    }
+}
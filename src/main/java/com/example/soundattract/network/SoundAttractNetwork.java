@@ -2,12 +2,13 @@ package com.example.soundattract.network;
 
 import com.example.soundattract.SoundAttractMod;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.network.NetworkRegistry;
 import net.minecraftforge.network.simple.SimpleChannel;
 
 public class SoundAttractNetwork {
 
-    private static final String PROTOCOL_VERSION = "1";
+    private static final String PROTOCOL_VERSION = "3";
     public static SimpleChannel INSTANCE;
 
     public static void register() {
@@ -25,6 +26,18 @@ public class SoundAttractNetwork {
                 .decoder(SoundMessage::decode)
                 .consumerMainThread(SoundMessage::handle)
                 .add();
+
+        INSTANCE.messageBuilder(SoundBatchMessage.class, id++)
+                .encoder(SoundBatchMessage::encode)
+                .decoder(SoundBatchMessage::decode)
+                .consumerMainThread(SoundBatchMessage::handle)
+                .add();
+
+        INSTANCE.messageBuilder(CaptureModeMessage.class, id++, NetworkDirection.PLAY_TO_CLIENT)
+                .encoder(CaptureModeMessage::encode)
+                .decoder(CaptureModeMessage::decode)
+                .consumerMainThread(CaptureModeMessage::handle)
+                .add();
     }
 
 }
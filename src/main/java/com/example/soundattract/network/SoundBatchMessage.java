@@ -0,0 +1,147 @@
+package com.example.soundattract.network;
+
+import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.config.BakedSettings;
+import com.example.soundattract.config.SoundAttractConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraftforge.network.NetworkEvent;
+
+import javax.annotation.Nullable;
+
+/**
+ * One client tick's worth of heard sounds for a single dimension.
+ *
+ * Wire layout: dimension, entry count, origin block, then per entry the sound
+ * event's registry id + 1 (0 followed by its location for a sound event that
+ * is not registered), the block offset from the origin as zig-zag varints,
+ * range + 1 as a varint (so the "use defaults" value -1 costs one byte) and
+ * the weight as a float. A typical entry is 8-10 bytes against roughly 80 for
+ * a standalone {@link SoundMessage}.
+ */
+public class SoundBatchMessage {
+
+    public static final int MAX_ENTRIES = 256;
+
+    /**
+     * {@code sound} is null on the server for a sound event that is not
+     * registered there; {@code soundId} is always set.
+     */
+    public record Entry(ResourceLocation soundId, @Nullable SoundEvent sound, BlockPos pos, int range, float weight) {
+    }
+
+    private final ResourceLocation dimension;
+    private final List<Entry> entries;
+
+    public SoundBatchMessage(ResourceLocation dimension, List<Entry> entries) {
+        this.dimension = dimension;
+        this.entries = entries;
+    }
+
+    public static void encode(SoundBatchMessage msg, FriendlyByteBuf buf) {
+        buf.writeResourceLocation(msg.dimension);
+        int count = Math.min(msg.entries.size(), MAX_ENTRIES);
+        buf.writeVarInt(count);
+        if (count == 0) {
+            return;
+        }
+        BlockPos origin = msg.entries.get(0).pos();
+        buf.writeBlockPos(origin);
+        for (int i = 0; i < count; i++) {
+            Entry e = msg.entries.get(i);
+            int id = e.sound() == null ? -1 : BuiltInRegistries.SOUND_EVENT.getId(e.sound());
+            buf.writeVarInt(id + 1);
+            if (id < 0) {
+                buf.writeResourceLocation(e.soundId());
+            }
+            buf.writeVarInt(zigZag(e.pos().getX() - origin.getX()));
+            buf.writeVarInt(zigZag(e.pos().getY() - origin.getY()));
+            buf.writeVarInt(zigZag(e.pos().getZ() - origin.getZ()));
+            buf.writeVarInt(Math.max(-1, e.range()) + 1);
+            buf.writeFloat(e.weight());
+        }
+    }
+
+    public static SoundBatchMessage decode(FriendlyByteBuf buf) {
+        ResourceLocation dimension = buf.readResourceLocation();
+        int count = buf.readVarInt();
+        if (count < 0 || count > MAX_ENTRIES) {
+            throw new DecoderException("Sound batch too large: " + count);
+        }
+        List<Entry> entries = new ArrayList<>(count);
+        if (count == 0) {
+            return new SoundBatchMessage(dimension, entries);
+        }
+        BlockPos origin = buf.readBlockPos();
+        for (int i = 0; i < count; i++) {
+            int id = buf.readVarInt() - 1;
+            ResourceLocation soundId;
+            SoundEvent sound;
+            if (id < 0) {
+                soundId = buf.readResourceLocation();
+                sound = BuiltInRegistries.SOUND_EVENT.get(soundId);
+            } else {
+                sound = BuiltInRegistries.SOUND_EVENT.byId(id);
+                soundId = sound == null ? null : sound.getLocation();
+            }
+            int x = origin.getX() + unZigZag(buf.readVarInt());
+            int y = origin.getY() + unZigZag(buf.readVarInt());
+            int z = origin.getZ() + unZigZag(buf.readVarInt());
+            int range = buf.readVarInt() - 1;
+            float weight = buf.readFloat();
+            if (soundId != null) {
+                entries.add(new Entry(soundId, sound, new BlockPos(x, y, z), range, weight));
+            }
+        }
+        return new SoundBatchMessage(dimension, entries);
+    }
+
+    public static void handle(SoundBatchMessage msg, Supplier<NetworkEvent.Context> ctx) {
+        NetworkEvent.Context context = ctx.get();
+        context.enqueueWork(() -> {
+            ServerPlayer sender = context.getSender();
+            if (sender == null) {
+                return;
+            }
+            ServerLevel serverLevel = sender.serverLevel();
+            if (!serverLevel.dimension().location().equals(msg.dimension)) {
+                if (SoundAttractConfig.COMMON.debugLogging.get()) {
+                    SoundAttractMod.LOGGER.info("[SoundBatchMessage] dimension mismatch ({} ≠ {}), dropping {} sounds",
+                                                serverLevel.dimension().location(), msg.dimension, msg.entries.size());
+                }
+                return;
+            }
+
+            String dimString = msg.dimension.toString();
+            BakedSettings settings = BakedSettings.get();
+            int lifetime = settings.soundLifetimeTicks;
+            boolean filter = !settings.soundIdWhitelist.isEmpty();
+            for (Entry e : msg.entries) {
+                ResourceLocation soundId = e.soundId();
+                if (filter && !settings.soundIdWhitelist.contains(soundId)) {
+                    continue;
+                }
+                BlockPos pos = e.pos().equals(BlockPos.ZERO) ? sender.blockPosition() : e.pos();
+                SoundMessage.trackSound(soundId, e.sound(), pos, dimString, e.range(), e.weight(), null, null, lifetime);
+            }
+        });
+        context.setPacketHandled(true);
+    }
+
+    private static int zigZag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private static int unZigZag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
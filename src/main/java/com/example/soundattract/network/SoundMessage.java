@@ -1,11 +1,13 @@
 package com.example.soundattract.network;
 
 import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.config.BakedSettings;
 import com.example.soundattract.config.SoundAttractConfig;
 import com.example.soundattract.tracking.SoundTracker;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Supplier;
+import javax.annotation.Nullable;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
@@ -95,8 +97,8 @@ public class SoundMessage {
         try {
             ResourceLocation loc = msg.soundId;
             boolean isIntegration = (msg.taczType != null) || (msg.pointBlankType != null);
-            if (!SoundAttractConfig.SOUND_ID_WHITELIST_CACHE.isEmpty()
-                    && (loc == null || !SoundAttractConfig.SOUND_ID_WHITELIST_CACHE.contains(loc))
+            if (!BakedSettings.get().soundIdWhitelist.isEmpty()
+                    && (loc == null || !BakedSettings.get().soundIdWhitelist.contains(loc))
                     && !msg.soundId.equals(VOICE_CHAT_SOUND_ID)
                     && !isIntegration) {
                 if (SoundAttractConfig.COMMON.debugLogging.get()) {
@@ -130,7 +132,7 @@ public class SoundMessage {
                 BlockPos pos = BlockPos.containing(msg.x, msg.y, msg.z);
                 if (pos.equals(BlockPos.ZERO) && sender != null) pos = sender.blockPosition();
                 String dimString = msg.dimension.toString();
-                int    lifetime  = SoundAttractConfig.COMMON.soundLifetimeTicks.get();
+                int    lifetime  = BakedSettings.get().soundLifetimeTicks;
 
                 if (msg.soundId.equals(VOICE_CHAT_SOUND_ID)) {
                     if (msg.range > 0) {
@@ -146,48 +148,7 @@ public class SoundMessage {
                     }
                 } else {
                     SoundEvent se = ForgeRegistries.SOUND_EVENTS.getValue(msg.soundId);
-                    double range  = msg.range;
-                    double weight = msg.weight;
-
-                    if (range < 0) {
-                        SoundAttractConfig.SoundDefaultEntry def =
-                            SoundAttractConfig.SOUND_DEFAULT_ENTRIES_CACHE.get(msg.soundId);
-                        if (def != null) {
-                            range  = def.range();
-                            weight = def.weight();
-                        }
-                    }
-                    if (range < 0) {
-                        if ("shoot".equals(msg.taczType)) {
-                            if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                                SoundAttractMod.LOGGER.info(
-                                    "[SoundMessage] Skipping fallback for gun-shot {}", msg.soundId);
-                            }
-                            return;
-                        }
-                        range  = 10;
-                        weight = 1.0;
-                        if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                            SoundAttractMod.LOGGER.info(
-                                "[SoundMessage] Using fallback range/weight for {}: range={}, weight={}",
-                                msg.soundId, range, weight);
-                        }
-                    }
-
-                    if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                        SoundAttractMod.LOGGER.info(
-                            "[SoundMessage] Adding sound {} at {} dim={} range={} weight={} (taczType={}, pointBlankType={})",
-                            msg.soundId, pos, dimString, range, weight, msg.taczType, msg.pointBlankType);
-                    }
-
-                    if (se != null) {
-                        SoundTracker.addSound(se, pos, dimString, range, weight, lifetime);
-                    } else {
-                        if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                            SoundAttractMod.LOGGER.info("[SoundMessage] No SoundEvent for {} on server; using explicit id.", msg.soundId);
-                        }
-                        SoundTracker.addSound(null, pos, dimString, range, weight, lifetime, msg.soundId.toString());
-                    }
+                    trackSound(msg.soundId, se, pos, dimString, msg.range, msg.weight, msg.taczType, msg.pointBlankType, lifetime);
                 }
             }; 
 
@@ -203,6 +164,54 @@ public class SoundMessage {
         }
     }
 
+    /**
+     * Resolves default range/weight for a reported sound and hands it to the
+     * tracker. Shared by the single and batched transports and by server-side
+     * capture.
+     */
+    public static void trackSound(ResourceLocation soundId, @Nullable SoundEvent se, BlockPos pos, String dimString,
+                           double range, double weight, @Nullable String taczType, @Nullable String pointBlankType, int lifetime) {
+        if (range < 0) {
+            SoundAttractConfig.SoundDefaultEntry def =
+                BakedSettings.get().soundDefaults.get(soundId);
+            if (def != null) {
+                range  = def.range();
+                weight = def.weight();
+            }
+        }
+        if (range < 0) {
+            if ("shoot".equals(taczType)) {
+                if (SoundAttractConfig.COMMON.debugLogging.get()) {
+                    SoundAttractMod.LOGGER.info(
+                        "[SoundMessage] Skipping fallback for gun-shot {}", soundId);
+                }
+                return;
+            }
+            range  = 10;
+            weight = 1.0;
+            if (SoundAttractConfig.COMMON.debugLogging.get()) {
+                SoundAttractMod.LOGGER.info(
+                    "[SoundMessage] Using fallback range/weight for {}: range={}, weight={}",
+                    soundId, range, weight);
+            }
+        }
+
+        if (SoundAttractConfig.COMMON.debugLogging.get()) {
+            SoundAttractMod.LOGGER.info(
+                "[SoundMessage] Adding sound {} at {} dim={} range={} weight={} (taczType={}, pointBlankType={})",
+                soundId, pos, dimString, range, weight, taczType, pointBlankType);
+        }
+
+        if (se != null) {
+            SoundTracker.addSound(se, pos, dimString, range, weight, lifetime);
+        } else {
+            if (SoundAttractConfig.COMMON.debugLogging.get()) {
+                SoundAttractMod.LOGGER.info("[SoundMessage] No SoundEvent for {} on server; using explicit id.", soundId);
+            }
+            SoundTracker.addSound(null, pos, dimString, range, weight, lifetime, soundId.toString());
+        }
+    }
+
     public String getPointBlankType() {
         return pointBlankType;
     }
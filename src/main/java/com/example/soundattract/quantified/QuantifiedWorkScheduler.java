@@ -13,6 +13,7 @@ import org.admany.quantified.api.model.QuantifiedTask;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
@@ -20,7 +21,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 
 public final class QuantifiedWorkScheduler implements SoundAttractWorkScheduler {
     private final BlockingQueue<WorkerScheduler.GroupComputeResult> groupResults = new LinkedBlockingQueue<>();
-    private final BlockingQueue<WorkerScheduler.SoundScoreResult> soundResults = new LinkedBlockingQueue<>();
+    private final BlockingQueue<WorkerScheduler.SoundScoreResult> soundResults = new ArrayBlockingQueue<>(WorkerScheduler.SOUND_RESULT_CAPACITY);
 
     private final LocalWorkScheduler fallback = new LocalWorkScheduler();
 
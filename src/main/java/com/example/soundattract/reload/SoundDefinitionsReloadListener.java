@@ -100,11 +100,7 @@ public class SoundDefinitionsReloadListener extends SimpleJsonResourceReloadList
             }
         }
 
-        SoundAttractConfig.DP_SOUND_WHITELIST_CACHE.clear();
-        SoundAttractConfig.DP_SOUND_WHITELIST_CACHE.addAll(whitelist);
-
-        SoundAttractConfig.DP_SOUND_DEFAULTS_CACHE.clear();
-        SoundAttractConfig.DP_SOUND_DEFAULTS_CACHE.putAll(defaults);
+        SoundAttractConfig.DP_SOUNDS = new SoundAttractConfig.DataPackSounds(whitelist, defaults);
 
         try {
             SoundAttractConfig.bakeConfig();
@@ -50,19 +50,16 @@ public class DynamicScanCooldownManager {
         lastCheckTime = now;
         lastTickCount = totalTickCount;
 
-        double targetCooldown = baseCooldown * tpsMultiplier;
+        // Scans cut off by the tick budget stretch the cooldown so fewer mobs ask for one.
+        double budgetMultiplier = Math.min(4.0, TickBudgetGovernor.pressure(TickBudgetGovernor.Subsystem.GOAL_SCANS));
+        double targetCooldown = baseCooldown * tpsMultiplier * budgetMultiplier;
         
         int clampedTarget = (int) Math.round(Math.max(MIN_COOLDOWN, Math.min(targetCooldown, MAX_COOLDOWN)));
 
-        if (currentScanCooldownTicks < clampedTarget) {
-            currentScanCooldownTicks++;
-        } else if (currentScanCooldownTicks > clampedTarget) {
-            currentScanCooldownTicks--;
+        int diff = clampedTarget - currentScanCooldownTicks;
+        if (diff != 0) {
+            int step = Math.max(1, Math.abs(diff) / 4);
+            currentScanCooldownTicks += diff > 0 ? step : -step;
         }
     }
-
-    public static boolean shouldScanThisTick(long mobId, long totalTickCount) {
-        int effectiveCooldown = Math.max(1, currentScanCooldownTicks);
-        return ((mobId + totalTickCount) % effectiveCooldown) == 0;
-    }
 }
@@ -0,0 +1,261 @@
+package com.example.soundattract.runtime;
+
+import java.util.Arrays;
+
+import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.config.SoundAttractConfig;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Mob;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Decides when each mob may scan for sounds.
+ *
+ * A mob's interval comes from how far it is from the nearest player: the
+ * dynamic cooldown from {@link DynamicScanCooldownManager} is halved
+ * within {@code -Dsoundattract.scan.near_radius} (default 24 blocks), kept
+ * as is within {@code -Dsoundattract.scan.mid_radius} (64), doubled within
+ * {@code -Dsoundattract.scan.far_radius} (128) and quadrupled beyond. The
+ * tier is re-read every time the mob scans, so it follows the mob around.
+ *
+ * Due times live on a timing wheel that counts how many mobs are due on
+ * each upcoming tick. A mob that scans is rescheduled onto the least loaded
+ * tick within a quarter of its interval of the nominal one, and a mob seen
+ * for the first time onto the least loaded tick of its first interval, so
+ * a chunk full of mobs loading at once does not scan on the same tick. The
+ * price is that a newly joined mob may wait up to one interval for its
+ * first scan, where it used to scan on the tick it was first asked about.
+ *
+ * Each scanner keeps its own schedule per mob. The wheel is static, so it
+ * is cleared when the server stops. Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = SoundAttractMod.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class ScanScheduler {
+
+    public enum Channel {
+        ATTRACTION,
+        EDGE_RELAY,
+        BRAIN
+    }
+
+    public enum Tier {
+        NEAR(0.5),
+        MID(1.0),
+        FAR(2.0),
+        DISTANT(4.0);
+
+        final double multiplier;
+
+        Tier(double multiplier) {
+            this.multiplier = multiplier;
+        }
+    }
+
+    private static final double NEAR_RADIUS = Double.parseDouble(System.getProperty("soundattract.scan.near_radius", "24"));
+    private static final double MID_RADIUS = Double.parseDouble(System.getProperty("soundattract.scan.mid_radius", "64"));
+    private static final double FAR_RADIUS = Double.parseDouble(System.getProperty("soundattract.scan.far_radius", "128"));
+
+    private static final int WHEEL_SIZE = 1024;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int MAX_INTERVAL = WHEEL_SIZE / 2;
+    private static final long IDLE_TICKS = 1200L;
+
+    private static final int[] load = new int[WHEEL_SIZE];
+    private static final Long2ObjectOpenHashMap<Entry> entries = new Long2ObjectOpenHashMap<>();
+    private static final int[] tierCounts = new int[Tier.values().length];
+    private static long clock = Long.MIN_VALUE;
+    private static long lastPrune;
+
+    private static final class Entry {
+        long dueAt;
+        long seenAt;
+        Tier tier = Tier.MID;
+    }
+
+    private ScanScheduler() {
+    }
+
+    /**
+     * @return {@code true} if {@code mob} may scan on this tick for {@code channel}
+     */
+    public static boolean isDue(Mob mob, Channel channel) {
+        long now = mob.level().getGameTime();
+        advance(now);
+        long key = key(mob, channel);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry();
+            entry.tier = tierOf(mob);
+            tierCounts[entry.tier.ordinal()]++;
+            int interval = intervalOf(entry.tier);
+            entry.dueAt = leastLoaded(now, now + interval - 1);
+            load[(int) (entry.dueAt & WHEEL_MASK)]++;
+            entries.put(key, entry);
+        }
+        entry.seenAt = now;
+        return entry.dueAt <= now;
+    }
+
+    /**
+     * Records that {@code mob} scanned for {@code channel} and books its next
+     * scan.
+     */
+    public static void markScanned(Mob mob, Channel channel) {
+        long now = mob.level().getGameTime();
+        advance(now);
+        Entry entry = entries.get(key(mob, channel));
+        if (entry == null) {
+            return;
+        }
+        release(entry);
+        Tier tier = tierOf(mob);
+        if (tier != entry.tier) {
+            tierCounts[entry.tier.ordinal()]--;
+            tierCounts[tier.ordinal()]++;
+            entry.tier = tier;
+        }
+        int interval = intervalOf(tier);
+        int slack = interval / 4;
+        long target = now + interval;
+        entry.dueAt = leastLoaded(Math.max(now + 1, target - slack / 2), target + (slack - slack / 2));
+        entry.seenAt = now;
+        load[(int) (entry.dueAt & WHEEL_MASK)]++;
+    }
+
+    /**
+     * The interval {@code mob} currently scans at for {@code channel}, or the
+     * dynamic cooldown if it has not been scheduled yet.
+     */
+    public static int intervalFor(Mob mob, Channel channel) {
+        Entry entry = entries.get(key(mob, channel));
+        return intervalOf(entry == null ? Tier.MID : entry.tier);
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        clear();
+    }
+
+    public static void clear() {
+        entries.clear();
+        Arrays.fill(load, 0);
+        Arrays.fill(tierCounts, 0);
+        clock = Long.MIN_VALUE;
+    }
+
+    public static String describe() {
+        return "scan{entries=" + entries.size() + ", near=" + tierCounts[Tier.NEAR.ordinal()]
+            + ", mid=" + tierCounts[Tier.MID.ordinal()] + ", far=" + tierCounts[Tier.FAR.ordinal()]
+            + ", distant=" + tierCounts[Tier.DISTANT.ordinal()] + ", dueNow=" + (clock == Long.MIN_VALUE ? 0 : load[(int) (clock & WHEEL_MASK)]) + "}";
+    }
+
+    private static long key(Mob mob, Channel channel) {
+        return ((long) mob.getId() << 2) | channel.ordinal();
+    }
+
+    private static int intervalOf(Tier tier) {
+        int base = Math.max(1, DynamicScanCooldownManager.currentScanCooldownTicks);
+        return Math.max(1, Math.min(MAX_INTERVAL, (int) Math.round(base * tier.multiplier)));
+    }
+
+    private static Tier tierOf(Mob mob) {
+        if (!(mob.level() instanceof ServerLevel level)) {
+            return Tier.MID;
+        }
+        double best = Double.MAX_VALUE;
+        for (ServerPlayer player : level.players()) {
+            if (player.isSpectator()) {
+                continue;
+            }
+            best = Math.min(best, player.distanceToSqr(mob));
+        }
+        if (best <= NEAR_RADIUS * NEAR_RADIUS) return Tier.NEAR;
+        if (best <= MID_RADIUS * MID_RADIUS) return Tier.MID;
+        if (best <= FAR_RADIUS * FAR_RADIUS) return Tier.FAR;
+        return Tier.DISTANT;
+    }
+
+    private static long leastLoaded(long from, long to) {
+        long best = from;
+        int bestLoad = Integer.MAX_VALUE;
+        for (long t = from; t <= to; t++) {
+            int l = load[(int) (t & WHEEL_MASK)];
+            if (l < bestLoad) {
+                bestLoad = l;
+                best = t;
+                if (l == 0) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Takes an entry off the wheel. Slots behind the clock have already been
+     * reset, so only a booking still ahead of it is counted down.
+     */
+    private static void release(Entry entry) {
+        if (entry.dueAt >= clock) {
+            int slot = (int) (entry.dueAt & WHEEL_MASK);
+            if (load[slot] > 0) {
+                load[slot]--;
+            }
+        }
+    }
+
+    /**
+     * Moves the wheel up to {@code now}. Mobs still booked on a slot that
+     * has passed are overdue and scan the next time they ask, so the slot is
+     * reset rather than carried forward.
+     */
+    private static void advance(long now) {
+        if (clock == Long.MIN_VALUE) {
+            clock = now;
+            lastPrune = now;
+            return;
+        }
+        if (now < clock) {
+            // A different save, or time moved back: every booking is meaningless now.
+            clear();
+            clock = now;
+            lastPrune = now;
+            return;
+        }
+        if (now == clock) {
+            return;
+        }
+        for (long t = Math.max(clock, now - WHEEL_SIZE); t < now; t++) {
+            load[(int) (t & WHEEL_MASK)] = 0;
+        }
+        clock = now;
+        if (now - lastPrune >= IDLE_TICKS) {
+            lastPrune = now;
+            prune(now);
+        }
+    }
+
+    private static void prune(long now) {
+        int removed = 0;
+        ObjectIterator<Long2ObjectMap.Entry<Entry>> it = entries.long2ObjectEntrySet().fastIterator();
+        while (it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (now - entry.seenAt > IDLE_TICKS) {
+                release(entry);
+                tierCounts[entry.tier.ordinal()]--;
+                it.remove();
+                removed++;
+            }
+        }
+        if (SoundAttractConfig.COMMON.debugLogging.get()) {
+            SoundAttractMod.LOGGER.info("[ScanScheduler] pruned={}, {}", removed, describe());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.soundattract.runtime;
+
+import java.util.concurrent.TimeUnit;
+
+import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.config.SoundAttractConfig;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Splits the mod's share of each server tick between its subsystems.
+ *
+ * The share comes from MSPT headroom: a fraction
+ * ({@code -Dsoundattract.budget.headroom_share}, default 0.2) of whatever is
+ * left of the 50 ms tick, clamped to
+ * {@code -Dsoundattract.budget.min_us}..{@code -Dsoundattract.budget.max_us}
+ * (default 250..6000). Work that cannot be deferred is paid first at its
+ * measured rate. Every deferrable subsystem then gets its floor, the rest is
+ * water-filled by priority weight up to each subsystem's recent demand, and
+ * anything left over is split by weight so a quiet tick can absorb a burst.
+ *
+ * Subsystems report the nanoseconds they spend and whether they stopped
+ * with work left. A subsystem that keeps getting cut off has its weight
+ * raised for every consecutive throttled tick, up to five times its base,
+ * so a low-priority subsystem is slowed under load but never starved.
+ *
+ * All state is touched on the server thread only. With
+ * {@code -Dsoundattract.budget.disabled=true} every subsystem gets its old
+ * fixed budget.
+ */
+@Mod.EventBusSubscriber(modid = SoundAttractMod.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class TickBudgetGovernor {
+
+    public enum Subsystem {
+        TRACKING(3, 0L, false, Long.MAX_VALUE),
+        STEALTH(2, 100L, true, Long.getLong("soundattract.stealth.budget_us", 1000L)),
+        GOAL_SCANS(3, 150L, true, Long.MAX_VALUE),
+        MAIN_DRAIN(2, 100L, true, Long.getLong("soundattract.mainqueue.budget_us", 500L)),
+        GROUPING(1, 50L, true, Long.MAX_VALUE);
+
+        final int weight;
+        final long floorNanos;
+        final boolean deferrable;
+        final long fixedNanos;
+
+        Subsystem(int weight, long floorMicros, boolean deferrable, long fixedMicros) {
+            this.weight = weight;
+            this.floorNanos = TimeUnit.MICROSECONDS.toNanos(floorMicros);
+            this.deferrable = deferrable;
+            this.fixedNanos = fixedMicros == Long.MAX_VALUE ? Long.MAX_VALUE : TimeUnit.MICROSECONDS.toNanos(fixedMicros);
+        }
+    }
+
+    private static final boolean DISABLED = Boolean.getBoolean("soundattract.budget.disabled");
+    private static final double HEADROOM_SHARE = Double.parseDouble(System.getProperty("soundattract.budget.headroom_share", "0.2"));
+    private static final long MIN_TOTAL_NANOS = TimeUnit.MICROSECONDS.toNanos(Long.getLong("soundattract.budget.min_us", 250L));
+    private static final long MAX_TOTAL_NANOS = TimeUnit.MICROSECONDS.toNanos(Long.getLong("soundattract.budget.max_us", 6000L));
+    private static final double DEMAND_SMOOTHING = 0.1;
+    private static final int MAX_STARVATION_BOOST = 20;
+
+    private static final Subsystem[] ALL = Subsystem.values();
+    private static final long[] spent = new long[ALL.length];
+    private static final long[] budget = new long[ALL.length];
+    private static final double[] demand = new double[ALL.length];
+    private static final int[] starved = new int[ALL.length];
+    private static final boolean[] throttled = new boolean[ALL.length];
+    private static long totalNanos;
+    private static long ticks;
+
+    static {
+        for (Subsystem s : ALL) {
+            budget[s.ordinal()] = DISABLED || !s.deferrable ? s.fixedNanos : Math.max(s.floorNanos, MIN_TOTAL_NANOS / ALL.length);
+        }
+    }
+
+    private TickBudgetGovernor() {
+    }
+
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.START) return;
+        beginTick(event.getServer());
+    }
+
+    public static long begin() {
+        return System.nanoTime();
+    }
+
+    public static void end(Subsystem subsystem, long beganAt) {
+        spent[subsystem.ordinal()] += System.nanoTime() - beganAt;
+    }
+
+    /**
+     * Nanoseconds {@code subsystem} may still spend this tick; zero or less
+     * once it has used its share.
+     */
+    public static long remainingNanos(Subsystem subsystem) {
+        long b = budget[subsystem.ordinal()];
+        return b == Long.MAX_VALUE ? Long.MAX_VALUE : b - spent[subsystem.ordinal()];
+    }
+
+    public static boolean hasBudget(Subsystem subsystem) {
+        return remainingNanos(subsystem) > 0;
+    }
+
+    /**
+     * Records that {@code subsystem} stopped this tick with work left over.
+     */
+    public static void markThrottled(Subsystem subsystem) {
+        throttled[subsystem.ordinal()] = true;
+    }
+
+    /**
+     * Recent demand over the current allowance, at least 1. Above 1 the
+     * subsystem wants more time than it is getting.
+     */
+    public static double pressure(Subsystem subsystem) {
+        int i = subsystem.ordinal();
+        if (DISABLED || budget[i] <= 0L || budget[i] == Long.MAX_VALUE) {
+            return 1.0;
+        }
+        return Math.max(1.0, demand[i] / budget[i]);
+    }
+
+    private static void beginTick(MinecraftServer server) {
+        for (Subsystem s : ALL) {
+            int i = s.ordinal();
+            double sample = spent[i] + (throttled[i] && budget[i] != Long.MAX_VALUE ? budget[i] : 0L);
+            demand[i] += (sample - demand[i]) * DEMAND_SMOOTHING;
+            starved[i] = throttled[i] ? Math.min(MAX_STARVATION_BOOST, starved[i] + 1) : 0;
+            spent[i] = 0L;
+            throttled[i] = false;
+        }
+        ticks++;
+        if (!DISABLED && server != null) {
+            allocate(server.getAverageTickTime());
+        }
+        if (ticks % 1200L == 0L && SoundAttractConfig.COMMON.debugLogging.get()) {
+            SoundAttractMod.LOGGER.info("[TickBudgetGovernor] {}", describe());
+        }
+    }
+
+    private static void allocate(double msptMs) {
+        double headroomMs = Math.max(0.0, 50.0 - msptMs);
+        long total = Math.max(MIN_TOTAL_NANOS, Math.min(MAX_TOTAL_NANOS, (long) (headroomMs * HEADROOM_SHARE * 1_000_000L)));
+        totalNanos = total;
+        long remaining = total;
+
+        double[] want = new double[ALL.length];
+        double[] weight = new double[ALL.length];
+        for (Subsystem s : ALL) {
+            int i = s.ordinal();
+            if (!s.deferrable) {
+                budget[i] = Long.MAX_VALUE;
+                remaining -= (long) demand[i];
+                continue;
+            }
+            budget[i] = s.floorNanos;
+            remaining -= s.floorNanos;
+            want[i] = Math.max(0.0, demand[i] - s.floorNanos);
+            weight[i] = s.weight * (1.0 + starved[i] / 5.0);
+        }
+
+        for (int pass = 0; pass < ALL.length && remaining > 0L; pass++) {
+            double wanting = 0.0;
+            for (int i = 0; i < ALL.length; i++) {
+                if (want[i] > 0.0) wanting += weight[i];
+            }
+            if (wanting == 0.0) break;
+            long pool = remaining;
+            for (int i = 0; i < ALL.length; i++) {
+                if (want[i] <= 0.0) continue;
+                long give = (long) Math.min(want[i], pool * weight[i] / wanting);
+                budget[i] += give;
+                want[i] -= give;
+                remaining -= give;
+            }
+        }
+
+        if (remaining > 0L) {
+            double all = 0.0;
+            for (int i = 0; i < ALL.length; i++) all += weight[i];
+            if (all > 0.0) {
+                for (int i = 0; i < ALL.length; i++) {
+                    budget[i] += (long) (remaining * weight[i] / all);
+                }
+            }
+        }
+    }
+
+    public static String describe() {
+        StringBuilder sb = new StringBuilder(160).append("total=").append(totalNanos / 1000L).append("us");
+        for (Subsystem s : ALL) {
+            int i = s.ordinal();
+            sb.append(", ").append(s.name().toLowerCase(java.util.Locale.ROOT)).append("={demand=")
+                .append((long) demand[i] / 1000L).append("us, budget=")
+                .append(budget[i] == Long.MAX_VALUE ? "-" : String.valueOf(budget[i] / 1000L)).append("us, starved=")
+                .append(starved[i]).append('}');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.soundattract.tracking;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * Where in one dimension a tracked sound could currently be heard. Each
+ * sound stamps every chunk column its reach overlaps with the tracker tick
+ * it expires at, so "is anything audible here" is one lookup for the column
+ * a mob stands in. Goals use it to skip sound scans while nothing has
+ * happened near the mob.
+ *
+ * Stamps only grow until they lapse. A sound removed or evicted early
+ * leaves its columns marked until its original expiry, which costs an
+ * extra scan but never hides a sound. A reach too wide to stamp column by
+ * column marks the whole dimension instead.
+ */
+final class AudibleCells {
+
+    private static final int MAX_SPAN = 64;
+
+    private final Long2LongOpenHashMap expiry = new Long2LongOpenHashMap();
+    private long everywhereUntil = Long.MIN_VALUE;
+
+    synchronized void stamp(BlockPos pos, double reach, long expiresAt) {
+        int r = (int) Math.ceil(reach);
+        int minX = SectionPos.blockToSectionCoord(pos.getX() - r);
+        int maxX = SectionPos.blockToSectionCoord(pos.getX() + r);
+        int minZ = SectionPos.blockToSectionCoord(pos.getZ() - r);
+        int maxZ = SectionPos.blockToSectionCoord(pos.getZ() + r);
+        if (maxX - minX >= MAX_SPAN || maxZ - minZ >= MAX_SPAN) {
+            everywhereUntil = Math.max(everywhereUntil, expiresAt);
+            return;
+        }
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                long key = ChunkPos.asLong(cx, cz);
+                if (expiry.get(key) < expiresAt) {
+                    expiry.put(key, expiresAt);
+                }
+            }
+        }
+    }
+
+    synchronized boolean audible(BlockPos pos, long now) {
+        if (everywhereUntil > now) {
+            return true;
+        }
+        long key = ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        return expiry.get(key) > now;
+    }
+
+    synchronized void prune(long now) {
+        ObjectIterator<Long2LongMap.Entry> it = expiry.long2LongEntrySet().fastIterator();
+        while (it.hasNext()) {
+            if (it.next().getLongValue() <= now) {
+                it.remove();
+            }
+        }
+    }
+
+    synchronized int size() {
+        return expiry.size();
+    }
+}
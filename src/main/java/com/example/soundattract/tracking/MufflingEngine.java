@@ -0,0 +1,270 @@
+package com.example.soundattract.tracking;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.example.soundattract.async.AsyncManager;
+import com.example.soundattract.config.BakedSettings;
+import com.example.soundattract.data.BlockAcoustics;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.phys.Vec3;
+import net.minecraft.world.phys.shapes.Shapes;
+import net.minecraft.world.phys.shapes.VoxelShape;
+
+/**
+ * Block muffling off the server thread. The chunk sections a batch of rays
+ * passes through are copied on the server thread and the rays are then walked
+ * voxel by voxel on the async pool against those copies.
+ *
+ * A voxel counts as a hit under the same rule as a {@code COLLIDER} clip: a
+ * non-empty collision shape that the segment between the two block centres
+ * actually crosses. Sections in chunks that are not loaded read as air rather
+ * than forcing a load.
+ *
+ * Disabled with {@code -Dsoundattract.syncMuffling=true}, and whenever the
+ * raycast cache is off since that is where finished rays are published.
+ */
+final class MufflingEngine {
+
+    private static final boolean SYNC_ONLY = Boolean.getBoolean("soundattract.syncMuffling");
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+
+    record Ray(BlockPos src, BlockPos dst, double range, double weight) {
+    }
+
+    private static final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> TICK_COPIES = new Long2ObjectOpenHashMap<>();
+    private static ResourceKey<Level> copiesDimension;
+    private static long copiesGameTime = Long.MIN_VALUE;
+
+    private MufflingEngine() {
+    }
+
+    static boolean enabled() {
+        return !SYNC_ONLY && BakedSettings.get().enableRaycastCache;
+    }
+
+    /**
+     * Must be called on the thread that owns {@code level}. Completes with one
+     * {@code {range, weight}} pair per ray, in order.
+     */
+    static CompletableFuture<double[][]> trace(Level level, List<Ray> rays) {
+        Snapshot snapshot = capture(level, rays);
+        return AsyncManager.submit("soundattract_muffling", snapshot::traceAll, AsyncManager.Priority.HIGH, true);
+    }
+
+    static synchronized void clear() {
+        TICK_COPIES.clear();
+        copiesDimension = null;
+        copiesGameTime = Long.MIN_VALUE;
+    }
+
+    private static synchronized Snapshot capture(Level level, List<Ray> rays) {
+        long gameTime = level.getGameTime();
+        if (gameTime != copiesGameTime || level.dimension() != copiesDimension) {
+            TICK_COPIES.clear();
+            copiesGameTime = gameTime;
+            copiesDimension = level.dimension();
+        }
+
+        Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections = new Long2ObjectOpenHashMap<>();
+        VoxelWalk walk = new VoxelWalk();
+        for (Ray ray : rays) {
+            long lastKey = Long.MIN_VALUE;
+            walk.reset(ray.src(), ray.dst());
+            while (walk.next()) {
+                long key = SectionPos.asLong(walk.x >> 4, walk.y >> 4, walk.z >> 4);
+                if (key == lastKey) {
+                    continue;
+                }
+                lastKey = key;
+                if (!sections.containsKey(key)) {
+                    sections.put(key, sectionCopy(level, key));
+                }
+            }
+        }
+
+        BakedSettings settings = BakedSettings.get();
+        double[] factors = new double[BlockAcoustics.MUFFLE_CLASSES];
+        for (byte cls = 0; cls < factors.length; cls++) {
+            factors[cls] = settings.mufflingFactor(cls);
+        }
+        return new Snapshot(sections, rays, factors, settings.maxMufflingBlocksToCheck);
+    }
+
+    /**
+     * Copies are shared by every snapshot taken in the same tick; nothing
+     * writes to them once made.
+     */
+    private static PalettedContainer<BlockState> sectionCopy(Level level, long key) {
+        if (TICK_COPIES.containsKey(key)) {
+            return TICK_COPIES.get(key);
+        }
+        PalettedContainer<BlockState> copy = null;
+        LevelChunk chunk = level.getChunkSource().getChunkNow(SectionPos.x(key), SectionPos.z(key));
+        if (chunk != null) {
+            int index = chunk.getSectionIndexFromSectionY(SectionPos.y(key));
+            if (index >= 0 && index < chunk.getSectionsCount()) {
+                LevelChunkSection section = chunk.getSection(index);
+                if (!section.hasOnlyAir()) {
+                    copy = section.getStates().copy();
+                }
+            }
+        }
+        TICK_COPIES.put(key, copy);
+        return copy;
+    }
+
+    private static final class Snapshot {
+        private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections;
+        private final List<Ray> rays;
+        private final double[] factors;
+        private final int maxChecks;
+        private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        private long lastKey = Long.MIN_VALUE;
+        private PalettedContainer<BlockState> lastSection;
+
+        Snapshot(Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections, List<Ray> rays, double[] factors, int maxChecks) {
+            this.sections = sections;
+            this.rays = rays;
+            this.factors = factors;
+            this.maxChecks = maxChecks;
+        }
+
+        double[][] traceAll() {
+            double[][] out = new double[rays.size()][];
+            VoxelWalk walk = new VoxelWalk();
+            for (int i = 0; i < out.length; i++) {
+                out[i] = trace(rays.get(i), walk);
+            }
+            return out;
+        }
+
+        private double[] trace(Ray ray, VoxelWalk walk) {
+            double range = ray.range();
+            double weight = ray.weight();
+            int hits = 0;
+            Vec3 from = null;
+            Vec3 to = null;
+            walk.reset(ray.src(), ray.dst());
+            while (hits < maxChecks && range > 0.1 && weight > 0.01 && walk.next()) {
+                BlockState state = stateAt(walk.x, walk.y, walk.z);
+                if (state.isAir()) {
+                    continue;
+                }
+                cursor.set(walk.x, walk.y, walk.z);
+                VoxelShape shape = collisionShape(state, cursor);
+                if (shape.isEmpty()) {
+                    continue;
+                }
+                if (shape != Shapes.block()) {
+                    if (from == null) {
+                        from = Vec3.atCenterOf(ray.src());
+                        to = Vec3.atCenterOf(ray.dst());
+                    }
+                    if (shape.clip(from, to, cursor) == null) {
+                        continue;
+                    }
+                }
+                double factor = factors[BlockAcoustics.muffleClass(state, EmptyBlockGetter.INSTANCE, cursor)];
+                range *= factor;
+                weight *= factor;
+                hits++;
+            }
+            return new double[]{Math.max(0, range), Math.max(0, weight)};
+        }
+
+        private BlockState stateAt(int x, int y, int z) {
+            long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+            if (key != lastKey) {
+                lastKey = key;
+                lastSection = sections.get(key);
+            }
+            return lastSection == null ? AIR : lastSection.get(x & 15, y & 15, z & 15);
+        }
+
+        private static VoxelShape collisionShape(BlockState state, BlockPos pos) {
+            try {
+                return state.getCollisionShape(EmptyBlockGetter.INSTANCE, pos);
+            } catch (Exception e) {
+                return Shapes.block();
+            }
+        }
+    }
+
+    /**
+     * Amanatides-Woo walk over the voxels between two block centres, both ends
+     * included. Capture and trace use the same walk, so every voxel a trace
+     * visits lies in a section the capture copied.
+     */
+    static final class VoxelWalk {
+        int x;
+        int y;
+        int z;
+        private int stepX;
+        private int stepY;
+        private int stepZ;
+        private double tMaxX;
+        private double tMaxY;
+        private double tMaxZ;
+        private double tDeltaX;
+        private double tDeltaY;
+        private double tDeltaZ;
+        private int remaining;
+        private boolean started;
+
+        void reset(BlockPos from, BlockPos to) {
+            x = from.getX();
+            y = from.getY();
+            z = from.getZ();
+            int dx = to.getX() - x;
+            int dy = to.getY() - y;
+            int dz = to.getZ() - z;
+            stepX = Integer.signum(dx);
+            stepY = Integer.signum(dy);
+            stepZ = Integer.signum(dz);
+            tDeltaX = dx == 0 ? Double.POSITIVE_INFINITY : 1.0 / Math.abs(dx);
+            tDeltaY = dy == 0 ? Double.POSITIVE_INFINITY : 1.0 / Math.abs(dy);
+            tDeltaZ = dz == 0 ? Double.POSITIVE_INFINITY : 1.0 / Math.abs(dz);
+            tMaxX = tDeltaX * 0.5;
+            tMaxY = tDeltaY * 0.5;
+            tMaxZ = tDeltaZ * 0.5;
+            remaining = Math.abs(dx) + Math.abs(dy) + Math.abs(dz);
+            started = false;
+        }
+
+        boolean next() {
+            if (!started) {
+                started = true;
+                return true;
+            }
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            if (tMaxX <= tMaxY && tMaxX <= tMaxZ) {
+                x += stepX;
+                tMaxX += tDeltaX;
+            } else if (tMaxY <= tMaxZ) {
+                y += stepY;
+                tMaxY += tDeltaY;
+            } else {
+                z += stepZ;
+                tMaxZ += tDeltaZ;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.soundattract.tracking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.config.SoundAttractConfig;
+import com.example.soundattract.worker.WorkSchedulerManager;
+import com.example.soundattract.worker.WorkerScheduler.SoundScoreRequest;
+import com.example.soundattract.worker.WorkerScheduler.SoundScoreResult;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+
+/**
+ * Async sound scoring state and transport for {@link SoundTracker}.
+ *
+ * Each mob that has asked for a score owns one {@link Slot}, indexed by
+ * entity id, which holds everything the tracker needs about that mob's
+ * requests and latest answer. Every submission bumps the slot's version
+ * and results carrying an older version are dropped, so a slow answer
+ * never overwrites a newer one.
+ *
+ * Requests are not sent as they are made. They wait in a bounded pending
+ * batch where a newer request from the same mob replaces the older one,
+ * and the batch goes out once per tick in chunks of at most
+ * {@code -Dsoundattract.scoring.max_batch} (default 256) while fewer than
+ * {@code -Dsoundattract.scoring.max_in_flight} (default 4) chunks are still
+ * running. When workers fall behind the pending batch fills up to
+ * {@code -Dsoundattract.scoring.max_pending} (default 2048) and further
+ * requests are refused; the mob keeps its synchronous pick and asks again
+ * on a later scan.
+ */
+final class ScoringPipeline {
+
+    private static final int MAX_BATCH = Math.max(1, Integer.getInteger("soundattract.scoring.max_batch", 256));
+    private static final int MAX_IN_FLIGHT = Math.max(1, Integer.getInteger("soundattract.scoring.max_in_flight", 4));
+    private static final int MAX_PENDING = Math.max(1, Integer.getInteger("soundattract.scoring.max_pending", 2048));
+    private static final long SLOT_IDLE_TICKS = 1200L;
+
+    private static final Int2ObjectOpenHashMap<Slot> SLOTS = new Int2ObjectOpenHashMap<>();
+    private static final Int2ObjectLinkedOpenHashMap<SoundScoreRequest> PENDING = new Int2ObjectLinkedOpenHashMap<>();
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+    private static final LongAdder SUBMITTED = new LongAdder();
+    private static final LongAdder COALESCED = new LongAdder();
+    private static final LongAdder REFUSED = new LongAdder();
+    private static final LongAdder STALE = new LongAdder();
+
+    /**
+     * The candidates of one submission with their muffled range and weight,
+     * so an answer naming a sound can be turned back into effective values.
+     */
+    record Submission(long version, String[] soundIds, double[] ranges, double[] weights) {
+
+        double rangeOf(String soundId) {
+            int i = indexOf(soundId);
+            return i < 0 ? Double.NaN : ranges[i];
+        }
+
+        double weightOf(String soundId) {
+            int i = indexOf(soundId);
+            return i < 0 ? Double.NaN : weights[i];
+        }
+
+        private int indexOf(String soundId) {
+            for (int i = 0; i < soundIds.length; i++) {
+                if (soundIds[i].equals(soundId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Per-mob scoring state. The result and submit bookkeeping are only
+     * touched on the server thread; {@link #submission} and
+     * {@link #tracing} are also written by muffling completions on the pool.
+     */
+    static final class Slot {
+        final int mobId;
+        @Nullable
+        String bestId;
+        double bestRange = Double.NaN;
+        double bestWeight = Double.NaN;
+        long resultAt = Long.MIN_VALUE;
+        long lastSubmitAt = Long.MIN_VALUE;
+        int candidateHash;
+        boolean hasCandidateHash;
+        long touchedAt;
+
+        final AtomicBoolean tracing = new AtomicBoolean();
+        @Nullable
+        volatile Submission submission;
+        private long version;
+
+        Slot(int mobId) {
+            this.mobId = mobId;
+        }
+
+        synchronized long nextVersion() {
+            return ++version;
+        }
+    }
+
+    private ScoringPipeline() {
+    }
+
+    @Nullable
+    static synchronized Slot peek(int mobId) {
+        return SLOTS.get(mobId);
+    }
+
+    static synchronized Slot slotFor(int mobId, long trackerTick) {
+        Slot slot = SLOTS.get(mobId);
+        if (slot == null) {
+            slot = new Slot(mobId);
+            SLOTS.put(mobId, slot);
+        }
+        slot.touchedAt = trackerTick;
+        return slot;
+    }
+
+    /**
+     * Queues {@code request} for the next flush.
+     *
+     * @return {@code false} if the pending batch is full and the request was refused
+     */
+    static synchronized boolean offer(SoundScoreRequest request) {
+        if (PENDING.put(request.mobId, request) != null) {
+            COALESCED.increment();
+            return true;
+        }
+        if (PENDING.size() > MAX_PENDING) {
+            PENDING.remove(request.mobId);
+            REFUSED.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sends pending requests while there is room in flight. Called once per
+     * server tick.
+     */
+    static void flush() {
+        while (IN_FLIGHT.get() < MAX_IN_FLIGHT) {
+            List<SoundScoreRequest> batch = takeBatch();
+            if (batch.isEmpty()) {
+                return;
+            }
+            IN_FLIGHT.incrementAndGet();
+            SUBMITTED.add(batch.size());
+            Future<?> future;
+            try {
+                future = WorkSchedulerManager.get().submitSoundScore(batch);
+            } catch (Throwable t) {
+                IN_FLIGHT.decrementAndGet();
+                if (SoundAttractConfig.COMMON.debugLogging.get()) {
+                    SoundAttractMod.LOGGER.error("[ScoringPipeline] submit failed", t);
+                }
+                return;
+            }
+            if (future instanceof CompletableFuture<?> cf) {
+                cf.whenComplete((r, e) -> IN_FLIGHT.decrementAndGet());
+            } else {
+                IN_FLIGHT.decrementAndGet();
+            }
+        }
+    }
+
+    private static synchronized List<SoundScoreRequest> takeBatch() {
+        int n = Math.min(MAX_BATCH, PENDING.size());
+        List<SoundScoreRequest> batch = new ArrayList<>(n);
+        ObjectIterator<Int2ObjectMap.Entry<SoundScoreRequest>> it = PENDING.int2ObjectEntrySet().fastIterator();
+        while (batch.size() < n && it.hasNext()) {
+            batch.add(it.next().getValue());
+            it.remove();
+        }
+        return batch;
+    }
+
+    /**
+     * Applies an answer to its mob's slot if it answers that mob's latest
+     * submission. Server thread only.
+     */
+    static void accept(SoundScoreResult result, long gameTime) {
+        if (result.soundId() == null) {
+            return;
+        }
+        Slot slot = peek(result.mobId());
+        Submission submission = slot == null ? null : slot.submission;
+        if (submission == null || submission.version() != result.version()) {
+            STALE.increment();
+            return;
+        }
+        slot.bestId = result.soundId();
+        slot.bestRange = submission.rangeOf(result.soundId());
+        slot.bestWeight = submission.weightOf(result.soundId());
+        slot.resultAt = gameTime;
+    }
+
+    static synchronized void prune(long trackerTick) {
+        ObjectIterator<Int2ObjectMap.Entry<Slot>> it = SLOTS.int2ObjectEntrySet().fastIterator();
+        while (it.hasNext()) {
+            Slot slot = it.next().getValue();
+            if (trackerTick - slot.touchedAt > SLOT_IDLE_TICKS && !slot.tracing.get()) {
+                it.remove();
+            }
+        }
+    }
+
+    static synchronized void clear() {
+        SLOTS.clear();
+        PENDING.clear();
+    }
+
+    static synchronized String stats() {
+        return "scoring{slots=" + SLOTS.size() + ", pending=" + PENDING.size() + ", inFlight=" + IN_FLIGHT.get()
+            + ", submitted=" + SUBMITTED.sum() + ", coalesced=" + COALESCED.sum()
+            + ", refused=" + REFUSED.sum() + ", stale=" + STALE.sum() + "}";
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.soundattract.tracking;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.minecraft.sounds.SoundEvent;
+
+/**
+ * Bounded multi-producer / single-consumer ring of pending sounds for one
+ * dimension. Producers (packet handlers, integrations, voice threads) claim a
+ * slot with a single CAS and never block; the server thread drains the ring
+ * into the tracker once per tick. Slots are preallocated and reused and
+ * positions are stored packed, so offering a sound does not allocate.
+ */
+final class SoundIngestQueue {
+
+    interface Sink {
+        void accept(String dimensionKey, SoundEvent sound, String soundId, long pos, double range, double weight, int lifetime);
+    }
+
+    private static final class Slot {
+        volatile long sequence;
+        SoundEvent sound;
+        String soundId;
+        long pos;
+        double range;
+        double weight;
+        int lifetime;
+    }
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    final String dimensionKey;
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    SoundIngestQueue(String dimensionKey) {
+        this.dimensionKey = dimensionKey;
+        int requested = Math.max(64, Integer.getInteger("soundattract.ingest.capacity", DEFAULT_CAPACITY));
+        int capacity = Integer.highestOneBit(requested - 1) << 1;
+        this.slots = new Slot[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            Slot slot = new Slot();
+            slot.sequence = i;
+            this.slots[i] = slot;
+        }
+    }
+
+    /**
+     * @return false if the ring is full; the caller is expected to fall back
+     * to the locked insert path.
+     */
+    boolean offer(SoundEvent sound, String soundId, long pos, double range, double weight, int lifetime) {
+        for (;;) {
+            long claim = tail.get();
+            Slot slot = slots[(int) (claim & mask)];
+            long diff = slot.sequence - claim;
+            if (diff == 0) {
+                if (tail.compareAndSet(claim, claim + 1)) {
+                    slot.sound = sound;
+                    slot.soundId = soundId;
+                    slot.pos = pos;
+                    slot.range = range;
+                    slot.weight = weight;
+                    slot.lifetime = lifetime;
+                    slot.sequence = claim + 1;
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return head == tail.get();
+    }
+
+    /**
+     * Consumer side; must only be called from one thread at a time.
+     */
+    int drain(Sink sink) {
+        int drained = 0;
+        long cursor = head;
+        for (;;) {
+            Slot slot = slots[(int) (cursor & mask)];
+            if (slot.sequence != cursor + 1) {
+                break;
+            }
+            SoundEvent sound = slot.sound;
+            String soundId = slot.soundId;
+            long pos = slot.pos;
+            double range = slot.range;
+            double weight = slot.weight;
+            int lifetime = slot.lifetime;
+            slot.sound = null;
+            slot.soundId = null;
+            slot.sequence = cursor + slots.length;
+            cursor++;
+            head = cursor;
+            sink.accept(dimensionKey, sound, soundId, pos, range, weight, lifetime);
+            drained++;
+        }
+        return drained;
+    }
+}
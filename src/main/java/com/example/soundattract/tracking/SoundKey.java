@@ -0,0 +1,64 @@
+package com.example.soundattract.tracking;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Interned handle for a tracked sound id. Records that share an id share the
+ * same key instance, so the tracker can compare ids by identity. Keys are
+ * reference counted by the records that hold them and dropped from the intern
+ * table once the last record is removed, which keeps per-player ids (virtual
+ * and integration sounds) from accumulating. The base location and integration
+ * metadata are parsed once here so scans never re-split the id string.
+ *
+ * All mutation happens under the tracker write lock.
+ */
+public final class SoundKey {
+
+    private static final Map<String, SoundKey> INTERNED = new HashMap<>();
+    private static int nextIndex = 0;
+
+    public final String id;
+    public final int index;
+    @Nullable
+    public final ResourceLocation baseLocation;
+    @Nullable
+    public final String metadata;
+    private int refCount;
+
+    private SoundKey(String id, int index) {
+        this.id = id;
+        this.index = index;
+        this.baseLocation = SoundTracker.extractBaseSoundLocation(id);
+        this.metadata = SoundTracker.extractIntegrationMetadata(id);
+    }
+
+    static SoundKey lookup(String id) {
+        return INTERNED.get(id);
+    }
+
+    static SoundKey acquire(String id) {
+        SoundKey key = INTERNED.get(id);
+        if (key == null) {
+            key = new SoundKey(id, nextIndex++);
+            INTERNED.put(id, key);
+        }
+        key.refCount++;
+        return key;
+    }
+
+    void release() {
+        if (--refCount <= 0) {
+            INTERNED.remove(id, this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
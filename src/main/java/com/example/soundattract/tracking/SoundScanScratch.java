@@ -0,0 +1,114 @@
+package com.example.soundattract.tracking;
+
+import com.example.soundattract.tracking.SoundTracker.SoundRecord;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
+/**
+ * Thread-confined working memory for {@link SoundTracker#findNearestSound}.
+ * Arrays only ever grow, so once a thread has seen its largest neighbourhood
+ * a scan reuses them without allocating.
+ */
+final class SoundScanScratch {
+
+    private static final ThreadLocal<SoundScanScratch> LOCAL = ThreadLocal.withInitial(SoundScanScratch::new);
+
+    static final int SHORTLIST_SIZE = 24;
+    static final int MAX_ASYNC_CANDIDATES = 64;
+
+    final ObjectArrayList<SoundRecord> nearby = new ObjectArrayList<>();
+    int[] nearbyRemaining = new int[64];
+
+    int count;
+    SoundRecord[] rec = new SoundRecord[64];
+    int[] remaining = new int[64];
+    double[] range = new double[64];
+    double[] weight = new double[64];
+    double[] novelty = new double[64];
+    double[] score = new double[64];
+    double[] distSqr = new double[64];
+    int[] muffledSlot = new int[64];
+
+    final Reference2IntOpenHashMap<SoundKey> uniqueByKey = new Reference2IntOpenHashMap<>();
+    int uniqueCount;
+    int[] unique = new int[64];
+
+    int asyncCount;
+    final double[] muffledRange = new double[MAX_ASYNC_CANDIDATES];
+    final double[] muffledWeight = new double[MAX_ASYNC_CANDIDATES];
+
+    final int[] shortlist = new int[SHORTLIST_SIZE];
+    int shortlistCount;
+
+    final double[] muffleOut = new double[2];
+
+    private SoundScanScratch() {
+        uniqueByKey.defaultReturnValue(-1);
+    }
+
+    static SoundScanScratch get() {
+        SoundScanScratch scratch = LOCAL.get();
+        scratch.reset();
+        return scratch;
+    }
+
+    private void reset() {
+        nearby.clear();
+        count = 0;
+        uniqueByKey.clear();
+        uniqueCount = 0;
+        asyncCount = 0;
+        shortlistCount = 0;
+    }
+
+    void releaseReferences() {
+        nearby.clear();
+        uniqueByKey.clear();
+        for (int i = 0; i < count; i++) {
+            rec[i] = null;
+        }
+    }
+
+    int[] ensureNearbyRemaining(int size) {
+        if (nearbyRemaining.length < size) {
+            nearbyRemaining = new int[Math.max(size, nearbyRemaining.length * 2)];
+        }
+        return nearbyRemaining;
+    }
+
+    int addCandidate(SoundRecord r, int ticksRemaining, double effRange, double effWeight, double noveltyBonus, double dist) {
+        if (count == rec.length) {
+            grow();
+        }
+        int idx = count++;
+        rec[idx] = r;
+        remaining[idx] = ticksRemaining;
+        range[idx] = effRange;
+        weight[idx] = effWeight;
+        novelty[idx] = noveltyBonus;
+        score[idx] = effWeight + noveltyBonus;
+        distSqr[idx] = dist;
+        muffledSlot[idx] = -1;
+        return idx;
+    }
+
+    void addUnique(int candidateIdx) {
+        if (uniqueCount == unique.length) {
+            unique = java.util.Arrays.copyOf(unique, unique.length * 2);
+        }
+        unique[uniqueCount++] = candidateIdx;
+    }
+
+    private void grow() {
+        int size = rec.length * 2;
+        rec = java.util.Arrays.copyOf(rec, size);
+        remaining = java.util.Arrays.copyOf(remaining, size);
+        range = java.util.Arrays.copyOf(range, size);
+        weight = java.util.Arrays.copyOf(weight, size);
+        novelty = java.util.Arrays.copyOf(novelty, size);
+        score = java.util.Arrays.copyOf(score, size);
+        distSqr = java.util.Arrays.copyOf(distSqr, size);
+        muffledSlot = java.util.Arrays.copyOf(muffledSlot, size);
+    }
+}
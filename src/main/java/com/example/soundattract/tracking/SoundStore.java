@@ -0,0 +1,188 @@
+package com.example.soundattract.tracking;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.example.soundattract.tracking.SoundTracker.SoundRecord;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+
+/**
+ * Per-dimension sound index. Records are reachable three ways:
+ * - by packed block position, as an intrusive chain of the records sharing that block;
+ * - by 16^3 cell (or the large-range list) for neighbourhood queries;
+ * - by expiry tick, through a timing wheel so expiring costs only what actually expires.
+ *
+ * Not thread safe; the tracker guards every call with its lock.
+ */
+final class SoundStore {
+
+    private static final int WHEEL_SIZE = 256;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    final String dimensionKey;
+
+    private final Long2ObjectOpenHashMap<SoundRecord> byPos = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<ObjectArrayList<SoundRecord>> cells = new Long2ObjectOpenHashMap<>();
+    private final ObjectArrayList<SoundRecord> largeRange = new ObjectArrayList<>();
+    private final ObjectArrayList<SoundRecord>[] wheel;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    SoundStore(String dimensionKey) {
+        this.dimensionKey = dimensionKey;
+        this.wheel = new ObjectArrayList[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            this.wheel[i] = new ObjectArrayList<>();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    SoundRecord find(long posKey, SoundKey key) {
+        for (SoundRecord r = byPos.get(posKey); r != null; r = r.nextAtPos) {
+            if (r.key == key) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    SoundRecord firstAt(long posKey) {
+        return byPos.get(posKey);
+    }
+
+    void insert(SoundRecord r, boolean largeRangeSound) {
+        r.store = this;
+        r.removed = false;
+        r.nextAtPos = byPos.put(r.posKey, r);
+
+        r.largeRange = largeRangeSound;
+        ObjectArrayList<SoundRecord> list = largeRangeSound ? largeRange : cells.computeIfAbsent(cellKey(r.pos), k -> new ObjectArrayList<>());
+        r.slot = list.size();
+        list.add(r);
+
+        wheel[(int) (r.expiresAt & WHEEL_MASK)].add(r);
+        size++;
+    }
+
+    void remove(SoundRecord r) {
+        if (r.removed || r.store != this) {
+            return;
+        }
+        SoundRecord head = byPos.get(r.posKey);
+        if (head == r) {
+            if (r.nextAtPos == null) {
+                byPos.remove(r.posKey);
+            } else {
+                byPos.put(r.posKey, r.nextAtPos);
+            }
+        } else {
+            for (SoundRecord prev = head; prev != null; prev = prev.nextAtPos) {
+                if (prev.nextAtPos == r) {
+                    prev.nextAtPos = r.nextAtPos;
+                    break;
+                }
+            }
+        }
+        r.nextAtPos = null;
+
+        if (r.largeRange) {
+            swapRemove(largeRange, r);
+        } else {
+            long cell = cellKey(r.pos);
+            ObjectArrayList<SoundRecord> list = cells.get(cell);
+            if (list != null) {
+                swapRemove(list, r);
+                if (list.isEmpty()) {
+                    cells.remove(cell);
+                }
+            }
+        }
+
+        r.removed = true;
+        if (r.key != null) {
+            r.key.release();
+        }
+        size--;
+    }
+
+    /**
+     * Drops every record whose expiry tick has been reached. Only the wheel
+     * bucket for {@code now} is visited; records removed early are discarded
+     * lazily when their bucket comes around.
+     */
+    void expire(long now, Consumer<SoundRecord> onExpired) {
+        ObjectArrayList<SoundRecord> bucket = wheel[(int) (now & WHEEL_MASK)];
+        int i = 0;
+        while (i < bucket.size()) {
+            SoundRecord r = bucket.get(i);
+            if (r.removed || r.store != this) {
+                dropFromBucket(bucket, i);
+            } else if (r.expiresAt <= now) {
+                dropFromBucket(bucket, i);
+                remove(r);
+                onExpired.accept(r);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    void collectNearby(BlockPos pos, List<SoundRecord> out) {
+        if (!cells.isEmpty()) {
+            int cx = SectionPos.blockToSectionCoord(pos.getX());
+            int cy = SectionPos.blockToSectionCoord(pos.getY());
+            int cz = SectionPos.blockToSectionCoord(pos.getZ());
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        ObjectArrayList<SoundRecord> list = cells.get(SectionPos.asLong(cx + dx, cy + dy, cz + dz));
+                        if (list != null) {
+                            out.addAll(list);
+                        }
+                    }
+                }
+            }
+        }
+        out.addAll(largeRange);
+    }
+
+    private static long cellKey(BlockPos pos) {
+        return SectionPos.asLong(
+            SectionPos.blockToSectionCoord(pos.getX()),
+            SectionPos.blockToSectionCoord(pos.getY()),
+            SectionPos.blockToSectionCoord(pos.getZ()));
+    }
+
+    private static void swapRemove(ObjectArrayList<SoundRecord> list, SoundRecord r) {
+        int idx = r.slot;
+        if (idx < 0 || idx >= list.size() || list.get(idx) != r) {
+            idx = list.indexOf(r);
+            if (idx < 0) {
+                return;
+            }
+        }
+        int last = list.size() - 1;
+        if (idx != last) {
+            SoundRecord moved = list.get(last);
+            list.set(idx, moved);
+            moved.slot = idx;
+        }
+        list.remove(last);
+        r.slot = -1;
+    }
+
+    private static void dropFromBucket(ObjectArrayList<SoundRecord> bucket, int idx) {
+        int last = bucket.size() - 1;
+        if (idx != last) {
+            bucket.set(idx, bucket.get(last));
+        }
+        bucket.remove(last);
+    }
+}
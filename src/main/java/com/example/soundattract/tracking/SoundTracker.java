@@ -1,12 +1,11 @@
 package com.example.soundattract.tracking;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -14,29 +13,33 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.Nullable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.config.BakedSettings;
 import com.example.soundattract.config.SoundAttractConfig;
 import com.example.soundattract.config.SoundOverride;
-import com.example.soundattract.data.DataDrivenTags;
+import com.example.soundattract.data.BlockAcoustics;
 import com.example.soundattract.quantified.QuantifiedCacheCompat;
+import com.example.soundattract.util.TickCache;
 import com.example.soundattract.worker.WorkerScheduler.SoundCandidate;
 import com.example.soundattract.worker.WorkerScheduler.SoundScoreRequest;
 import com.example.soundattract.worker.WorkerScheduler.SoundScoreResult;
 import com.example.soundattract.worker.WorkSchedulerManager;
 
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
 import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.sounds.SoundEvent;
-import net.minecraft.tags.BlockTags;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.level.ClipContext;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.Vec3;
-import net.minecraftforge.registries.ForgeRegistries;
 
 public class SoundTracker {
 
@@ -50,6 +53,16 @@ public class SoundTracker {
         public final double range;
         public final double weight;
 
+        final double evictionMetric;
+        SoundKey key;
+        long posKey;
+        long expiresAt;
+        SoundStore store;
+        SoundRecord nextAtPos;
+        int slot = -1;
+        boolean largeRange;
+        boolean removed;
+
         public SoundRecord(SoundEvent sound, String soundId, BlockPos pos, int lifetime, String dimensionKey, double range, double weight) {
             this.sound = sound;
             this.soundId = soundId;
@@ -58,11 +71,17 @@ public class SoundTracker {
             this.dimensionKey = dimensionKey;
             this.range = range;
             this.weight = weight;
+            this.evictionMetric = weight + (range / 1000.0);
         }
 
         public SoundRecord(SoundEvent sound, BlockPos pos, int lifetime, String dimensionKey, double range, double weight) {
             this(sound, sound != null && sound.getLocation() != null ? sound.getLocation().toString() : null, pos, lifetime, dimensionKey, range, weight);
         }
+
+        @Nullable
+        public SoundKey getKey() {
+            return key;
+        }
     }
 
     public static String buildIntegrationSoundId(ResourceLocation baseId, @Nullable String metadata) {
@@ -123,112 +142,97 @@ public class SoundTracker {
         }
     }
 
-    private static final class SoundSnapshot {
-        final SoundEvent sound;
-        final String soundId;
-        final BlockPos pos;
-        final int ticksRemaining;
-        final String dimensionKey;
-        final double range;
-        final double weight;
-
-        SoundSnapshot(SoundEvent sound, String soundId, BlockPos pos, int ticksRemaining, String dimensionKey, double range, double weight) {
-            this.sound = sound;
-            this.soundId = soundId;
-            this.pos = pos;
-            this.ticksRemaining = ticksRemaining;
-            this.dimensionKey = dimensionKey;
-            this.range = range;
-            this.weight = weight;
-        }
-    }
-
-    private record MuffledResult(double range, double weight) {}
-
-    private static final List<SoundRecord> RECENT_SOUNDS = new ArrayList<>();
-
-    private record GridKey3D(int x, int y, int z) {
-
-    }
-    private static final Map<String, Map<GridKey3D, Map<String, SoundRecord>>> SPATIAL_SOUNDS = new ConcurrentHashMap<>();
-    private static final Map<String, SoundRecord> LARGE_RANGE_SOUNDS = new ConcurrentHashMap<>();
+    private static final Map<String, SoundStore> STORES = new ConcurrentHashMap<>();
+    private static final Map<String, SoundIngestQueue> INGEST_QUEUES = new ConcurrentHashMap<>();
     private static final Map<String, SoundRecord> SOUND_RECORDS_BY_ID = new ConcurrentHashMap<>();
-    private static final java.util.Set<String> DEDUP_SET_A = java.util.concurrent.ConcurrentHashMap.newKeySet();
-    private static final java.util.Set<String> DEDUP_SET_B = java.util.concurrent.ConcurrentHashMap.newKeySet();
-    private static java.util.Set<String> DEDUP_THIS_TICK = DEDUP_SET_A;
-    private static java.util.Set<String> DEDUP_LAST_TICK = DEDUP_SET_B;
-
-    private static GridKey3D gridKey(BlockPos pos) {
-        int x = pos.getX() >> 4;
-        int y = pos.getY() >> 4;
-        int z = pos.getZ() >> 4;
-        return new GridKey3D(x, y, z);
-    }
+    private static final PriorityQueue<SoundRecord> EVICTION_HEAP = new PriorityQueue<>(Comparator.comparingDouble((SoundRecord r) -> r.evictionMetric));
+    private static int trackedCount = 0;
+    private static long trackerTick = 0L;
+    private static LongOpenHashSet DEDUP_THIS_TICK = new LongOpenHashSet();
+    private static LongOpenHashSet DEDUP_LAST_TICK = new LongOpenHashSet();
 
     private static final ReadWriteLock lock = new ReentrantReadWriteLock();
     private static final Lock readLock = lock.readLock();
     private static final Lock writeLock = lock.writeLock();
     private static final double LARGE_SOUND_RANGE_THRESHOLD = 64.0;
-    private static final int MAX_SYNC_CANDIDATES = 24;
+    /** Furthest a small-range sound can be found from, given the 3x3x3 section neighbourhood scan. */
+    private static final double SMALL_SOUND_REACH = 32.0;
+    private static final boolean POLL_ALL_MOBS = Boolean.getBoolean("soundattract.pollAllMobs");
+    private static final Map<String, AudibleCells> AUDIBLE = new ConcurrentHashMap<>();
+    private static final LongAdder QUIET_SKIPS = new LongAdder();
+
+    private static void trackRecord(SoundStore store, SoundRecord r, int lifetime) {
+        r.key = SoundKey.acquire(r.soundId);
+        r.posKey = r.pos.asLong();
+        r.expiresAt = trackerTick + Math.max(1, lifetime);
+        store.insert(r, r.range > LARGE_SOUND_RANGE_THRESHOLD);
+        AUDIBLE.computeIfAbsent(r.dimensionKey, k -> new AudibleCells()).stamp(r.pos, reachOf(r), r.expiresAt);
+        EVICTION_HEAP.add(r);
+        SOUND_RECORDS_BY_ID.put(r.soundId, r);
+        trackedCount++;
+    }
+
+    /**
+     * Furthest any mob could hear {@code r} from, allowing for profile
+     * overrides that widen a sound's range.
+     */
+    private static double reachOf(SoundRecord r) {
+        double reach = Math.max(r.range, BakedSettings.get().mobProfileIndex.maxOverrideRange());
+        return r.range > LARGE_SOUND_RANGE_THRESHOLD ? reach : Math.min(reach, SMALL_SOUND_REACH);
+    }
 
-    private static void addRecordToCollections(SoundRecord r) {
-        if (r.range > LARGE_SOUND_RANGE_THRESHOLD) {
-            LARGE_RANGE_SOUNDS.put(r.soundId, r);
-        } else {
-            SPATIAL_SOUNDS.computeIfAbsent(r.dimensionKey, k -> new ConcurrentHashMap<>())
-                .computeIfAbsent(gridKey(r.pos), k -> new ConcurrentHashMap<>()).put(r.soundId, r);
+    /**
+     * Whether some tracked sound could be heard at {@code pos}. Goals and
+     * sensors check this before scanning so that mobs with nothing audible
+     * around them skip {@link #findNearestSound} entirely; a sound being
+     * tracked nearby is what wakes them. Pass
+     * {@code -Dsoundattract.pollAllMobs=true} to always scan.
+     */
+    public static boolean mayHearSoundAt(Level level, BlockPos pos) {
+        if (POLL_ALL_MOBS || level == null || pos == null) {
+            return true;
         }
-        SOUND_RECORDS_BY_ID.put(r.soundId, r);
+        AudibleCells cells = AUDIBLE.get(dimensionKey(level));
+        if (cells != null && cells.audible(pos, trackerTick)) {
+            return true;
+        }
+        QUIET_SKIPS.increment();
+        return false;
     }
 
-    private static void removeRecordFromCollections(SoundRecord r) {
-        if (r.range > LARGE_SOUND_RANGE_THRESHOLD) {
-            LARGE_RANGE_SOUNDS.remove(r.soundId);
-        } else {
-            Map<GridKey3D, Map<String, SoundRecord>> dimMap = SPATIAL_SOUNDS.get(r.dimensionKey);
-            if (dimMap != null) {
-                Map<String, SoundRecord> gridCell = dimMap.get(gridKey(r.pos));
-                if (gridCell != null) {
-                    if (gridCell.remove(r.soundId) != null) {
-                        SOUND_RECORDS_BY_ID.remove(r.soundId);
-                    }
-                    if (gridCell.isEmpty()) {
-                        dimMap.remove(gridKey(r.pos));
-                    }
-                }
-                if (dimMap.isEmpty()) {
-                    SPATIAL_SOUNDS.remove(r.dimensionKey);
-                }
-            }
+    private static void removeRecord(SoundRecord r) {
+        if (r.store == null || r.removed) {
+            return;
         }
+        r.store.remove(r);
+        onRecordDetached(r);
     }
 
-    private static List<SoundRecord> getNearbySounds(String dim, BlockPos pos) {
-        List<SoundRecord> result = new ArrayList<>();
-        Map<GridKey3D, Map<String, SoundRecord>> dimMap = SPATIAL_SOUNDS.get(dim);
-        if (dimMap != null) {
-            GridKey3D centerKey = gridKey(pos);
-            for (int dy = -1; dy <= 1; dy++) {
-                for (int dx = -1; dx <= 1; dx++) {
-                    for (int dz = -1; dz <= 1; dz++) {
-                        GridKey3D neighborKey = new GridKey3D(
-                                centerKey.x() + dx,
-                                centerKey.y() + dy,
-                                centerKey.z() + dz);
-                        Map<String, SoundRecord> list = dimMap.get(neighborKey);
-                        if (list != null) {
-                            result.addAll(list.values());
-                        }
-                    }
-                }
-            }
+    private static void onRecordDetached(SoundRecord r) {
+        SOUND_RECORDS_BY_ID.remove(r.soundId, r);
+        trackedCount--;
+    }
+
+    @Nullable
+    private static SoundRecord peekEvictionCandidate() {
+        SoundRecord top;
+        while ((top = EVICTION_HEAP.peek()) != null && top.removed) {
+            EVICTION_HEAP.poll();
         }
-        for (SoundRecord r : LARGE_RANGE_SOUNDS.values()) {
-            if (r.dimensionKey.equals(dim)) {
-                result.add(r);
-            }
+        return top;
+    }
+
+    private static int remainingTicks(SoundRecord r) {
+        if (r.store == null) {
+            return r.ticksRemaining;
         }
-        return result;
+        return (int) Math.max(0L, r.expiresAt - trackerTick);
+    }
+
+    private static final Map<ResourceKey<Level>, String> DIMENSION_KEYS = new ConcurrentHashMap<>();
+
+    public static String dimensionKey(Level level) {
+        return DIMENSION_KEYS.computeIfAbsent(level.dimension(), k -> k.location().toString());
     }
 
     public static void addSound(SoundEvent se,
@@ -254,63 +258,112 @@ public class SoundTracker {
 
         ResourceLocation loc = extractBaseSoundLocation(soundIdToUse);
 
-        if (!SoundAttractConfig.SOUND_ID_WHITELIST_CACHE.isEmpty()
-                && (loc == null || !SoundAttractConfig.SOUND_ID_WHITELIST_CACHE.contains(loc))) {
+        Set<ResourceLocation> whitelist = BakedSettings.get().soundIdWhitelist;
+        if (!whitelist.isEmpty() && (loc == null || !whitelist.contains(loc))) {
 
             if (SoundAttractConfig.COMMON.debugLogging.get()) {
                 SoundAttractMod.LOGGER.debug("Sound {} not in whitelist, ignoring.", soundIdToUse);
             }
             return;
         }
+
+        ingest(dimensionKey, se, soundIdToUse, pos.asLong(), range, weight, lifetime);
+    }
+
+    /**
+     * Queues a sound for the next drain without any of the checks in
+     * {@link #addSound}: the id must already be built and admitted by the
+     * sound whitelist, and {@code pos} is a packed {@link BlockPos}. Safe to
+     * call from any thread. Used by
+     * {@link com.example.soundattract.api.SoundEmitter}, which does those
+     * checks once per key rather than once per sound.
+     *
+     * Scans see a queued sound only after the next drain. {@link #removeSoundAt}
+     * and {@link #addVirtualSound} drain first, so a sound removed or
+     * replaced in the tick it was queued stays gone.
+     */
+    public static void ingest(String dimensionKey, @Nullable SoundEvent se, String soundId, long pos, double range, double weight, int lifetime) {
+        SoundIngestQueue queue = INGEST_QUEUES.get(dimensionKey);
+        if (queue == null) {
+            queue = INGEST_QUEUES.computeIfAbsent(dimensionKey, SoundIngestQueue::new);
+        }
+        if (queue.offer(se, soundId, pos, range, weight, lifetime)) {
+            return;
+        }
         writeLock.lock();
         try {
-            String dedupKey = null;
-            if (soundIdToUse != null && pos != null && dimensionKey != null) {
-                dedupKey = dimensionKey + "|" + soundIdToUse + "|" + pos.asLong();
-                if (DEDUP_THIS_TICK.contains(dedupKey) || DEDUP_LAST_TICK.contains(dedupKey)) {
+            ingestLocked(dimensionKey, se, soundId, pos, range, weight, lifetime);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void ingestLocked(String dimensionKey, SoundEvent se, String soundIdToUse, long pos, double range, double weight, int lifetime) {
+        long dedupKey = dedupKey(dimensionKey, soundIdToUse, pos);
+        if (DEDUP_THIS_TICK.contains(dedupKey) || DEDUP_LAST_TICK.contains(dedupKey)) {
+            return;
+        }
+        DEDUP_THIS_TICK.add(dedupKey);
+
+        SoundStore store = STORES.computeIfAbsent(dimensionKey, SoundStore::new);
+        SoundKey key = SoundKey.lookup(soundIdToUse);
+        if (key != null) {
+            SoundRecord existing = store.find(pos, key);
+            if (existing != null) {
+                if (existing.weight >= weight) {
                     return;
                 }
-                DEDUP_THIS_TICK.add(dedupKey);
+                removeRecord(existing);
             }
-            for (Iterator<SoundRecord> it = RECENT_SOUNDS.iterator(); it.hasNext();) {
-                SoundRecord existing = it.next();
-                if (existing.dimensionKey.equals(dimensionKey)
-                        && existing.pos.equals(pos)
-                        && Objects.equals(existing.soundId, soundIdToUse)) {
-                    if (existing.weight >= weight) {
-                        return;
-                    }
-                    it.remove();
-                    removeRecordFromCollections(existing);
-                    break;
-                }
+        }
+
+        int cap = BakedSettings.get().maxSoundsTracked;
+        if (trackedCount >= cap) {
+            SoundRecord worstRecord = peekEvictionCandidate();
+            double newMetric = weight + (range / 1000.0);
+            if (worstRecord != null && newMetric > worstRecord.evictionMetric) {
+                removeRecord(worstRecord);
+            } else {
+                return;
             }
+        }
+        trackRecord(store, new SoundRecord(se, soundIdToUse, BlockPos.of(pos), lifetime, dimensionKey, range, weight), lifetime);
+    }
 
-            int cap = SoundAttractConfig.COMMON.maxSoundsTracked.get();
-            if (RECENT_SOUNDS.size() >= cap) {
-                SoundRecord worstRecord = null;
-                int worstRecordIndex = -1;
-                double minMetric = Double.MAX_VALUE;
-                for (int i = 0; i < RECENT_SOUNDS.size(); i++) {
-                    SoundRecord current = RECENT_SOUNDS.get(i);
-                    double currentMetric = current.weight + (current.range / 1000.0);
-                    if (currentMetric < minMetric) {
-                        minMetric = currentMetric;
-                        worstRecord = current;
-                        worstRecordIndex = i;
-                    }
-                }
-                double newMetric = weight + (range / 1000.0);
-                if (worstRecord != null && newMetric > minMetric) {
-                    RECENT_SOUNDS.remove(worstRecordIndex);
-                    removeRecordFromCollections(worstRecord);
-                } else {
-                    return;
-                }
+    /**
+     * Hashed (dimension, sound id, block) key for the two-tick duplicate
+     * filter. A collision only drops one extra repeat, so a 64-bit hash is
+     * enough and avoids building a string per incoming sound.
+     */
+    private static long dedupKey(String dimensionKey, String soundId, long posKey) {
+        long h = HashCommon.mix(posKey);
+        h = h * 31 + soundId.hashCode();
+        h = h * 31 + dimensionKey.hashCode();
+        return HashCommon.mix(h);
+    }
+
+    private static boolean hasPendingSounds() {
+        for (SoundIngestQueue queue : INGEST_QUEUES.values()) {
+            if (!queue.isEmpty()) {
+                return true;
             }
-            SoundRecord record = new SoundRecord(se, soundIdToUse, pos, lifetime, dimensionKey, range, weight);
-            RECENT_SOUNDS.add(record);
-            addRecordToCollections(record);
+        }
+        return false;
+    }
+
+    private static void drainPendingLocked() {
+        for (SoundIngestQueue queue : INGEST_QUEUES.values()) {
+            queue.drain(SoundTracker::ingestLocked);
+        }
+    }
+
+    public static void drainPendingSounds() {
+        if (!hasPendingSounds()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            drainPendingLocked();
         } finally {
             writeLock.unlock();
         }
@@ -319,22 +372,58 @@ public class SoundTracker {
     public static void tick() {
         writeLock.lock();
         try {
-            Iterator<SoundRecord> iter = RECENT_SOUNDS.iterator();
-            while (iter.hasNext()) {
-                SoundRecord r = iter.next();
-                r.ticksRemaining--;
-                if (r.ticksRemaining <= 0) {
-                    iter.remove();
-                    removeRecordFromCollections(r);
+            drainPendingLocked();
+            trackerTick++;
+            for (SoundStore store : STORES.values()) {
+                store.expire(trackerTick, SoundTracker::onRecordDetached);
+            }
+            if (EVICTION_HEAP.size() > (trackedCount * 2) + 64) {
+                EVICTION_HEAP.removeIf(r -> r.removed);
+            }
+            if (trackerTick % 200L == 0L) {
+                for (AudibleCells cells : AUDIBLE.values()) {
+                    cells.prune(trackerTick);
                 }
+                ScoringPipeline.prune(trackerTick);
             }
-            java.util.Set<String> previous = DEDUP_THIS_TICK;
+            LongOpenHashSet previous = DEDUP_THIS_TICK;
             DEDUP_THIS_TICK = DEDUP_LAST_TICK;
             DEDUP_LAST_TICK = previous;
             DEDUP_THIS_TICK.clear();
         } finally {
             writeLock.unlock();
         }
+        ScoringPipeline.flush();
+        if (trackerTick % 1200L == 0L && SoundAttractConfig.COMMON.debugLogging.get()) {
+            SoundAttractMod.LOGGER.info("[SoundTracker] {}, {}, quietScanSkips={}", RAYCAST_CACHE, ScoringPipeline.stats(), QUIET_SKIPS.sum());
+        }
+    }
+
+    /**
+     * Drops every tracked and pending sound along with cached muffling and
+     * async results.
+     */
+    public static void clear() {
+        writeLock.lock();
+        try {
+            for (SoundIngestQueue queue : INGEST_QUEUES.values()) {
+                queue.drain((dim, se, id, pos, range, weight, lifetime) -> {});
+            }
+            for (SoundRecord r : EVICTION_HEAP) {
+                removeRecord(r);
+            }
+            EVICTION_HEAP.clear();
+            SOUND_RECORDS_BY_ID.clear();
+            AUDIBLE.clear();
+            trackedCount = 0;
+            DEDUP_THIS_TICK.clear();
+            DEDUP_LAST_TICK.clear();
+            RAYCAST_CACHE.clear();
+            ScoringPipeline.clear();
+            MufflingEngine.clear();
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     public static void addSound(SoundEvent se, BlockPos pos, String dimensionKey, double range, double weight, int lifetime) {
@@ -342,7 +431,7 @@ public class SoundTracker {
     }
 
     public static void addSound(SoundEvent se, BlockPos pos, String dimensionKey) {
-        int lifetime = SoundAttractConfig.COMMON.soundLifetimeTicks.get();
+        int lifetime = BakedSettings.get().soundLifetimeTicks;
         addSound(se, pos, dimensionKey, 16.0, 1.0, lifetime);
     }
 
@@ -352,24 +441,27 @@ public class SoundTracker {
         }
         writeLock.lock();
         try {
-            RECENT_SOUNDS.removeIf(r -> {
-                boolean shouldRemove = r.pos.equals(pos) && r.dimensionKey.equals(dimensionKey) && r.weight < weight;
-                if (shouldRemove) {
-                    removeRecordFromCollections(r);
+            // Queued sounds must be in the store first, or they would reappear on the next drain.
+            drainPendingLocked();
+            SoundStore store = STORES.computeIfAbsent(dimensionKey, SoundStore::new);
+            boolean strongerOrEqualExists = false;
+            SoundRecord r = store.firstAt(pos.asLong());
+            while (r != null) {
+                SoundRecord next = r.nextAtPos;
+                if (r.weight < weight) {
+                    removeRecord(r);
+                } else {
+                    strongerOrEqualExists = true;
                 }
-                return shouldRemove;
-            });
-
-            boolean strongerOrEqualExists = RECENT_SOUNDS.stream().anyMatch(r -> r.pos.equals(pos) && r.dimensionKey.equals(dimensionKey) && r.weight >= weight);
+                r = next;
+            }
 
             if (!strongerOrEqualExists) {
                 String virtualId = "soundattract:virtual#"
                     + (sourcePlayer != null ? sourcePlayer.toString() : "unknown")
                     + "/" + (animationClass != null ? animationClass : "unknown")
                     + "/" + pos.asLong();
-                VirtualSoundRecord record = new VirtualSoundRecord(virtualId, pos, lifetime, dimensionKey, range, weight, sourcePlayer, animationClass);
-                RECENT_SOUNDS.add(record);
-                addRecordToCollections(record);
+                trackRecord(store, new VirtualSoundRecord(virtualId, pos, lifetime, dimensionKey, range, weight, sourcePlayer, animationClass), lifetime);
             }
         } finally {
             writeLock.unlock();
@@ -377,91 +469,48 @@ public class SoundTracker {
     }
 
     public static void removeSoundAt(BlockPos pos, String dimensionKey) {
+        if (pos == null || dimensionKey == null) {
+            return;
+        }
         writeLock.lock();
         try {
-            Iterator<SoundRecord> iter = RECENT_SOUNDS.iterator();
-            while (iter.hasNext()) {
-                SoundRecord r = iter.next();
-                if (r.pos.equals(pos) && r.dimensionKey.equals(dimensionKey)) {
-                    iter.remove();
-                    removeRecordFromCollections(r);
-                    break;
-                }
+            drainPendingLocked();
+            SoundStore store = STORES.get(dimensionKey);
+            if (store == null) {
+                return;
+            }
+            SoundRecord oldest = store.firstAt(pos.asLong());
+            while (oldest != null && oldest.nextAtPos != null) {
+                oldest = oldest.nextAtPos;
+            }
+            if (oldest != null) {
+                removeRecord(oldest);
             }
         } finally {
             writeLock.unlock();
         }
     }
 
-    private static class RaycastCacheKey {
-
-        public final BlockPos mobPos;
-        public final BlockPos soundPos;
-        public final String soundId;
-        public final String dimensionKey;
-
-        public RaycastCacheKey(BlockPos mobPos, BlockPos soundPos, String soundId, String dimensionKey) {
-            this.mobPos = mobPos;
-            this.soundPos = soundPos;
-            this.soundId = soundId;
-            this.dimensionKey = dimensionKey;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (!(o instanceof RaycastCacheKey other)) {
-                return false;
-            }
-            return java.util.Objects.equals(mobPos, other.mobPos)
-                && java.util.Objects.equals(soundPos, other.soundPos)
-                && java.util.Objects.equals(soundId, other.soundId)
-                && java.util.Objects.equals(dimensionKey, other.dimensionKey);
-        }
+    private static final TickCache<double[]> RAYCAST_CACHE = new TickCache<>("raycast");
 
-        @Override
-        public int hashCode() {
-            return java.util.Objects.hash(mobPos, soundPos, soundId, dimensionKey);
-        }
+    private static long raycastKey(BlockPos src, BlockPos dst, String soundId, String dimensionKey) {
+        return TickCache.key(TickCache.key(src.asLong(), dst.asLong()), dimensionKey.hashCode(), soundId.hashCode());
     }
-    private static final class RaycastEntry {
-        final double[] result;
-        final long gameTime;
-        RaycastEntry(double[] result, long gameTime) {
-            this.result = result;
-            this.gameTime = gameTime;
-        }
-    }
-    private static final Map<RaycastCacheKey, RaycastEntry> RAYCAST_CACHE = new java.util.concurrent.ConcurrentHashMap<>();
-
-    private static final double NO_MUFFLING_RANGE = 1.0;
-    private static final double NO_MUFFLING_WEIGHT = 1.0;
 
-    private static final java.util.concurrent.ConcurrentHashMap<UUID, String> ASYNC_BEST_SOUND_BY_MOB = new java.util.concurrent.ConcurrentHashMap<>();
-    private static final java.util.concurrent.ConcurrentHashMap<UUID, Double> ASYNC_BEST_SOUND_RANGE = new java.util.concurrent.ConcurrentHashMap<>();
-    private static final java.util.concurrent.ConcurrentHashMap<UUID, Double> ASYNC_BEST_SOUND_WEIGHT = new java.util.concurrent.ConcurrentHashMap<>();
-    private static final java.util.concurrent.ConcurrentHashMap<UUID, Long> ASYNC_RESULT_GAME_TIME = new java.util.concurrent.ConcurrentHashMap<>();
-    private static final java.util.concurrent.ConcurrentHashMap<UUID, Long> LAST_SUBMIT_GAME_TIME = new java.util.concurrent.ConcurrentHashMap<>();
-    private static final java.util.concurrent.ConcurrentHashMap<UUID, Integer> LAST_CANDIDATE_HASH = new java.util.concurrent.ConcurrentHashMap<>();
-    private static final java.util.concurrent.ConcurrentHashMap<UUID, Map<String, MuffledResult>> ASYNC_MUFFLED_BY_MOB = new java.util.concurrent.ConcurrentHashMap<>();
+    private static long lastAsyncDrainGameTime = Long.MIN_VALUE;
 
     private static void drainAsyncSoundScores(Level level) {
+        long gameTime = level == null ? 0L : level.getGameTime();
+        if (gameTime == lastAsyncDrainGameTime) {
+            return;
+        }
+        lastAsyncDrainGameTime = gameTime;
         try {
             List<SoundScoreResult> results = WorkSchedulerManager.get().drainSoundScoreResults();
             if (results == null || results.isEmpty()) return;
-            long nowGameTime = level == null ? 0L : level.getGameTime();
             for (SoundScoreResult r : results) {
-                if (r == null || r.mobUuid() == null) continue;
-                if (r.soundId() != null) {
-                    ASYNC_BEST_SOUND_BY_MOB.put(r.mobUuid(), r.soundId());
-                    ASYNC_RESULT_GAME_TIME.put(r.mobUuid(), nowGameTime);
-                    Map<String, MuffledResult> muffled = ASYNC_MUFFLED_BY_MOB.get(r.mobUuid());
-                    if (muffled != null) {
-                        MuffledResult result = muffled.get(r.soundId());
-                        if (result != null) {
-                            ASYNC_BEST_SOUND_RANGE.put(r.mobUuid(), result.range());
-                            ASYNC_BEST_SOUND_WEIGHT.put(r.mobUuid(), result.weight());
-                        }
-                    }
+                if (r != null) {
+                    ScoringPipeline.accept(r, gameTime);
                 }
             }
         } catch (Throwable t) {
@@ -472,17 +521,33 @@ public class SoundTracker {
     }
 
     public static double[] applyBlockMuffling(Level level, BlockPos src, BlockPos dst, double origRange, double origWeight, String soundId) {
+        double[] out = new double[2];
+        applyBlockMuffling(level, src, dst, origRange, origWeight, soundId, out);
+        return out;
+    }
+
+    private static void applyBlockMuffling(Level level, BlockPos src, BlockPos dst, double origRange, double origWeight, String soundId, double[] out) {
+        out[0] = origRange;
+        out[1] = origWeight;
         if (level == null || src == null || dst == null) {
-            return new double[]{origRange, origWeight};
+            return;
+        }
+        if (!BakedSettings.get().enableBlockMuffling) {
+            return;
         }
-        if (!SoundAttractConfig.COMMON.enableBlockMuffling.get()) {
-            return new double[]{origRange, origWeight};
+        double[] result = lookupBlockMuffling(level, src, dst, origRange, origWeight, soundId);
+        if (result != null && result.length >= 2) {
+            out[0] = result[0];
+            out[1] = result[1];
         }
+    }
 
-        boolean useCache = SoundAttractConfig.COMMON.enableRaycastCache.get();
-        long raycastTtl = SoundAttractConfig.COMMON.raycastCacheTtlTicks.get();
-        int raycastMax = SoundAttractConfig.COMMON.raycastCacheMaxEntries.get();
-        String dimensionKey = level.dimension().location().toString();
+    private static double[] lookupBlockMuffling(Level level, BlockPos src, BlockPos dst, double origRange, double origWeight, String soundId) {
+        BakedSettings settings = BakedSettings.get();
+        boolean useCache = settings.enableRaycastCache;
+        long raycastTtl = settings.raycastCacheTtlTicks;
+        int raycastMax = settings.raycastCacheMaxEntries;
+        String dimensionKey = dimensionKey(level);
 
         if (useCache && QuantifiedCacheCompat.isUsable()) {
             String key = new StringBuilder(128)
@@ -501,49 +566,45 @@ public class SoundTracker {
             );
         }
 
-        RaycastCacheKey cacheKey = new RaycastCacheKey(
-            dst,
-            src,
-            soundId,
-            dimensionKey
-        );
+        long cacheKey = raycastKey(src, dst, soundId, dimensionKey);
         if (useCache) {
-            RaycastEntry existing = RAYCAST_CACHE.get(cacheKey);
-            if (existing != null) {
-                long age = level.getGameTime() - existing.gameTime;
-                if (age <= raycastTtl) {
-                    return existing.result;
-                } else {
-                    RAYCAST_CACHE.remove(cacheKey);
-                }
+            double[] cached = RAYCAST_CACHE.get(cacheKey, level.getGameTime(), raycastTtl);
+            if (cached != null) {
+                return cached;
             }
         }
 
         double[] finalResult = computeBlockMuffling(level, src, dst, origRange, origWeight, soundId);
         if (useCache) {
-            RAYCAST_CACHE.put(cacheKey, new RaycastEntry(finalResult, level.getGameTime()));
-            if (RAYCAST_CACHE.size() > raycastMax) {
-                long now = level.getGameTime();
-                Iterator<Map.Entry<RaycastCacheKey, RaycastEntry>> it = RAYCAST_CACHE.entrySet().iterator();
-                while (it.hasNext()) {
-                    Map.Entry<RaycastCacheKey, RaycastEntry> e = it.next();
-                    if ((now - e.getValue().gameTime) > raycastTtl) {
-                        it.remove();
-                    }
-                }
-                if (RAYCAST_CACHE.size() > raycastMax) {
-                    int toRemove = RAYCAST_CACHE.size() - raycastMax;
-                    Iterator<Map.Entry<RaycastCacheKey, RaycastEntry>> it2 = RAYCAST_CACHE.entrySet().iterator();
-                    for (int i = 0; i < toRemove && it2.hasNext(); i++) {
-                        it2.next();
-                        it2.remove();
-                    }
-                }
-            }
+            storeBlockMuffling(cacheKey, finalResult, level.getGameTime());
         }
         return finalResult;
     }
 
+    /**
+     * Cache-only lookup for callers that hand misses to {@link MufflingEngine}.
+     */
+    private static boolean peekBlockMuffling(Level level, BlockPos src, BlockPos dst, double origRange, double origWeight, String soundId, double[] out) {
+        out[0] = origRange;
+        out[1] = origWeight;
+        if (!BakedSettings.get().enableBlockMuffling) {
+            return true;
+        }
+        double[] cached = RAYCAST_CACHE.get(raycastKey(src, dst, soundId, dimensionKey(level)),
+            level.getGameTime(), BakedSettings.get().raycastCacheTtlTicks);
+        if (cached == null) {
+            return false;
+        }
+        out[0] = cached[0];
+        out[1] = cached[1];
+        return true;
+    }
+
+    private static void storeBlockMuffling(long cacheKey, double[] result, long now) {
+        BakedSettings settings = BakedSettings.get();
+        RAYCAST_CACHE.put(cacheKey, result, now, settings.raycastCacheTtlTicks, settings.raycastCacheMaxEntries);
+    }
+
     private static double[] computeBlockMuffling(Level level, BlockPos src, BlockPos dst, double origRange, double origWeight, String soundId) {
         double currentRange = origRange;
         double currentWeight = origWeight;
@@ -557,33 +618,14 @@ public class SoundTracker {
             BlockPos currentPos = result.getBlockPos();
             Vec3 currentHitVec = result.getLocation();
 
-            int maxChecks = SoundAttractConfig.COMMON.maxMufflingBlocksToCheck.get();
+            BakedSettings settings = BakedSettings.get();
+            int maxChecks = settings.maxMufflingBlocksToCheck;
 
             for (int i = 0; i < maxChecks && currentRange > 0.1 && currentWeight > 0.01; ++i) {
                 BlockState blockState = level.getBlockState(currentPos);
-                Block block = blockState.getBlock();
-                double rangeMultiplier = NO_MUFFLING_RANGE;
-                double weightMultiplier = NO_MUFFLING_WEIGHT;
-
-                if (isCustomWool(blockState, block, level, currentPos)) {
-                    rangeMultiplier = SoundAttractConfig.COMMON.mufflingFactorWool.get();
-                    weightMultiplier = SoundAttractConfig.COMMON.mufflingFactorWool.get();
-                } else if (isCustomLiquid(blockState, block, level, currentPos)) {
-                    rangeMultiplier = SoundAttractConfig.COMMON.mufflingFactorLiquid.get();
-                    weightMultiplier = SoundAttractConfig.COMMON.mufflingFactorLiquid.get();
-                } else if (isCustomThin(blockState, block, level, currentPos)) {
-                    rangeMultiplier = SoundAttractConfig.COMMON.mufflingFactorThin.get();
-                    weightMultiplier = SoundAttractConfig.COMMON.mufflingFactorThin.get();
-                } else if (isCustomSolid(blockState, block, level, currentPos)) {
-                    rangeMultiplier = SoundAttractConfig.COMMON.mufflingFactorSolid.get();
-                    weightMultiplier = SoundAttractConfig.COMMON.mufflingFactorSolid.get();
-                } else if (isCustomNonSolid(blockState, block, level, currentPos)) {
-                    rangeMultiplier = SoundAttractConfig.COMMON.mufflingFactorNonSolid.get();
-                    weightMultiplier = SoundAttractConfig.COMMON.mufflingFactorNonSolid.get();
-                } else if (blockState.isAir()) {
-                }
-                currentRange *= rangeMultiplier;
-                currentWeight *= weightMultiplier;
+                double factor = settings.mufflingFactor(BlockAcoustics.muffleClass(blockState, level, currentPos));
+                currentRange *= factor;
+                currentWeight *= factor;
                 blocksHit++;
                 Vec3 direction = end.subtract(start).normalize();
                 currentHitVec = currentHitVec.add(direction.scale(0.1));
@@ -603,279 +645,90 @@ public class SoundTracker {
         return new double[]{Math.max(0, currentRange), Math.max(0, currentWeight)};
     }
 
-    private static boolean isCustomWool(BlockState state, Block block, Level level, BlockPos pos) {
-        ResourceLocation id = ForgeRegistries.BLOCKS.getKey(block);
-        boolean inConfig = id != null && SoundAttractConfig.CUSTOM_WOOL_BLOCKS_CACHE.contains(id);
-
-        boolean enableDataDriven = SoundAttractConfig.COMMON.enableDataDriven.get();
-        boolean inTag = false;
-        if (enableDataDriven) {
-            try {
-                inTag = state.is(DataDrivenTags.MUFFLING_WOOL);
-            } catch (Exception ignored) {}
-        }
-
-        if (!enableDataDriven) {
-            if (inConfig) return true;
-        } else {
-            String priority = SoundAttractConfig.COMMON.datapackPriority.get();
-            boolean datapackOverConfig = "datapack_over_config".equalsIgnoreCase(priority);
-            if (datapackOverConfig) {
-                if (inTag) return true;
-                if (inConfig) return true;
-            } else {
-                if (inConfig) return true;
-                if (inTag) return true;
-            }
-        }
-
-        try {
-            return state.is(BlockTags.WOOL);
-        } catch (Exception e) {
-            SoundAttractMod.LOGGER.warn("Exception checking BlockTags.WOOL for block {} at {}. Defaulting to false.", ForgeRegistries.BLOCKS.getKey(block), pos, e);
-            return false;
-        }
-    }
-
-    private static boolean isCustomSolid(BlockState state, Block block, Level level, BlockPos pos) {
-        ResourceLocation id = ForgeRegistries.BLOCKS.getKey(block);
-        boolean inConfig = id != null && SoundAttractConfig.CUSTOM_SOLID_BLOCKS_CACHE.contains(id);
-
-        boolean enableDataDriven = SoundAttractConfig.COMMON.enableDataDriven.get();
-        boolean inTag = false;
-        if (enableDataDriven) {
-            try {
-                inTag = state.is(DataDrivenTags.MUFFLING_SOLID);
-            } catch (Exception ignored) {}
-        }
-
-        if (!enableDataDriven) {
-            if (inConfig) return true;
-        } else {
-            String priority = SoundAttractConfig.COMMON.datapackPriority.get();
-            boolean datapackOverConfig = "datapack_over_config".equalsIgnoreCase(priority);
-            if (datapackOverConfig) {
-                if (inTag) return true;
-                if (inConfig) return true;
-            } else {
-                if (inConfig) return true;
-                if (inTag) return true;
-            }
-        }
-
-        try {
-            return state.isSolidRender(level, pos);
-        } catch (NullPointerException npe) {
-            SoundAttractMod.LOGGER.warn("NPE in state.isSolidRender() for block {} at {}. Defaulting to solid.", ForgeRegistries.BLOCKS.getKey(block), pos, npe);
-            return true;
-        } catch (Exception e) {
-            SoundAttractMod.LOGGER.error("Error in state.isSolidRender() for block {} at {}. Defaulting to solid.", ForgeRegistries.BLOCKS.getKey(block), pos, e);
-            return true;
-        }
-    }
-
-    private static boolean isCustomNonSolid(BlockState state, Block block, Level level, BlockPos pos) {
-        ResourceLocation id = ForgeRegistries.BLOCKS.getKey(block);
-        boolean inConfig = id != null && SoundAttractConfig.CUSTOM_NON_SOLID_BLOCKS_CACHE.contains(id);
-
-        boolean enableDataDriven = SoundAttractConfig.COMMON.enableDataDriven.get();
-        boolean inTag = false;
-        if (enableDataDriven) {
-            try {
-                inTag = state.is(DataDrivenTags.MUFFLING_NON_SOLID);
-            } catch (Exception ignored) {}
-        }
-
-        if (!enableDataDriven) {
-            if (inConfig) return true;
-        } else {
-            String priority = SoundAttractConfig.COMMON.datapackPriority.get();
-            boolean datapackOverConfig = "datapack_over_config".equalsIgnoreCase(priority);
-            if (datapackOverConfig) {
-                if (inTag) return true;
-                if (inConfig) return true;
-            } else {
-                if (inConfig) return true;
-                if (inTag) return true;
-            }
-        }
-
-        boolean isNormallySolid;
-        try {
-            isNormallySolid = state.isSolidRender(level, pos);
-        } catch (NullPointerException npe) {
-            SoundAttractMod.LOGGER.warn("NPE in state.isSolidRender() for block {} at {}. Defaulting to solid (meaning not 'non-solid').", ForgeRegistries.BLOCKS.getKey(block), pos, npe);
-            isNormallySolid = true;
-        } catch (Exception e) {
-            SoundAttractMod.LOGGER.error("Error in state.isSolidRender() for block {} at {}. Defaulting to solid.", ForgeRegistries.BLOCKS.getKey(block), pos, e);
-            isNormallySolid = true;
-        }
-        return !isNormallySolid;
-    }
-
-    private static boolean isCustomThin(BlockState state, Block block, Level level, BlockPos pos) {
-        ResourceLocation id = ForgeRegistries.BLOCKS.getKey(block);
-        boolean inConfig = id != null && SoundAttractConfig.CUSTOM_THIN_BLOCKS_CACHE.contains(id);
-
-        boolean enableDataDriven = SoundAttractConfig.COMMON.enableDataDriven.get();
-        boolean inTag = false;
-        if (enableDataDriven) {
-            try {
-                inTag = state.is(DataDrivenTags.MUFFLING_THIN);
-            } catch (Exception ignored) {}
-        }
-
-        if (!enableDataDriven) {
-            if (inConfig) return true;
-        } else {
-            String priority = SoundAttractConfig.COMMON.datapackPriority.get();
-            boolean datapackOverConfig = "datapack_over_config".equalsIgnoreCase(priority);
-            if (datapackOverConfig) {
-                if (inTag) return true;
-                if (inConfig) return true;
-            } else {
-                if (inConfig) return true;
-                if (inTag) return true;
-            }
-        }
-
-        if (id == null) {
-            return false;
-        }
-        String path = id.getPath();
-        return path.contains("pane") || path.contains("iron_bars") || path.contains("painting") || path.contains("fence")
-                || path.contains("trapdoor") || path.contains("door") || path.contains("ladder") || path.contains("scaffolding")
-                || path.contains("rail");
-    }
-
-    private static boolean isCustomLiquid(BlockState state, Block block, Level level, BlockPos pos) {
-        ResourceLocation id = ForgeRegistries.BLOCKS.getKey(block);
-        boolean inConfig = id != null && SoundAttractConfig.CUSTOM_LIQUID_BLOCKS_CACHE.contains(id);
-
-        boolean enableDataDriven = SoundAttractConfig.COMMON.enableDataDriven.get();
-        boolean inTag = false;
-        if (enableDataDriven) {
-            try {
-                inTag = state.is(DataDrivenTags.MUFFLING_LIQUID);
-            } catch (Exception ignored) {}
-        }
-
-        if (!enableDataDriven) {
-            return inConfig;
-        }
 
-        String priority = SoundAttractConfig.COMMON.datapackPriority.get();
-        boolean datapackOverConfig = "datapack_over_config".equalsIgnoreCase(priority);
-        if (datapackOverConfig) {
-            return inTag || inConfig;
-        } else {
-            return inConfig || inTag;
-        }
-    }
 
     public static SoundRecord findNearestSound(Mob mob, Level level, BlockPos mobPos, Vec3 mobEyePos) {
         return findNearestSound(mob, level, mobPos, mobEyePos, null);
     }
 
-    @SuppressWarnings("unused")
     public static SoundRecord findNearestSound(Mob mob, Level level, BlockPos mobPos, Vec3 eyePos, @Nullable String currentTargetSoundId) {
         if (mob == null || level == null || mobPos == null) {
             return null;
         }
-        List<SoundSnapshot> snapshotSounds;
+        SoundScanScratch scratch = SoundScanScratch.get();
+        try {
+            return scanNearestSound(mob, level, mobPos, currentTargetSoundId, scratch);
+        } finally {
+            scratch.releaseReferences();
+        }
+    }
+
+    private static SoundRecord scanNearestSound(Mob mob, Level level, BlockPos mobPos, @Nullable String currentTargetSoundId, SoundScanScratch scratch) {
+        final boolean debug = SoundAttractConfig.COMMON.debugLogging.get();
+        final UUID mobUuid = mob.getUUID();
+        final long now = level.getGameTime();
+        int nearbyCount;
+        int[] nearbyRemaining;
         readLock.lock();
         try {
             try {
-                String asyncBestId = ASYNC_BEST_SOUND_BY_MOB.get(mob.getUUID());
-                Long when = ASYNC_RESULT_GAME_TIME.get(mob.getUUID());
-                long asyncTtl = SoundAttractConfig.COMMON.asyncResultTtlTicks.get();
-
-                if (asyncBestId != null && when != null && (level.getGameTime() - when) <= asyncTtl) {
-                    SoundRecord asyncPick = SOUND_RECORDS_BY_ID.get(asyncBestId);
-                    if (asyncPick != null && asyncPick.pos != null) {
-                        Double asyncRange = ASYNC_BEST_SOUND_RANGE.get(mob.getUUID());
-                        Double asyncWeight = ASYNC_BEST_SOUND_WEIGHT.get(mob.getUUID());
-                        double effectiveRange = asyncRange != null ? asyncRange.doubleValue() : asyncPick.range;
-                        double distanceSq = asyncPick.pos.distSqr(mobPos);
-                        if (distanceSq <= effectiveRange * effectiveRange) {
-                            if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                                SoundAttractMod.LOGGER.info("[findNearest] using async-picked sound {} at {}", asyncBestId, asyncPick.pos);
-                            }
-                            double effectiveWeight = asyncWeight != null ? asyncWeight.doubleValue() : asyncPick.weight;
-                            return new SoundRecord(asyncPick.sound, asyncPick.soundId, asyncPick.pos, asyncPick.ticksRemaining, asyncPick.dimensionKey, effectiveRange, effectiveWeight);
-                        }
-                    }
-                } else if (when != null && (level.getGameTime() - when) > asyncTtl) {
-                    ASYNC_BEST_SOUND_BY_MOB.remove(mob.getUUID());
-                    ASYNC_BEST_SOUND_RANGE.remove(mob.getUUID());
-                    ASYNC_BEST_SOUND_WEIGHT.remove(mob.getUUID());
-                    ASYNC_MUFFLED_BY_MOB.remove(mob.getUUID());
+                SoundRecord asyncPick = readAsyncPick(mob.getId(), mobPos, now, debug);
+                if (asyncPick != null) {
+                    return asyncPick;
                 }
             } catch (Throwable t) {
-                if (SoundAttractConfig.COMMON.debugLogging.get()) {
+                if (debug) {
                     SoundAttractMod.LOGGER.error("[findNearest] reading async result failed, falling back to sync", t);
                 }
             }
 
-            String dimensionKey = level.dimension().location().toString();
-            List<SoundRecord> nearbySounds = getNearbySounds(dimensionKey, mobPos);
-            if (nearbySounds.isEmpty()) {
+            SoundStore store = STORES.get(dimensionKey(level));
+            if (store == null || store.size() == 0) {
+                return null;
+            }
+            store.collectNearby(mobPos, scratch.nearby);
+            nearbyCount = scratch.nearby.size();
+            if (nearbyCount == 0) {
                 return null;
             }
-            snapshotSounds = new ArrayList<>(nearbySounds.size());
-            for (SoundRecord r : nearbySounds) {
-                if (r == null || r.pos == null) continue;
-                snapshotSounds.add(new SoundSnapshot(r.sound, r.soundId, r.pos, r.ticksRemaining, r.dimensionKey, r.range, r.weight));
+            nearbyRemaining = scratch.ensureNearbyRemaining(nearbyCount);
+            for (int i = 0; i < nearbyCount; i++) {
+                nearbyRemaining[i] = remainingTicks(scratch.nearby.get(i));
             }
         } finally {
             readLock.unlock();
         }
 
         drainAsyncSoundScores(level);
-        if (snapshotSounds.isEmpty()) {
-            return null;
-        }
         com.example.soundattract.config.MobProfile profile = SoundAttractConfig.getMatchingProfile(mob);
-        SoundSnapshot bestSound = null;
-        double highestWeight = -1.0;
-        double closestDistSqr = Double.MAX_VALUE;
-        double bestSoundEffectiveRange = 0;
-        double bestSoundEffectiveWeight = 0;
-        double noveltyBonusValue = SoundAttractConfig.COMMON.soundNoveltyBonusWeight.get();
-        int noveltyTicks = SoundAttractConfig.COMMON.soundNoveltyTimeTicks.get();
-        int maxLifetime = SoundAttractConfig.COMMON.soundLifetimeTicks.get();
-
-        List<SoundCandidate> asyncCandidates = new ArrayList<>(Math.min(snapshotSounds.size(), 64));
-        Map<String, SoundSnapshot> candidateRecordById = new HashMap<>(Math.min(snapshotSounds.size(), 128));
-
-        SoundSnapshot[] shortlist = new SoundSnapshot[MAX_SYNC_CANDIDATES];
-        double[] shortlistRange = new double[MAX_SYNC_CANDIDATES];
-        double[] shortlistWeight = new double[MAX_SYNC_CANDIDATES];
-        double[] shortlistNovelty = new double[MAX_SYNC_CANDIDATES];
-        double[] shortlistScore = new double[MAX_SYNC_CANDIDATES];
-        double[] shortlistDistSqr = new double[MAX_SYNC_CANDIDATES];
-        int shortlistCount = 0;
-
-        for (SoundSnapshot r : snapshotSounds) {
-            String soundIdStr = r.soundId;
-            ResourceLocation rl = extractBaseSoundLocation(soundIdStr);
-            String integrationMeta = extractIntegrationMetadata(soundIdStr);
-            if (!SoundAttractConfig.SOUND_ID_WHITELIST_CACHE.isEmpty() && (rl == null || !SoundAttractConfig.SOUND_ID_WHITELIST_CACHE.contains(rl))) {
+        BakedSettings settings = BakedSettings.get();
+        double noveltyBonusValue = settings.soundNoveltyBonusWeight;
+        int noveltyTicks = settings.soundNoveltyTimeTicks;
+        int maxLifetime = settings.soundLifetimeTicks;
+        java.util.Set<ResourceLocation> whitelist = settings.soundIdWhitelist;
+        boolean filterByWhitelist = !whitelist.isEmpty();
+
+        for (int i = 0; i < nearbyCount; i++) {
+            SoundRecord r = scratch.nearby.get(i);
+            SoundKey key = r.key;
+            if (key == null || r.pos == null) continue;
+            ResourceLocation rl = key.baseLocation;
+            if (filterByWhitelist && (rl == null || !whitelist.contains(rl))) {
                 continue;
             }
-            if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                SoundAttractMod.LOGGER.info("[findNearest] considering {} (meta={})", rl, integrationMeta);
+            if (debug) {
+                SoundAttractMod.LOGGER.info("[findNearest] considering {} (meta={})", rl, key.metadata);
             }
             double effectiveInitialRange = r.range;
             double effectiveInitialWeight = r.weight;
-            if (profile != null && soundIdStr != null) {
-                Optional<SoundOverride> ov = profile.getSoundOverride(rl);
-                if (ov.isPresent()) {
-                    effectiveInitialRange = ov.get().getRange();
-                    effectiveInitialWeight = ov.get().getWeight();
+            if (profile != null) {
+                SoundOverride ov = profile.findSoundOverride(rl);
+                if (ov != null) {
+                    effectiveInitialRange = ov.getRange();
+                    effectiveInitialWeight = ov.getWeight();
                 }
             }
-            if (SoundAttractConfig.COMMON.debugLogging.get()) {
+            if (debug) {
                 SoundAttractMod.LOGGER.info(
                     "[findNearest] initial {}: range={}, weight={}",
                     rl, effectiveInitialRange, effectiveInitialWeight
@@ -883,262 +736,364 @@ public class SoundTracker {
             }
 
             double distSqr = mobPos.distSqr(r.pos);
-            double rangeSqrQuick = effectiveInitialRange * effectiveInitialRange;
-            if (distSqr > rangeSqrQuick) {
+            if (distSqr > effectiveInitialRange * effectiveInitialRange) {
                 continue;
             }
 
-            double noveltyBonus = 0.0;
-            if (r.ticksRemaining > (maxLifetime - noveltyTicks)) {
-                noveltyBonus = noveltyBonusValue;
-            }
-            double approxScore = effectiveInitialWeight + noveltyBonus;
-
-            if (shortlistCount < MAX_SYNC_CANDIDATES) {
-                shortlist[shortlistCount] = r;
-                shortlistRange[shortlistCount] = effectiveInitialRange;
-                shortlistWeight[shortlistCount] = effectiveInitialWeight;
-                shortlistNovelty[shortlistCount] = noveltyBonus;
-                shortlistScore[shortlistCount] = approxScore;
-                shortlistDistSqr[shortlistCount] = distSqr;
-                shortlistCount++;
+            int ticksLeft = nearbyRemaining[i];
+            double noveltyBonus = ticksLeft > (maxLifetime - noveltyTicks) ? noveltyBonusValue : 0.0;
+            int c = scratch.addCandidate(r, ticksLeft, effectiveInitialRange, effectiveInitialWeight, noveltyBonus, distSqr);
+            offerToShortlist(scratch, c);
+
+            int slot = scratch.uniqueByKey.getInt(key);
+            if (slot < 0) {
+                scratch.uniqueByKey.put(key, scratch.uniqueCount);
+                scratch.addUnique(c);
             } else {
-                int worstIdx = 0;
-                double worstScore = shortlistScore[0];
-                double worstDist = shortlistDistSqr[0];
-                for (int i = 1; i < shortlistCount; i++) {
-                    double sc = shortlistScore[i];
-                    if (sc < worstScore || (Math.abs(sc - worstScore) < 0.001 && shortlistDistSqr[i] > worstDist)) {
-                        worstIdx = i;
-                        worstScore = sc;
-                        worstDist = shortlistDistSqr[i];
-                    }
+                int prev = scratch.unique[slot];
+                boolean better = scratch.weight[c] > scratch.weight[prev];
+                if (!better && Math.abs(scratch.weight[c] - scratch.weight[prev]) < 1e-6) {
+                    better = scratch.distSqr[c] < scratch.distSqr[prev];
                 }
-                if (approxScore > worstScore || (Math.abs(approxScore - worstScore) < 0.001 && distSqr < worstDist)) {
-                    shortlist[worstIdx] = r;
-                    shortlistRange[worstIdx] = effectiveInitialRange;
-                    shortlistWeight[worstIdx] = effectiveInitialWeight;
-                    shortlistNovelty[worstIdx] = noveltyBonus;
-                    shortlistScore[worstIdx] = approxScore;
-                    shortlistDistSqr[worstIdx] = distSqr;
+                if (better) {
+                    scratch.unique[slot] = c;
                 }
             }
+        }
 
-            if (soundIdStr != null) {
-                long ageTicks = Math.max(0L, maxLifetime - r.ticksRemaining);
-                long occurredAt = Math.max(0L, level.getGameTime() - ageTicks);
-                SoundCandidate cand = new SoundCandidate(
-                    soundIdStr,
-                    r.pos.getX() + 0.5, r.pos.getY() + 0.5, r.pos.getZ() + 0.5,
-                    occurredAt,
-                    effectiveInitialRange,
-                    effectiveInitialWeight,
-                    1.0
-                );
-                asyncCandidates.add(cand);
-                SoundSnapshot newRec = new SoundSnapshot(r.sound, r.soundId, r.pos, r.ticksRemaining, r.dimensionKey, effectiveInitialRange, effectiveInitialWeight);
-                SoundSnapshot prev = candidateRecordById.get(soundIdStr);
-                if (prev == null) {
-                    candidateRecordById.put(soundIdStr, newRec);
-                } else {
-                    boolean better = newRec.weight > prev.weight;
-                    if (!better && Math.abs(newRec.weight - prev.weight) < 1e-6) {
-                        double newDistSq = newRec.pos.distSqr(mobPos);
-                        double prevDistSq = prev.pos.distSqr(mobPos);
-                        better = newDistSq < prevDistSq;
-                    }
-                    if (better) {
-                        candidateRecordById.put(soundIdStr, newRec);
-                    }
-                }
-            }
+        if (scratch.count == 0) {
+            return null;
         }
 
-            final int MAX_ASYNC_CANDIDATES = 64;
-            java.util.List<SoundSnapshot> asyncFiltered = new java.util.ArrayList<>();
-            if (!candidateRecordById.isEmpty()) {
-                java.util.List<SoundSnapshot> uniques = new java.util.ArrayList<>(candidateRecordById.values());
-                uniques.sort((a, b) -> {
-                    double aNovelty = (a.ticksRemaining > (maxLifetime - noveltyTicks)) ? noveltyBonusValue : 0.0;
-                    double bNovelty = (b.ticksRemaining > (maxLifetime - noveltyTicks)) ? noveltyBonusValue : 0.0;
-                    double aScore = a.weight + aNovelty;
-                    double bScore = b.weight + bNovelty;
-                    int cmp = Double.compare(bScore, aScore);
-                    if (cmp != 0) return cmp;
-                    double aDist = mobPos.distSqr(a.pos);
-                    double bDist = mobPos.distSqr(b.pos);
-                    return Double.compare(aDist, bDist);
-                });
-                long now = level.getGameTime();
-                int limit = Math.min(MAX_ASYNC_CANDIDATES, uniques.size());
-                for (int i = 0; i < limit; i++) {
-                    SoundSnapshot rec = uniques.get(i);
-                    asyncFiltered.add(rec);
+        int asyncLimit = Math.min(SoundScanScratch.MAX_ASYNC_CANDIDATES, scratch.uniqueCount);
+        int[] unique = scratch.unique;
+        for (int i = 0; i < asyncLimit; i++) {
+            int best = i;
+            for (int j = i + 1; j < scratch.uniqueCount; j++) {
+                if (ranksBefore(scratch, unique[j], unique[best])) {
+                    best = j;
                 }
             }
-
-            Map<String, MuffledResult> muffledBySoundId = new HashMap<>();
-            Map<String, Long> muffledPosBySoundId = new HashMap<>();
-            java.util.List<SoundCandidate> asyncScoringCandidates = new java.util.ArrayList<>(asyncFiltered.size());
-            if (!asyncFiltered.isEmpty()) {
-                long now = level.getGameTime();
-                for (SoundSnapshot rec : asyncFiltered) {
-                    String soundIdStr = rec.soundId;
-                    double[] muffled = applyBlockMuffling(level, rec.pos, mobPos, rec.range, rec.weight,
-                        soundIdStr != null ? soundIdStr : "unknown");
-                    double muffledRange = muffled[0];
-                    double muffledWeight = muffled[1];
-                    if (soundIdStr != null) {
-                        muffledBySoundId.put(soundIdStr, new MuffledResult(muffledRange, muffledWeight));
-                        muffledPosBySoundId.put(soundIdStr, rec.pos.asLong());
-                    }
-                    long ageTicks = Math.max(0L, maxLifetime - rec.ticksRemaining);
-                    long occurredAt = Math.max(0L, now - ageTicks);
-                    asyncScoringCandidates.add(new SoundCandidate(
-                        soundIdStr,
-                        rec.pos.getX() + 0.5, rec.pos.getY() + 0.5, rec.pos.getZ() + 0.5,
-                        occurredAt,
-                        muffledRange,
-                        muffledWeight,
-                        1.0
-                    ));
-                }
+            int tmp = unique[i];
+            unique[i] = unique[best];
+            unique[best] = tmp;
+        }
+        boolean offThreadMuffling = MufflingEngine.enabled();
+        int pendingMuffling = 0;
+        for (int i = 0; i < asyncLimit; i++) {
+            int c = unique[i];
+            SoundRecord rec = scratch.rec[c];
+            if (!offThreadMuffling) {
+                applyBlockMuffling(level, rec.pos, mobPos, scratch.range[c], scratch.weight[c], rec.soundId, scratch.muffleOut);
+            } else if (!peekBlockMuffling(level, rec.pos, mobPos, scratch.range[c], scratch.weight[c], rec.soundId, scratch.muffleOut)) {
+                scratch.muffleOut[0] = Double.NaN;
+                scratch.muffleOut[1] = Double.NaN;
+                pendingMuffling++;
             }
-
-            int[] order = new int[shortlistCount];
-            for (int i = 0; i < shortlistCount; i++) order[i] = i;
-            for (int i = 0; i < shortlistCount - 1; i++) {
-                int best = i;
-                for (int j = i + 1; j < shortlistCount; j++) {
-                    double bestScore = shortlistScore[order[best]];
-                    double candidateScore = shortlistScore[order[j]];
-                    if (candidateScore > bestScore) {
+            scratch.muffledRange[i] = scratch.muffleOut[0];
+            scratch.muffledWeight[i] = scratch.muffleOut[1];
+            scratch.muffledSlot[c] = i;
+        }
+        scratch.asyncCount = asyncLimit;
+
+        int[] order = scratch.shortlist;
+        int shortlistCount = scratch.shortlistCount;
+        for (int i = 0; i < shortlistCount - 1; i++) {
+            int best = i;
+            for (int j = i + 1; j < shortlistCount; j++) {
+                double bestScore = scratch.score[order[best]];
+                double candidateScore = scratch.score[order[j]];
+                if (candidateScore > bestScore) {
+                    best = j;
+                } else if (Math.abs(candidateScore - bestScore) < 0.001) {
+                    if (scratch.distSqr[order[j]] < scratch.distSqr[order[best]]) {
                         best = j;
-                    } else if (Math.abs(candidateScore - bestScore) < 0.001) {
-                        double bestDist = shortlistDistSqr[order[best]];
-                        double candidateDist = shortlistDistSqr[order[j]];
-                        if (candidateDist < bestDist) {
-                            best = j;
-                        }
                     }
                 }
-                int tmp = order[i];
-                order[i] = order[best];
-                order[best] = tmp;
             }
+            int tmp = order[i];
+            order[i] = order[best];
+            order[best] = tmp;
+        }
 
-            for (int i = 0; i < shortlistCount; i++) {
-                int idx = order[i];
-                SoundSnapshot r = shortlist[idx];
-                double initialRange = shortlistRange[idx];
-                double initialWeight = shortlistWeight[idx];
-                double noveltyBonus = shortlistNovelty[idx];
-
-                if (highestWeight >= 0 && (initialWeight + noveltyBonus) <= (highestWeight - 1e-6)) {
-                    continue;
-                }
+        int bestIdx = -1;
+        double highestWeight = -1.0;
+        double closestDistSqr = Double.MAX_VALUE;
+        double bestSoundEffectiveRange = 0;
+        double bestSoundEffectiveWeight = 0;
+        for (int i = 0; i < shortlistCount; i++) {
+            int c = order[i];
+            double noveltyBonus = scratch.novelty[c];
+            if (highestWeight >= 0 && scratch.score[c] <= (highestWeight - 1e-6)) {
+                continue;
+            }
 
-                String soundIdStr = r.soundId;
-                double muffledRange;
-                double muffledWeight;
-                MuffledResult cachedMuffled = soundIdStr != null ? muffledBySoundId.get(soundIdStr) : null;
-                Long cachedPos = soundIdStr != null ? muffledPosBySoundId.get(soundIdStr) : null;
-                if (cachedMuffled != null && cachedPos != null && cachedPos.longValue() == r.pos.asLong()) {
-                    muffledRange = cachedMuffled.range();
-                    muffledWeight = cachedMuffled.weight();
-                } else {
-                    double[] muffled = applyBlockMuffling(level, r.pos, mobPos, initialRange, initialWeight, soundIdStr != null ? soundIdStr : "unknown");
-                    muffledRange = muffled[0];
-                    muffledWeight = muffled[1];
-                }
-                double distSqr = mobPos.distSqr(r.pos);
-                double rangeSqr = muffledRange * muffledRange;
-                if (distSqr > rangeSqr) {
+            double muffledRange;
+            double muffledWeight;
+            int muffledSlot = scratch.muffledSlot[c];
+            if (muffledSlot >= 0) {
+                muffledRange = scratch.muffledRange[muffledSlot];
+                muffledWeight = scratch.muffledWeight[muffledSlot];
+                if (Double.isNaN(muffledRange)) {
                     continue;
                 }
-                double finalComparisonWeight = muffledWeight + noveltyBonus;
-                if (finalComparisonWeight > highestWeight || (Math.abs(finalComparisonWeight - highestWeight) < 0.001 && distSqr < closestDistSqr)) {
-                    highestWeight = finalComparisonWeight;
-                    closestDistSqr = distSqr;
-                    bestSound = r;
-                    bestSoundEffectiveRange = muffledRange;
-                    bestSoundEffectiveWeight = finalComparisonWeight;
-                }
+            } else {
+                SoundRecord r = scratch.rec[c];
+                applyBlockMuffling(level, r.pos, mobPos, scratch.range[c], scratch.weight[c], r.soundId, scratch.muffleOut);
+                muffledRange = scratch.muffleOut[0];
+                muffledWeight = scratch.muffleOut[1];
             }
-
-            java.util.List<SoundCandidate> toSubmit = !asyncScoringCandidates.isEmpty() ? asyncScoringCandidates : asyncCandidates;
-            int candidateHash = 1;
-            for (SoundCandidate c : toSubmit) {
-                int h = 17;
-                h = 31 * h + (c.soundId == null ? 0 : c.soundId.hashCode());
-                h = 31 * h + (int) Math.round(c.x * 10);
-                h = 31 * h + (int) Math.round(c.z * 10);
-                h = 31 * h + (int) Math.round(c.range * 100);
-                h = 31 * h + (int) Math.round(c.weight * 100);
-                candidateHash = 31 * candidateHash + h;
+            double distSqr = scratch.distSqr[c];
+            if (distSqr > muffledRange * muffledRange) {
+                continue;
             }
-            if (currentTargetSoundId != null) {
-                candidateHash = 31 * candidateHash + currentTargetSoundId.hashCode();
+            double finalComparisonWeight = muffledWeight + noveltyBonus;
+            if (finalComparisonWeight > highestWeight || (Math.abs(finalComparisonWeight - highestWeight) < 0.001 && distSqr < closestDistSqr)) {
+                highestWeight = finalComparisonWeight;
+                closestDistSqr = distSqr;
+                bestIdx = c;
+                bestSoundEffectiveRange = muffledRange;
+                bestSoundEffectiveWeight = finalComparisonWeight;
             }
+        }
 
-            try {
-                if (!asyncCandidates.isEmpty()) {
-                    long now = level.getGameTime();
-                    Long lastSubmit = LAST_SUBMIT_GAME_TIME.get(mob.getUUID());
-                    Integer lastHash = LAST_CANDIDATE_HASH.get(mob.getUUID());
-                    Long lastAsyncWhen = ASYNC_RESULT_GAME_TIME.get(mob.getUUID());
-                    long asyncTtl = SoundAttractConfig.COMMON.asyncResultTtlTicks.get();
-                    long submitCooldown = SoundAttractConfig.COMMON.soundScoringSubmitCooldownTicks.get();
-                    boolean hasFreshAsync = lastAsyncWhen != null && (now - lastAsyncWhen) <= asyncTtl;
-                    boolean withinCooldown = lastSubmit != null && (now - lastSubmit) < submitCooldown;
-                    boolean unchanged = lastHash != null && lastHash.intValue() == candidateHash;
-                    if (withinCooldown && hasFreshAsync && unchanged) {
-                        if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                            SoundAttractMod.LOGGER.debug("[findNearest] skip submit for {} due to cooldown; last={} now={} hashUnchanged",
-                                    mob.getUUID(), lastSubmit, now);
-                        }
-                    } else {
-                    double switchRatio = SoundAttractConfig.COMMON.soundSwitchRatio.get();
-                    List<SoundScoreRequest> batch = java.util.Collections.singletonList(
-                        new SoundScoreRequest(
-                            mob.getUUID(),
-                            mobPos.getX() + 0.5, mobPos.getY() + 0.5, mobPos.getZ() + 0.5,
-                            level.getGameTime(),
-                            currentTargetSoundId,
-                            toSubmit,
-                            switchRatio,
-                            noveltyBonusValue,
-                            noveltyTicks
-                        )
-                    );
-                    if (!muffledBySoundId.isEmpty()) {
-                        ASYNC_MUFFLED_BY_MOB.put(mob.getUUID(), muffledBySoundId);
-                    } else {
-                        ASYNC_MUFFLED_BY_MOB.remove(mob.getUUID());
-                    }
-                    WorkSchedulerManager.get().submitSoundScore(batch);
-                        LAST_SUBMIT_GAME_TIME.put(mob.getUUID(), now);
-                        LAST_CANDIDATE_HASH.put(mob.getUUID(), candidateHash);
-                    }
-                }
-            } catch (Throwable t) {
-                if (SoundAttractConfig.COMMON.debugLogging.get()) {
-                    SoundAttractMod.LOGGER.error("[findNearest] submitSoundScore failed", t);
-                }
+        try {
+            ScoringPipeline.Slot slot = ScoringPipeline.slotFor(mob.getId(), trackerTick);
+            if (pendingMuffling > 0) {
+                submitMufflingThenScore(level, mobUuid, slot, mobPos, now, currentTargetSoundId, scratch, maxLifetime, noveltyBonusValue, noveltyTicks, debug);
+            } else {
+                maybeSubmitAsyncScore(mobUuid, slot, mobPos, now, currentTargetSoundId, scratch, maxLifetime, noveltyBonusValue, noveltyTicks, debug);
             }
-
-        if (bestSound != null) {
-            if (bestSound.pos == null) {
-                return null;
+        } catch (Throwable t) {
+            if (debug) {
+                SoundAttractMod.LOGGER.error("[findNearest] submitSoundScore failed", t);
             }
-            if (SoundAttractConfig.COMMON.debugLogging.get()) {
+        }
+
+        if (bestIdx >= 0) {
+            SoundRecord bestSound = scratch.rec[bestIdx];
+            if (debug) {
                 SoundAttractMod.LOGGER.info(
                     "[findNearest] final pick {} at {} with range={} weight={}",
                     bestSound.soundId, bestSound.pos, bestSoundEffectiveRange, bestSoundEffectiveWeight
                 );
             }
-            return new SoundRecord(bestSound.sound, bestSound.soundId, bestSound.pos, bestSound.ticksRemaining, bestSound.dimensionKey, bestSoundEffectiveRange, bestSoundEffectiveWeight);
+            return resultView(bestSound, scratch.remaining[bestIdx], bestSoundEffectiveRange, bestSoundEffectiveWeight);
         }
         return null;
     }
+
+    @Nullable
+    private static SoundRecord readAsyncPick(int mobId, BlockPos mobPos, long now, boolean debug) {
+        ScoringPipeline.Slot slot = ScoringPipeline.peek(mobId);
+        if (slot == null || slot.bestId == null) {
+            return null;
+        }
+        // Scans share the read lock, so an expired result is skipped here and left for the next accept to replace.
+        if (now - slot.resultAt > BakedSettings.get().asyncResultTtlTicks) {
+            return null;
+        }
+        SoundRecord asyncPick = SOUND_RECORDS_BY_ID.get(slot.bestId);
+        if (asyncPick != null && asyncPick.pos != null) {
+            double effectiveRange = Double.isNaN(slot.bestRange) ? asyncPick.range : slot.bestRange;
+            double distanceSq = asyncPick.pos.distSqr(mobPos);
+            if (distanceSq <= effectiveRange * effectiveRange) {
+                if (debug) {
+                    SoundAttractMod.LOGGER.info("[findNearest] using async-picked sound {} at {}", slot.bestId, asyncPick.pos);
+                }
+                double effectiveWeight = Double.isNaN(slot.bestWeight) ? asyncPick.weight : slot.bestWeight;
+                return resultView(asyncPick, remainingTicks(asyncPick), effectiveRange, effectiveWeight);
+            }
+        }
+        return null;
+    }
+
+    private static void offerToShortlist(SoundScanScratch scratch, int c) {
+        int[] shortlist = scratch.shortlist;
+        if (scratch.shortlistCount < SoundScanScratch.SHORTLIST_SIZE) {
+            shortlist[scratch.shortlistCount++] = c;
+            return;
+        }
+        int worstIdx = 0;
+        double worstScore = scratch.score[shortlist[0]];
+        double worstDist = scratch.distSqr[shortlist[0]];
+        for (int i = 1; i < scratch.shortlistCount; i++) {
+            double sc = scratch.score[shortlist[i]];
+            if (sc < worstScore || (Math.abs(sc - worstScore) < 0.001 && scratch.distSqr[shortlist[i]] > worstDist)) {
+                worstIdx = i;
+                worstScore = sc;
+                worstDist = scratch.distSqr[shortlist[i]];
+            }
+        }
+        double approxScore = scratch.score[c];
+        if (approxScore > worstScore || (Math.abs(approxScore - worstScore) < 0.001 && scratch.distSqr[c] < worstDist)) {
+            shortlist[worstIdx] = c;
+        }
+    }
+
+    private static boolean ranksBefore(SoundScanScratch scratch, int a, int b) {
+        int cmp = Double.compare(scratch.score[a], scratch.score[b]);
+        if (cmp != 0) {
+            return cmp > 0;
+        }
+        return scratch.distSqr[a] < scratch.distSqr[b];
+    }
+
+    private static void maybeSubmitAsyncScore(UUID mobUuid, ScoringPipeline.Slot slot, BlockPos mobPos, long now, @Nullable String currentTargetSoundId,
+                                              SoundScanScratch scratch, int maxLifetime, double noveltyBonusValue, int noveltyTicks, boolean debug) {
+        int asyncCount = scratch.asyncCount;
+        int candidateHash = 1;
+        for (int i = 0; i < asyncCount; i++) {
+            SoundRecord rec = scratch.rec[scratch.unique[i]];
+            int h = 17;
+            h = 31 * h + rec.soundId.hashCode();
+            h = 31 * h + (int) Math.round((rec.pos.getX() + 0.5) * 10);
+            h = 31 * h + (int) Math.round((rec.pos.getZ() + 0.5) * 10);
+            h = 31 * h + (int) Math.round(scratch.muffledRange[i] * 100);
+            h = 31 * h + (int) Math.round(scratch.muffledWeight[i] * 100);
+            candidateHash = 31 * candidateHash + h;
+        }
+        if (currentTargetSoundId != null) {
+            candidateHash = 31 * candidateHash + currentTargetSoundId.hashCode();
+        }
+
+        BakedSettings settings = BakedSettings.get();
+        long asyncTtl = settings.asyncResultTtlTicks;
+        long submitCooldown = settings.soundScoringSubmitCooldownTicks;
+        boolean hasFreshAsync = slot.resultAt != Long.MIN_VALUE && (now - slot.resultAt) <= asyncTtl;
+        boolean withinCooldown = slot.lastSubmitAt != Long.MIN_VALUE && (now - slot.lastSubmitAt) < submitCooldown;
+        boolean unchanged = slot.hasCandidateHash && slot.candidateHash == candidateHash;
+        if (withinCooldown && hasFreshAsync && unchanged) {
+            if (debug) {
+                SoundAttractMod.LOGGER.debug("[findNearest] skip submit for {} due to cooldown; last={} now={} hashUnchanged",
+                        mobUuid, slot.lastSubmitAt, now);
+            }
+            return;
+        }
+
+        String[] soundIds = new String[asyncCount];
+        double[] ranges = new double[asyncCount];
+        double[] weights = new double[asyncCount];
+        long[] occurredAt = new long[asyncCount];
+        BlockPos[] positions = new BlockPos[asyncCount];
+        for (int i = 0; i < asyncCount; i++) {
+            int c = scratch.unique[i];
+            SoundRecord rec = scratch.rec[c];
+            soundIds[i] = rec.soundId;
+            positions[i] = rec.pos;
+            occurredAt[i] = Math.max(0L, now - Math.max(0L, maxLifetime - scratch.remaining[c]));
+            ranges[i] = scratch.muffledRange[i];
+            weights[i] = scratch.muffledWeight[i];
+        }
+        if (submitScore(mobUuid, slot, mobPos, now, currentTargetSoundId, soundIds, positions, occurredAt, ranges, weights,
+                settings.soundSwitchRatio, noveltyBonusValue, noveltyTicks)) {
+            slot.lastSubmitAt = now;
+            slot.candidateHash = candidateHash;
+            slot.hasCandidateHash = true;
+        }
+    }
+
+    /**
+     * Publishes the candidates on the slot under a new version and queues the
+     * scoring request. Safe to call from the pool.
+     *
+     * @return {@code false} if the pipeline refused the request
+     */
+    private static boolean submitScore(UUID mobUuid, ScoringPipeline.Slot slot, BlockPos mobPos, long now, @Nullable String currentTargetSoundId,
+                                       String[] soundIds, BlockPos[] positions, long[] occurredAt, double[] ranges, double[] weights,
+                                       double switchRatio, double noveltyBonusValue, int noveltyTicks) {
+        List<SoundCandidate> candidates = new ArrayList<>(soundIds.length);
+        for (int i = 0; i < soundIds.length; i++) {
+            BlockPos p = positions[i];
+            candidates.add(new SoundCandidate(soundIds[i], p.getX() + 0.5, p.getY() + 0.5, p.getZ() + 0.5,
+                occurredAt[i], ranges[i], weights[i], 1.0));
+        }
+        long version = slot.nextVersion();
+        slot.submission = new ScoringPipeline.Submission(version, soundIds, ranges, weights);
+        return ScoringPipeline.offer(new SoundScoreRequest(
+            mobUuid,
+            slot.mobId,
+            version,
+            mobPos.getX() + 0.5, mobPos.getY() + 0.5, mobPos.getZ() + 0.5,
+            now,
+            currentTargetSoundId,
+            candidates,
+            switchRatio,
+            noveltyBonusValue,
+            noveltyTicks
+        ));
+    }
+
+    /**
+     * Variant of {@link #maybeSubmitAsyncScore} for scans where some candidates
+     * had no cached muffling. Those rays are traced by {@link MufflingEngine};
+     * once they land the results are cached and the scoring request is
+     * queued from the pool thread. Until then the scan treats those
+     * candidates as not yet heard. One trace per mob is in flight at a time.
+     */
+    private static void submitMufflingThenScore(Level level, UUID mobUuid, ScoringPipeline.Slot slot, BlockPos mobPos, long now, @Nullable String currentTargetSoundId,
+                                                SoundScanScratch scratch, int maxLifetime, double noveltyBonusValue, int noveltyTicks, boolean debug) {
+        if (!slot.tracing.compareAndSet(false, true)) {
+            return;
+        }
+        int asyncCount = scratch.asyncCount;
+        BlockPos dst = mobPos.immutable();
+        String dimensionKey = dimensionKey(level);
+        String[] soundIds = new String[asyncCount];
+        BlockPos[] positions = new BlockPos[asyncCount];
+        long[] occurredAt = new long[asyncCount];
+        double[] ranges = new double[asyncCount];
+        double[] weights = new double[asyncCount];
+        List<MufflingEngine.Ray> rays = new ArrayList<>();
+        int[] traced = new int[asyncCount];
+        for (int i = 0; i < asyncCount; i++) {
+            int c = scratch.unique[i];
+            SoundRecord rec = scratch.rec[c];
+            soundIds[i] = rec.soundId;
+            positions[i] = rec.pos;
+            occurredAt[i] = Math.max(0L, now - Math.max(0L, maxLifetime - scratch.remaining[c]));
+            if (Double.isNaN(scratch.muffledRange[i])) {
+                traced[rays.size()] = i;
+                rays.add(new MufflingEngine.Ray(rec.pos, dst, scratch.range[c], scratch.weight[c]));
+            } else {
+                ranges[i] = scratch.muffledRange[i];
+                weights[i] = scratch.muffledWeight[i];
+            }
+        }
+        double switchRatio = BakedSettings.get().soundSwitchRatio;
+
+        MufflingEngine.trace(level, rays).whenComplete((results, error) -> {
+            try {
+                if (results == null) {
+                    if (error != null && debug) {
+                        SoundAttractMod.LOGGER.error("[findNearest] muffling trace failed", error);
+                    }
+                    return;
+                }
+                for (int r = 0; r < results.length; r++) {
+                    int i = traced[r];
+                    ranges[i] = results[r][0];
+                    weights[i] = results[r][1];
+                    storeBlockMuffling(raycastKey(positions[i], dst, soundIds[i], dimensionKey), results[r], now);
+                }
+                submitScore(mobUuid, slot, dst, now, currentTargetSoundId, soundIds, positions, occurredAt, ranges, weights,
+                    switchRatio, noveltyBonusValue, noveltyTicks);
+            } finally {
+                slot.tracing.set(false);
+            }
+        });
+        slot.lastSubmitAt = now;
+    }
+
+    /**
+     * Callers hold on to the returned record, so it cannot be scratch memory.
+     * A fresh copy is built on every call: it carries the ticks left at the
+     * time of the scan, and scans only hold the read lock, so nothing may be
+     * cached on the shared record here.
+     */
+    private static SoundRecord resultView(SoundRecord src, int ticksLeft, double range, double weight) {
+        SoundRecord view = new SoundRecord(src.sound, src.soundId, src.pos, ticksLeft, src.dimensionKey, range, weight);
+        view.key = src.key;
+        return view;
+    }
 }
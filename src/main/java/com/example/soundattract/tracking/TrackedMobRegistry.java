@@ -0,0 +1,220 @@
+package com.example.soundattract.tracking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import com.example.soundattract.SoundAttractMod;
+import com.example.soundattract.config.BakedSettings;
+import com.example.soundattract.config.SoundAttractConfig;
+import com.example.soundattract.event.SoundAttractionEvents;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Every mob loaded in each server dimension, kept from join and leave
+ * events so the per-tick passes can walk a packed array instead of asking
+ * the world for the entities around each player.
+ *
+ * Each mob carries cached flags: {@link #ATTRACTED_TYPE} when its type is in
+ * the attracted entities list and {@link #HAS_PROFILE} when a mob profile
+ * matches it. Flags are recomputed for every mob when the baked settings or
+ * the attracted type list change, and per mob every
+ * {@code -Dsoundattract.registry.flag_recheck_ticks} (default 100) ticks,
+ * since a profile's NBT matcher can start or stop matching a loaded mob.
+ *
+ * Removal swaps the last mob into the freed slot. Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = SoundAttractMod.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class TrackedMobRegistry {
+
+    public static final int ATTRACTED_TYPE = 1;
+    public static final int HAS_PROFILE = 2;
+    public static final int ATTRACTED = ATTRACTED_TYPE | HAS_PROFILE;
+
+    private static final long FLAG_RECHECK_TICKS = Long.getLong("soundattract.registry.flag_recheck_ticks", 100L);
+
+    private static final Map<ResourceKey<Level>, Dimension> DIMENSIONS = new ConcurrentHashMap<>();
+
+    private static final class Dimension {
+        Mob[] mobs = new Mob[64];
+        byte[] flags = new byte[64];
+        long[] flagsAt = new long[64];
+        int size;
+        final Int2IntOpenHashMap slotById = new Int2IntOpenHashMap();
+        BakedSettings flagsFor;
+        Set<EntityType<?>> typesFor;
+
+        Dimension() {
+            slotById.defaultReturnValue(-1);
+        }
+
+        void add(Mob mob) {
+            int slot = slotById.get(mob.getId());
+            if (slot < 0) {
+                if (size == mobs.length) {
+                    int grown = size * 2;
+                    mobs = Arrays.copyOf(mobs, grown);
+                    flags = Arrays.copyOf(flags, grown);
+                    flagsAt = Arrays.copyOf(flagsAt, grown);
+                }
+                slot = size++;
+                slotById.put(mob.getId(), slot);
+            }
+            mobs[slot] = mob;
+            flagsAt[slot] = Long.MIN_VALUE;
+        }
+
+        void remove(Mob mob) {
+            int slot = slotById.get(mob.getId());
+            if (slot < 0 || mobs[slot] != mob) {
+                return;
+            }
+            slotById.remove(mob.getId());
+            int last = --size;
+            if (slot != last) {
+                mobs[slot] = mobs[last];
+                flags[slot] = flags[last];
+                flagsAt[slot] = flagsAt[last];
+                slotById.put(mobs[slot].getId(), slot);
+            }
+            mobs[last] = null;
+        }
+
+        /**
+         * Invalidates every cached flag if the settings they were computed
+         * from have been replaced.
+         */
+        void checkSettings() {
+            BakedSettings settings = BakedSettings.get();
+            Set<EntityType<?>> types = SoundAttractionEvents.getCachedAttractedEntityTypes();
+            if (settings != flagsFor || types != typesFor) {
+                flagsFor = settings;
+                typesFor = types;
+                Arrays.fill(flagsAt, 0, size, Long.MIN_VALUE);
+            }
+        }
+
+        int flagsOf(int slot, long now) {
+            if (flagsAt[slot] == Long.MIN_VALUE || now - flagsAt[slot] >= FLAG_RECHECK_TICKS) {
+                Mob mob = mobs[slot];
+                int f = 0;
+                if (typesFor != null && typesFor.contains(mob.getType())) f |= ATTRACTED_TYPE;
+                if (SoundAttractConfig.getMatchingProfile(mob) != null) f |= HAS_PROFILE;
+                flags[slot] = (byte) f;
+                flagsAt[slot] = now;
+            }
+            return flags[slot];
+        }
+    }
+
+    private TrackedMobRegistry() {
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onEntityJoin(EntityJoinLevelEvent event) {
+        if (event.isCanceled() || event.getLevel().isClientSide() || !(event.getEntity() instanceof Mob mob)) {
+            return;
+        }
+        DIMENSIONS.computeIfAbsent(event.getLevel().dimension(), k -> new Dimension()).add(mob);
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeave(EntityLeaveLevelEvent event) {
+        if (event.getLevel().isClientSide() || !(event.getEntity() instanceof Mob mob)) {
+            return;
+        }
+        Dimension dim = DIMENSIONS.get(event.getLevel().dimension());
+        if (dim != null) {
+            dim.remove(mob);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        DIMENSIONS.clear();
+    }
+
+    /**
+     * Calls {@code action} for every living mob in {@code level} whose flags
+     * share a bit with {@code mask}, or for every living mob when
+     * {@code mask} is zero.
+     */
+    public static void forEach(ServerLevel level, int mask, Consumer<Mob> action) {
+        Dimension dim = DIMENSIONS.get(level.dimension());
+        if (dim == null) {
+            return;
+        }
+        long now = level.getGameTime();
+        if (mask != 0) {
+            dim.checkSettings();
+        }
+        for (int i = 0; i < dim.size; i++) {
+            Mob mob = dim.mobs[i];
+            if (!mob.isAlive() || mob.isRemoved()) continue;
+            if (mask != 0 && (dim.flagsOf(i, now) & mask) == 0) continue;
+            action.accept(mob);
+        }
+    }
+
+    /**
+     * Calls {@code action} for every living mob matching {@code mask} (as in
+     * {@link #forEach}) whose bounding box touches a player's bounding box
+     * inflated by {@code radius} blocks, the area the old per-player entity
+     * queries covered. Each mob is visited once however many players are
+     * near it.
+     */
+    public static void forEachNearPlayers(ServerLevel level, double radius, int mask, Consumer<Mob> action) {
+        List<ServerPlayer> players = level.players();
+        if (players.isEmpty()) {
+            return;
+        }
+        AABB[] areas = new AABB[players.size()];
+        for (int p = 0; p < areas.length; p++) {
+            areas[p] = players.get(p).getBoundingBox().inflate(radius);
+        }
+        forEach(level, mask, mob -> {
+            AABB box = mob.getBoundingBox();
+            for (AABB area : areas) {
+                if (area.intersects(box)) {
+                    action.accept(mob);
+                    return;
+                }
+            }
+        });
+    }
+
+    public static List<Mob> collectNearPlayers(ServerLevel level, double radius, int mask) {
+        List<Mob> out = new ArrayList<>();
+        forEachNearPlayers(level, radius, mask, out::add);
+        return out;
+    }
+
+    public static int countNearPlayers(ServerLevel level, double radius, int mask) {
+        int[] count = new int[1];
+        forEachNearPlayers(level, radius, mask, mob -> count[0]++);
+        return count[0];
+    }
+
+    public static int size(ServerLevel level) {
+        Dimension dim = DIMENSIONS.get(level.dimension());
+        return dim == null ? 0 : dim.size;
+    }
+}
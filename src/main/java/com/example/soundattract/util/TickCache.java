@@ -0,0 +1,220 @@
+package com.example.soundattract.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+/**
+ * Bounded cache keyed by primitive longs with game-tick expiry.
+ *
+ * Entries live in a fixed number of independently locked segments. Each
+ * segment evicts with CLOCK (second chance): a hit sets the entry's reference
+ * bit, and when a segment is full the hand clears set bits until it finds an
+ * unreferenced or expired entry. Eviction costs O(1) amortised and never
+ * scans the whole cache. Fresh entries start unreferenced, so one-off lookups
+ * are the first to go.
+ *
+ * Keys are 64-bit hashes of the caller's fields (see {@link #key}), so two
+ * different lookups can collide with negligible probability.
+ */
+public final class TickCache<V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final String name;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public TickCache(String name) {
+        this.name = name;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    public static long key(long a, long b) {
+        return HashCommon.mix(HashCommon.mix(a) + b);
+    }
+
+    public static long key(long a, int hi, int lo) {
+        return key(a, ((long) hi << 32) | (lo & 0xFFFFFFFFL));
+    }
+
+    /**
+     * @return the cached value, or {@code null} if absent or older than {@code ttlTicks}
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(long key, long now, long ttlTicks) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            int slot = segment.index.get(key);
+            if (slot < 0) {
+                misses.increment();
+                return null;
+            }
+            if (now - segment.stamps[slot] > ttlTicks) {
+                segment.remove(slot);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            segment.referenced[slot] = true;
+            hits.increment();
+            return (V) segment.values[slot];
+        }
+    }
+
+    /**
+     * Inserts or refreshes {@code key}. {@code maxEntries} is the bound for
+     * the whole cache; changing it between calls resizes (and empties) the
+     * segments lazily.
+     */
+    public void put(long key, V value, long now, long ttlTicks, int maxEntries) {
+        Segment segment = segmentFor(key);
+        int capacity = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        synchronized (segment) {
+            if (segment.capacity != capacity) {
+                segment.reset(capacity);
+            }
+            int slot = segment.index.get(key);
+            if (slot >= 0) {
+                segment.values[slot] = value;
+                segment.stamps[slot] = now;
+                segment.referenced[slot] = true;
+                return;
+            }
+            if (segment.size >= segment.capacity) {
+                slot = segment.evictOne(now, ttlTicks);
+                if (segment.victimExpired) {
+                    expirations.increment();
+                } else {
+                    evictions.increment();
+                }
+            } else {
+                slot = segment.size++;
+            }
+            segment.keys[slot] = key;
+            segment.values[slot] = value;
+            segment.stamps[slot] = now;
+            segment.referenced[slot] = false;
+            segment.index.put(key, slot);
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.reset(segment.capacity);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long expirations() {
+        return expirations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return name + "{size=" + size() + ", hits=" + hits() + ", misses=" + misses()
+            + ", evictions=" + evictions() + ", expirations=" + expirations() + "}";
+    }
+
+    private Segment segmentFor(long key) {
+        return segments[(int) (key ^ (key >>> 32)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment {
+        final Long2IntOpenHashMap index = new Long2IntOpenHashMap();
+        int capacity;
+        int size;
+        int hand;
+        boolean victimExpired;
+        long[] keys = new long[0];
+        Object[] values = new Object[0];
+        long[] stamps = new long[0];
+        boolean[] referenced = new boolean[0];
+
+        Segment() {
+            index.defaultReturnValue(-1);
+        }
+
+        void reset(int newCapacity) {
+            index.clear();
+            size = 0;
+            hand = 0;
+            if (newCapacity != capacity) {
+                capacity = newCapacity;
+                keys = new long[newCapacity];
+                values = new Object[newCapacity];
+                stamps = new long[newCapacity];
+                referenced = new boolean[newCapacity];
+            } else {
+                java.util.Arrays.fill(values, null);
+            }
+        }
+
+        /**
+         * Moves the hand to the next victim, drops it from the index and
+         * returns its slot for the caller to overwrite in place. The hand
+         * ends up past the victim, so the new entry is the last to be swept.
+         * {@link #victimExpired} records whether the victim had expired.
+         */
+        int evictOne(long now, long ttlTicks) {
+            while (true) {
+                if (hand >= size) {
+                    hand = 0;
+                }
+                int slot = hand++;
+                boolean expired = now - stamps[slot] > ttlTicks;
+                if (expired || !referenced[slot]) {
+                    index.remove(keys[slot]);
+                    victimExpired = expired;
+                    return slot;
+                }
+                referenced[slot] = false;
+            }
+        }
+
+        void remove(int slot) {
+            index.remove(keys[slot]);
+            int last = --size;
+            if (slot != last) {
+                keys[slot] = keys[last];
+                values[slot] = values[last];
+                stamps[slot] = stamps[last];
+                referenced[slot] = referenced[last];
+                index.put(keys[slot], slot);
+            }
+            values[last] = null;
+        }
+    }
+}
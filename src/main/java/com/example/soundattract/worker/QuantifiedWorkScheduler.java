@@ -3,6 +3,7 @@ package com.example.soundattract.worker;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
@@ -15,7 +16,7 @@ import net.minecraft.resources.ResourceLocation;
 
 public final class QuantifiedWorkScheduler implements SoundAttractWorkScheduler {
     private final BlockingQueue<WorkerScheduler.GroupComputeResult> groupResults = new LinkedBlockingQueue<>();
-    private final BlockingQueue<WorkerScheduler.SoundScoreResult> soundResults = new LinkedBlockingQueue<>();
+    private final BlockingQueue<WorkerScheduler.SoundScoreResult> soundResults = new ArrayBlockingQueue<>(WorkerScheduler.SOUND_RESULT_CAPACITY);
 
     private final LocalWorkScheduler fallback = new LocalWorkScheduler();
 
@@ -1,6 +1,7 @@
 package com.example.soundattract.worker;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -10,11 +11,24 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
 import net.minecraft.resources.ResourceLocation;
 
 public final class WorkerComputations {
     private WorkerComputations() {}
 
+    /**
+     * Leaders are picked greedily by descending health with a minimum spacing,
+     * every other mob joins the nearest non-full leader within the group
+     * radius (earlier leader wins ties), and each group's edge mobs are the
+     * farthest members per angular sector around the leader.
+     *
+     * Neighbour queries go through uniform grids over the XZ plane, so the
+     * cost is roughly linear in the number of mobs at constant density.
+     */
     public static WorkerScheduler.GroupComputeResult computeGroups(List<WorkerScheduler.MobSnapshot> mobs, WorkerScheduler.ConfigSnapshot cfg, long deadlineMs, ResourceLocation dimension) {
         if (mobs == null || mobs.isEmpty()) return null;
         List<WorkerScheduler.MobSnapshot> candidates = new ArrayList<>();
@@ -25,8 +39,14 @@ public final class WorkerComputations {
 
         candidates.sort(Comparator.comparingDouble(WorkerScheduler.MobSnapshot::health).reversed());
 
-        List<WorkerScheduler.MobSnapshot> leaders = new ArrayList<>();
-        Map<UUID, UUID> mobToLeader = new HashMap<>();
+        int n = candidates.size();
+        double[] xs = new double[n];
+        double[] zs = new double[n];
+        for (int i = 0; i < n; i++) {
+            WorkerScheduler.MobSnapshot m = candidates.get(i);
+            xs[i] = m.x();
+            zs[i] = m.z();
+        }
 
         double groupRadius = cfg.leaderGroupRadius();
         double leaderSpacing = groupRadius * cfg.leaderSpacingMultiplier();
@@ -35,121 +55,205 @@ public final class WorkerComputations {
         int sectors = cfg.numEdgeSectors();
         int perSector = cfg.edgeMobsPerSector();
 
-        for (WorkerScheduler.MobSnapshot p : candidates) {
+        IntArrayList leaders = new IntArrayList();
+        double spacing2 = leaderSpacing * leaderSpacing;
+        CellGrid spacingGrid = CellGrid.create(Math.abs(leaderSpacing));
+        for (int i = 0; i < n; i++) {
             if (leaders.size() >= maxLeaders) break;
-            boolean tooClose = false;
-            for (WorkerScheduler.MobSnapshot l : leaders) {
-                double dx = p.x() - l.x();
-                double dz = p.z() - l.z();
-                double dist2 = dx * dx + dz * dz;
-                if (dist2 < (leaderSpacing * leaderSpacing)) {
-                    tooClose = true;
-                    break;
-                }
-            }
-            if (!tooClose) {
-                leaders.add(p);
+            if (!hasLeaderWithin(spacingGrid, leaders, xs, zs, i, spacing2)) {
+                if (spacingGrid != null) spacingGrid.add(xs[i], zs[i], leaders.size());
+                leaders.add(i);
             }
             if (System.currentTimeMillis() > deadlineMs) break;
         }
         if (leaders.isEmpty()) {
-            leaders.add(candidates.get(0));
+            leaders.add(0);
         }
 
-        Map<UUID, List<UUID>> leaderToGroup = new HashMap<>();
-        for (WorkerScheduler.MobSnapshot l : leaders) {
-            leaderToGroup.put(l.uuid(), new ArrayList<>(Collections.singletonList(l.uuid())));
+        int leaderCount = leaders.size();
+        int[] leaderSlot = new int[n];
+        Arrays.fill(leaderSlot, -1);
+        IntArrayList[] members = new IntArrayList[leaderCount];
+        CellGrid radiusGrid = CellGrid.create(groupRadius);
+        for (int k = 0; k < leaderCount; k++) {
+            int l = leaders.getInt(k);
+            leaderSlot[l] = k;
+            members[k] = new IntArrayList();
+            members[k].add(l);
+            if (radiusGrid != null) radiusGrid.add(xs[l], zs[l], k);
         }
 
-        Set<UUID> assigned = new HashSet<>();
-        for (WorkerScheduler.MobSnapshot m : candidates) {
-            if (leaders.contains(m)) {
-                assigned.add(m.uuid());
-                mobToLeader.put(m.uuid(), m.uuid());
+        Map<UUID, UUID> mobToLeader = new HashMap<>();
+        int[] assignedTo = new int[n];
+        Arrays.fill(assignedTo, -1);
+        double[] distToLeader = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (leaderSlot[i] >= 0) {
+                assignedTo[i] = leaderSlot[i];
+                mobToLeader.put(candidates.get(i).uuid(), candidates.get(i).uuid());
                 continue;
             }
-            WorkerScheduler.MobSnapshot bestLeader = null;
+            int best = -1;
             double bestDist = Double.MAX_VALUE;
-            for (WorkerScheduler.MobSnapshot l : leaders) {
-                List<UUID> group = leaderToGroup.get(l.uuid());
-                if (group.size() >= maxGroupSize) continue;
-                double dx = m.x() - l.x();
-                double dz = m.z() - l.z();
-                double dist = Math.hypot(dx, dz);
-                if (dist <= groupRadius && dist < bestDist) {
-                    bestDist = dist;
-                    bestLeader = l;
+            if (radiusGrid != null) {
+                long cx = radiusGrid.cell(xs[i]);
+                long cz = radiusGrid.cell(zs[i]);
+                for (long gx = cx - 1; gx <= cx + 1; gx++) {
+                    for (long gz = cz - 1; gz <= cz + 1; gz++) {
+                        IntArrayList cell = radiusGrid.get(gx, gz);
+                        if (cell == null) continue;
+                        for (int c = 0, size = cell.size(); c < size; c++) {
+                            int k = cell.getInt(c);
+                            if (members[k].size() >= maxGroupSize) continue;
+                            int l = leaders.getInt(k);
+                            double dist = Math.hypot(xs[i] - xs[l], zs[i] - zs[l]);
+                            if (dist <= groupRadius && (dist < bestDist || (dist == bestDist && k < best))) {
+                                bestDist = dist;
+                                best = k;
+                            }
+                        }
+                    }
+                }
+            } else {
+                for (int k = 0; k < leaderCount; k++) {
+                    if (members[k].size() >= maxGroupSize) continue;
+                    int l = leaders.getInt(k);
+                    double dist = Math.hypot(xs[i] - xs[l], zs[i] - zs[l]);
+                    if (dist <= groupRadius && dist < bestDist) {
+                        bestDist = dist;
+                        best = k;
+                    }
                 }
             }
-            if (bestLeader != null) {
-                leaderToGroup.get(bestLeader.uuid()).add(m.uuid());
-                mobToLeader.put(m.uuid(), bestLeader.uuid());
-                assigned.add(m.uuid());
+            if (best >= 0) {
+                members[best].add(i);
+                assignedTo[i] = best;
+                distToLeader[i] = bestDist;
+                mobToLeader.put(candidates.get(i).uuid(), candidates.get(leaders.getInt(best)).uuid());
             }
             if (System.currentTimeMillis() > deadlineMs) break;
         }
 
         Map<UUID, Set<UUID>> edgeByLeader = new HashMap<>();
-        for (WorkerScheduler.MobSnapshot leader : leaders) {
-            List<UUID> group = leaderToGroup.getOrDefault(leader.uuid(), Collections.emptyList());
-            Map<Integer, List<UUID>> sectorLists = new HashMap<>();
-            for (UUID memberId : group) {
-                if (memberId.equals(leader.uuid())) continue;
-                WorkerScheduler.MobSnapshot m = find(mobs, memberId);
-                if (m == null) continue;
-                double dx = m.x() - leader.x();
-                double dz = m.z() - leader.z();
-                double angle = Math.atan2(dz, dx);
-                int sector = (int) Math.floor(((angle + Math.PI) / (2 * Math.PI)) * sectors) % sectors;
-                sectorLists.computeIfAbsent(sector, k -> new ArrayList<>()).add(memberId);
+        int[] sectorOf = new int[n];
+        for (int k = 0; k < leaderCount; k++) {
+            int l = leaders.getInt(k);
+            IntArrayList group = members[k];
+            int[] order = new int[group.size() - 1];
+            for (int g = 1; g < group.size(); g++) {
+                int i = group.getInt(g);
+                double angle = Math.atan2(zs[i] - zs[l], xs[i] - xs[l]);
+                sectorOf[i] = (int) Math.floor(((angle + Math.PI) / (2 * Math.PI)) * sectors) % sectors;
+                order[g - 1] = i;
             }
+            IntArrays.mergeSort(order, (a, b) -> {
+                if (sectorOf[a] != sectorOf[b]) return Integer.compare(sectorOf[a], sectorOf[b]);
+                return Double.compare(distToLeader[b], distToLeader[a]);
+            });
             Set<UUID> edge = new HashSet<>();
-            for (Map.Entry<Integer, List<UUID>> e : sectorLists.entrySet()) {
-                List<UUID> ids = e.getValue();
-                ids.sort((a, b) -> {
-                    WorkerScheduler.MobSnapshot ma = find(mobs, a);
-                    WorkerScheduler.MobSnapshot mb = find(mobs, b);
-                    double da = (ma == null) ? 0 : distance(ma, leader);
-                    double db = (mb == null) ? 0 : distance(mb, leader);
-                    return Double.compare(db, da);
-                });
-                int count = Math.min(perSector, ids.size());
-                for (int i = 0; i < count; i++) edge.add(ids.get(i));
+            int taken = 0;
+            for (int o = 0; o < order.length; o++) {
+                if (o > 0 && sectorOf[order[o]] != sectorOf[order[o - 1]]) taken = 0;
+                if (taken < perSector) {
+                    edge.add(candidates.get(order[o]).uuid());
+                    taken++;
+                }
             }
             if (edge.isEmpty() && group.size() > 1) {
-                UUID far = null;
+                int far = -1;
                 double best = -1;
-                for (UUID id : group) {
-                    if (id.equals(leader.uuid())) continue;
-                    WorkerScheduler.MobSnapshot m = find(mobs, id);
-                    if (m == null) continue;
-                    double d = distance(m, leader);
-                    if (d > best) {
-                        best = d;
-                        far = id;
+                for (int g = 1; g < group.size(); g++) {
+                    int i = group.getInt(g);
+                    if (distToLeader[i] > best) {
+                        best = distToLeader[i];
+                        far = i;
                     }
                 }
-                if (far != null) edge.add(far);
+                if (far >= 0) edge.add(candidates.get(far).uuid());
             }
-            edgeByLeader.put(leader.uuid(), edge);
+            edgeByLeader.put(candidates.get(l).uuid(), edge);
             if (System.currentTimeMillis() > deadlineMs) break;
         }
 
         Set<UUID> deserters = new HashSet<>();
-        for (WorkerScheduler.MobSnapshot m : candidates) {
-            if (!assigned.contains(m.uuid())) deserters.add(m.uuid());
+        for (int i = 0; i < n; i++) {
+            if (assignedTo[i] < 0) deserters.add(candidates.get(i).uuid());
         }
 
         return new WorkerScheduler.GroupComputeResult(dimension, mobToLeader, edgeByLeader, deserters);
     }
 
+    private static boolean hasLeaderWithin(CellGrid grid, IntArrayList leaders, double[] xs, double[] zs, int i, double spacing2) {
+        if (grid == null) {
+            for (int k = 0, size = leaders.size(); k < size; k++) {
+                int l = leaders.getInt(k);
+                double dx = xs[i] - xs[l];
+                double dz = zs[i] - zs[l];
+                if (dx * dx + dz * dz < spacing2) return true;
+            }
+            return false;
+        }
+        long cx = grid.cell(xs[i]);
+        long cz = grid.cell(zs[i]);
+        for (long gx = cx - 1; gx <= cx + 1; gx++) {
+            for (long gz = cz - 1; gz <= cz + 1; gz++) {
+                IntArrayList cell = grid.get(gx, gz);
+                if (cell == null) continue;
+                for (int c = 0, size = cell.size(); c < size; c++) {
+                    int l = leaders.getInt(cell.getInt(c));
+                    double dx = xs[i] - xs[l];
+                    double dz = zs[i] - zs[l];
+                    if (dx * dx + dz * dz < spacing2) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Buckets of leader slots keyed by XZ cell. Cells are a hair wider than
+     * the query radius so that anything within it is at most one cell away
+     * despite rounding.
+     */
+    private static final class CellGrid {
+        private final double cellSize;
+        private final Long2ObjectOpenHashMap<IntArrayList> cells = new Long2ObjectOpenHashMap<>();
+
+        private CellGrid(double cellSize) {
+            this.cellSize = cellSize;
+        }
+
+        static CellGrid create(double radius) {
+            if (!(radius > 0.0) || Double.isInfinite(radius)) return null;
+            return new CellGrid(radius * (1.0 + 1e-9));
+        }
+
+        long cell(double v) {
+            return (long) Math.floor(v / cellSize);
+        }
+
+        void add(double x, double z, int slot) {
+            cells.computeIfAbsent(key(cell(x), cell(z)), k -> new IntArrayList()).add(slot);
+        }
+
+        IntArrayList get(long cx, long cz) {
+            return cells.get(key(cx, cz));
+        }
+
+        private static long key(long cx, long cz) {
+            return (cx << 32) ^ (cz & 0xFFFFFFFFL);
+        }
+    }
+
     public static List<WorkerScheduler.SoundScoreResult> computeSoundScores(List<WorkerScheduler.SoundScoreRequest> batch, long deadlineMs) {
         if (batch == null || batch.isEmpty()) return Collections.emptyList();
         List<WorkerScheduler.SoundScoreResult> out = new ArrayList<>(batch.size());
         for (WorkerScheduler.SoundScoreRequest req : batch) {
             if (System.currentTimeMillis() > deadlineMs) break;
             if (req == null || req.candidates == null || req.candidates.isEmpty()) {
-                out.add(new WorkerScheduler.SoundScoreResult(req == null ? null : req.mobUuid, null, 0.0));
+                out.add(req == null
+                    ? new WorkerScheduler.SoundScoreResult(null, null, 0.0)
+                    : new WorkerScheduler.SoundScoreResult(req.mobUuid, req.mobId, req.version, null, 0.0));
                 continue;
             }
 
@@ -186,7 +290,7 @@ public final class WorkerComputations {
                 }
             }
 
-            out.add(new WorkerScheduler.SoundScoreResult(req.mobUuid, bestId, bestScore == Double.NEGATIVE_INFINITY ? 0.0 : bestScore));
+            out.add(new WorkerScheduler.SoundScoreResult(req.mobUuid, req.mobId, req.version, bestId, bestScore == Double.NEGATIVE_INFINITY ? 0.0 : bestScore));
         }
         return out;
     }
@@ -205,15 +309,4 @@ public final class WorkerComputations {
         }
         return score;
     }
-
-    private static double distance(WorkerScheduler.MobSnapshot a, WorkerScheduler.MobSnapshot b) {
-        double dx = a.x() - b.x();
-        double dz = a.z() - b.z();
-        return Math.hypot(dx, dz);
-    }
-
-    private static WorkerScheduler.MobSnapshot find(List<WorkerScheduler.MobSnapshot> list, UUID id) {
-        for (WorkerScheduler.MobSnapshot m : list) if (m.uuid().equals(id)) return m;
-        return null;
-    }
 }
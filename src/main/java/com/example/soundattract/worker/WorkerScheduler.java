@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
@@ -19,7 +20,13 @@ import net.minecraft.resources.ResourceLocation;
 
 public final class WorkerScheduler {
     private static final BlockingQueue<GroupComputeResult> GROUP_RESULTS = new LinkedBlockingQueue<>();
-    private static final BlockingQueue<SoundScoreResult> SOUND_RESULTS = new LinkedBlockingQueue<>();
+    /**
+     * Finished scores waiting for the server thread. Bounded so that a stalled
+     * consumer cannot grow it without limit; scores that do not fit are
+     * dropped and the mob simply asks again.
+     */
+    public static final int SOUND_RESULT_CAPACITY = 8192;
+    private static final BlockingQueue<SoundScoreResult> SOUND_RESULTS = new ArrayBlockingQueue<>(SOUND_RESULT_CAPACITY);
 
     private WorkerScheduler() {}
 
@@ -107,6 +114,8 @@ public final class WorkerScheduler {
 
     public static final class SoundScoreRequest {
         public final UUID mobUuid;
+        public final int mobId;
+        public final long version;
         public final double mobX, mobY, mobZ;
         public final long gameTime;
         public final String currentTargetSoundId; 
@@ -119,7 +128,16 @@ public final class WorkerScheduler {
                                  long gameTime, String currentTargetSoundId,
                                  List<SoundCandidate> candidates,
                                  double switchRatio, double noveltyBonus, int noveltyTicks) {
+            this(mobUuid, -1, 0L, mobX, mobY, mobZ, gameTime, currentTargetSoundId, candidates, switchRatio, noveltyBonus, noveltyTicks);
+        }
+
+        public SoundScoreRequest(UUID mobUuid, int mobId, long version, double mobX, double mobY, double mobZ,
+                                 long gameTime, String currentTargetSoundId,
+                                 List<SoundCandidate> candidates,
+                                 double switchRatio, double noveltyBonus, int noveltyTicks) {
             this.mobUuid = mobUuid;
+            this.mobId = mobId;
+            this.version = version;
             this.mobX = mobX; this.mobY = mobY; this.mobZ = mobZ;
             this.gameTime = gameTime;
             this.currentTargetSoundId = currentTargetSoundId;
@@ -149,5 +167,9 @@ public final class WorkerScheduler {
         }
     }
 
-    public record SoundScoreResult(UUID mobUuid, String soundId, double score) {}
+    public record SoundScoreResult(UUID mobUuid, int mobId, long version, String soundId, double score) {
+        public SoundScoreResult(UUID mobUuid, String soundId, double score) {
+            this(mobUuid, -1, 0L, soundId, score);
+        }
+    }
 }